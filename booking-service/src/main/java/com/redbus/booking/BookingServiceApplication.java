@@ -1,10 +1,15 @@
 package com.redbus.booking;
 
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
 
 @SpringBootApplication(scanBasePackages = {"com.redbus.booking", "com.redbus.common"})
 @EnableScheduling
@@ -15,7 +20,15 @@ public class BookingServiceApplication {
     }
     
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public NewTopic bookingConfirmationsTopic(@Value("${booking.events.topic:booking-confirmations}") String topic,
+                                              @Value("${booking.events.partitions:3}") int partitions,
+                                              @Value("${booking.events.replicas:1}") int replicas,
+                                              @Value("${booking.events.retention-days:14}") long retentionDays) {
+        // Consumers rebuild their aggregates by replaying the retained window
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .replicas(replicas)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(Duration.ofDays(retentionDays).toMillis()))
+                .build();
     }
 }
@@ -0,0 +1,67 @@
+package com.redbus.booking.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.redbus.booking.client.JourneyServiceClient;
+import com.redbus.booking.dto.JourneyDetailsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bounded, short-lived cache of journey details fetched from journey-service.
+ *
+ * Entries expire after a fixed TTL and the least recently used ones are evicted once the
+ * size bound is reached. Journey changes evict the affected entry through {@link #invalidate(UUID)}.
+ */
+@Component
+@Slf4j
+public class JourneyDetailsCache {
+
+    private final JourneyServiceClient journeyServiceClient;
+    private final Cache<UUID, JourneyDetailsDto> cache;
+
+    public JourneyDetailsCache(JourneyServiceClient journeyServiceClient,
+                               @Value("${journey.details-cache.max-size:10000}") long maxSize,
+                               @Value("${journey.details-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.journeyServiceClient = journeyServiceClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Get journey details, calling journey-service only on a miss
+     */
+    public JourneyDetailsDto get(UUID journeyReferenceId) {
+        return cache.get(journeyReferenceId, journeyServiceClient::getJourneyDetails);
+    }
+
+    /**
+     * Get details for many journeys, fetching all misses with one bulk lookup
+     */
+    public Map<UUID, JourneyDetailsDto> getAll(Collection<UUID> journeyReferenceIds) {
+        return cache.getAll(journeyReferenceIds, this::loadAll);
+    }
+
+    public void invalidate(UUID journeyReferenceId) {
+        log.debug("Evicting cached journey details: {}", journeyReferenceId);
+        cache.invalidate(journeyReferenceId);
+    }
+
+    private Map<UUID, JourneyDetailsDto> loadAll(Set<? extends UUID> journeyReferenceIds) {
+        Map<UUID, JourneyDetailsDto> loaded = new HashMap<>();
+        journeyServiceClient.getJourneyDetails(new ArrayList<>(journeyReferenceIds))
+                .forEach(journey -> loaded.put(journey.getReferenceId(), journey));
+        return loaded;
+    }
+}
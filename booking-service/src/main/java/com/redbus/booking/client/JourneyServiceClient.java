@@ -3,6 +3,8 @@ package com.redbus.booking.client;
 import com.redbus.booking.dto.JourneyDetailsDto;
 import com.redbus.booking.dto.SeatInventoryDto;
 import com.redbus.common.dto.ApiResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,10 +12,18 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -25,6 +35,24 @@ public class JourneyServiceClient {
     @Value("${journey.service.url:http://localhost:8083}")
     private String journeyServiceUrl;
     
+    @Value("${journey.service.bulk-chunk-size:100}")
+    private int bulkChunkSize;
+    
+    @Value("${journey.service.bulk-parallelism:4}")
+    private int bulkParallelism;
+    
+    private ExecutorService fanOutExecutor;
+    
+    @PostConstruct
+    void startFanOutExecutor() {
+        fanOutExecutor = Executors.newFixedThreadPool(bulkParallelism);
+    }
+    
+    @PreDestroy
+    void stopFanOutExecutor() {
+        fanOutExecutor.shutdownNow();
+    }
+    
     public JourneyDetailsDto getJourneyDetails(UUID journeyReferenceId) {
         log.info("Fetching journey details: {}", journeyReferenceId);
         
@@ -44,6 +72,37 @@ public class JourneyServiceClient {
         throw new RuntimeException("Failed to fetch journey details");
     }
     
+    /**
+     * Fetch details for many journeys. Large ID lists are split into chunks that are
+     * requested concurrently, so latency stays close to a single round trip.
+     */
+    public List<JourneyDetailsDto> getJourneyDetails(Collection<UUID> journeyReferenceIds) {
+        log.info("Fetching details for {} journeys", journeyReferenceIds.size());
+        
+        List<UUID> ids = new ArrayList<>(journeyReferenceIds);
+        if (ids.size() <= bulkChunkSize) {
+            return fetchJourneyDetailsChunk(ids);
+        }
+        
+        List<CompletableFuture<List<JourneyDetailsDto>>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + bulkChunkSize, ids.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> fetchJourneyDetailsChunk(chunk), fanOutExecutor));
+        }
+        
+        try {
+            return chunks.stream()
+                    .map(CompletableFuture::join)
+                    .flatMap(List::stream)
+                    .collect(Collectors.toList());
+        } catch (CompletionException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            throw e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException
+                    : new RuntimeException("Failed to fetch journey details", e.getCause());
+        }
+    }
+    
     public List<SeatInventoryDto> lockSeatsForBooking(UUID journeyReferenceId, List<UUID> seatInventoryIds) {
         log.info("Locking seats for journey: {} with seats: {}", journeyReferenceId, seatInventoryIds);
         
@@ -103,7 +162,12 @@ public class JourneyServiceClient {
     public List<SeatInventoryDto> getSeatInventory(UUID journeyReferenceId, List<UUID> seatInventoryIds) {
         log.info("Getting seat inventory for journey: {}", journeyReferenceId);
         
-        String url = journeyServiceUrl + "/api/v1/journeys/" + journeyReferenceId + "/seats";
+        // Only the requested seats are fetched, in one set-based lookup on the journey side
+        String url = UriComponentsBuilder.fromUriString(journeyServiceUrl)
+                .path("/api/v1/journeys/{journeyReferenceId}/seats")
+                .queryParam("seatInventoryIds", seatInventoryIds.toArray())
+                .buildAndExpand(journeyReferenceId)
+                .toUriString();
         
         ResponseEntity<ApiResponse<List<SeatInventoryDto>>> response = restTemplate.exchange(
                 url,
@@ -113,12 +177,32 @@ public class JourneyServiceClient {
         );
         
         if (response.getBody() != null && response.getBody().isSuccess()) {
-            List<SeatInventoryDto> allSeats = response.getBody().getData();
-            return allSeats.stream()
-                    .filter(seat -> seatInventoryIds.contains(seat.getReferenceId()))
-                    .toList();
+            return response.getBody().getData();
         }
         
         throw new RuntimeException("Failed to get seat inventory");
     }
+    
+    private List<JourneyDetailsDto> fetchJourneyDetailsChunk(List<UUID> journeyReferenceIds) {
+        String url = journeyServiceUrl + "/api/v1/journeys/bulk";
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        
+        Map<String, Object> request = Map.of("journeyReferenceIds", journeyReferenceIds);
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
+        
+        ResponseEntity<ApiResponse<List<JourneyDetailsDto>>> response = restTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                entity,
+                new ParameterizedTypeReference<ApiResponse<List<JourneyDetailsDto>>>() {}
+        );
+        
+        if (response.getBody() != null && response.getBody().isSuccess()) {
+            return response.getBody().getData();
+        }
+        
+        throw new RuntimeException("Failed to fetch journey details");
+    }
 }
@@ -6,6 +6,7 @@ import com.redbus.booking.dto.PaymentCallbackDto;
 import com.redbus.booking.enums.BookingStatus;
 import com.redbus.booking.service.BookingService;
 import com.redbus.common.dto.ApiResponse;
+import com.redbus.common.idempotency.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,15 +25,19 @@ import java.util.UUID;
 public class BookingController {
     
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
     
     @PostMapping("/initiate")
     public ResponseEntity<ApiResponse<BookingResponseDto>> initiateBooking(
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody BookingRequestDto requestDto) {
         log.info("Initiating booking for journey: {}", requestDto.getJourneyReferenceId());
-        BookingResponseDto booking = bookingService.initiateBooking(requestDto);
-        return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(ApiResponse.success(booking, "Booking initiated successfully"));
+        return idempotencyService.execute("bookings:initiate", idempotencyKey, requestDto, () -> {
+            BookingResponseDto booking = bookingService.initiateBooking(requestDto);
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(ApiResponse.success(booking, "Booking initiated successfully"));
+        });
     }
     
     @PostMapping("/{referenceId}/confirm")
@@ -0,0 +1,29 @@
+package com.redbus.booking.controller;
+
+import com.redbus.booking.cache.JourneyDetailsCache;
+import com.redbus.common.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/bookings/journey-cache")
+@RequiredArgsConstructor
+@Slf4j
+public class JourneyCacheController {
+    
+    private final JourneyDetailsCache journeyDetailsCache;
+    
+    /**
+     * Hook for journey update events: drop the cached details so the next read refetches them
+     */
+    @PostMapping("/{journeyReferenceId}/invalidate")
+    public ResponseEntity<ApiResponse<Void>> invalidateJourney(@PathVariable UUID journeyReferenceId) {
+        log.info("Invalidating cached journey details: {}", journeyReferenceId);
+        journeyDetailsCache.invalidate(journeyReferenceId);
+        return ResponseEntity.ok(ApiResponse.success(null, "Journey details invalidated"));
+    }
+}
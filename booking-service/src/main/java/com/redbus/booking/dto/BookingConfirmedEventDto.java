@@ -0,0 +1,24 @@
+package com.redbus.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingConfirmedEventDto {
+    private UUID bookingReferenceId;
+    private UUID journeyReferenceId;
+    private String sourceCity;
+    private String destinationCity;
+    private LocalDate travelDate;
+    private Integer seats;
+    private LocalDateTime confirmedAt;
+}
@@ -0,0 +1,73 @@
+package com.redbus.booking.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redbus.booking.dto.BookingConfirmedEventDto;
+import com.redbus.booking.dto.JourneyDetailsDto;
+import com.redbus.booking.entity.Booking;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Announces confirmed bookings for analytics consumers such as search-service's popular routes.
+ *
+ * Events are sent after the confirming transaction commits and are best effort: a failed send is
+ * logged and dropped, since losing one booking from a popularity score is harmless.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingEventPublisher {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${booking.events.topic:booking-confirmations}")
+    private String topic;
+
+    public void publishConfirmed(Booking booking, JourneyDetailsDto journey) {
+        BookingConfirmedEventDto event = BookingConfirmedEventDto.builder()
+                .bookingReferenceId(booking.getReferenceId())
+                .journeyReferenceId(journey.getReferenceId())
+                .sourceCity(journey.getSourceCity())
+                .destinationCity(journey.getDestinationCity())
+                .travelDate(journey.getDepartureTime() != null ? journey.getDepartureTime().toLocalDate() : null)
+                .seats(booking.getTotalSeats())
+                .confirmedAt(LocalDateTime.now())
+                .build();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                send(event);
+            }
+        });
+    }
+
+    private void send(BookingConfirmedEventDto event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize booking event for {}", event.getBookingReferenceId(), e);
+            return;
+        }
+        kafkaTemplate.send(topic, event.getJourneyReferenceId().toString(), payload)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        log.warn("Failed to publish booking event for {}", event.getBookingReferenceId(), error);
+                    }
+                });
+    }
+}
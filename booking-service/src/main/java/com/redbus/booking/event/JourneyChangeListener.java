@@ -0,0 +1,48 @@
+package com.redbus.booking.event;
+
+import com.redbus.booking.cache.JourneyDetailsCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Evicts cached journey details when journey-service reports a change to the journey.
+ *
+ * Events are keyed by journey reference ID, so only the key is read. Every instance holds its own
+ * cache and so needs every event: partitions are assigned to each instance directly instead of
+ * through the consumer group, and each one is read from its end, since a restarted instance starts
+ * with an empty cache. No group membership is created per instance or per restart.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JourneyChangeListener {
+
+    private final JourneyDetailsCache journeyDetailsCache;
+
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "${journey.events.topic:journey-changes}",
+            partitions = "${journey.events.assigned-partitions:0-5}",
+            partitionOffsets = @PartitionOffset(partition = "*", initialOffset = "0", seekPosition = "END")),
+            batch = "true")
+    public void onJourneyChanges(List<ConsumerRecord<String, String>> records) {
+        records.stream()
+                .map(ConsumerRecord::key)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(key -> {
+                    try {
+                        journeyDetailsCache.invalidate(UUID.fromString(key));
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Ignoring journey change event with invalid key: {}", key);
+                    }
+                });
+    }
+}
@@ -0,0 +1,127 @@
+package com.redbus.booking.expiry;
+
+import com.redbus.booking.repository.BookingRepository;
+import com.redbus.booking.repository.projection.BookingExpiryView;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires seat holds close to each booking's expiry time.
+ *
+ * Every blocked booking sits in a {@link TimingWheel} keyed by booking ID. A single ticker thread
+ * turns the wheel and hands the bookings that came due to {@link BookingExpiryProcessor} in batches.
+ * The wheel only lives in memory, so it is rebuilt from the database when the service starts.
+ */
+@Component
+@Slf4j
+public class BookingExpiryEngine {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 3;
+
+    private final BookingRepository bookingRepository;
+    private final BookingExpiryProcessor bookingExpiryProcessor;
+    private final long tickMillis;
+    private final int batchSize;
+    private final long retryDelayMillis;
+    private final TimingWheel<Long> wheel;
+    private final ScheduledExecutorService ticker;
+
+    public BookingExpiryEngine(BookingRepository bookingRepository,
+                               BookingExpiryProcessor bookingExpiryProcessor,
+                               @Value("${booking.expiry.tick-ms:1000}") long tickMillis,
+                               @Value("${booking.expiry.batch-size:500}") int batchSize,
+                               @Value("${booking.expiry.retry-delay-ms:30000}") long retryDelayMillis) {
+        this.bookingRepository = bookingRepository;
+        this.bookingExpiryProcessor = bookingExpiryProcessor;
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+        this.retryDelayMillis = retryDelayMillis;
+        this.wheel = new TimingWheel<>(tickMillis, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Track a booking's seat hold until its expiry time
+     */
+    public void schedule(Long bookingId, LocalDateTime expiryTime) {
+        long deadline = expiryTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (wheel) {
+            wheel.schedule(bookingId, deadline);
+        }
+    }
+
+    /**
+     * Stop tracking a booking that was confirmed, cancelled or failed before expiring
+     */
+    public void cancel(Long bookingId) {
+        synchronized (wheel) {
+            wheel.cancel(bookingId);
+        }
+    }
+
+    void tick() {
+        List<Long> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                retryLater(bookingExpiryProcessor.expire(batch));
+            } catch (RuntimeException e) {
+                log.error("Failed to expire {} bookings, will retry", batch.size(), e);
+                retryLater(batch);
+            }
+        }
+    }
+
+    private void rebuild() {
+        long afterId = 0;
+        int loaded = 0;
+        List<BookingExpiryView> page;
+        do {
+            page = bookingRepository.findPendingExpiries(afterId, PageRequest.of(0, batchSize));
+            for (BookingExpiryView booking : page) {
+                schedule(booking.getId(), booking.getExpiryTime());
+                afterId = booking.getId();
+            }
+            loaded += page.size();
+        } while (page.size() == batchSize);
+        log.info("Rebuilt booking expiry wheel with {} bookings", loaded);
+    }
+
+    private void retryLater(Iterable<Long> bookingIds) {
+        long retryAt = System.currentTimeMillis() + retryDelayMillis;
+        synchronized (wheel) {
+            bookingIds.forEach(bookingId -> wheel.schedule(bookingId, retryAt));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.redbus.booking.expiry;
+
+import com.redbus.booking.client.JourneyServiceClient;
+import com.redbus.booking.enums.BookingStatus;
+import com.redbus.booking.repository.BookingRepository;
+import com.redbus.booking.repository.BookingSeatRepository;
+import com.redbus.booking.repository.projection.LockedSeatView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Expires a batch of bookings and hands their seats back to journey-service.
+ *
+ * Status changes are one bulk UPDATE in a short transaction that only touches bookings still blocked
+ * and past their deadline, so a booking confirmed in the meantime is never expired. The same transaction
+ * claims the expired bookings' locked seats by unlocking them, skipping rows another run holds, so a
+ * seat is released by exactly one of the wheel, the sweep and other instances; a second release could
+ * free the seat after a new booking has held it. Seats are then released with one call per journey
+ * outside any transaction. Seats whose release fails are locked again and picked up on retry.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExpiryProcessor {
+
+    private final BookingRepository bookingRepository;
+    private final BookingSeatRepository bookingSeatRepository;
+    private final JourneyServiceClient journeyServiceClient;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Expire the given bookings and release their seats
+     *
+     * @return IDs of bookings whose seats could not be released and should be retried
+     */
+    public Set<Long> expire(Collection<Long> bookingIds) {
+        List<LockedSeatView> claimedSeats = transactionTemplate.execute(status -> {
+            int expired = bookingRepository.expireBookings(bookingIds, LocalDateTime.now());
+            log.debug("Expired {} of {} bookings", expired, bookingIds.size());
+            List<LockedSeatView> seats = bookingSeatRepository.lockSeatsToRelease(bookingIds, BookingStatus.EXPIRED.name());
+            if (!seats.isEmpty()) {
+                bookingSeatRepository.unlockSeats(seatIds(seats));
+            }
+            return seats;
+        });
+        if (claimedSeats == null || claimedSeats.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<Long> failedBookingIds = new HashSet<>();
+        Map<String, List<LockedSeatView>> seatsByJourney = claimedSeats.stream()
+                .collect(Collectors.groupingBy(LockedSeatView::getJourneyReferenceId));
+
+        seatsByJourney.forEach((journeyReferenceId, seats) -> {
+            try {
+                journeyServiceClient.releaseSeats(UUID.fromString(journeyReferenceId), seats.stream()
+                        .map(seat -> UUID.fromString(seat.getSeatInventoryReferenceId()))
+                        .collect(Collectors.toList()));
+            } catch (RuntimeException e) {
+                log.error("Failed to release {} seats for journey {}, will retry", seats.size(), journeyReferenceId, e);
+                transactionTemplate.executeWithoutResult(status -> bookingSeatRepository.relockSeats(seatIds(seats)));
+                seats.forEach(seat -> failedBookingIds.add(seat.getBookingId()));
+            }
+        });
+
+        log.info("Released {} seats across {} journeys for expired bookings", claimedSeats.size(), seatsByJourney.size());
+        return failedBookingIds;
+    }
+
+    private static List<Long> seatIds(List<LockedSeatView> seats) {
+        return seats.stream().map(LockedSeatView::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,143 @@
+package com.redbus.booking.expiry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel keyed by an arbitrary identifier.
+ *
+ * Level 0 has one slot per tick; each higher level has one slot per full rotation of the level below.
+ * A key is placed on the lowest level whose range covers its deadline and is cascaded down as the
+ * wheel turns, so scheduling, cancelling and expiring are all constant time per key regardless of
+ * how many keys are pending. Deadlines are rounded up to the next tick, so keys never fire early.
+ *
+ * Not thread-safe; callers must serialise access.
+ */
+public class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] spans;
+    private final Set<K>[][] slots;
+    private final Map<K, Timer> timers = new HashMap<>();
+    private final List<K> overdue = new ArrayList<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.spans = new long[levels];
+        this.slots = new Set[levels][wheelSize];
+        for (int level = 0; level < levels; level++) {
+            spans[level] = level == 0 ? 1 : spans[level - 1] * wheelSize;
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots[level][slot] = new HashSet<>();
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule a key, replacing any deadline it already had
+     */
+    public void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        place(new Timer(key, (deadlineMillis + tickMillis - 1) / tickMillis));
+    }
+
+    public boolean cancel(K key) {
+        Timer timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        if (timer.level < 0) {
+            overdue.remove(key);
+        } else {
+            slots[timer.level][timer.slot].remove(key);
+        }
+        return true;
+    }
+
+    /**
+     * Turn the wheel up to the given time
+     *
+     * @return keys whose deadline has passed, in no particular order
+     */
+    public List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1);
+            Set<K> due = slots[0][(int) (currentTick % wheelSize)];
+            for (K key : due) {
+                timers.get(key).level = -1;
+                overdue.add(key);
+            }
+            due.clear();
+        }
+
+        List<K> expired = new ArrayList<>(overdue);
+        expired.forEach(timers::remove);
+        overdue.clear();
+        return expired;
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    /**
+     * When the level below completes a rotation, move the keys of this level's current slot down
+     */
+    private void cascade(int level) {
+        if (level >= slots.length || currentTick % spans[level] != 0) {
+            return;
+        }
+        cascade(level + 1);
+        Set<K> slot = slots[level][(int) ((currentTick / spans[level]) % wheelSize)];
+        List<Timer> moved = new ArrayList<>(slot.size());
+        for (K key : slot) {
+            moved.add(timers.remove(key));
+        }
+        slot.clear();
+        moved.forEach(this::place);
+    }
+
+    private void place(Timer timer) {
+        long delta = timer.deadlineTick - currentTick;
+        timers.put(timer.key, timer);
+        if (delta <= 0) {
+            timer.level = -1;
+            overdue.add(timer.key);
+            return;
+        }
+
+        int level = 0;
+        while (level < slots.length - 1 && delta >= spans[level + 1]) {
+            level++;
+        }
+        // Deadlines beyond the top level park in the slot that turns last and are re-placed when it cascades
+        long block = Math.min(timer.deadlineTick / spans[level], currentTick / spans[level] + wheelSize);
+        timer.level = level;
+        timer.slot = (int) (block % wheelSize);
+        slots[level][timer.slot].add(timer.key);
+    }
+
+    private final class Timer {
+
+        private final K key;
+        private final long deadlineTick;
+        private int level;
+        private int slot;
+
+        private Timer(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
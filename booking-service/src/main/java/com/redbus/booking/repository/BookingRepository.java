@@ -2,14 +2,18 @@ package com.redbus.booking.repository;
 
 import com.redbus.booking.entity.Booking;
 import com.redbus.booking.enums.BookingStatus;
+import com.redbus.booking.repository.projection.BookingExpiryView;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,9 +35,15 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     
     List<Booking> findByBookingStatus(BookingStatus status);
     
-    @Query("SELECT b FROM Booking b WHERE b.bookingStatus = :status AND b.expiryTime < :currentTime")
-    List<Booking> findExpiredBookings(@Param("status") BookingStatus status, 
-                                      @Param("currentTime") LocalDateTime currentTime);
+    /**
+     * Next chunk of IDs of bookings past their deadline, or expired with seats not yet released
+     */
+    @Query("SELECT b.id FROM Booking b WHERE b.id > :afterId AND " +
+           "((b.bookingStatus = 'SEATS_BLOCKED' AND b.expiryTime <= :cutoff) OR (b.bookingStatus = 'EXPIRED' AND EXISTS " +
+           "(SELECT s.id FROM BookingSeat s WHERE s.booking = b AND s.isLocked = true))) ORDER BY b.id")
+    List<Long> findExpiredBookingIds(@Param("afterId") Long afterId,
+                                     @Param("cutoff") LocalDateTime cutoff,
+                                     Pageable pageable);
     
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.journeyReferenceId = :journeyId AND b.bookingStatus IN ('CONFIRMED', 'SEATS_BLOCKED')")
     Integer countConfirmedSeats(@Param("journeyId") String journeyReferenceId);
@@ -41,5 +51,21 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b WHERE b.userReferenceId = :userId AND b.bookingStatus = 'CONFIRMED' ORDER BY b.bookingTime DESC")
     List<Booking> findUserConfirmedBookings(@Param("userId") String userReferenceId);
     
+    /**
+     * Bookings still holding seats, either blocked or expired with seats not yet released, in ID order
+     */
+    @Query("SELECT b.id AS id, b.expiryTime AS expiryTime FROM Booking b WHERE b.id > :afterId AND " +
+           "(b.bookingStatus = 'SEATS_BLOCKED' OR (b.bookingStatus = 'EXPIRED' AND EXISTS " +
+           "(SELECT s.id FROM BookingSeat s WHERE s.booking = b AND s.isLocked = true))) ORDER BY b.id")
+    List<BookingExpiryView> findPendingExpiries(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Expire the given bookings that are still blocked and past their deadline; others are left untouched
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.bookingStatus = 'EXPIRED', b.updatedAt = :now, b.version = b.version + 1 " +
+           "WHERE b.id IN :ids AND b.bookingStatus = 'SEATS_BLOCKED' AND b.expiryTime <= :now")
+    int expireBookings(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
     boolean existsByBookingCode(String bookingCode);
 }
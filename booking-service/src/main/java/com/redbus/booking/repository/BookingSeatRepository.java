@@ -0,0 +1,36 @@
+package com.redbus.booking.repository;
+
+import com.redbus.booking.entity.BookingSeat;
+import com.redbus.booking.repository.projection.LockedSeatView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingSeatRepository extends JpaRepository<BookingSeat, Long> {
+    
+    /**
+     * Lock the still-locked seats of bookings in the given status, skipping seats another expiry run has
+     * already locked; the caller unlocks them in the same transaction to claim them for release
+     */
+    @Query(value = "SELECT s.id AS \"id\", b.id AS \"bookingId\", b.journey_reference_id AS \"journeyReferenceId\", " +
+           "s.seat_inventory_reference_id AS \"seatInventoryReferenceId\" " +
+           "FROM booking_seats s JOIN bookings b ON b.id = s.booking_id " +
+           "WHERE b.id IN (:bookingIds) AND b.booking_status = :status AND s.is_locked = true " +
+           "FOR UPDATE OF s SKIP LOCKED", nativeQuery = true)
+    List<LockedSeatView> lockSeatsToRelease(@Param("bookingIds") Collection<Long> bookingIds,
+                                            @Param("status") String status);
+    
+    @Modifying
+    @Query("UPDATE BookingSeat s SET s.isLocked = false WHERE s.id IN :ids")
+    int unlockSeats(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE BookingSeat s SET s.isLocked = true WHERE s.id IN :ids")
+    int relockSeats(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,13 @@
+package com.redbus.booking.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking ID and hold deadline, all the expiry engine keeps per booking
+ */
+public interface BookingExpiryView {
+    
+    Long getId();
+    
+    LocalDateTime getExpiryTime();
+}
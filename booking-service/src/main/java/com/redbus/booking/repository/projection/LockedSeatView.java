@@ -0,0 +1,15 @@
+package com.redbus.booking.repository.projection;
+
+/**
+ * A seat still held in journey-service on behalf of a booking
+ */
+public interface LockedSeatView {
+    
+    Long getId();
+    
+    Long getBookingId();
+    
+    String getJourneyReferenceId();
+    
+    String getSeatInventoryReferenceId();
+}
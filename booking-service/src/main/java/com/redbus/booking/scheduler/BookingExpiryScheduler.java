@@ -14,9 +14,10 @@ public class BookingExpiryScheduler {
     private final BookingService bookingService;
     
     /**
-     * Run every 5 minutes to process expired bookings
+     * Safety sweep for expired bookings the expiry wheel did not see, such as holds
+     * created on another instance. Holds normally expire through BookingExpiryEngine.
      */
-    @Scheduled(fixedDelay = 300000, initialDelay = 60000) // 5 minutes delay, 1 minute initial delay
+    @Scheduled(fixedDelayString = "${booking.expiry.sweep-interval-ms:900000}", initialDelay = 60000)
     public void processExpiredBookings() {
         log.info("Starting scheduled task to process expired bookings");
         try {
@@ -51,7 +51,7 @@ public interface BookingService {
     void updateBookingStatus(UUID bookingReferenceId, BookingStatus status);
     
     /**
-     * Process expired bookings
+     * Process expired bookings in bounded chunks, each in its own short transaction
      */
     void processExpiredBookings();
     
@@ -1,25 +1,33 @@
 package com.redbus.booking.service.impl;
 
+import com.redbus.booking.cache.JourneyDetailsCache;
 import com.redbus.booking.client.JourneyServiceClient;
 import com.redbus.booking.dto.*;
 import com.redbus.booking.entity.Booking;
 import com.redbus.booking.entity.BookingSeat;
 import com.redbus.booking.entity.Passenger;
 import com.redbus.booking.enums.BookingStatus;
+import com.redbus.booking.event.BookingEventPublisher;
+import com.redbus.booking.expiry.BookingExpiryEngine;
+import com.redbus.booking.expiry.BookingExpiryProcessor;
 import com.redbus.booking.repository.BookingRepository;
 import com.redbus.booking.service.BookingService;
 import com.redbus.common.exception.BusinessException;
 import com.redbus.common.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -31,6 +39,13 @@ public class BookingServiceImpl implements BookingService {
     
     private final BookingRepository bookingRepository;
     private final JourneyServiceClient journeyServiceClient;
+    private final JourneyDetailsCache journeyDetailsCache;
+    private final BookingExpiryEngine bookingExpiryEngine;
+    private final BookingExpiryProcessor bookingExpiryProcessor;
+    private final BookingEventPublisher bookingEventPublisher;
+    
+    @Value("${booking.expiry.batch-size:500}")
+    private int expiryBatchSize;
     
     private static final int BOOKING_EXPIRY_MINUTES = 15;
     private static final String BOOKING_CODE_PREFIX = "BKG";
@@ -47,7 +62,7 @@ public class BookingServiceImpl implements BookingService {
         }
         
         // Get journey details from Journey Service
-        JourneyDetailsDto journey = journeyServiceClient.getJourneyDetails(requestDto.getJourneyReferenceId());
+        JourneyDetailsDto journey = journeyDetailsCache.get(requestDto.getJourneyReferenceId());
         
         // Check if journey is active and has available seats
         if (!journey.getIsActive()) {
@@ -136,6 +151,7 @@ public class BookingServiceImpl implements BookingService {
         booking.getBookingSeats().addAll(bookingSeats);
         
         booking = bookingRepository.save(booking);
+        bookingExpiryEngine.schedule(booking.getId(), booking.getExpiryTime());
         
         // Update seat inventory in Journey Service
         journeyServiceClient.updateSeatBookingStatus(
@@ -184,9 +200,13 @@ public class BookingServiceImpl implements BookingService {
         }
         
         booking = bookingRepository.save(booking);
+        bookingExpiryEngine.cancel(booking.getId());
         
-        JourneyDetailsDto journey = journeyServiceClient.getJourneyDetails(
+        JourneyDetailsDto journey = journeyDetailsCache.get(
                 UUID.fromString(booking.getJourneyReferenceId()));
+        if (booking.getBookingStatus() == BookingStatus.CONFIRMED) {
+            bookingEventPublisher.publishConfirmed(booking, journey);
+        }
         
         return toBookingResponseDto(booking, journey);
     }
@@ -217,11 +237,12 @@ public class BookingServiceImpl implements BookingService {
         }
         
         booking = bookingRepository.save(booking);
+        bookingExpiryEngine.cancel(booking.getId());
         
         // Release seats
         releaseBlockedSeats(bookingReferenceId);
         
-        JourneyDetailsDto journey = journeyServiceClient.getJourneyDetails(
+        JourneyDetailsDto journey = journeyDetailsCache.get(
                 UUID.fromString(booking.getJourneyReferenceId()));
         
         return toBookingResponseDto(booking, journey);
@@ -235,7 +256,7 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingRepository.findByReferenceId(referenceId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
         
-        JourneyDetailsDto journey = journeyServiceClient.getJourneyDetails(
+        JourneyDetailsDto journey = journeyDetailsCache.get(
                 UUID.fromString(booking.getJourneyReferenceId()));
         
         return toBookingResponseDto(booking, journey);
@@ -249,7 +270,7 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingRepository.findByBookingCode(bookingCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
         
-        JourneyDetailsDto journey = journeyServiceClient.getJourneyDetails(
+        JourneyDetailsDto journey = journeyDetailsCache.get(
                 UUID.fromString(booking.getJourneyReferenceId()));
         
         return toBookingResponseDto(booking, journey);
@@ -260,11 +281,19 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingResponseDto> getUserBookings(String userReferenceId) {
         log.info("Fetching bookings for user: {}", userReferenceId);
         
-        return bookingRepository.findByUserReferenceId(userReferenceId).stream()
+        List<Booking> bookings = bookingRepository.findByUserReferenceId(userReferenceId);
+        
+        // Resolve every journey up front: cache hits first, then one bulk request for the misses
+        Map<UUID, JourneyDetailsDto> journeys = journeyDetailsCache.getAll(bookings.stream()
+                .map(booking -> UUID.fromString(booking.getJourneyReferenceId()))
+                .collect(Collectors.toSet()));
+        
+        return bookings.stream()
                 .map(booking -> {
-                    JourneyDetailsDto journey = journeyServiceClient.getJourneyDetails(
-                            UUID.fromString(booking.getJourneyReferenceId()));
-                    return toBookingResponseDto(booking, journey);
+                    UUID journeyReferenceId = UUID.fromString(booking.getJourneyReferenceId());
+                    JourneyDetailsDto journey = journeys.get(journeyReferenceId);
+                    return toBookingResponseDto(booking,
+                            journey != null ? journey : journeyDetailsCache.get(journeyReferenceId));
                 })
                 .collect(Collectors.toList());
     }
@@ -274,7 +303,7 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingResponseDto> getJourneyBookings(String journeyReferenceId) {
         log.info("Fetching bookings for journey: {}", journeyReferenceId);
         
-        JourneyDetailsDto journey = journeyServiceClient.getJourneyDetails(
+        JourneyDetailsDto journey = journeyDetailsCache.get(
                 UUID.fromString(journeyReferenceId));
         
         return bookingRepository.findByJourneyReferenceId(journeyReferenceId).stream()
@@ -294,20 +323,27 @@ public class BookingServiceImpl implements BookingService {
     }
     
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processExpiredBookings() {
         log.info("Processing expired bookings");
         
-        List<Booking> expiredBookings = bookingRepository.findExpiredBookings(
-                BookingStatus.SEATS_BLOCKED, LocalDateTime.now());
-        
-        for (Booking booking : expiredBookings) {
-            booking.setBookingStatus(BookingStatus.EXPIRED);
-            bookingRepository.save(booking);
-            releaseBlockedSeats(booking.getReferenceId());
-        }
-        
-        log.info("Processed {} expired bookings", expiredBookings.size());
+        // Walk the backlog by ID in chunks; each chunk commits on its own and releases seats once per journey
+        LocalDateTime cutoff = LocalDateTime.now();
+        long afterId = 0;
+        int processed = 0;
+        int failed = 0;
+        List<Long> chunk;
+        do {
+            chunk = bookingRepository.findExpiredBookingIds(afterId, cutoff, PageRequest.of(0, expiryBatchSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            failed += bookingExpiryProcessor.expire(chunk).size();
+            processed += chunk.size();
+            afterId = chunk.get(chunk.size() - 1);
+        } while (chunk.size() == expiryBatchSize);
+        
+        log.info("Processed {} expired bookings, {} with seat releases left to retry", processed, failed);
     }
     
     @Override
@@ -339,7 +375,8 @@ public class BookingServiceImpl implements BookingService {
         List<SeatInventoryDto> seats = journeyServiceClient.getSeatInventory(
                 journeyReferenceId, seatInventoryIds);
         
-        return seats.stream().allMatch(SeatInventoryDto::getIsAvailable);
+        return seats.size() == seatInventoryIds.size() &&
+               seats.stream().allMatch(SeatInventoryDto::getIsAvailable);
     }
     
     private String generateBookingCode() {
@@ -0,0 +1,81 @@
+package com.redbus.booking.cache;
+
+import com.redbus.booking.client.JourneyServiceClient;
+import com.redbus.booking.dto.JourneyDetailsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JourneyDetailsCacheTest {
+
+    @Mock
+    private JourneyServiceClient journeyServiceClient;
+
+    private JourneyDetailsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new JourneyDetailsCache(journeyServiceClient, 100, 60);
+    }
+
+    @Test
+    void get_CallsJourneyServiceOnlyOnAMiss() {
+        UUID id = UUID.randomUUID();
+        when(journeyServiceClient.getJourneyDetails(id)).thenReturn(journey(id));
+
+        assertThat(cache.get(id).getReferenceId()).isEqualTo(id);
+        assertThat(cache.get(id).getReferenceId()).isEqualTo(id);
+
+        verify(journeyServiceClient, times(1)).getJourneyDetails(id);
+    }
+
+    @Test
+    void invalidate_MakesTheNextGetRefetch() {
+        UUID id = UUID.randomUUID();
+        when(journeyServiceClient.getJourneyDetails(id)).thenReturn(journey(id));
+
+        cache.get(id);
+        cache.invalidate(id);
+        cache.get(id);
+
+        verify(journeyServiceClient, times(2)).getJourneyDetails(id);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAll_FetchesOnlyMissesInOneBulkCall() {
+        UUID cached = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        when(journeyServiceClient.getJourneyDetails(cached)).thenReturn(journey(cached));
+        when(journeyServiceClient.getJourneyDetails(anyCollection())).thenReturn(List.of(journey(missing)));
+        cache.get(cached);
+
+        Map<UUID, JourneyDetailsDto> journeys = cache.getAll(List.of(cached, missing, unknown));
+
+        ArgumentCaptor<Collection<UUID>> requested = ArgumentCaptor.forClass(Collection.class);
+        verify(journeyServiceClient).getJourneyDetails(requested.capture());
+        assertThat(requested.getValue()).containsExactlyInAnyOrder(missing, unknown);
+        assertThat(journeys).containsOnlyKeys(cached, missing);
+    }
+
+    private static JourneyDetailsDto journey(UUID referenceId) {
+        JourneyDetailsDto journey = new JourneyDetailsDto();
+        journey.setReferenceId(referenceId);
+        journey.setIsActive(true);
+        return journey;
+    }
+}
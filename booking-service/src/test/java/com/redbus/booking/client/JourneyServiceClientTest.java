@@ -0,0 +1,123 @@
+package com.redbus.booking.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.redbus.booking.dto.JourneyDetailsDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class JourneyServiceClientTest {
+
+    private static final String BULK_URL = "http://journey-service/api/v1/journeys/bulk";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MockRestServiceServer server;
+    private JourneyServiceClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        client = new JourneyServiceClient(restTemplate);
+        ReflectionTestUtils.setField(client, "journeyServiceUrl", "http://journey-service");
+        ReflectionTestUtils.setField(client, "bulkChunkSize", 100);
+        ReflectionTestUtils.setField(client, "bulkParallelism", 4);
+        client.startFanOutExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.stopFanOutExecutor();
+    }
+
+    @Test
+    void getJourneyDetails_SendsSmallListsInOneRequest() {
+        List<UUID> ids = ids(100);
+        server.expect(times(1), requestTo(BULK_URL)).andExpect(method(HttpMethod.POST)).andRespond(echo());
+
+        List<JourneyDetailsDto> journeys = client.getJourneyDetails(ids);
+
+        server.verify();
+        assertThat(journeys).extracting(JourneyDetailsDto::getReferenceId).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void getJourneyDetails_SplitsLargeListsIntoChunksAndKeepsOrder() {
+        List<UUID> ids = ids(250);
+        AtomicInteger largestChunk = new AtomicInteger();
+        server.expect(times(3), requestTo(BULK_URL)).andExpect(method(HttpMethod.POST)).andRespond(request -> {
+            int size = requestedIds((MockClientHttpRequest) request).size();
+            largestChunk.accumulateAndGet(size, Math::max);
+            return echo().createResponse(request);
+        });
+
+        List<JourneyDetailsDto> journeys = client.getJourneyDetails(ids);
+
+        server.verify();
+        assertThat(largestChunk.get()).isEqualTo(100);
+        assertThat(journeys).extracting(JourneyDetailsDto::getReferenceId).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void getJourneyDetails_FailsWhenAnyChunkFails() {
+        AtomicInteger calls = new AtomicInteger();
+        server.expect(times(3), requestTo(BULK_URL)).andRespond(request -> calls.incrementAndGet() == 2
+                ? withServerError().createResponse(request)
+                : echo().createResponse(request));
+
+        assertThatThrownBy(() -> client.getJourneyDetails(ids(250))).isInstanceOf(HttpServerErrorException.class);
+    }
+
+    /**
+     * Respond with a journey for every ID in the request body
+     */
+    private ResponseCreator echo() {
+        return request -> {
+            ObjectNode body = objectMapper.createObjectNode().put("success", true);
+            ArrayNode data = body.putArray("data");
+            requestedIds((MockClientHttpRequest) request).forEach(id -> data.addObject().put("referenceId", id));
+            return withSuccess(body.toString(), MediaType.APPLICATION_JSON).createResponse(request);
+        };
+    }
+
+    private List<String> requestedIds(MockClientHttpRequest request) {
+        try {
+            List<String> ids = new ArrayList<>();
+            for (JsonNode id : objectMapper.readTree(request.getBodyAsString()).get("journeyReferenceIds")) {
+                ids.add(id.asText());
+            }
+            return ids;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<UUID> ids(int count) {
+        return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID()).toList();
+    }
+}
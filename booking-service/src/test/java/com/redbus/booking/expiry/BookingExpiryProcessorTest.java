@@ -0,0 +1,127 @@
+package com.redbus.booking.expiry;
+
+import com.redbus.booking.client.JourneyServiceClient;
+import com.redbus.booking.repository.BookingRepository;
+import com.redbus.booking.repository.BookingSeatRepository;
+import com.redbus.booking.repository.projection.LockedSeatView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExpiryProcessorTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingSeatRepository bookingSeatRepository;
+
+    @Mock
+    private JourneyServiceClient journeyServiceClient;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BookingExpiryProcessor processor;
+
+    private final UUID journeyA = UUID.randomUUID();
+    private final UUID journeyB = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        processor = new BookingExpiryProcessor(bookingRepository, bookingSeatRepository, journeyServiceClient,
+                transactionTemplate);
+    }
+
+    @Test
+    void expire_ClaimsSeatsBeforeReleasingThemOncePerJourney() {
+        UUID a1 = UUID.randomUUID();
+        UUID a2 = UUID.randomUUID();
+        UUID b1 = UUID.randomUUID();
+        when(bookingSeatRepository.lockSeatsToRelease(List.of(1L, 2L, 3L), "EXPIRED")).thenReturn(List.of(
+                seat(10L, 1L, journeyA, a1), seat(11L, 2L, journeyA, a2), seat(12L, 3L, journeyB, b1)));
+
+        assertThat(processor.expire(List.of(1L, 2L, 3L))).isEmpty();
+
+        InOrder inOrder = inOrder(bookingRepository, bookingSeatRepository, journeyServiceClient);
+        inOrder.verify(bookingRepository).expireBookings(eq(List.of(1L, 2L, 3L)), any());
+        inOrder.verify(bookingSeatRepository).unlockSeats(List.of(10L, 11L, 12L));
+        inOrder.verify(journeyServiceClient, times(2)).releaseSeats(any(), any());
+        verify(journeyServiceClient).releaseSeats(journeyA, List.of(a1, a2));
+        verify(journeyServiceClient).releaseSeats(journeyB, List.of(b1));
+        verify(bookingSeatRepository, never()).relockSeats(any());
+    }
+
+    @Test
+    void expire_ReturnsBookingsWhoseReleaseFailedAndLocksTheirSeatsAgain() {
+        when(bookingSeatRepository.lockSeatsToRelease(any(), eq("EXPIRED"))).thenReturn(List.of(
+                seat(10L, 1L, journeyA, UUID.randomUUID()), seat(12L, 3L, journeyB, UUID.randomUUID())));
+        lenient().doThrow(new IllegalStateException("journey-service down"))
+                .when(journeyServiceClient).releaseSeats(eq(journeyA), any());
+
+        assertThat(processor.expire(List.of(1L, 3L))).containsExactly(1L);
+
+        verify(bookingSeatRepository).relockSeats(List.of(10L));
+        verify(bookingSeatRepository, never()).relockSeats(List.of(12L));
+    }
+
+    @Test
+    void expire_ReleasesNothingWhenAnotherRunClaimedTheSeats() {
+        // The seats are locked by a concurrent run, or were already unlocked by it
+        when(bookingSeatRepository.lockSeatsToRelease(any(), eq("EXPIRED"))).thenReturn(List.of());
+
+        assertThat(processor.expire(List.of(1L))).isEmpty();
+
+        verifyNoInteractions(journeyServiceClient);
+        verify(bookingSeatRepository, never()).unlockSeats(any());
+    }
+
+    private static LockedSeatView seat(Long id, Long bookingId, UUID journey, UUID seatInventory) {
+        return new LockedSeatView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookingId() {
+                return bookingId;
+            }
+
+            @Override
+            public String getJourneyReferenceId() {
+                return journey.toString();
+            }
+
+            @Override
+            public String getSeatInventoryReferenceId() {
+                return seatInventory.toString();
+            }
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.redbus.booking.expiry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+
+    private TimingWheel<Long> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel<>(TICK, 8, 3, 0);
+    }
+
+    @Test
+    void advance_ExpiresKeysOnlyOnceTheirDeadlinePasses() {
+        wheel.schedule(1L, 3 * TICK);
+        wheel.schedule(2L, 5 * TICK + 1);
+
+        assertThat(wheel.advance(2 * TICK)).isEmpty();
+        assertThat(wheel.advance(3 * TICK)).containsExactly(1L);
+        assertThat(wheel.advance(5 * TICK)).isEmpty();
+        assertThat(wheel.advance(6 * TICK)).containsExactly(2L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_CascadesKeysFromHigherLevels() {
+        // 8 slots per level: 100 ticks lives on level 2 and 20 ticks on level 1
+        wheel.schedule(1L, 100 * TICK);
+        wheel.schedule(2L, 20 * TICK);
+
+        List<Long> expired = new ArrayList<>();
+        for (long now = 1; now <= 99; now++) {
+            expired.addAll(wheel.advance(now * TICK));
+        }
+        assertThat(expired).containsExactly(2L);
+        assertThat(wheel.advance(100 * TICK)).containsExactly(1L);
+    }
+
+    @Test
+    void advance_HandlesDeadlinesBeyondTheTopLevel() {
+        wheel.schedule(1L, 1000 * TICK);
+
+        assertThat(wheel.advance(999 * TICK)).isEmpty();
+        assertThat(wheel.advance(1000 * TICK)).containsExactly(1L);
+    }
+
+    @Test
+    void cancelAndReschedule_ReplaceThePendingDeadline() {
+        wheel.schedule(1L, 4 * TICK);
+        wheel.schedule(2L, 4 * TICK);
+        wheel.cancel(2L);
+        wheel.schedule(1L, 10 * TICK);
+
+        assertThat(wheel.advance(9 * TICK)).isEmpty();
+        assertThat(wheel.advance(10 * TICK)).containsExactly(1L);
+    }
+
+    @Test
+    void schedule_PastDeadlineExpiresOnNextAdvance() {
+        wheel.advance(10 * TICK);
+        wheel.schedule(1L, 3 * TICK);
+
+        assertThat(wheel.advance(10 * TICK)).containsExactly(1L);
+    }
+}
@@ -0,0 +1,109 @@
+package com.redbus.booking.service;
+
+import com.redbus.booking.client.JourneyServiceClient;
+import com.redbus.booking.dto.SeatInventoryDto;
+import com.redbus.booking.expiry.BookingExpiryProcessor;
+import com.redbus.booking.repository.BookingRepository;
+import com.redbus.booking.service.impl.BookingServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingServiceTest {
+
+    @Mock
+    private JourneyServiceClient journeyServiceClient;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingExpiryProcessor bookingExpiryProcessor;
+
+    @InjectMocks
+    private BookingServiceImpl bookingService;
+
+    private final UUID journeyId = UUID.randomUUID();
+
+    @Test
+    void checkSeatAvailability_TrueWhenEveryRequestedSeatIsFree() {
+        List<UUID> seatIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(journeyServiceClient.getSeatInventory(journeyId, seatIds))
+                .thenReturn(List.of(seat(seatIds.get(0), true), seat(seatIds.get(1), true)));
+
+        assertThat(bookingService.checkSeatAvailability(journeyId, seatIds)).isTrue();
+    }
+
+    @Test
+    void checkSeatAvailability_FalseWhenASeatIsTaken() {
+        List<UUID> seatIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(journeyServiceClient.getSeatInventory(journeyId, seatIds))
+                .thenReturn(List.of(seat(seatIds.get(0), true), seat(seatIds.get(1), false)));
+
+        assertThat(bookingService.checkSeatAvailability(journeyId, seatIds)).isFalse();
+    }
+
+    @Test
+    void checkSeatAvailability_FalseWhenASeatIsNotOnTheJourney() {
+        List<UUID> seatIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(journeyServiceClient.getSeatInventory(journeyId, seatIds))
+                .thenReturn(List.of(seat(seatIds.get(0), true)));
+
+        assertThat(bookingService.checkSeatAvailability(journeyId, seatIds)).isFalse();
+    }
+
+    @Test
+    void processExpiredBookings_WalksBacklogInKeysetChunks() {
+        ReflectionTestUtils.setField(bookingService, "expiryBatchSize", 2);
+        when(bookingRepository.findExpiredBookingIds(eq(0L), any(), eq(PageRequest.of(0, 2)))).thenReturn(List.of(3L, 7L));
+        when(bookingRepository.findExpiredBookingIds(eq(7L), any(), any())).thenReturn(List.of(8L, 12L));
+        when(bookingRepository.findExpiredBookingIds(eq(12L), any(), any())).thenReturn(List.of(15L));
+        when(bookingExpiryProcessor.expire(any())).thenReturn(Set.of());
+
+        bookingService.processExpiredBookings();
+
+        verify(bookingExpiryProcessor).expire(List.of(3L, 7L));
+        verify(bookingExpiryProcessor).expire(List.of(8L, 12L));
+        verify(bookingExpiryProcessor).expire(List.of(15L));
+        // The short last chunk ends the sweep without another query
+        verify(bookingRepository, times(3)).findExpiredBookingIds(anyLong(), any(), any());
+    }
+
+    @Test
+    void processExpiredBookings_UsesOneCutoffForEveryChunk() {
+        ReflectionTestUtils.setField(bookingService, "expiryBatchSize", 1);
+        when(bookingRepository.findExpiredBookingIds(anyLong(), any(), any()))
+                .thenReturn(List.of(1L), List.of(2L), List.of());
+        when(bookingExpiryProcessor.expire(any())).thenReturn(Set.of(2L));
+
+        bookingService.processExpiredBookings();
+
+        ArgumentCaptor<LocalDateTime> cutoffs = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(bookingRepository, times(3)).findExpiredBookingIds(anyLong(), cutoffs.capture(), any());
+        assertThat(cutoffs.getAllValues()).containsOnly(cutoffs.getValue());
+    }
+
+    private static SeatInventoryDto seat(UUID referenceId, boolean available) {
+        SeatInventoryDto seat = new SeatInventoryDto();
+        seat.setReferenceId(referenceId);
+        seat.setIsAvailable(available);
+        return seat;
+    }
+}
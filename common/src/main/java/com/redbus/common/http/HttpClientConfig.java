@@ -0,0 +1,30 @@
+package com.redbus.common.http;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * The RestTemplate every service uses for calls to the others, configured under {@code http-client}
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "http-client")
+    public HttpClientProperties httpClientProperties() {
+        return new HttpClientProperties();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory clientHttpRequestFactory(HttpClientProperties httpClientProperties) {
+        return HttpClientFactory.requestFactory(httpClientProperties);
+    }
+
+    @Bean
+    public RestTemplate restTemplate(ClientHttpRequestFactory clientHttpRequestFactory) {
+        return new RestTemplate(clientHttpRequestFactory);
+    }
+}
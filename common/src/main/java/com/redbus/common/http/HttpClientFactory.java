@@ -0,0 +1,89 @@
+package com.redbus.common.http;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.routing.RoutingSupport;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+
+/**
+ * Builds request factories for calls between services.
+ *
+ * The default factory keeps a pool of persistent HTTP/1.1 connections with a global and a per-host
+ * limit, so requests reuse warm connections instead of paying for TCP and TLS setup, and a saturated
+ * host cannot starve calls to the others. With HTTP/2 enabled the JDK client multiplexes all requests
+ * to a host over a single connection instead. Every request is bounded by connect and read timeouts.
+ */
+public class HttpClientFactory {
+
+    private HttpClientFactory() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static ClientHttpRequestFactory requestFactory(HttpClientProperties properties) {
+        return properties.isHttp2Enabled() ? http2RequestFactory(properties) : pooledRequestFactory(properties);
+    }
+
+    private static ClientHttpRequestFactory pooledRequestFactory(HttpClientProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerHost())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                        .setTimeToLive(TimeValue.of(properties.getConnectionTimeToLive()))
+                        .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+                        .build())
+                .build();
+        properties.getHostLimits().forEach(limit ->
+                connectionManager.setMaxPerRoute(routeFor(limit.getUrl()), limit.getMaxConnections()));
+
+        TimeValue keepAlive = TimeValue.of(properties.getKeepAlive());
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+                        .build())
+                // Honour a shorter Keep-Alive from the server, but never hold idle connections longer than configured
+                .setKeepAliveStrategy((response, context) -> keepAlive.min(
+                        DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context)))
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive)
+                .build();
+
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    private static ClientHttpRequestFactory http2RequestFactory(HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+        return requestFactory;
+    }
+
+    private static HttpRoute routeFor(String baseUrl) {
+        HttpHost host = RoutingSupport.normalize(HttpHost.create(URI.create(baseUrl)), DefaultSchemePortResolver.INSTANCE);
+        return new HttpRoute(host, (InetAddress) null, URIScheme.HTTPS.same(host.getSchemeName()));
+    }
+}
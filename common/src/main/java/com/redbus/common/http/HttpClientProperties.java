@@ -0,0 +1,53 @@
+package com.redbus.common.http;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the pooled client used for calls between services
+ */
+@Data
+public class HttpClientProperties {
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long a request may wait for a pooled connection before failing
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+    private int maxConnections = 200;
+    private int maxConnectionsPerHost = 50;
+
+    /**
+     * Per-host overrides of {@link #maxConnectionsPerHost}
+     */
+    private List<HostLimit> hostLimits = new ArrayList<>();
+
+    /**
+     * Upper bound on how long an idle connection is kept for reuse
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration connectionTimeToLive = Duration.ofMinutes(5);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Use a multiplexed HTTP/2 client instead of the HTTP/1.1 connection pool
+     */
+    private boolean http2Enabled = false;
+
+    @Data
+    public static class HostLimit {
+
+        /**
+         * Base URL of the service; set it from the property its client reads, so the limit follows the
+         * service to whatever host it is deployed on
+         */
+        private String url;
+        private int maxConnections;
+    }
+}
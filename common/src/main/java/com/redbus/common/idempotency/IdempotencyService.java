@@ -0,0 +1,175 @@
+package com.redbus.common.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.redbus.common.exception.BusinessException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes POST endpoints safe to retry with an {@code Idempotency-Key} header.
+ *
+ * The first request for a key runs the action and its response is kept for a TTL; retries with the
+ * same key are answered from the store without redoing the work. A retry that arrives while the first
+ * request is still running waits for its result instead of starting a second execution. Failed
+ * executions are not stored, so the client can retry them. Requests without the header run as usual.
+ * Request bodies are compared by a SHA-256 digest of their JSON form with properties and map keys sorted.
+ *
+ * Keys are scoped to the authenticated caller and the request path, so two clients that pick the same key
+ * never see each other's responses; unauthenticated requests share one caller scope.
+ *
+ * Responses are kept in a bounded in-memory cache, so a retry is only deduplicated by the instance that served
+ * the original, and under memory pressure the least recently used keys are forgotten before their TTL.
+ */
+@Component
+@Slf4j
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String ANONYMOUS = "anonymous";
+
+    private final ConcurrentMap<String, StoredResponse> responses;
+    private final ObjectMapper canonicalMapper;
+    private final long waitTimeoutMs;
+
+    public IdempotencyService(ObjectMapper objectMapper,
+                              @Value("${idempotency.ttl-minutes:60}") long ttlMinutes,
+                              @Value("${idempotency.max-entries:100000}") long maxEntries,
+                              @Value("${idempotency.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .<String, StoredResponse>build()
+                .asMap();
+        this.canonicalMapper = objectMapper.copy()
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    /**
+     * Run the action once per idempotency key within the given scope
+     *
+     * @param scope   operation name, so the same key can be used against different endpoints
+     * @param key     value of the Idempotency-Key header, or null to skip deduplication
+     * @param request request body; a key reused with a different body is rejected
+     */
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request, Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency key must not exceed " + MAX_KEY_LENGTH + " characters",
+                    "INVALID_IDEMPOTENCY_KEY");
+        }
+
+        String storeKey = callerScope() + ":" + scope + ":" + key;
+        byte[] requestDigest = digest(request);
+        StoredResponse created = new StoredResponse(requestDigest);
+        StoredResponse existing = responses.putIfAbsent(storeKey, created);
+        if (existing != null) {
+            return replay(storeKey, existing, requestDigest);
+        }
+
+        try {
+            ResponseEntity<T> response = action.get();
+            created.response.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            // Do not keep failures: waiting retries see this error, later ones run the action again
+            responses.remove(storeKey, created);
+            created.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(String storeKey, StoredResponse stored, byte[] requestDigest) {
+        if (!MessageDigest.isEqual(stored.requestDigest, requestDigest)) {
+            throw new BusinessException("Idempotency key was already used with a different request",
+                    "IDEMPOTENCY_KEY_REUSED", HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+
+        ResponseEntity<T> original;
+        try {
+            original = (ResponseEntity<T>) stored.response.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new BusinessException("A request with this idempotency key is still in progress",
+                    "IDEMPOTENCY_REQUEST_IN_PROGRESS", HttpStatus.CONFLICT);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for idempotent request", e);
+        }
+
+        log.info("Replaying stored response for idempotency key: {}", storeKey);
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(original.getHeaders());
+        headers.set(REPLAYED_HEADER, "true");
+        return new ResponseEntity<>(original.getBody(), headers, original.getStatusCode());
+    }
+
+    private byte[] digest(Object request) {
+        try {
+            byte[] canonical = request == null
+                    ? new byte[0]
+                    : canonicalMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return MessageDigest.getInstance("SHA-256").digest(canonical);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be serialized for idempotency check", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Authenticated caller and path of the request being served, or empty outside a web request
+     */
+    private static String callerScope() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return "";
+        }
+        HttpServletRequest request = attributes.getRequest();
+        Principal principal = request.getUserPrincipal();
+        return (principal != null ? principal.getName() : ANONYMOUS) + ":" + request.getRequestURI();
+    }
+
+    private static final class StoredResponse {
+
+        private final byte[] requestDigest;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        private StoredResponse(byte[] requestDigest) {
+            this.requestDigest = requestDigest;
+        }
+    }
+}
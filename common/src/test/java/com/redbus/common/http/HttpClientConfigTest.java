@@ -0,0 +1,37 @@
+package com.redbus.common.http;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpClientConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(PropertiesSupport.class, HttpClientConfig.class);
+
+    @Test
+    void hostLimitFollowsTheServiceUrlItReferences() {
+        contextRunner
+                .withPropertyValues(
+                        "journey.service.url=http://journey-service:8083",
+                        "http-client.host-limits[0].url=${journey.service.url}",
+                        "http-client.host-limits[0].max-connections=100")
+                .run(context -> {
+                    HttpClientProperties properties = context.getBean(HttpClientProperties.class);
+                    assertThat(properties.getHostLimits()).singleElement().satisfies(limit -> {
+                        assertThat(limit.getUrl()).isEqualTo("http://journey-service:8083");
+                        assertThat(limit.getMaxConnections()).isEqualTo(100);
+                    });
+                    assertThat(context).hasSingleBean(RestTemplate.class);
+                });
+    }
+
+    @Configuration
+    @EnableConfigurationProperties
+    static class PropertiesSupport {
+    }
+}
@@ -0,0 +1,133 @@
+package com.redbus.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redbus.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceTest {
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final IdempotencyService service = new IdempotencyService(new ObjectMapper(), 60, 1000, 1000);
+
+    @Test
+    void execute_ReplaysStoredResponseForSameKeyAndBody() {
+        ResponseEntity<String> first = service.execute("bookings", "key-1", body("seat", "S01"), this::create);
+        ResponseEntity<String> retry = service.execute("bookings", "key-1", body("seat", "S01"), this::create);
+
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(first.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+    }
+
+    @Test
+    void execute_TreatsReorderedPropertiesAsTheSameBody() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("seat", "S01");
+        body.put("journey", "J1");
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("journey", "J1");
+        reordered.put("seat", "S01");
+
+        service.execute("bookings", "key-1", body, this::create);
+        service.execute("bookings", "key-1", reordered, this::create);
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_RejectsKeyReusedWithDifferentBody() {
+        service.execute("bookings", "key-1", body("seat", "S01"), this::create);
+
+        assertThatThrownBy(() -> service.execute("bookings", "key-1", body("seat", "S02"), this::create))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_RunsAgainOnceStoredResponseExpires() {
+        IdempotencyService expiring = new IdempotencyService(new ObjectMapper(), 0, 1000, 1000);
+
+        expiring.execute("bookings", "key-1", body("seat", "S01"), this::create);
+        expiring.execute("bookings", "key-1", body("seat", "S01"), this::create);
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void execute_DoesNotStoreFailures() {
+        assertThatThrownBy(() -> service.execute("bookings", "key-1", body("seat", "S01"), () -> {
+            throw new IllegalStateException("journey-service down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        service.execute("bookings", "key-1", body("seat", "S01"), this::create);
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_KeepsScopesApart() {
+        service.execute("bookings", "key-1", body("seat", "S01"), this::create);
+        service.execute("payments", "key-1", body("amount", 500), this::create);
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void execute_KeepsCallersApart() {
+        inRequest("alice", "/api/bookings/initiate",
+                () -> service.execute("bookings", "key-1", body("seat", "S01"), this::create));
+        ResponseEntity<String> other = inRequest("bob", "/api/bookings/initiate",
+                () -> service.execute("bookings", "key-1", body("seat", "S01"), this::create));
+
+        assertThat(executions).hasValue(2);
+        assertThat(other.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+    }
+
+    @Test
+    void execute_KeepsRequestPathsApart() {
+        inRequest("alice", "/api/bookings/initiate",
+                () -> service.execute("bookings", "key-1", body("seat", "S01"), this::create));
+        inRequest("alice", "/api/v2/bookings/initiate",
+                () -> service.execute("bookings", "key-1", body("seat", "S01"), this::create));
+        inRequest("alice", "/api/bookings/initiate",
+                () -> service.execute("bookings", "key-1", body("seat", "S01"), this::create));
+
+        assertThat(executions).hasValue(2);
+    }
+
+    private static <T> T inRequest(String user, String path, Supplier<T> call) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setUserPrincipal(() -> user);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            return call.get();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private ResponseEntity<String> create() {
+        return ResponseEntity.status(HttpStatus.CREATED).body("created-" + executions.incrementAndGet());
+    }
+
+    private static Map<String, Object> body(String field, Object value) {
+        return Map.of(field, value);
+    }
+}
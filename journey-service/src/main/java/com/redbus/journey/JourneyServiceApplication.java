@@ -1,12 +1,25 @@
 package com.redbus.journey;
 
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {"com.redbus.journey", "com.redbus.common"})
+@EnableScheduling
 public class JourneyServiceApplication {
     
     public static void main(String[] args) {
         SpringApplication.run(JourneyServiceApplication.class, args);
     }
+    
+    @Bean
+    public NewTopic journeyChangesTopic(@Value("${journey.events.topic:journey-changes}") String topic,
+                                        @Value("${journey.events.partitions:6}") int partitions,
+                                        @Value("${journey.events.replicas:1}") int replicas) {
+        return TopicBuilder.name(topic).partitions(partitions).replicas(replicas).build();
+    }
 }
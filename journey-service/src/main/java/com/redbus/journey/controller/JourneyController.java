@@ -1,8 +1,13 @@
 package com.redbus.journey.controller;
 
 import com.redbus.common.dto.ApiResponse;
+import com.redbus.common.exception.BusinessException;
+import com.redbus.journey.dto.JourneyIndexPageDto;
+import com.redbus.journey.dto.JourneyPageDto;
 import com.redbus.journey.dto.JourneyRequestDto;
 import com.redbus.journey.dto.JourneyResponseDto;
+import com.redbus.journey.dto.RecurringJourneyRequestDto;
+import com.redbus.journey.dto.RecurringJourneysResultDto;
 import com.redbus.journey.enums.JourneyStatus;
 import com.redbus.journey.service.JourneyService;
 import jakarta.validation.Valid;
@@ -15,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -26,6 +32,11 @@ public class JourneyController {
     
     private final JourneyService journeyService;
     
+    private static final int MAX_BULK_IDS = 100;
+    private static final int MAX_BULK_BODY_IDS = 1000;
+    private static final int MAX_EXPORT_PAGE_SIZE = 5000;
+    private static final int MAX_UPCOMING_PAGE_SIZE = 100;
+    
     @PostMapping
     public ResponseEntity<ApiResponse<JourneyResponseDto>> createJourney(
             @Valid @RequestBody JourneyRequestDto requestDto) {
@@ -36,6 +47,16 @@ public class JourneyController {
                 .body(ApiResponse.success(journey, "Journey created successfully"));
     }
     
+    @PostMapping("/recurring")
+    public ResponseEntity<ApiResponse<RecurringJourneysResultDto>> generateRecurringJourneys(
+            @Valid @RequestBody RecurringJourneyRequestDto requestDto) {
+        log.info("Generating recurring journeys for route: {}", requestDto.getRouteReferenceId());
+        RecurringJourneysResultDto result = journeyService.generateRecurringJourneys(requestDto);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.success(result, "Recurring journeys created successfully"));
+    }
+    
     @PutMapping("/{referenceId}")
     public ResponseEntity<ApiResponse<JourneyResponseDto>> updateJourney(
             @PathVariable UUID referenceId,
@@ -52,6 +73,29 @@ public class JourneyController {
         return ResponseEntity.ok(ApiResponse.success(journey));
     }
     
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<List<JourneyResponseDto>>> getJourneysByIds(
+            @RequestParam List<UUID> ids) {
+        log.info("Fetching {} journeys by reference ID", ids.size());
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new BusinessException("At most " + MAX_BULK_IDS + " journey IDs can be requested at once");
+        }
+        List<JourneyResponseDto> journeys = journeyService.getJourneysByIds(ids);
+        return ResponseEntity.ok(ApiResponse.success(journeys));
+    }
+    
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<List<JourneyResponseDto>>> getJourneysByIdsBulk(
+            @RequestBody Map<String, List<UUID>> request) {
+        List<UUID> journeyReferenceIds = request.getOrDefault("journeyReferenceIds", List.of());
+        log.info("Fetching {} journeys in bulk", journeyReferenceIds.size());
+        if (journeyReferenceIds.size() > MAX_BULK_BODY_IDS) {
+            throw new BusinessException("At most " + MAX_BULK_BODY_IDS + " journey IDs can be requested at once");
+        }
+        List<JourneyResponseDto> journeys = journeyService.getJourneysByIds(journeyReferenceIds);
+        return ResponseEntity.ok(ApiResponse.success(journeys));
+    }
+    
     @GetMapping("/code/{journeyCode}")
     public ResponseEntity<ApiResponse<JourneyResponseDto>> getJourneyByCode(@PathVariable String journeyCode) {
         log.info("Fetching journey by code: {}", journeyCode);
@@ -78,10 +122,26 @@ public class JourneyController {
     }
     
     @GetMapping("/upcoming")
-    public ResponseEntity<ApiResponse<List<JourneyResponseDto>>> getUpcomingJourneys() {
+    public ResponseEntity<ApiResponse<JourneyPageDto>> getUpcomingJourneys(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_UPCOMING_PAGE_SIZE) {
+            throw new BusinessException("Page size must be between 1 and " + MAX_UPCOMING_PAGE_SIZE);
+        }
         log.info("Fetching upcoming journeys");
-        List<JourneyResponseDto> journeys = journeyService.getUpcomingJourneys();
-        return ResponseEntity.ok(ApiResponse.success(journeys));
+        JourneyPageDto page = journeyService.getUpcomingJourneys(cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<ApiResponse<JourneyIndexPageDto>> exportJourneys(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "1000") int limit) {
+        if (limit < 1 || limit > MAX_EXPORT_PAGE_SIZE) {
+            throw new BusinessException("Export page size must be between 1 and " + MAX_EXPORT_PAGE_SIZE);
+        }
+        JourneyIndexPageDto page = journeyService.exportJourneysForIndex(after, limit);
+        return ResponseEntity.ok(ApiResponse.success(page));
     }
     
     // Seat inventory endpoint moved to SeatManagementController to avoid ambiguity
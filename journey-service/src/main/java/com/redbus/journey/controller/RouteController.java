@@ -1,16 +1,19 @@
 package com.redbus.journey.controller;
 
 import com.redbus.common.dto.ApiResponse;
+import com.redbus.journey.dto.CityStatsDto;
 import com.redbus.journey.dto.RouteRequestDto;
 import com.redbus.journey.dto.RouteResponseDto;
 import com.redbus.journey.service.RouteService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -73,6 +76,16 @@ public class RouteController {
         return ResponseEntity.ok(ApiResponse.success(routes));
     }
     
+    /**
+     * City list with route counts for search-service's city suggestions
+     */
+    @GetMapping("/cities")
+    public ResponseEntity<ApiResponse<List<CityStatsDto>>> getCityStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince) {
+        List<CityStatsDto> cities = routeService.getCityStats(updatedSince);
+        return ResponseEntity.ok(ApiResponse.success(cities));
+    }
+    
     @GetMapping
     public ResponseEntity<ApiResponse<List<RouteResponseDto>>> getAllActiveRoutes() {
         log.info("Fetching all active routes");
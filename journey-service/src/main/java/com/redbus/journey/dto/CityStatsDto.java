@@ -0,0 +1,16 @@
+package com.redbus.journey.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CityStatsDto {
+    private String city;
+    private String state;
+    private Long routeCount;
+}
@@ -0,0 +1,29 @@
+package com.redbus.journey.dto;
+
+import com.redbus.journey.enums.JourneyChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneyChangeEventDto {
+    private JourneyChangeType changeType;
+    
+    /**
+     * Increases with every change recorded for the journey; consumers drop events older than one already applied
+     */
+    private Long sequence;
+    
+    private LocalDateTime occurredAt;
+    
+    /**
+     * State of the journey when the event was published
+     */
+    private JourneyIndexDto journey;
+}
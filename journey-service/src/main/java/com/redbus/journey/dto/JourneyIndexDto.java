@@ -0,0 +1,61 @@
+package com.redbus.journey.dto;
+
+import com.redbus.journey.enums.JourneyStatus;
+import com.redbus.journey.repository.projection.JourneyIndexView;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneyIndexDto {
+    private UUID referenceId;
+    private String journeyCode;
+    private String routeName;
+    private String sourceCity;
+    private String destinationCity;
+    private Integer distanceKm;
+    private Integer estimatedDurationMinutes;
+    private String agencyReferenceId;
+    private String vehicleReferenceId;
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
+    private JourneyStatus journeyStatus;
+    private Integer totalSeats;
+    private Integer availableSeats;
+    private Double baseFare;
+    private Boolean isActive;
+    private String amenities;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    public static JourneyIndexDto from(JourneyIndexView journey) {
+        return JourneyIndexDto.builder()
+                .referenceId(journey.getReferenceId())
+                .journeyCode(journey.getJourneyCode())
+                .routeName(journey.getRouteName())
+                .sourceCity(journey.getSourceCity())
+                .destinationCity(journey.getDestinationCity())
+                .distanceKm(journey.getDistanceKm())
+                .estimatedDurationMinutes(journey.getEstimatedDurationMinutes())
+                .agencyReferenceId(journey.getAgencyReferenceId())
+                .vehicleReferenceId(journey.getVehicleReferenceId())
+                .departureTime(journey.getDepartureTime())
+                .arrivalTime(journey.getArrivalTime())
+                .journeyStatus(journey.getJourneyStatus())
+                .totalSeats(journey.getTotalSeats())
+                .availableSeats(journey.getAvailableSeats())
+                .baseFare(journey.getBaseFare())
+                .isActive(journey.getIsActive())
+                .amenities(journey.getAmenities())
+                .createdAt(journey.getCreatedAt())
+                .updatedAt(journey.getUpdatedAt())
+                .build();
+    }
+}
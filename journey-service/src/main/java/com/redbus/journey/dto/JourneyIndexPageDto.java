@@ -0,0 +1,21 @@
+package com.redbus.journey.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneyIndexPageDto {
+    private List<JourneyIndexDto> journeys;
+    
+    /**
+     * Pass back as {@code after} to fetch the next page; null once the last page was returned
+     */
+    private Long nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.redbus.journey.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneyPageDto {
+    private List<JourneyResponseDto> journeys;
+    
+    /**
+     * Pass back as {@code cursor} to fetch the next page; null once the last page was returned
+     */
+    private String nextCursor;
+}
@@ -1,6 +1,7 @@
 package com.redbus.journey.dto;
 
 import com.redbus.journey.enums.JourneyStatus;
+import com.redbus.journey.repository.projection.JourneySummaryView;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -33,6 +34,29 @@ public class JourneyResponseDto {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    public static JourneyResponseDto from(JourneySummaryView journey) {
+        return JourneyResponseDto.builder()
+                .referenceId(journey.getReferenceId())
+                .journeyCode(journey.getJourneyCode())
+                .routeReferenceId(journey.getRouteReferenceId())
+                .routeName(journey.getRouteName())
+                .sourceCity(journey.getSourceCity())
+                .destinationCity(journey.getDestinationCity())
+                .vehicleReferenceId(journey.getVehicleReferenceId())
+                .departureTime(journey.getDepartureTime())
+                .arrivalTime(journey.getArrivalTime())
+                .journeyStatus(journey.getJourneyStatus())
+                .totalSeats(journey.getTotalSeats())
+                .availableSeats(journey.getAvailableSeats())
+                .baseFare(journey.getBaseFare())
+                .isActive(journey.getIsActive())
+                .amenities(journey.getAmenities())
+                .estimatedDurationMinutes(journey.getEstimatedDurationMinutes())
+                .createdAt(journey.getCreatedAt())
+                .updatedAt(journey.getUpdatedAt())
+                .build();
+    }
+    
     // Additional getters for compatibility
     public Boolean getIsActive() {
         return isActive;
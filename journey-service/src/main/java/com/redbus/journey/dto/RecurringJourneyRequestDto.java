@@ -0,0 +1,45 @@
+package com.redbus.journey.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringJourneyRequestDto {
+    
+    @NotNull(message = "Route reference ID is required")
+    private UUID routeReferenceId;
+    
+    @NotBlank(message = "Vehicle reference ID is required")
+    private String vehicleReferenceId;
+    
+    @NotNull(message = "Start date is required")
+    @FutureOrPresent(message = "Start date cannot be in the past")
+    private LocalDate startDate;
+    
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+    
+    @NotNull(message = "Departure time is required")
+    private LocalTime departureTime;
+    
+    @NotEmpty(message = "At least one day of the week is required")
+    private List<@NotNull @Min(value = 1, message = "Days of the week run from 1 (Monday) to 7 (Sunday)")
+            @Max(value = 7, message = "Days of the week run from 1 (Monday) to 7 (Sunday)") Integer> daysOfWeek;
+    
+    @DecimalMin(value = "100.0", message = "Base fare must be at least 100")
+    @DecimalMax(value = "50000.0", message = "Base fare cannot exceed 50000")
+    private Double baseFare; // Optional, will use route's base fare if not provided
+    
+    private String amenities; // JSON string of amenities
+    
+    private List<SeatConfigDto> seatConfiguration; // Optional custom seat configuration
+}
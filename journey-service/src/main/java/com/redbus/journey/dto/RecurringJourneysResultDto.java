@@ -0,0 +1,22 @@
+package com.redbus.journey.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringJourneysResultDto {
+    private UUID routeReferenceId;
+    private String vehicleReferenceId;
+    private int journeysCreated;
+    private int seatsCreated;
+    private LocalDateTime firstDeparture;
+    private LocalDateTime lastDeparture;
+}
@@ -0,0 +1,145 @@
+package com.redbus.journey.engine;
+
+import com.redbus.common.exception.BusinessException;
+import com.redbus.journey.enums.JourneyChangeType;
+import com.redbus.journey.outbox.JourneyChangeRecorder;
+import com.redbus.journey.repository.JourneyRepository;
+import com.redbus.journey.repository.SeatInventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maintains {@code journeys.available_seats} when seats are locked through database row locks.
+ *
+ * In {@code atomic} mode every change is a single guarded UPDATE, so concurrent bookings never
+ * read-modify-write the journey entity. In {@code striped} mode committed changes are summed in
+ * per-journey {@link LongAdder}s, taking the hot journey row off the booking path entirely; each run
+ * of {@link #reconcilePending} writes a busy journey's net change as one bounded UPDATE, and once a
+ * journey has gone a run without changes its count is recomputed from seat_inventory and it is dropped.
+ */
+@Component
+@Slf4j
+public class AvailableSeatCounter {
+
+    public enum Mode {
+        ATOMIC,
+        STRIPED
+    }
+
+    private final JourneyRepository journeyRepository;
+    private final SeatInventoryRepository seatInventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JourneyChangeRecorder journeyChangeRecorder;
+    private final Mode mode;
+    private final ConcurrentHashMap<Long, LongAdder> pendingChanges = new ConcurrentHashMap<>();
+
+    public AvailableSeatCounter(JourneyRepository journeyRepository,
+                                SeatInventoryRepository seatInventoryRepository,
+                                TransactionTemplate transactionTemplate,
+                                JourneyChangeRecorder journeyChangeRecorder,
+                                @Value("${journey.seat-counter.mode:atomic}") String mode) {
+        this.journeyRepository = journeyRepository;
+        this.seatInventoryRepository = seatInventoryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.journeyChangeRecorder = journeyChangeRecorder;
+        this.mode = Mode.valueOf(mode.toUpperCase());
+    }
+
+    /**
+     * Take seats out of the journey's available count
+     */
+    public void reserve(Long journeyId, int seats) {
+        if (mode == Mode.STRIPED) {
+            recordAfterCommit(journeyId, -seats);
+            return;
+        }
+        if (journeyRepository.decrementAvailableSeats(journeyId, seats) == 0) {
+            throw new BusinessException("Not enough seats available");
+        }
+        journeyChangeRecorder.record(journeyId, JourneyChangeType.SEATS_CHANGED);
+    }
+
+    /**
+     * Give seats back to the journey's available count
+     */
+    public void restore(Long journeyId, int seats) {
+        if (seats == 0) {
+            return;
+        }
+        if (mode == Mode.STRIPED) {
+            recordAfterCommit(journeyId, seats);
+            return;
+        }
+        if (journeyRepository.incrementAvailableSeats(journeyId, seats) == 0) {
+            log.warn("Available seat count for journey {} out of range, reconciling", journeyId);
+            reconcile(journeyId);
+            return;
+        }
+        journeyChangeRecorder.record(journeyId, JourneyChangeType.SEATS_CHANGED);
+    }
+
+    /**
+     * Apply the net seat change of every journey changed since the last run, and recount idle ones
+     */
+    public void reconcilePending() {
+        pendingChanges.forEach((journeyId, changes) -> {
+            long delta = changes.sumThenReset();
+            if (delta == 0) {
+                // A late change can still land in the adder being dropped, but its transaction has
+                // committed before it was added, so the recount below already includes it
+                if (pendingChanges.remove(journeyId, changes)) {
+                    runOrRetry(journeyId, 0, () -> reconcile(journeyId));
+                }
+                return;
+            }
+            runOrRetry(journeyId, delta, () -> {
+                if (journeyRepository.adjustAvailableSeats(journeyId, (int) delta) == 0) {
+                    log.warn("Net seat change {} for journey {} out of range, reconciling", delta, journeyId);
+                    reconcile(journeyId);
+                    return;
+                }
+                journeyChangeRecorder.record(journeyId, JourneyChangeType.SEATS_CHANGED);
+            });
+        });
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    private void reconcile(Long journeyId) {
+        journeyRepository.updateAvailableSeats(journeyId, seatInventoryRepository.countAvailableSeats(journeyId));
+        journeyChangeRecorder.record(journeyId, JourneyChangeType.SEATS_CHANGED);
+    }
+
+    private void runOrRetry(Long journeyId, long delta, Runnable update) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> update.run());
+        } catch (RuntimeException e) {
+            log.error("Failed to update available seats for journey {}, will retry", journeyId, e);
+            // Keeps the journey pending; with a zero delta it is recounted on the next run
+            pendingChanges.computeIfAbsent(journeyId, id -> new LongAdder()).add(delta);
+        }
+    }
+
+    private void recordAfterCommit(Long journeyId, int delta) {
+        // Only count committed seat changes so a reconcile never misses an in-flight transaction
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingChanges.computeIfAbsent(journeyId, id -> new LongAdder()).add(delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pendingChanges.computeIfAbsent(journeyId, id -> new LongAdder()).add(delta);
+            }
+        });
+    }
+}
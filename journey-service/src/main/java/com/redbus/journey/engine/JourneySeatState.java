@@ -0,0 +1,343 @@
+package com.redbus.journey.engine;
+
+import com.redbus.journey.entity.SeatInventory;
+import com.redbus.journey.entity.SeatType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory seat map for a single journey.
+ *
+ * Each seat takes two bits in a packed {@link AtomicLongArray} (32 seats per word), so holds,
+ * bookings and releases are single-word compare-and-set operations with no monitor locks.
+ * Seat metadata is captured once when the journey is loaded and never changes afterwards.
+ *
+ * Callers pin the state while they use it. A state with no pins and no unwritten changes can be
+ * retired, after which it can no longer be pinned; the engine then drops it and the next access
+ * loads a fresh copy from the database, so no change is ever made to a copy that has been dropped.
+ */
+public class JourneySeatState {
+
+    public static final int AVAILABLE = 0;
+    public static final int HELD = 1;
+    public static final int BOOKED = 2;
+
+    public static final String HOLD_MARKER = "LOCKED";
+
+    private static final int BITS_PER_SEAT = 2;
+    private static final int SEATS_PER_WORD = Long.SIZE / BITS_PER_SEAT;
+    private static final long SEAT_MASK = (1L << BITS_PER_SEAT) - 1;
+
+    private final Long journeyId;
+    private final UUID journeyReferenceId;
+    private final UUID[] referenceIds;
+    private final String[] seatNumbers;
+    private final SeatType[] seatTypes;
+    private final boolean[] ladiesSeats;
+    private final double[] fareMultipliers;
+    private final Map<UUID, Integer> indexByReferenceId;
+
+    private final AtomicLongArray states;
+    private final AtomicLongArray dirty;
+    private final AtomicReferenceArray<String> bookingReferenceIds;
+    private final AtomicInteger availableCount = new AtomicInteger();
+    private final AtomicInteger pins = new AtomicInteger();
+    private volatile long lastPinnedAt = System.currentTimeMillis();
+
+    private JourneySeatState(Long journeyId, UUID journeyReferenceId, int seatCount) {
+        this.journeyId = journeyId;
+        this.journeyReferenceId = journeyReferenceId;
+        this.referenceIds = new UUID[seatCount];
+        this.seatNumbers = new String[seatCount];
+        this.seatTypes = new SeatType[seatCount];
+        this.ladiesSeats = new boolean[seatCount];
+        this.fareMultipliers = new double[seatCount];
+        this.indexByReferenceId = new HashMap<>(seatCount * 2);
+        int words = (seatCount + SEATS_PER_WORD - 1) / SEATS_PER_WORD;
+        this.states = new AtomicLongArray(words);
+        this.dirty = new AtomicLongArray((seatCount + Long.SIZE - 1) / Long.SIZE);
+        this.bookingReferenceIds = new AtomicReferenceArray<>(seatCount);
+    }
+
+    /**
+     * Build the seat map from the durable seat inventory rows of a journey
+     */
+    public static JourneySeatState load(Long journeyId, UUID journeyReferenceId, List<SeatInventory> seats) {
+        JourneySeatState state = new JourneySeatState(journeyId, journeyReferenceId, seats.size());
+        int available = 0;
+        for (int i = 0; i < seats.size(); i++) {
+            SeatInventory seat = seats.get(i);
+            state.referenceIds[i] = seat.getReferenceId();
+            state.seatNumbers[i] = seat.getSeatNumber();
+            state.seatTypes[i] = seat.getSeatType();
+            state.ladiesSeats[i] = Boolean.TRUE.equals(seat.getIsLadiesSeat());
+            state.fareMultipliers[i] = seat.getFareMultiplier() != null ? seat.getFareMultiplier() : 1.0;
+            state.indexByReferenceId.put(seat.getReferenceId(), i);
+
+            int seatState;
+            if (Boolean.TRUE.equals(seat.getIsAvailable())) {
+                seatState = AVAILABLE;
+                available++;
+            } else if (seat.getBookingReferenceId() == null || HOLD_MARKER.equals(seat.getBookingReferenceId())) {
+                seatState = HELD;
+            } else {
+                seatState = BOOKED;
+                state.bookingReferenceIds.set(i, seat.getBookingReferenceId());
+            }
+            state.set(i, seatState);
+        }
+        state.availableCount.set(available);
+        return state;
+    }
+
+    /**
+     * Resolve seat reference IDs to seat indexes, or null if any seat does not belong to this journey
+     */
+    public int[] indexesOf(List<UUID> seatReferenceIds) {
+        int[] indexes = new int[seatReferenceIds.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            Integer index = indexByReferenceId.get(seatReferenceIds.get(i));
+            if (index == null) {
+                return null;
+            }
+            indexes[i] = index;
+        }
+        return indexes;
+    }
+
+    /**
+     * Move every seat from AVAILABLE to HELD, or none of them
+     */
+    public boolean tryHold(int[] indexes) {
+        for (int i = 0; i < indexes.length; i++) {
+            if (!compareAndSet(indexes[i], AVAILABLE, HELD)) {
+                for (int j = 0; j < i; j++) {
+                    compareAndSet(indexes[j], HELD, AVAILABLE);
+                }
+                return false;
+            }
+        }
+        availableCount.addAndGet(-indexes.length);
+        markDirty(indexes);
+        return true;
+    }
+
+    /**
+     * Move every seat from HELD to BOOKED against the given booking, or none of them; seats already
+     * booked by the same booking count as booked again, so a retried confirmation succeeds
+     */
+    public boolean tryBook(int[] indexes, String bookingReferenceId) {
+        boolean[] moved = new boolean[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            int index = indexes[i];
+            if (compareAndSet(index, HELD, BOOKED)) {
+                bookingReferenceIds.set(index, bookingReferenceId);
+                moved[i] = true;
+            } else if (stateOf(index) != BOOKED || !bookingReferenceId.equals(bookingReferenceIds.get(index))) {
+                for (int j = 0; j < i; j++) {
+                    if (moved[j]) {
+                        bookingReferenceIds.set(indexes[j], null);
+                        compareAndSet(indexes[j], BOOKED, HELD);
+                    }
+                }
+                return false;
+            }
+        }
+        markDirty(indexes);
+        return true;
+    }
+
+    /**
+     * Return seats to AVAILABLE; seats that were already available are left untouched
+     *
+     * @return number of seats that actually changed state
+     */
+    public int release(int[] indexes) {
+        int released = 0;
+        for (int index : indexes) {
+            if (getAndSet(index, AVAILABLE) != AVAILABLE) {
+                released++;
+            }
+            bookingReferenceIds.set(index, null);
+        }
+        availableCount.addAndGet(released);
+        markDirty(indexes);
+        return released;
+    }
+
+    public int stateOf(int index) {
+        int word = index / SEATS_PER_WORD;
+        int shift = (index % SEATS_PER_WORD) * BITS_PER_SEAT;
+        return (int) ((states.get(word) >>> shift) & SEAT_MASK);
+    }
+
+    public boolean isAvailable(int index) {
+        return stateOf(index) == AVAILABLE;
+    }
+
+    /**
+     * Booking reference as persisted in seat_inventory: the booking ID, the hold marker, or null
+     */
+    public String persistedBookingReferenceId(int index) {
+        return persistedBookingReferenceId(index, stateOf(index));
+    }
+
+    public String persistedBookingReferenceId(int index, int seatState) {
+        switch (seatState) {
+            case HELD:
+                return HOLD_MARKER;
+            case BOOKED:
+                return bookingReferenceIds.get(index);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Collect and clear the indexes of seats changed since the last drain
+     */
+    public int[] drainDirty() {
+        int[] buffer = new int[seatCount()];
+        int count = 0;
+        for (int word = 0; word < dirty.length(); word++) {
+            long bits = dirty.getAndSet(word, 0L);
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                buffer[count++] = word * Long.SIZE + bit;
+                bits &= bits - 1;
+            }
+        }
+        int[] drained = new int[count];
+        System.arraycopy(buffer, 0, drained, 0, count);
+        return drained;
+    }
+
+    public void markDirty(int[] indexes) {
+        for (int index : indexes) {
+            int word = index / Long.SIZE;
+            long bit = 1L << (index % Long.SIZE);
+            long current;
+            do {
+                current = dirty.get(word);
+            } while ((current & bit) == 0 && !dirty.compareAndSet(word, current, current | bit));
+        }
+    }
+
+    /**
+     * Pin the state for use, unless it has been retired
+     */
+    boolean pin() {
+        while (true) {
+            int current = pins.get();
+            if (current < 0) {
+                return false;
+            }
+            if (pins.compareAndSet(current, current + 1)) {
+                lastPinnedAt = System.currentTimeMillis();
+                return true;
+            }
+        }
+    }
+
+    void unpin() {
+        pins.decrementAndGet();
+    }
+
+    /**
+     * Retire the state if nobody has it pinned and every change has been drained for write-back
+     */
+    boolean tryRetire() {
+        if (!pins.compareAndSet(0, -1)) {
+            return false;
+        }
+        // Nobody can change seats any more, so the dirty bits are final
+        for (int word = 0; word < dirty.length(); word++) {
+            if (dirty.get(word) != 0) {
+                pins.set(0);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void unretire() {
+        pins.set(0);
+    }
+
+    long lastPinnedAt() {
+        return lastPinnedAt;
+    }
+
+    public Long getJourneyId() {
+        return journeyId;
+    }
+
+    public UUID getJourneyReferenceId() {
+        return journeyReferenceId;
+    }
+
+    public int getAvailableCount() {
+        return availableCount.get();
+    }
+
+    public int seatCount() {
+        return referenceIds.length;
+    }
+
+    public UUID referenceIdOf(int index) {
+        return referenceIds[index];
+    }
+
+    public String seatNumberOf(int index) {
+        return seatNumbers[index];
+    }
+
+    public SeatType seatTypeOf(int index) {
+        return seatTypes[index];
+    }
+
+    public boolean isLadiesSeat(int index) {
+        return ladiesSeats[index];
+    }
+
+    public double fareMultiplierOf(int index) {
+        return fareMultipliers[index];
+    }
+
+    private boolean compareAndSet(int index, int expected, int update) {
+        int word = index / SEATS_PER_WORD;
+        int shift = (index % SEATS_PER_WORD) * BITS_PER_SEAT;
+        while (true) {
+            long current = states.get(word);
+            if (((current >>> shift) & SEAT_MASK) != expected) {
+                return false;
+            }
+            long next = (current & ~(SEAT_MASK << shift)) | ((long) update << shift);
+            if (states.compareAndSet(word, current, next)) {
+                return true;
+            }
+        }
+    }
+
+    private int getAndSet(int index, int update) {
+        int word = index / SEATS_PER_WORD;
+        int shift = (index % SEATS_PER_WORD) * BITS_PER_SEAT;
+        while (true) {
+            long current = states.get(word);
+            long next = (current & ~(SEAT_MASK << shift)) | ((long) update << shift);
+            if (states.compareAndSet(word, current, next)) {
+                return (int) ((current >>> shift) & SEAT_MASK);
+            }
+        }
+    }
+
+    private void set(int index, int update) {
+        getAndSet(index, update);
+    }
+}
@@ -0,0 +1,224 @@
+package com.redbus.journey.engine;
+
+import com.redbus.journey.entity.Journey;
+import com.redbus.journey.enums.JourneyChangeType;
+import com.redbus.journey.outbox.JourneyChangeRecorder;
+import com.redbus.journey.repository.JourneyRepository;
+import com.redbus.journey.repository.SeatInventoryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Authoritative in-memory seat state for journeys served by this instance.
+ *
+ * Journeys are spread over independent shards by reference ID and loaded lazily from
+ * seat_inventory on first access. Seat changes are applied in memory and written back to
+ * Postgres in batches by {@link #flush()}, which keeps the database as the durable record
+ * while taking row locks off the booking path.
+ *
+ * Only journeys being booked stay resident: after each flush, journeys nobody has used for the
+ * idle period are dropped once all their changes are written back, and cancelling or deactivating
+ * a journey drops it as soon as it is clean. Read-only callers {@link #peek} and never load a journey.
+ *
+ * The engine assumes a journey's seats are only mutated through one journey-service instance;
+ * set {@code journey.seat-engine.enabled=false} to fall back to database row locking.
+ */
+@Component
+@Slf4j
+public class SeatStateEngine {
+
+    private final SeatInventoryRepository seatInventoryRepository;
+    private final JourneyRepository journeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JourneyChangeRecorder journeyChangeRecorder;
+    private final boolean enabled;
+    private final ConcurrentHashMap<UUID, JourneySeatState>[] shards;
+    private final Set<UUID> dirtyJourneys = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> writingJourneys = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> evictionRequests = ConcurrentHashMap.newKeySet();
+    private final long idleEvictionMillis;
+
+    @SuppressWarnings("unchecked")
+    public SeatStateEngine(SeatInventoryRepository seatInventoryRepository,
+                           JourneyRepository journeyRepository,
+                           TransactionTemplate transactionTemplate,
+                           JourneyChangeRecorder journeyChangeRecorder,
+                           @Value("${journey.seat-engine.enabled:true}") boolean enabled,
+                           @Value("${journey.seat-engine.shards:16}") int shardCount,
+                           @Value("${journey.seat-engine.idle-eviction-ms:600000}") long idleEvictionMillis) {
+        this.seatInventoryRepository = seatInventoryRepository;
+        this.journeyRepository = journeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.journeyChangeRecorder = journeyChangeRecorder;
+        this.enabled = enabled;
+        this.idleEvictionMillis = idleEvictionMillis;
+        this.shards = new ConcurrentHashMap[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Run an action on the seat state of a journey, loading it from the database on first access.
+     * The state is pinned for the duration of the action, so it cannot be dropped while seats change.
+     */
+    public <T> T withState(Journey journey, Function<JourneySeatState, T> action) {
+        ConcurrentHashMap<UUID, JourneySeatState> shard = shardFor(journey.getReferenceId());
+        JourneySeatState state;
+        while (true) {
+            state = shard.computeIfAbsent(journey.getReferenceId(), referenceId -> {
+                log.debug("Loading seat state for journey: {}", referenceId);
+                return JourneySeatState.load(journey.getId(), referenceId,
+                        seatInventoryRepository.findByJourneyIdOrderBySeatNumber(journey.getId()));
+            });
+            if (state.pin()) {
+                break;
+            }
+            // Being evicted: it is about to be removed, or handed back if the eviction finds it busy
+            Thread.onSpinWait();
+        }
+        try {
+            return action.apply(state);
+        } finally {
+            state.unpin();
+        }
+    }
+
+    /**
+     * Get the seat state for a journey only if it is already resident
+     */
+    public JourneySeatState peek(UUID journeyReferenceId) {
+        return shardFor(journeyReferenceId).get(journeyReferenceId);
+    }
+
+    /**
+     * Drop a journey's resident state, so its next use reloads it from the database; a journey with
+     * changes not yet written back is dropped by the flush that writes them
+     */
+    public void evict(UUID journeyReferenceId) {
+        JourneySeatState state = peek(journeyReferenceId);
+        if (state != null && !tryEvict(journeyReferenceId, state)) {
+            evictionRequests.add(journeyReferenceId);
+        }
+    }
+
+    /**
+     * Record that a journey has seat changes waiting to be written back
+     */
+    public void markDirty(JourneySeatState state) {
+        dirtyJourneys.add(state.getJourneyReferenceId());
+    }
+
+    /**
+     * Write all pending seat changes back to the database, one short transaction per journey.
+     * Seats changed several times since the last flush are written once with their latest state.
+     */
+    public void flush() {
+        for (UUID journeyReferenceId : dirtyJourneys) {
+            dirtyJourneys.remove(journeyReferenceId);
+            JourneySeatState state = peek(journeyReferenceId);
+            if (state == null) {
+                continue;
+            }
+            // Drained changes are in neither the dirty bits nor the database until the write commits
+            writingJourneys.add(journeyReferenceId);
+            try {
+                int[] indexes = state.drainDirty();
+                if (indexes.length == 0) {
+                    continue;
+                }
+                try {
+                    transactionTemplate.executeWithoutResult(status -> writeBack(state, indexes));
+                } catch (RuntimeException e) {
+                    log.error("Failed to write back {} seats for journey {}, will retry",
+                            indexes.length, journeyReferenceId, e);
+                    state.markDirty(indexes);
+                    dirtyJourneys.add(journeyReferenceId);
+                }
+            } finally {
+                writingJourneys.remove(journeyReferenceId);
+            }
+        }
+        evictIdle();
+    }
+
+    /**
+     * Drop journeys whose eviction was requested, or that nobody has used for the idle period
+     */
+    private void evictIdle() {
+        evictionRequests.removeIf(journeyReferenceId -> peek(journeyReferenceId) == null);
+        long idleSince = System.currentTimeMillis() - idleEvictionMillis;
+        for (ConcurrentHashMap<UUID, JourneySeatState> shard : shards) {
+            shard.forEach((journeyReferenceId, state) -> {
+                boolean requested = evictionRequests.contains(journeyReferenceId);
+                if ((requested || state.lastPinnedAt() < idleSince) && tryEvict(journeyReferenceId, state)) {
+                    evictionRequests.remove(journeyReferenceId);
+                }
+            });
+        }
+    }
+
+    private boolean tryEvict(UUID journeyReferenceId, JourneySeatState state) {
+        if (!state.tryRetire()) {
+            return false;
+        }
+        // Checked after retiring: clean dirty bits with no write in flight means every change is committed
+        if (dirtyJourneys.contains(journeyReferenceId) || writingJourneys.contains(journeyReferenceId)) {
+            state.unretire();
+            return false;
+        }
+        shardFor(journeyReferenceId).remove(journeyReferenceId, state);
+        log.debug("Evicted seat state for journey: {}", journeyReferenceId);
+        return true;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing seat state before shutdown");
+        flush();
+    }
+
+    private void writeBack(JourneySeatState state, int[] indexes) {
+        List<UUID> availableSeats = new ArrayList<>();
+        Map<String, List<UUID>> unavailableSeats = new HashMap<>();
+        for (int index : indexes) {
+            int seatState = state.stateOf(index);
+            if (seatState == JourneySeatState.AVAILABLE) {
+                availableSeats.add(state.referenceIdOf(index));
+            } else {
+                unavailableSeats.computeIfAbsent(state.persistedBookingReferenceId(index, seatState),
+                        ref -> new ArrayList<>()).add(state.referenceIdOf(index));
+            }
+        }
+
+        if (!availableSeats.isEmpty()) {
+            seatInventoryRepository.updateSeatAvailability(availableSeats, true, null);
+        }
+        unavailableSeats.forEach((bookingReferenceId, seatIds) ->
+                seatInventoryRepository.updateSeatAvailability(seatIds, false, bookingReferenceId));
+        journeyRepository.updateAvailableSeats(state.getJourneyId(), state.getAvailableCount());
+        journeyChangeRecorder.record(state.getJourneyId(), JourneyChangeType.SEATS_CHANGED);
+
+        log.debug("Wrote back {} seats for journey {}", indexes.length, state.getJourneyReferenceId());
+    }
+
+    private ConcurrentHashMap<UUID, JourneySeatState> shardFor(UUID journeyReferenceId) {
+        return shards[Math.floorMod(journeyReferenceId.hashCode(), shards.length)];
+    }
+}
@@ -13,7 +13,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "journeys")
+@Table(name = "journeys", indexes = {
+        @Index(name = "idx_journeys_route_departure", columnList = "route_id, departure_time"),
+        @Index(name = "idx_journeys_departure_id", columnList = "departure_time, id"),
+        @Index(name = "idx_journeys_vehicle_departure", columnList = "vehicle_reference_id, departure_time")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -43,7 +47,11 @@ public class Journey extends BaseEntity {
     @Column(name = "total_seats", nullable = false)
     private Integer totalSeats;
     
-    @Column(name = "available_seats", nullable = false)
+    /**
+     * Written only by the guarded counter updates in JourneyRepository, never by saving the entity,
+     * so a save cannot put back a count other bookings have since changed
+     */
+    @Column(name = "available_seats", nullable = false, updatable = false)
     private Integer availableSeats;
     
     @Column(name = "base_fare", nullable = false)
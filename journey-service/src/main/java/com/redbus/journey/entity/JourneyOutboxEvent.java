@@ -0,0 +1,43 @@
+package com.redbus.journey.entity;
+
+import com.redbus.common.entity.BaseEntity;
+import com.redbus.journey.enums.JourneyChangeType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Marker that a journey changed, written in the same transaction as the change itself.
+ * The publisher reads the journey's current state when it sends the event, so the row
+ * only records which journey changed and how. A deletion also records the journey's reference id,
+ * since there is no journey row left to read it from.
+ */
+@Entity
+@Table(name = "journey_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneyOutboxEvent extends BaseEntity {
+    
+    @Column(name = "journey_id", nullable = false)
+    private Long journeyId;
+    
+    @Column(name = "journey_reference_id")
+    private UUID journeyReferenceId;
+    
+    @Column(name = "change_type", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private JourneyChangeType changeType;
+    
+    /**
+     * Set while a publisher is sending the event; other publishers skip it until then
+     */
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+}
@@ -11,7 +11,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "routes")
+@Table(name = "routes", indexes = {
+        @Index(name = "idx_routes_source_destination", columnList = "source_city, destination_city")
+})
 @Getter
 @Setter
 @NoArgsConstructor
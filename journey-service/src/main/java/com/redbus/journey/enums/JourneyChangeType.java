@@ -0,0 +1,9 @@
+package com.redbus.journey.enums;
+
+public enum JourneyChangeType {
+    CREATED,
+    UPDATED,
+    CANCELLED,
+    SEATS_CHANGED,
+    DELETED
+}
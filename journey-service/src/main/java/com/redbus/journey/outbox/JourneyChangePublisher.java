@@ -0,0 +1,189 @@
+package com.redbus.journey.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redbus.journey.dto.JourneyChangeEventDto;
+import com.redbus.journey.dto.JourneyIndexDto;
+import com.redbus.journey.entity.JourneyOutboxEvent;
+import com.redbus.journey.enums.JourneyChangeType;
+import com.redbus.journey.repository.JourneyOutboxRepository;
+import com.redbus.journey.repository.JourneyRepository;
+import com.redbus.journey.repository.projection.JourneyIndexView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes journey changes recorded in the outbox to Kafka.
+ *
+ * Each run claims a batch of due outbox rows by leasing them in a short transaction, folds the rows
+ * of each journey into a single event carrying the journey's current state, and sends them keyed by
+ * journey so a journey's events stay ordered within its partition. No database connection is held
+ * while the broker acknowledges; the rows of acknowledged journeys are then deleted in a second
+ * transaction.
+ * A journey whose row is gone is sent as a {@code DELETED} event carrying only the reference id recorded
+ * with its deletion, so consumers drop it rather than keep serving it.
+ * A journey whose send fails keeps its rows, which are sent again once their lease expires, so delivery
+ * is at least once and may overtake newer events; the sequence number lets consumers discard events
+ * older than one they have already applied.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JourneyChangePublisher {
+    
+    private final JourneyOutboxRepository outboxRepository;
+    private final JourneyRepository journeyRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${journey.events.topic:journey-changes}")
+    private String topic;
+    
+    @Value("${journey.outbox.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${journey.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+    
+    @Value("${journey.outbox.lease-ms:60000}")
+    private long leaseMs;
+    
+    /**
+     * Publish one batch of outbox rows
+     *
+     * @return number of outbox rows claimed, so callers can keep draining while batches come back full
+     */
+    public int publishPending() {
+        List<JourneyOutboxEvent> rows = transactionTemplate.execute(status -> claimDueRows());
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+        
+        Map<Long, JourneyChangeEventDto> events = coalesce(rows);
+        Map<Long, JourneyIndexView> journeys = journeyRepository.findIndexViewsByIds(events.keySet()).stream()
+                .collect(Collectors.toMap(JourneyIndexView::getId, Function.identity()));
+        
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> done = new HashSet<>();
+        Map<Long, CompletableFuture<?>> sends = new LinkedHashMap<>();
+        events.forEach((journeyId, event) -> {
+            JourneyIndexView journey = journeys.get(journeyId);
+            if (journey != null) {
+                event.setJourney(JourneyIndexDto.from(journey));
+            } else if (event.getJourney() != null) {
+                event.setChangeType(JourneyChangeType.DELETED);
+            } else {
+                log.warn("Journey {} is gone and no deletion was recorded for it, dropping its event", journeyId);
+                done.add(journeyId);
+                return;
+            }
+            event.setOccurredAt(now);
+            String key = event.getJourney().getReferenceId().toString();
+            sends.put(journeyId, kafkaTemplate.send(topic, key, toJson(event)));
+        });
+        done.addAll(acknowledged(sends));
+        
+        List<Long> consumed = rows.stream()
+                .filter(row -> done.contains(row.getJourneyId()))
+                .map(JourneyOutboxEvent::getId)
+                .collect(Collectors.toList());
+        if (!consumed.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAllByIdInBatch(consumed));
+        }
+        log.debug("Published {} journey events for {} outbox rows, {} rows left for retry",
+                sends.size(), rows.size(), rows.size() - consumed.size());
+        return rows.size();
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * One event per journey: the latest structural change wins over seat-count changes,
+     * and the sequence is the newest outbox row folded in. A recorded deletion leaves the
+     * journey's reference id on the event, in case the journey row is gone by now.
+     */
+    private Map<Long, JourneyChangeEventDto> coalesce(List<JourneyOutboxEvent> rows) {
+        Map<Long, JourneyChangeEventDto> events = new LinkedHashMap<>();
+        for (JourneyOutboxEvent row : rows) {
+            JourneyChangeEventDto event = events.computeIfAbsent(row.getJourneyId(), journeyId ->
+                    JourneyChangeEventDto.builder().changeType(JourneyChangeType.SEATS_CHANGED).sequence(0L).build());
+            if (row.getChangeType() != JourneyChangeType.SEATS_CHANGED) {
+                event.setChangeType(row.getChangeType());
+            }
+            if (row.getJourneyReferenceId() != null) {
+                event.setJourney(JourneyIndexDto.builder().referenceId(row.getJourneyReferenceId()).build());
+            }
+            event.setSequence(Math.max(event.getSequence(), row.getId()));
+        }
+        return events;
+    }
+    
+    private List<JourneyOutboxEvent> claimDueRows() {
+        LocalDateTime now = LocalDateTime.now();
+        List<JourneyOutboxEvent> rows = outboxRepository.lockDue(now, batchSize);
+        if (!rows.isEmpty()) {
+            // Other publishers skip the claimed rows while they are sent; if this instance dies they become due again
+            outboxRepository.extendLease(rows.stream().map(JourneyOutboxEvent::getId).collect(Collectors.toList()),
+                    now.plus(Duration.ofMillis(leaseMs)));
+        }
+        return rows;
+    }
+    
+    /**
+     * Wait for the broker's acknowledgements
+     *
+     * @return journeys whose event was acknowledged; the rest stay leased and are sent again once the lease expires
+     */
+    private List<Long> acknowledged(Map<Long, CompletableFuture<?>> sends) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<Long> acknowledged = new ArrayList<>(sends.size());
+        Exception failure = null;
+        for (Map.Entry<Long, CompletableFuture<?>> send : sends.entrySet()) {
+            try {
+                send.getValue().get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged.add(send.getKey());
+            } catch (ExecutionException | TimeoutException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+                break;
+            }
+        }
+        if (failure != null) {
+            log.warn("Published {} of {} journey events, retrying the rest once their lease expires",
+                    acknowledged.size(), sends.size(), failure);
+        }
+        return acknowledged;
+    }
+    
+    private String toJson(JourneyChangeEventDto event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize journey event", e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.redbus.journey.outbox;
+
+import com.redbus.journey.entity.JourneyOutboxEvent;
+import com.redbus.journey.enums.JourneyChangeType;
+import com.redbus.journey.repository.JourneyOutboxRepository;
+import com.redbus.journey.repository.projection.JourneyKeyView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Records journey changes in the outbox as part of the transaction that makes them
+ */
+@Component
+@RequiredArgsConstructor
+public class JourneyChangeRecorder {
+    
+    private static final String INSERT_EVENT =
+            "INSERT INTO journey_outbox (reference_id, journey_id, journey_reference_id, change_type, created_at, "
+            + "updated_at, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+    private static final int INSERT_BATCH_SIZE = 1000;
+    
+    private final JourneyOutboxRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long journeyId, JourneyChangeType changeType) {
+        JourneyOutboxEvent event = new JourneyOutboxEvent();
+        event.setJourneyId(journeyId);
+        event.setChangeType(changeType);
+        outboxRepository.save(event);
+    }
+    
+    /**
+     * Record the same change for many journeys with one JDBC batch instead of an insert per event
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<Long> journeyIds, JourneyChangeType changeType) {
+        insertAll(journeyIds, journeyId -> null, changeType);
+    }
+    
+    /**
+     * Record journeys about to be deleted, keeping their reference ids for the publisher to key the deletion by
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(List<JourneyKeyView> journeys) {
+        Map<Long, UUID> referenceIds = journeys.stream()
+                .collect(Collectors.toMap(JourneyKeyView::getId, JourneyKeyView::getReferenceId));
+        insertAll(List.copyOf(referenceIds.keySet()), referenceIds::get, JourneyChangeType.DELETED);
+    }
+    
+    private void insertAll(List<Long> journeyIds, Function<Long, UUID> referenceIdOf, JourneyChangeType changeType) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_EVENT, journeyIds, INSERT_BATCH_SIZE, (ps, journeyId) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setLong(2, journeyId);
+            ps.setObject(3, referenceIdOf.apply(journeyId));
+            ps.setString(4, changeType.name());
+            ps.setTimestamp(5, now);
+            ps.setTimestamp(6, now);
+        });
+    }
+}
@@ -0,0 +1,89 @@
+package com.redbus.journey.repository;
+
+import com.redbus.journey.entity.Journey;
+import com.redbus.journey.entity.SeatInventory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Inserts journeys and their seats with JDBC batches, for timetables too large to save one entity at a time.
+ *
+ * Journey IDs are taken from the table's sequence up front, so seats can reference their journey
+ * without reading generated keys back; seat IDs come from their column default. The statements run
+ * in the caller's transaction on the same connection as JPA, and the driver rewrites each batch into
+ * multi-row inserts. Nothing goes through the persistence context, so the given objects stay detached.
+ */
+@Repository
+public class JourneyBulkRepository {
+
+    private static final String NEXT_JOURNEY_IDS =
+            "SELECT nextval(pg_get_serial_sequence('journeys', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_JOURNEY =
+            "INSERT INTO journeys (id, reference_id, route_id, journey_code, vehicle_reference_id, departure_time, "
+            + "arrival_time, journey_status, total_seats, available_seats, base_fare, is_active, amenities, "
+            + "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_SEAT =
+            "INSERT INTO seat_inventory (reference_id, journey_id, seat_number, seat_type, is_available, "
+            + "is_ladies_seat, fare_multiplier, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public JourneyBulkRepository(JdbcTemplate jdbcTemplate,
+                                 @Value("${journey.bulk.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    public List<Long> nextJourneyIds(int count) {
+        return jdbcTemplate.queryForList(NEXT_JOURNEY_IDS, Long.class, count);
+    }
+
+    /**
+     * Insert journeys that already have their ID, reference ID and timestamps set
+     */
+    public void insertJourneys(List<Journey> journeys) {
+        jdbcTemplate.batchUpdate(INSERT_JOURNEY, journeys, batchSize, (ps, journey) -> {
+            ps.setLong(1, journey.getId());
+            ps.setObject(2, journey.getReferenceId());
+            ps.setLong(3, journey.getRoute().getId());
+            ps.setString(4, journey.getJourneyCode());
+            ps.setString(5, journey.getVehicleReferenceId());
+            ps.setTimestamp(6, Timestamp.valueOf(journey.getDepartureTime()));
+            ps.setTimestamp(7, Timestamp.valueOf(journey.getArrivalTime()));
+            ps.setString(8, journey.getJourneyStatus().name());
+            ps.setInt(9, journey.getTotalSeats());
+            ps.setInt(10, journey.getAvailableSeats());
+            ps.setDouble(11, journey.getBaseFare());
+            ps.setBoolean(12, journey.getIsActive());
+            ps.setString(13, journey.getAmenities());
+            ps.setTimestamp(14, Timestamp.valueOf(journey.getCreatedAt()));
+            ps.setTimestamp(15, Timestamp.valueOf(journey.getUpdatedAt()));
+            ps.setLong(16, journey.getVersion());
+        });
+    }
+
+    /**
+     * Insert seats of journeys inserted by {@link #insertJourneys}, with their reference ID and timestamps set
+     */
+    public void insertSeats(List<SeatInventory> seats) {
+        jdbcTemplate.batchUpdate(INSERT_SEAT, seats, batchSize, (ps, seat) -> {
+            ps.setObject(1, seat.getReferenceId());
+            ps.setLong(2, seat.getJourney().getId());
+            ps.setString(3, seat.getSeatNumber());
+            ps.setString(4, seat.getSeatType().name());
+            ps.setBoolean(5, seat.getIsAvailable());
+            ps.setBoolean(6, seat.getIsLadiesSeat());
+            ps.setDouble(7, seat.getFareMultiplier());
+            ps.setTimestamp(8, Timestamp.valueOf(seat.getCreatedAt()));
+            ps.setTimestamp(9, Timestamp.valueOf(seat.getUpdatedAt()));
+            ps.setLong(10, seat.getVersion());
+        });
+    }
+}
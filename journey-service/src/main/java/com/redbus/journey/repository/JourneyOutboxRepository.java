@@ -0,0 +1,27 @@
+package com.redbus.journey.repository;
+
+import com.redbus.journey.entity.JourneyOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JourneyOutboxRepository extends JpaRepository<JourneyOutboxEvent, Long> {
+    
+    /**
+     * Lock the oldest events not leased to a publisher, skipping rows another publisher is claiming
+     */
+    @Query(value = "SELECT * FROM journey_outbox WHERE lease_until IS NULL OR lease_until <= :now " +
+           "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<JourneyOutboxEvent> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    @Modifying
+    @Query("UPDATE JourneyOutboxEvent e SET e.leaseUntil = :leaseUntil WHERE e.id IN :ids")
+    void extendLease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+}
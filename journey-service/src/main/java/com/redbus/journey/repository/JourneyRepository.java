@@ -2,12 +2,18 @@ package com.redbus.journey.repository;
 
 import com.redbus.journey.entity.Journey;
 import com.redbus.journey.enums.JourneyStatus;
+import com.redbus.journey.repository.projection.JourneyIndexView;
+import com.redbus.journey.repository.projection.JourneyKeyView;
+import com.redbus.journey.repository.projection.JourneySummaryView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,8 +25,54 @@ public interface JourneyRepository extends JpaRepository<Journey, Long> {
     
     Optional<Journey> findByJourneyCode(String journeyCode);
     
+    @Query("SELECT j.journeyCode FROM Journey j WHERE j.journeyCode IN :codes")
+    List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+    
+    /**
+     * Journey document columns; a journey is searchable only while its route is active too
+     */
+    String INDEX_VIEW_QUERY = "SELECT j.id AS id, j.referenceId AS referenceId, j.journeyCode AS journeyCode, " +
+            "r.routeName AS routeName, r.sourceCity AS sourceCity, r.destinationCity AS destinationCity, " +
+            "r.distanceKm AS distanceKm, r.estimatedDurationMinutes AS estimatedDurationMinutes, " +
+            "r.agencyReferenceId AS agencyReferenceId, j.vehicleReferenceId AS vehicleReferenceId, " +
+            "j.departureTime AS departureTime, j.arrivalTime AS arrivalTime, j.journeyStatus AS journeyStatus, " +
+            "j.totalSeats AS totalSeats, j.availableSeats AS availableSeats, j.baseFare AS baseFare, " +
+            "CASE WHEN j.isActive = true AND r.isActive = true THEN true ELSE false END AS isActive, " +
+            "j.amenities AS amenities, j.createdAt AS createdAt, j.updatedAt AS updatedAt " +
+            "FROM Journey j JOIN j.route r ";
+    
+    /**
+     * Journey response columns with the route's joined in: one query per list and no entities to hydrate
+     */
+    String SUMMARY_VIEW_QUERY = "SELECT j.id AS id, j.referenceId AS referenceId, j.journeyCode AS journeyCode, " +
+            "r.referenceId AS routeReferenceId, r.routeName AS routeName, r.sourceCity AS sourceCity, " +
+            "r.destinationCity AS destinationCity, j.vehicleReferenceId AS vehicleReferenceId, " +
+            "j.departureTime AS departureTime, j.arrivalTime AS arrivalTime, j.journeyStatus AS journeyStatus, " +
+            "j.totalSeats AS totalSeats, j.availableSeats AS availableSeats, j.baseFare AS baseFare, " +
+            "j.isActive AS isActive, j.amenities AS amenities, " +
+            "r.estimatedDurationMinutes AS estimatedDurationMinutes, j.createdAt AS createdAt, j.updatedAt AS updatedAt " +
+            "FROM Journey j JOIN j.route r ";
+    
+    @Query(INDEX_VIEW_QUERY + "WHERE j.id > :afterId ORDER BY j.id")
+    List<JourneyIndexView> findIndexPage(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(INDEX_VIEW_QUERY + "WHERE j.id IN :ids")
+    List<JourneyIndexView> findIndexViewsByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query(SUMMARY_VIEW_QUERY + "WHERE j.referenceId IN :referenceIds")
+    List<JourneySummaryView> findSummariesByReferenceIdIn(@Param("referenceIds") Collection<UUID> referenceIds);
+    
+    @Query(SUMMARY_VIEW_QUERY + "WHERE r.referenceId = :routeReferenceId ORDER BY j.departureTime")
+    List<JourneySummaryView> findSummariesByRouteReferenceId(@Param("routeReferenceId") UUID routeReferenceId);
+    
     List<Journey> findByRouteId(Long routeId);
     
+    @Query("SELECT j.id FROM Journey j WHERE j.route.id = :routeId")
+    List<Long> findIdsByRouteId(@Param("routeId") Long routeId);
+    
+    @Query("SELECT j.id AS id, j.referenceId AS referenceId FROM Journey j WHERE j.route.id = :routeId")
+    List<JourneyKeyView> findKeysByRouteId(@Param("routeId") Long routeId);
+    
     List<Journey> findByVehicleReferenceId(String vehicleReferenceId);
     
     List<Journey> findByJourneyStatus(JourneyStatus status);
@@ -31,14 +83,30 @@ public interface JourneyRepository extends JpaRepository<Journey, Long> {
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
     
-    @Query("SELECT j FROM Journey j WHERE j.departureTime >= :departureTime AND j.isActive = true ORDER BY j.departureTime")
-    List<Journey> findUpcomingJourneys(@Param("departureTime") LocalDateTime departureTime);
+    /**
+     * Keyset page of active journeys ordered by departure time then ID, starting after the given pair;
+     * compared as one row value so the (departure time, ID) index is read from that position onwards
+     */
+    @Query(SUMMARY_VIEW_QUERY + "WHERE j.isActive = true " +
+            "AND (j.departureTime, j.id) > (:afterDeparture, :afterId) " +
+            "ORDER BY j.departureTime, j.id")
+    List<JourneySummaryView> findUpcomingJourneys(
+            @Param("afterDeparture") LocalDateTime afterDeparture,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
     
-    @Query("SELECT j FROM Journey j JOIN j.route r WHERE r.sourceCity = :sourceCity AND r.destinationCity = :destinationCity AND DATE(j.departureTime) = DATE(:travelDate)")
-    List<Journey> findBySourceDestinationAndDate(
+    /**
+     * Bookable journeys between two cities departing in {@code [from, to)}; a plain range on the
+     * column so the route and departure time indexes apply
+     */
+    @Query(SUMMARY_VIEW_QUERY + "WHERE r.sourceCity = :sourceCity AND r.destinationCity = :destinationCity " +
+            "AND j.departureTime >= :from AND j.departureTime < :to " +
+            "AND j.isActive = true AND j.availableSeats > 0 ORDER BY j.departureTime")
+    List<JourneySummaryView> findBySourceDestinationAndDate(
             @Param("sourceCity") String sourceCity,
             @Param("destinationCity") String destinationCity,
-            @Param("travelDate") LocalDateTime travelDate);
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
     
     boolean existsByJourneyCode(String journeyCode);
     
@@ -47,4 +115,35 @@ public interface JourneyRepository extends JpaRepository<Journey, Long> {
             @Param("vehicleId") String vehicleReferenceId,
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
+    
+    @Query("SELECT j.departureTime FROM Journey j WHERE j.vehicleReferenceId = :vehicleId " +
+            "AND j.departureTime BETWEEN :startTime AND :endTime")
+    List<LocalDateTime> findVehicleDepartureTimes(
+            @Param("vehicleId") String vehicleReferenceId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+    
+    @Query(SUMMARY_VIEW_QUERY + "WHERE j.vehicleReferenceId = :vehicleId " +
+            "AND j.departureTime >= :from AND j.departureTime < :to ORDER BY j.departureTime")
+    List<JourneySummaryView> findVehicleScheduleSummaries(
+            @Param("vehicleId") String vehicleReferenceId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+    
+    @Modifying
+    @Query("UPDATE Journey j SET j.availableSeats = j.availableSeats - :seats WHERE j.id = :journeyId AND j.availableSeats >= :seats")
+    int decrementAvailableSeats(@Param("journeyId") Long journeyId, @Param("seats") Integer seats);
+    
+    @Modifying
+    @Query("UPDATE Journey j SET j.availableSeats = j.availableSeats + :seats WHERE j.id = :journeyId AND j.availableSeats + :seats <= j.totalSeats")
+    int incrementAvailableSeats(@Param("journeyId") Long journeyId, @Param("seats") Integer seats);
+    
+    @Modifying
+    @Query("UPDATE Journey j SET j.availableSeats = j.availableSeats + :delta WHERE j.id = :journeyId " +
+            "AND j.availableSeats + :delta BETWEEN 0 AND j.totalSeats")
+    int adjustAvailableSeats(@Param("journeyId") Long journeyId, @Param("delta") Integer delta);
+    
+    @Modifying
+    @Query("UPDATE Journey j SET j.availableSeats = :availableSeats WHERE j.id = :journeyId")
+    void updateAvailableSeats(@Param("journeyId") Long journeyId, @Param("availableSeats") Integer availableSeats);
 }
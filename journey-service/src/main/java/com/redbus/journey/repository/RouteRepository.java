@@ -1,11 +1,13 @@
 package com.redbus.journey.repository;
 
 import com.redbus.journey.entity.Route;
+import com.redbus.journey.repository.projection.CityRouteCountView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,5 +29,21 @@ public interface RouteRepository extends JpaRepository<Route, Long> {
     @Query("SELECT r FROM Route r LEFT JOIN FETCH r.routeStops rs LEFT JOIN FETCH rs.stop WHERE r.referenceId = :referenceId")
     Optional<Route> findByReferenceIdWithStops(@Param("referenceId") UUID referenceId);
     
+    boolean existsByReferenceId(UUID referenceId);
+    
     boolean existsByRouteNameAndAgencyReferenceId(String routeName, String agencyReferenceId);
+    
+    @Query("SELECT r.sourceCity AS city, COUNT(r) AS routeCount FROM Route r " +
+           "WHERE r.isActive = true GROUP BY r.sourceCity")
+    List<CityRouteCountView> countActiveRoutesBySourceCity();
+    
+    @Query("SELECT r.destinationCity AS city, COUNT(r) AS routeCount FROM Route r " +
+           "WHERE r.isActive = true GROUP BY r.destinationCity")
+    List<CityRouteCountView> countActiveRoutesByDestinationCity();
+    
+    @Query("SELECT DISTINCT r.sourceCity FROM Route r WHERE r.updatedAt >= :since")
+    List<String> findSourceCitiesUpdatedSince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT DISTINCT r.destinationCity FROM Route r WHERE r.updatedAt >= :since")
+    List<String> findDestinationCitiesUpdatedSince(@Param("since") LocalDateTime since);
 }
@@ -1,6 +1,7 @@
 package com.redbus.journey.repository;
 
 import com.redbus.journey.entity.SeatInventory;
+import com.redbus.journey.repository.projection.SeatAvailabilityView;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
@@ -9,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -26,6 +28,14 @@ public interface SeatInventoryRepository extends JpaRepository<SeatInventory, Lo
     
     List<SeatInventory> findByJourneyIdAndIsAvailableTrue(Long journeyId);
     
+    List<SeatInventory> findByJourneyIdAndReferenceIdIn(Long journeyId, Collection<UUID> referenceIds);
+    
+    @Query("SELECT s.referenceId AS referenceId, s.isAvailable AS isAvailable FROM SeatInventory s " +
+           "WHERE s.journey.id = :journeyId AND s.referenceId IN :referenceIds")
+    List<SeatAvailabilityView> findAvailabilityByJourneyIdAndReferenceIdIn(
+            @Param("journeyId") Long journeyId,
+            @Param("referenceIds") Collection<UUID> referenceIds);
+    
     Optional<SeatInventory> findByJourneyIdAndSeatNumber(Long journeyId, String seatNumber);
     
     @Query("SELECT COUNT(s) FROM SeatInventory s WHERE s.journey.id = :journeyId AND s.isAvailable = true")
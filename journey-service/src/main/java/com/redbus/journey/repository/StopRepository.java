@@ -1,9 +1,13 @@
 package com.redbus.journey.repository;
 
 import com.redbus.journey.entity.Stop;
+import com.redbus.journey.repository.projection.StopCityView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,4 +26,10 @@ public interface StopRepository extends JpaRepository<Stop, Long> {
     List<Stop> findByIsActiveTrue();
     
     boolean existsByStopNameAndCityAndState(String stopName, String city, String state);
+    
+    @Query("SELECT s.city AS city, MAX(s.state) AS state FROM Stop s WHERE s.isActive = true GROUP BY s.city")
+    List<StopCityView> findActiveStopCities();
+    
+    @Query("SELECT DISTINCT s.city FROM Stop s WHERE s.updatedAt >= :since")
+    List<String> findCitiesUpdatedSince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,11 @@
+package com.redbus.journey.repository.projection;
+
+/**
+ * Number of active routes starting or ending in a city
+ */
+public interface CityRouteCountView {
+    
+    String getCity();
+    
+    Long getRouteCount();
+}
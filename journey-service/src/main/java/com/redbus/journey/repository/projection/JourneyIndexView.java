@@ -0,0 +1,52 @@
+package com.redbus.journey.repository.projection;
+
+import com.redbus.journey.enums.JourneyStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat journey-plus-route row used to build the search index, read without loading entities
+ */
+public interface JourneyIndexView {
+    
+    Long getId();
+    
+    UUID getReferenceId();
+    
+    String getJourneyCode();
+    
+    String getRouteName();
+    
+    String getSourceCity();
+    
+    String getDestinationCity();
+    
+    Integer getDistanceKm();
+    
+    Integer getEstimatedDurationMinutes();
+    
+    String getAgencyReferenceId();
+    
+    String getVehicleReferenceId();
+    
+    LocalDateTime getDepartureTime();
+    
+    LocalDateTime getArrivalTime();
+    
+    JourneyStatus getJourneyStatus();
+    
+    Integer getTotalSeats();
+    
+    Integer getAvailableSeats();
+    
+    Double getBaseFare();
+    
+    Boolean getIsActive();
+    
+    String getAmenities();
+    
+    LocalDateTime getCreatedAt();
+    
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,13 @@
+package com.redbus.journey.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * A journey's internal and public ids
+ */
+public interface JourneyKeyView {
+    
+    Long getId();
+    
+    UUID getReferenceId();
+}
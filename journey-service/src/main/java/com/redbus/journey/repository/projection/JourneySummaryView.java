@@ -0,0 +1,50 @@
+package com.redbus.journey.repository.projection;
+
+import com.redbus.journey.enums.JourneyStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Journey-plus-route columns of a journey response, read in one query without loading entities
+ */
+public interface JourneySummaryView {
+    
+    Long getId();
+    
+    UUID getReferenceId();
+    
+    String getJourneyCode();
+    
+    UUID getRouteReferenceId();
+    
+    String getRouteName();
+    
+    String getSourceCity();
+    
+    String getDestinationCity();
+    
+    String getVehicleReferenceId();
+    
+    LocalDateTime getDepartureTime();
+    
+    LocalDateTime getArrivalTime();
+    
+    JourneyStatus getJourneyStatus();
+    
+    Integer getTotalSeats();
+    
+    Integer getAvailableSeats();
+    
+    Double getBaseFare();
+    
+    Boolean getIsActive();
+    
+    String getAmenities();
+    
+    Integer getEstimatedDurationMinutes();
+    
+    LocalDateTime getCreatedAt();
+    
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,13 @@
+package com.redbus.journey.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Read-only projection carrying just what an availability check needs
+ */
+public interface SeatAvailabilityView {
+    
+    UUID getReferenceId();
+    
+    Boolean getIsAvailable();
+}
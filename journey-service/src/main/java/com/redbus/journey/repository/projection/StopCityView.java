@@ -0,0 +1,11 @@
+package com.redbus.journey.repository.projection;
+
+/**
+ * A city that has active stops, with its state
+ */
+public interface StopCityView {
+    
+    String getCity();
+    
+    String getState();
+}
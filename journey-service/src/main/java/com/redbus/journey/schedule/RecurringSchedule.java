@@ -0,0 +1,98 @@
+package com.redbus.journey.schedule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Expands a weekly timetable into departures and finds the ones a vehicle cannot run.
+ *
+ * A vehicle conflicts when another of its journeys departs between an hour before a departure and an
+ * hour after its arrival, the same rule applied to single journeys. The whole batch is checked against
+ * one sorted set of the vehicle's existing departures and against its own later departures.
+ */
+public final class RecurringSchedule {
+
+    /**
+     * Gap kept free on either side of a journey for the vehicle to turn around
+     */
+    public static final long TURNAROUND_MINUTES = 60;
+
+    private final List<LocalDateTime> departures;
+    private final long durationMinutes;
+
+    private RecurringSchedule(List<LocalDateTime> departures, long durationMinutes) {
+        this.departures = departures;
+        this.durationMinutes = durationMinutes;
+    }
+
+    /**
+     * Departures at the given time on each matching day from start to end date, both inclusive
+     */
+    public static RecurringSchedule expand(LocalDate startDate, LocalDate endDate, LocalTime departureTime,
+                                           Set<DayOfWeek> daysOfWeek, long durationMinutes) {
+        List<LocalDateTime> departures = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            if (daysOfWeek.contains(date.getDayOfWeek())) {
+                departures.add(date.atTime(departureTime));
+            }
+        }
+        return new RecurringSchedule(departures, durationMinutes);
+    }
+
+    public List<LocalDateTime> getDepartures() {
+        return departures;
+    }
+
+    public boolean isEmpty() {
+        return departures.isEmpty();
+    }
+
+    public LocalDateTime arrivalOf(LocalDateTime departure) {
+        return departure.plusMinutes(durationMinutes);
+    }
+
+    /**
+     * Earliest existing departure that can conflict with the schedule
+     */
+    public LocalDateTime conflictWindowStart() {
+        return departures.get(0).minusMinutes(TURNAROUND_MINUTES);
+    }
+
+    /**
+     * Latest existing departure that can conflict with the schedule
+     */
+    public LocalDateTime conflictWindowEnd() {
+        return arrivalOf(departures.get(departures.size() - 1)).plusMinutes(TURNAROUND_MINUTES);
+    }
+
+    /**
+     * Departures that clash with the vehicle's existing journeys or with a later departure of this schedule
+     *
+     * @param existingDepartures departures of the vehicle's journeys inside the conflict window
+     */
+    public List<LocalDateTime> findConflicts(Collection<LocalDateTime> existingDepartures) {
+        NavigableSet<LocalDateTime> existing = new TreeSet<>(existingDepartures);
+        List<LocalDateTime> conflicts = new ArrayList<>();
+        for (int i = 0; i < departures.size(); i++) {
+            LocalDateTime departure = departures.get(i);
+            LocalDateTime blockedUntil = arrivalOf(departure).plusMinutes(TURNAROUND_MINUTES);
+            boolean clashesWithExisting = !existing
+                    .subSet(departure.minusMinutes(TURNAROUND_MINUTES), true, blockedUntil, true)
+                    .isEmpty();
+            // Departures are sorted, so if any later one falls inside the block the next one does
+            boolean clashesWithNext = i + 1 < departures.size() && !departures.get(i + 1).isAfter(blockedUntil);
+            if (clashesWithExisting || clashesWithNext) {
+                conflicts.add(departure);
+            }
+        }
+        return conflicts;
+    }
+}
@@ -0,0 +1,29 @@
+package com.redbus.journey.scheduler;
+
+import com.redbus.journey.outbox.JourneyChangePublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JourneyOutboxScheduler {
+    
+    private final JourneyChangePublisher journeyChangePublisher;
+    
+    /**
+     * Drain the journey outbox, continuing while batches come back full
+     */
+    @Scheduled(fixedDelayString = "${journey.outbox.poll-interval-ms:200}")
+    public void publishJourneyChanges() {
+        try {
+            while (journeyChangePublisher.publishPending() == journeyChangePublisher.getBatchSize()) {
+                log.debug("Journey outbox batch was full, publishing next batch");
+            }
+        } catch (Exception e) {
+            log.error("Error publishing journey changes", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.redbus.journey.scheduler;
+
+import com.redbus.journey.engine.AvailableSeatCounter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatCounterReconcileScheduler {
+    
+    private final AvailableSeatCounter availableSeatCounter;
+    
+    /**
+     * Write pending available seat changes of journeys changed in striped counter mode
+     */
+    @Scheduled(fixedDelayString = "${journey.seat-counter.reconcile-interval-ms:1000}")
+    public void reconcileSeatCounters() {
+        if (availableSeatCounter.getMode() != AvailableSeatCounter.Mode.STRIPED) {
+            return;
+        }
+        try {
+            availableSeatCounter.reconcilePending();
+        } catch (Exception e) {
+            log.error("Error reconciling available seat counts", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.redbus.journey.scheduler;
+
+import com.redbus.journey.engine.SeatStateEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatStateFlushScheduler {
+    
+    private final SeatStateEngine seatStateEngine;
+    
+    /**
+     * Write in-memory seat changes back to the database in small batches
+     */
+    @Scheduled(fixedDelayString = "${journey.seat-engine.flush-interval-ms:200}")
+    public void flushSeatState() {
+        try {
+            seatStateEngine.flush();
+        } catch (Exception e) {
+            log.error("Error flushing seat state", e);
+        }
+    }
+}
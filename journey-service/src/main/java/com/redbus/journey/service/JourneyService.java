@@ -1,7 +1,11 @@
 package com.redbus.journey.service;
 
+import com.redbus.journey.dto.JourneyIndexPageDto;
+import com.redbus.journey.dto.JourneyPageDto;
 import com.redbus.journey.dto.JourneyRequestDto;
 import com.redbus.journey.dto.JourneyResponseDto;
+import com.redbus.journey.dto.RecurringJourneyRequestDto;
+import com.redbus.journey.dto.RecurringJourneysResultDto;
 import com.redbus.journey.dto.SeatInventoryDto;
 import com.redbus.journey.enums.JourneyStatus;
 
@@ -19,11 +23,25 @@ public interface JourneyService {
     
     JourneyResponseDto getJourneyByCode(String journeyCode);
     
+    List<JourneyResponseDto> getJourneysByIds(List<UUID> referenceIds);
+    
     List<JourneyResponseDto> getJourneysByRoute(UUID routeReferenceId);
     
     List<JourneyResponseDto> searchJourneys(String sourceCity, String destinationCity, LocalDate travelDate);
     
-    List<JourneyResponseDto> getUpcomingJourneys();
+    /**
+     * Page through active journeys that have not departed yet, soonest first
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    JourneyPageDto getUpcomingJourneys(String cursor, int limit);
+    
+    /**
+     * Page through every journey in ID order for the search index
+     *
+     * @param afterId cursor from the previous page, or null for the first page
+     */
+    JourneyIndexPageDto exportJourneysForIndex(Long afterId, int limit);
     
     List<SeatInventoryDto> getJourneySeatInventory(UUID journeyReferenceId);
     
@@ -37,7 +55,8 @@ public interface JourneyService {
     
     List<JourneyResponseDto> getVehicleSchedule(String vehicleReferenceId, LocalDate date);
     
-    JourneyResponseDto generateRecurringJourneys(UUID routeReferenceId, String vehicleReferenceId, 
-                                                  LocalDate startDate, LocalDate endDate, 
-                                                  String departureTime, List<Integer> daysOfWeek);
+    /**
+     * Create a journey on every matching day of the range, all or none
+     */
+    RecurringJourneysResultDto generateRecurringJourneys(RecurringJourneyRequestDto requestDto);
 }
@@ -1,8 +1,10 @@
 package com.redbus.journey.service;
 
+import com.redbus.journey.dto.CityStatsDto;
 import com.redbus.journey.dto.RouteRequestDto;
 import com.redbus.journey.dto.RouteResponseDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -27,4 +29,10 @@ public interface RouteService {
     void deactivateRoute(UUID referenceId);
     
     void deleteRoute(UUID referenceId);
+    
+    /**
+     * Cities with their number of active routes; with {@code updatedSince}, only cities whose
+     * routes or stops changed since then
+     */
+    List<CityStatsDto> getCityStats(LocalDateTime updatedSince);
 }
@@ -8,7 +8,7 @@ import java.util.UUID;
 public interface SeatManagementService {
     
     /**
-     * Lock seats for booking with pessimistic locking
+     * Lock seats for booking (in-memory hold, or row locks when the seat engine is disabled)
      */
     List<SeatInventoryDto> lockSeatsForBooking(UUID journeyReferenceId, List<UUID> seatInventoryIds);
     
@@ -2,29 +2,51 @@ package com.redbus.journey.service.impl;
 
 import com.redbus.common.exception.BusinessException;
 import com.redbus.common.exception.ResourceNotFoundException;
+import com.redbus.journey.dto.JourneyIndexDto;
+import com.redbus.journey.dto.JourneyIndexPageDto;
+import com.redbus.journey.dto.JourneyPageDto;
 import com.redbus.journey.dto.JourneyRequestDto;
 import com.redbus.journey.dto.JourneyResponseDto;
+import com.redbus.journey.dto.RecurringJourneyRequestDto;
+import com.redbus.journey.dto.RecurringJourneysResultDto;
 import com.redbus.journey.dto.SeatConfigDto;
 import com.redbus.journey.dto.SeatInventoryDto;
+import com.redbus.journey.engine.SeatStateEngine;
 import com.redbus.journey.entity.*;
+import com.redbus.journey.enums.JourneyChangeType;
 import com.redbus.journey.enums.JourneyStatus;
+import com.redbus.journey.outbox.JourneyChangeRecorder;
+import com.redbus.journey.repository.JourneyBulkRepository;
 import com.redbus.journey.repository.JourneyRepository;
 import com.redbus.journey.repository.RouteRepository;
 import com.redbus.journey.repository.SeatInventoryRepository;
+import com.redbus.journey.repository.projection.JourneyIndexView;
+import com.redbus.journey.repository.projection.JourneySummaryView;
+import com.redbus.journey.schedule.RecurringSchedule;
 import com.redbus.journey.service.JourneyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
@@ -35,8 +57,12 @@ public class JourneyServiceImpl implements JourneyService {
     private final JourneyRepository journeyRepository;
     private final RouteRepository routeRepository;
     private final SeatInventoryRepository seatInventoryRepository;
+    private final JourneyChangeRecorder journeyChangeRecorder;
+    private final JourneyBulkRepository journeyBulkRepository;
+    private final SeatStateEngine seatStateEngine;
     
     private static final int DEFAULT_TOTAL_SEATS = 40;
+    private static final int MAX_RECURRING_DAYS = 366;
     private static final String JOURNEY_CODE_PREFIX = "JRN";
     
     @Override
@@ -47,7 +73,7 @@ public class JourneyServiceImpl implements JourneyService {
                 .orElseThrow(() -> new ResourceNotFoundException("Route not found"));
         
         // Generate unique journey code
-        String journeyCode = generateJourneyCode(route, requestDto.getDepartureTime());
+        String journeyCode = generateJourneyCodes(route, List.of(requestDto.getDepartureTime())).get(0);
         
         // Check for vehicle conflicts
         LocalDateTime arrivalTime = requestDto.getDepartureTime().plusMinutes(route.getEstimatedDurationMinutes());
@@ -78,6 +104,7 @@ public class JourneyServiceImpl implements JourneyService {
         
         // Create seat inventory
         createSeatInventory(journey, requestDto.getSeatConfiguration());
+        journeyChangeRecorder.record(journey.getId(), JourneyChangeType.CREATED);
         
         log.info("Journey created with code: {}", journeyCode);
         return toJourneyResponseDto(journey);
@@ -106,6 +133,7 @@ public class JourneyServiceImpl implements JourneyService {
         journey.setAmenities(requestDto.getAmenities());
         
         journey = journeyRepository.save(journey);
+        journeyChangeRecorder.record(journey.getId(), JourneyChangeType.UPDATED);
         return toJourneyResponseDto(journey);
     }
     
@@ -131,16 +159,32 @@ public class JourneyServiceImpl implements JourneyService {
         return toJourneyResponseDto(journey);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<JourneyResponseDto> getJourneysByIds(List<UUID> referenceIds) {
+        log.info("Fetching {} journeys by reference ID", referenceIds.size());
+        
+        if (referenceIds.isEmpty()) {
+            return List.of();
+        }
+        
+        return journeyRepository.findSummariesByReferenceIdIn(new HashSet<>(referenceIds)).stream()
+                .map(JourneyResponseDto::from)
+                .collect(Collectors.toList());
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public List<JourneyResponseDto> getJourneysByRoute(UUID routeReferenceId) {
         log.info("Fetching journeys for route: {}", routeReferenceId);
         
-        Route route = routeRepository.findByReferenceId(routeReferenceId)
-                .orElseThrow(() -> new ResourceNotFoundException("Route not found"));
-        
-        return journeyRepository.findByRouteId(route.getId()).stream()
-                .map(this::toJourneyResponseDto)
+        List<JourneySummaryView> journeys = journeyRepository.findSummariesByRouteReferenceId(routeReferenceId);
+        // Only an empty result needs the extra lookup to tell a missing route from one without journeys
+        if (journeys.isEmpty() && !routeRepository.existsByReferenceId(routeReferenceId)) {
+            throw new ResourceNotFoundException("Route not found");
+        }
+        return journeys.stream()
+                .map(JourneyResponseDto::from)
                 .collect(Collectors.toList());
     }
     
@@ -149,23 +193,54 @@ public class JourneyServiceImpl implements JourneyService {
     public List<JourneyResponseDto> searchJourneys(String sourceCity, String destinationCity, LocalDate travelDate) {
         log.info("Searching journeys from {} to {} on {}", sourceCity, destinationCity, travelDate);
         
-        LocalDateTime startOfDay = travelDate.atStartOfDay();
-        
-        return journeyRepository.findBySourceDestinationAndDate(sourceCity, destinationCity, startOfDay).stream()
-                .filter(j -> j.getIsActive() && j.getAvailableSeats() > 0)
-                .map(this::toJourneyResponseDto)
+        return journeyRepository.findBySourceDestinationAndDate(sourceCity, destinationCity,
+                        travelDate.atStartOfDay(), travelDate.plusDays(1).atStartOfDay()).stream()
+                .map(JourneyResponseDto::from)
                 .collect(Collectors.toList());
     }
     
     @Override
     @Transactional(readOnly = true)
-    public List<JourneyResponseDto> getUpcomingJourneys() {
-        log.info("Fetching upcoming journeys");
+    public JourneyPageDto getUpcomingJourneys(String cursor, int limit) {
+        log.info("Fetching {} upcoming journeys after {}", limit, cursor);
+        
+        // Keyset page on (departure time, ID) with the route columns joined in: the limit is applied by the
+        // database and the cost is the same however many future schedules exist
+        LocalDateTime afterDeparture = LocalDateTime.now();
+        long afterId = 0;
+        if (cursor != null) {
+            String[] position = decodeCursor(cursor);
+            afterDeparture = LocalDateTime.parse(position[0]);
+            afterId = Long.parseLong(position[1]);
+        }
+        List<JourneySummaryView> page = journeyRepository.findUpcomingJourneys(
+                afterDeparture, afterId, PageRequest.of(0, limit));
         
-        return journeyRepository.findUpcomingJourneys(LocalDateTime.now()).stream()
-                .limit(50)
-                .map(this::toJourneyResponseDto)
-                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (page.size() == limit) {
+            JourneySummaryView last = page.get(page.size() - 1);
+            nextCursor = encodeCursor(last.getDepartureTime() + "|" + last.getId());
+        }
+        return JourneyPageDto.builder()
+                .journeys(page.stream().map(JourneyResponseDto::from).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public JourneyIndexPageDto exportJourneysForIndex(Long afterId, int limit) {
+        log.debug("Exporting up to {} journeys after ID {}", limit, afterId);
+        
+        // Keyset page on the primary key: every page is an index range scan, however deep the export goes
+        List<JourneyIndexView> page = journeyRepository.findIndexPage(
+                afterId != null ? afterId : 0L, PageRequest.of(0, limit));
+        
+        Long nextCursor = page.size() == limit ? page.get(page.size() - 1).getId() : null;
+        return JourneyIndexPageDto.builder()
+                .journeys(page.stream().map(JourneyIndexDto::from).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
     }
     
     @Override
@@ -190,6 +265,11 @@ public class JourneyServiceImpl implements JourneyService {
         
         journey.setJourneyStatus(status);
         journeyRepository.save(journey);
+        journeyChangeRecorder.record(journey.getId(),
+                status == JourneyStatus.CANCELLED ? JourneyChangeType.CANCELLED : JourneyChangeType.UPDATED);
+        if (status == JourneyStatus.CANCELLED) {
+            seatStateEngine.evict(referenceId);
+        }
     }
     
     @Override
@@ -206,6 +286,9 @@ public class JourneyServiceImpl implements JourneyService {
         journey.setJourneyStatus(JourneyStatus.CANCELLED);
         journey.setIsActive(false);
         journeyRepository.save(journey);
+        journeyChangeRecorder.record(journey.getId(), JourneyChangeType.CANCELLED);
+        // Cancelled journeys take no more bookings, so their seats need not stay in memory
+        seatStateEngine.evict(referenceId);
     }
     
     @Override
@@ -217,6 +300,7 @@ public class JourneyServiceImpl implements JourneyService {
         
         journey.setIsActive(true);
         journeyRepository.save(journey);
+        journeyChangeRecorder.record(journey.getId(), JourneyChangeType.UPDATED);
     }
     
     @Override
@@ -228,6 +312,8 @@ public class JourneyServiceImpl implements JourneyService {
         
         journey.setIsActive(false);
         journeyRepository.save(journey);
+        journeyChangeRecorder.record(journey.getId(), JourneyChangeType.UPDATED);
+        seatStateEngine.evict(referenceId);
     }
     
     @Override
@@ -235,26 +321,104 @@ public class JourneyServiceImpl implements JourneyService {
     public List<JourneyResponseDto> getVehicleSchedule(String vehicleReferenceId, LocalDate date) {
         log.info("Fetching vehicle {} schedule for {}", vehicleReferenceId, date);
         
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
-        
-        return journeyRepository.findVehicleSchedule(vehicleReferenceId, startOfDay, endOfDay).stream()
-                .map(this::toJourneyResponseDto)
+        return journeyRepository.findVehicleScheduleSummaries(vehicleReferenceId,
+                        date.atStartOfDay(), date.plusDays(1).atStartOfDay()).stream()
+                .map(JourneyResponseDto::from)
                 .collect(Collectors.toList());
     }
     
     @Override
-    public JourneyResponseDto generateRecurringJourneys(UUID routeReferenceId, String vehicleReferenceId,
-                                                        LocalDate startDate, LocalDate endDate,
-                                                        String departureTime, List<Integer> daysOfWeek) {
-        log.info("Generating recurring journeys for route: {}", routeReferenceId);
-        
-        // This is a placeholder for recurring journey generation
-        // In a real implementation, this would create multiple journeys based on the schedule
-        throw new UnsupportedOperationException("Recurring journey generation not yet implemented");
+    public RecurringJourneysResultDto generateRecurringJourneys(RecurringJourneyRequestDto requestDto) {
+        log.info("Generating recurring journeys for route: {} from {} to {}",
+                requestDto.getRouteReferenceId(), requestDto.getStartDate(), requestDto.getEndDate());
+        
+        if (requestDto.getEndDate().isBefore(requestDto.getStartDate())) {
+            throw new BusinessException("End date cannot be before start date");
+        }
+        if (ChronoUnit.DAYS.between(requestDto.getStartDate(), requestDto.getEndDate()) >= MAX_RECURRING_DAYS) {
+            throw new BusinessException("Recurring journeys can span at most " + MAX_RECURRING_DAYS + " days");
+        }
+        
+        Route route = routeRepository.findByReferenceId(requestDto.getRouteReferenceId())
+                .orElseThrow(() -> new ResourceNotFoundException("Route not found"));
+        
+        Set<DayOfWeek> daysOfWeek = requestDto.getDaysOfWeek().stream()
+                .map(DayOfWeek::of)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(DayOfWeek.class)));
+        RecurringSchedule schedule = RecurringSchedule.expand(requestDto.getStartDate(), requestDto.getEndDate(),
+                requestDto.getDepartureTime(), daysOfWeek, route.getEstimatedDurationMinutes());
+        if (schedule.isEmpty()) {
+            throw new BusinessException("No departures fall on the requested days of the week");
+        }
+        
+        // One query for the vehicle's journeys around the whole schedule instead of one per departure
+        List<LocalDateTime> existingDepartures = journeyRepository.findVehicleDepartureTimes(
+                requestDto.getVehicleReferenceId(), schedule.conflictWindowStart(), schedule.conflictWindowEnd());
+        List<LocalDateTime> conflicts = schedule.findConflicts(existingDepartures);
+        if (!conflicts.isEmpty()) {
+            throw new BusinessException("Vehicle has conflicting schedule on " + conflicts.size() + " departures, first at "
+                    + conflicts.get(0));
+        }
+        
+        // A year of daily departures is a few hundred journeys, so the whole schedule is built and written at once;
+        // the JDBC batches split it into statements
+        List<LocalDateTime> departures = schedule.getDepartures();
+        List<Long> ids = journeyBulkRepository.nextJourneyIds(departures.size());
+        LocalDateTime now = LocalDateTime.now();
+        List<String> journeyCodes = generateJourneyCodes(route, departures);
+        
+        List<Journey> journeys = new ArrayList<>(departures.size());
+        List<SeatInventory> seats = new ArrayList<>(departures.size() * DEFAULT_TOTAL_SEATS);
+        for (int i = 0; i < departures.size(); i++) {
+            LocalDateTime departure = departures.get(i);
+            
+            Journey journey = new Journey();
+            journey.setId(ids.get(i));
+            journey.setReferenceId(UUID.randomUUID());
+            journey.setRoute(route);
+            journey.setJourneyCode(journeyCodes.get(i));
+            journey.setVehicleReferenceId(requestDto.getVehicleReferenceId());
+            journey.setDepartureTime(departure);
+            journey.setArrivalTime(schedule.arrivalOf(departure));
+            journey.setJourneyStatus(JourneyStatus.SCHEDULED);
+            journey.setTotalSeats(DEFAULT_TOTAL_SEATS);
+            journey.setAvailableSeats(DEFAULT_TOTAL_SEATS);
+            journey.setBaseFare(requestDto.getBaseFare() != null ? requestDto.getBaseFare() : route.getBaseFare());
+            journey.setIsActive(true);
+            journey.setAmenities(requestDto.getAmenities());
+            journey.setCreatedAt(now);
+            journey.setUpdatedAt(now);
+            journeys.add(journey);
+            
+            for (SeatInventory seat : buildSeatInventory(journey, requestDto.getSeatConfiguration())) {
+                seat.setReferenceId(UUID.randomUUID());
+                seat.setCreatedAt(now);
+                seat.setUpdatedAt(now);
+                seats.add(seat);
+            }
+        }
+        
+        journeyBulkRepository.insertJourneys(journeys);
+        journeyBulkRepository.insertSeats(seats);
+        journeyChangeRecorder.recordAll(ids, JourneyChangeType.CREATED);
+        
+        log.info("Created {} recurring journeys with {} seats for route: {}",
+                departures.size(), seats.size(), requestDto.getRouteReferenceId());
+        return RecurringJourneysResultDto.builder()
+                .routeReferenceId(route.getReferenceId())
+                .vehicleReferenceId(requestDto.getVehicleReferenceId())
+                .journeysCreated(departures.size())
+                .seatsCreated(seats.size())
+                .firstDeparture(departures.get(0))
+                .lastDeparture(departures.get(departures.size() - 1))
+                .build();
     }
     
     private void createSeatInventory(Journey journey, List<SeatConfigDto> seatConfig) {
+        seatInventoryRepository.saveAll(buildSeatInventory(journey, seatConfig));
+    }
+    
+    private List<SeatInventory> buildSeatInventory(Journey journey, List<SeatConfigDto> seatConfig) {
         List<SeatInventory> seats = new ArrayList<>();
         
         if (seatConfig != null && !seatConfig.isEmpty()) {
@@ -283,7 +447,28 @@ public class JourneyServiceImpl implements JourneyService {
             }
         }
         
-        seatInventoryRepository.saveAll(seats);
+        return seats;
+    }
+    
+    /**
+     * Codes for the departures, distinct from each other and from every stored code. The random part makes
+     * clashes rare, so a clash costs one more lookup rather than a unique-constraint failure of the whole batch
+     */
+    private List<String> generateJourneyCodes(Route route, List<LocalDateTime> departureTimes) {
+        String[] codes = new String[departureTimes.size()];
+        Set<String> taken = new HashSet<>();
+        List<Integer> pending = IntStream.range(0, codes.length).boxed().collect(Collectors.toList());
+        while (!pending.isEmpty()) {
+            for (int i : pending) {
+                do {
+                    codes[i] = generateJourneyCode(route, departureTimes.get(i));
+                } while (!taken.add(codes[i]));
+            }
+            Set<String> existing = new HashSet<>(journeyRepository.findExistingCodes(
+                    pending.stream().map(i -> codes[i]).collect(Collectors.toList())));
+            pending = pending.stream().filter(i -> existing.contains(codes[i])).collect(Collectors.toList());
+        }
+        return Arrays.asList(codes);
     }
     
     private String generateJourneyCode(Route route, LocalDateTime departureTime) {
@@ -317,6 +502,27 @@ public class JourneyServiceImpl implements JourneyService {
                 .build();
     }
     
+    private static String encodeCursor(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Departure time and ID of the last journey on the previous page
+     */
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Expected departure time and ID");
+            }
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Invalid cursor", "INVALID_CURSOR");
+        }
+    }
+    
     private SeatInventoryDto toSeatInventoryDto(SeatInventory seat, Double baseFare) {
         return SeatInventoryDto.builder()
                 .referenceId(seat.getReferenceId())
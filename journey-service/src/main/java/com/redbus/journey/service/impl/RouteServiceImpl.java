@@ -2,24 +2,38 @@ package com.redbus.journey.service.impl;
 
 import com.redbus.common.exception.BusinessException;
 import com.redbus.common.exception.ResourceNotFoundException;
+import com.redbus.journey.dto.CityStatsDto;
 import com.redbus.journey.dto.RouteRequestDto;
 import com.redbus.journey.dto.RouteResponseDto;
 import com.redbus.journey.dto.RouteStopRequestDto;
 import com.redbus.journey.dto.RouteStopResponseDto;
+import com.redbus.journey.engine.SeatStateEngine;
 import com.redbus.journey.entity.Route;
 import com.redbus.journey.entity.RouteStop;
 import com.redbus.journey.entity.Stop;
+import com.redbus.journey.enums.JourneyChangeType;
+import com.redbus.journey.outbox.JourneyChangeRecorder;
+import com.redbus.journey.repository.JourneyRepository;
 import com.redbus.journey.repository.RouteRepository;
 import com.redbus.journey.repository.StopRepository;
+import com.redbus.journey.repository.projection.CityRouteCountView;
+import com.redbus.journey.repository.projection.JourneyKeyView;
+import com.redbus.journey.repository.projection.StopCityView;
 import com.redbus.journey.service.RouteService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.text.Normalizer;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,8 +42,13 @@ import java.util.stream.Collectors;
 @Transactional
 public class RouteServiceImpl implements RouteService {
     
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    
     private final RouteRepository routeRepository;
     private final StopRepository stopRepository;
+    private final JourneyRepository journeyRepository;
+    private final JourneyChangeRecorder journeyChangeRecorder;
+    private final SeatStateEngine seatStateEngine;
     
     @Override
     public RouteResponseDto createRoute(RouteRequestDto requestDto) {
@@ -128,6 +147,7 @@ public class RouteServiceImpl implements RouteService {
         }
         
         route = routeRepository.save(route);
+        recordJourneysChanged(route);
         return toRouteResponseDto(route);
     }
     
@@ -197,6 +217,7 @@ public class RouteServiceImpl implements RouteService {
         
         route.setIsActive(true);
         routeRepository.save(route);
+        recordJourneysChanged(route);
     }
     
     @Override
@@ -208,6 +229,7 @@ public class RouteServiceImpl implements RouteService {
         
         route.setIsActive(false);
         routeRepository.save(route);
+        recordJourneysChanged(route);
     }
     
     @Override
@@ -217,9 +239,59 @@ public class RouteServiceImpl implements RouteService {
         Route route = routeRepository.findByReferenceId(referenceId)
                 .orElseThrow(() -> new ResourceNotFoundException("Route not found"));
         
+        // The route's journeys go with it; search must drop them and the seat engine must not write them back
+        List<JourneyKeyView> journeys = journeyRepository.findKeysByRouteId(route.getId());
+        journeyChangeRecorder.recordDeleted(journeys);
+        journeys.forEach(journey -> seatStateEngine.evict(journey.getReferenceId()));
         routeRepository.delete(route);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<CityStatsDto> getCityStats(LocalDateTime updatedSince) {
+        // Spellings differing only in case, accents or spacing are one city to search-service, so count them as one
+        Map<String, CityStatsDto> cities = new HashMap<>();
+        for (StopCityView stopCity : stopRepository.findActiveStopCities()) {
+            cities.putIfAbsent(cityKey(stopCity.getCity()),
+                    new CityStatsDto(stopCity.getCity().trim(), stopCity.getState(), 0L));
+        }
+        List<CityRouteCountView> routeCounts = new ArrayList<>(routeRepository.countActiveRoutesBySourceCity());
+        routeCounts.addAll(routeRepository.countActiveRoutesByDestinationCity());
+        for (CityRouteCountView routeCount : routeCounts) {
+            CityStatsDto city = cities.computeIfAbsent(cityKey(routeCount.getCity()),
+                    key -> new CityStatsDto(routeCount.getCity().trim(), null, 0L));
+            city.setRouteCount(city.getRouteCount() + routeCount.getRouteCount());
+        }
+        if (updatedSince == null) {
+            return new ArrayList<>(cities.values());
+        }
+        
+        // Cities that lost their last route or stop come back with a zero count so callers can drop them
+        List<String> changedNames = new ArrayList<>(routeRepository.findSourceCitiesUpdatedSince(updatedSince));
+        changedNames.addAll(routeRepository.findDestinationCitiesUpdatedSince(updatedSince));
+        changedNames.addAll(stopRepository.findCitiesUpdatedSince(updatedSince));
+        Map<String, String> changed = new HashMap<>();
+        changedNames.forEach(name -> changed.putIfAbsent(cityKey(name), name.trim()));
+        return changed.entrySet().stream()
+                .map(entry -> cities.getOrDefault(entry.getKey(), new CityStatsDto(entry.getValue(), null, 0L)))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * City name folded the way search-service matches it: case, accents and repeated spaces are ignored
+     */
+    private static String cityKey(String city) {
+        String folded = DIACRITICS.matcher(Normalizer.normalize(city, Normalizer.Form.NFD)).replaceAll("");
+        return folded.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+    
+    /**
+     * Route fields are copied into every journey's search document, so each journey needs republishing
+     */
+    private void recordJourneysChanged(Route route) {
+        journeyChangeRecorder.recordAll(journeyRepository.findIdsByRouteId(route.getId()), JourneyChangeType.UPDATED);
+    }
+    
     private Stop getOrCreateStop(RouteStopRequestDto stopDto) {
         // If stopId is provided, use existing stop
         if (stopDto.getStopId() != null) {
@@ -3,17 +3,22 @@ package com.redbus.journey.service.impl;
 import com.redbus.common.exception.BusinessException;
 import com.redbus.common.exception.ResourceNotFoundException;
 import com.redbus.journey.dto.SeatInventoryDto;
+import com.redbus.journey.engine.AvailableSeatCounter;
+import com.redbus.journey.engine.JourneySeatState;
+import com.redbus.journey.engine.SeatStateEngine;
 import com.redbus.journey.entity.Journey;
 import com.redbus.journey.entity.SeatInventory;
 import com.redbus.journey.repository.JourneyRepository;
 import com.redbus.journey.repository.SeatInventoryRepository;
+import com.redbus.journey.repository.projection.SeatAvailabilityView;
 import com.redbus.journey.service.SeatManagementService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -26,9 +31,10 @@ public class SeatManagementServiceImpl implements SeatManagementService {
     
     private final SeatInventoryRepository seatInventoryRepository;
     private final JourneyRepository journeyRepository;
+    private final SeatStateEngine seatStateEngine;
+    private final AvailableSeatCounter availableSeatCounter;
     
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public List<SeatInventoryDto> lockSeatsForBooking(UUID journeyReferenceId, List<UUID> seatInventoryIds) {
         log.info("Locking {} seats for journey: {}", seatInventoryIds.size(), journeyReferenceId);
         
@@ -40,47 +46,35 @@ public class SeatManagementServiceImpl implements SeatManagementService {
             throw new BusinessException("Journey is not active for booking");
         }
         
-        // Lock seats with pessimistic locking
-        List<SeatInventory> seats = seatInventoryRepository.findByReferenceIdsWithLock(seatInventoryIds);
-        
-        if (seats.size() != seatInventoryIds.size()) {
-            throw new BusinessException("Some seats not found");
+        if (!seatStateEngine.isEnabled()) {
+            return lockSeatsWithRowLocks(journey, seatInventoryIds);
         }
         
-        // Check if all seats are available
-        List<SeatInventory> unavailableSeats = seats.stream()
-                .filter(seat -> !seat.getIsAvailable())
-                .collect(Collectors.toList());
-        
-        if (!unavailableSeats.isEmpty()) {
-            String unavailableSeatNumbers = unavailableSeats.stream()
-                    .map(SeatInventory::getSeatNumber)
-                    .collect(Collectors.joining(", "));
-            throw new BusinessException("Seats not available: " + unavailableSeatNumbers);
-        }
-        
-        // Mark seats as unavailable (locked)
-        seats.forEach(seat -> {
-            seat.setIsAvailable(false);
-            seat.setBookingReferenceId("LOCKED"); // Temporary lock indicator
+        return seatStateEngine.withState(journey, state -> {
+            int[] indexes = state.indexesOf(seatInventoryIds);
+            if (indexes == null) {
+                throw new BusinessException("Some seats not found");
+            }
+            
+            // Hold all seats atomically in memory; the change is written back asynchronously
+            if (!state.tryHold(indexes)) {
+                String unavailableSeatNumbers = Arrays.stream(indexes)
+                        .filter(index -> !state.isAvailable(index))
+                        .mapToObj(state::seatNumberOf)
+                        .collect(Collectors.joining(", "));
+                throw new BusinessException("Seats not available: " + unavailableSeatNumbers);
+            }
+            seatStateEngine.markDirty(state);
+            
+            log.info("Successfully locked {} seats for journey {}", indexes.length, journeyReferenceId);
+            
+            return Arrays.stream(indexes)
+                    .mapToObj(index -> toSeatInventoryDto(state, index, journey.getBaseFare()))
+                    .collect(Collectors.toList());
         });
-        
-        seatInventoryRepository.saveAll(seats);
-        
-        // Update journey available seats count
-        int bookedSeats = seats.size();
-        journey.setAvailableSeats(journey.getAvailableSeats() - bookedSeats);
-        journeyRepository.save(journey);
-        
-        log.info("Successfully locked {} seats for journey {}", seats.size(), journeyReferenceId);
-        
-        return seats.stream()
-                .map(seat -> toSeatInventoryDto(seat, journey.getBaseFare()))
-                .collect(Collectors.toList());
     }
     
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public void updateSeatBookingStatus(UUID journeyReferenceId, List<UUID> seatInventoryIds, String bookingReferenceId) {
         log.info("Updating seat booking status for journey: {} with booking: {}", journeyReferenceId, bookingReferenceId);
         
@@ -88,14 +82,32 @@ public class SeatManagementServiceImpl implements SeatManagementService {
         Journey journey = journeyRepository.findByReferenceId(journeyReferenceId)
                 .orElseThrow(() -> new ResourceNotFoundException("Journey not found"));
         
-        // Update seats with actual booking reference
-        seatInventoryRepository.updateSeatAvailability(seatInventoryIds, false, bookingReferenceId);
+        if (!seatStateEngine.isEnabled()) {
+            seatInventoryRepository.updateSeatAvailability(seatInventoryIds, false, bookingReferenceId);
+        } else {
+            seatStateEngine.withState(journey, state -> {
+                int[] indexes = state.indexesOf(seatInventoryIds);
+                if (indexes == null) {
+                    throw new BusinessException("Some seats not found");
+                }
+                // Only seats still held can be booked; expiry may have released them to another customer
+                if (!state.tryBook(indexes, bookingReferenceId)) {
+                    String unavailableSeatNumbers = Arrays.stream(indexes)
+                            .filter(index -> state.stateOf(index) != JourneySeatState.HELD
+                                    && !bookingReferenceId.equals(state.persistedBookingReferenceId(index)))
+                            .mapToObj(state::seatNumberOf)
+                            .collect(Collectors.joining(", "));
+                    throw new BusinessException("Seats no longer held for booking: " + unavailableSeatNumbers);
+                }
+                seatStateEngine.markDirty(state);
+                return null;
+            });
+        }
         
         log.info("Updated {} seats with booking reference: {}", seatInventoryIds.size(), bookingReferenceId);
     }
     
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public void releaseSeats(UUID journeyReferenceId, List<UUID> seatInventoryIds) {
         log.info("Releasing {} seats for journey: {}", seatInventoryIds.size(), journeyReferenceId);
         
@@ -103,22 +115,22 @@ public class SeatManagementServiceImpl implements SeatManagementService {
         Journey journey = journeyRepository.findByReferenceId(journeyReferenceId)
                 .orElseThrow(() -> new ResourceNotFoundException("Journey not found"));
         
-        // Lock and release seats
-        List<SeatInventory> seats = seatInventoryRepository.findByReferenceIdsWithLock(seatInventoryIds);
+        if (!seatStateEngine.isEnabled()) {
+            releaseSeatsWithRowLocks(journey, seatInventoryIds);
+            return;
+        }
         
-        seats.forEach(seat -> {
-            seat.setIsAvailable(true);
-            seat.setBookingReferenceId(null);
+        int released = seatStateEngine.withState(journey, state -> {
+            int[] indexes = state.indexesOf(seatInventoryIds);
+            if (indexes == null) {
+                throw new BusinessException("Some seats not found");
+            }
+            int changed = state.release(indexes);
+            seatStateEngine.markDirty(state);
+            return changed;
         });
         
-        seatInventoryRepository.saveAll(seats);
-        
-        // Update journey available seats count
-        int releasedSeats = seats.size();
-        journey.setAvailableSeats(journey.getAvailableSeats() + releasedSeats);
-        journeyRepository.save(journey);
-        
-        log.info("Successfully released {} seats for journey {}", seats.size(), journeyReferenceId);
+        log.info("Successfully released {} seats for journey {}", released, journeyReferenceId);
     }
     
     @Override
@@ -131,20 +143,17 @@ public class SeatManagementServiceImpl implements SeatManagementService {
         
         List<SeatInventory> seats;
         if (seatInventoryIds != null && !seatInventoryIds.isEmpty()) {
-            seats = seatInventoryRepository.findAllById(
-                    seatInventoryIds.stream()
-                            .map(id -> seatInventoryRepository.findByReferenceId(id)
-                                    .map(SeatInventory::getId)
-                                    .orElse(null))
-                            .filter(id -> id != null)
-                            .collect(Collectors.toList())
-            );
+            seats = seatInventoryRepository.findByJourneyIdAndReferenceIdIn(journey.getId(), seatInventoryIds);
         } else {
             seats = seatInventoryRepository.findByJourneyId(journey.getId());
         }
         
+        // Resident seat state is ahead of the database until the next write-back
+        JourneySeatState state = seatStateEngine.isEnabled() ? seatStateEngine.peek(journeyReferenceId) : null;
+        
         return seats.stream()
                 .map(seat -> toSeatInventoryDto(seat, journey.getBaseFare()))
+                .map(dto -> state != null ? overlaySeatState(dto, state) : dto)
                 .collect(Collectors.toList());
     }
     
@@ -160,13 +169,99 @@ public class SeatManagementServiceImpl implements SeatManagementService {
             return false;
         }
         
-        List<SeatInventory> seats = seatInventoryIds.stream()
-                .map(id -> seatInventoryRepository.findByReferenceId(id).orElse(null))
-                .filter(seat -> seat != null)
+        // A read never loads a journey; without resident state the database is up to date
+        JourneySeatState state = seatStateEngine.isEnabled() ? seatStateEngine.peek(journeyReferenceId) : null;
+        if (state != null) {
+            int[] indexes = state.indexesOf(seatInventoryIds);
+            return indexes != null && Arrays.stream(indexes).allMatch(state::isAvailable);
+        }
+        
+        List<SeatAvailabilityView> seats = seatInventoryRepository.findAvailabilityByJourneyIdAndReferenceIdIn(
+                journey.getId(), seatInventoryIds);
+        
+        return seats.size() == new HashSet<>(seatInventoryIds).size() &&
+               seats.stream().allMatch(SeatAvailabilityView::getIsAvailable);
+    }
+    
+    private List<SeatInventoryDto> lockSeatsWithRowLocks(Journey journey, List<UUID> seatInventoryIds) {
+        // Lock seats with pessimistic locking
+        List<SeatInventory> seats = seatInventoryRepository.findByReferenceIdsWithLock(seatInventoryIds);
+        
+        if (seats.size() != seatInventoryIds.size()) {
+            throw new BusinessException("Some seats not found");
+        }
+        
+        // Check if all seats are available
+        List<SeatInventory> unavailableSeats = seats.stream()
+                .filter(seat -> !seat.getIsAvailable())
+                .collect(Collectors.toList());
+        
+        if (!unavailableSeats.isEmpty()) {
+            String unavailableSeatNumbers = unavailableSeats.stream()
+                    .map(SeatInventory::getSeatNumber)
+                    .collect(Collectors.joining(", "));
+            throw new BusinessException("Seats not available: " + unavailableSeatNumbers);
+        }
+        
+        // Mark seats as unavailable (locked)
+        seats.forEach(seat -> {
+            seat.setIsAvailable(false);
+            seat.setBookingReferenceId(JourneySeatState.HOLD_MARKER); // Temporary lock indicator
+        });
+        
+        seatInventoryRepository.saveAll(seats);
+        
+        // Guarded counter update instead of a read-modify-write of the journey entity
+        availableSeatCounter.reserve(journey.getId(), seats.size());
+        
+        log.info("Successfully locked {} seats for journey {}", seats.size(), journey.getReferenceId());
+        
+        return seats.stream()
+                .map(seat -> toSeatInventoryDto(seat, journey.getBaseFare()))
                 .collect(Collectors.toList());
+    }
+    
+    private void releaseSeatsWithRowLocks(Journey journey, List<UUID> seatInventoryIds) {
+        // Lock and release seats
+        List<SeatInventory> seats = seatInventoryRepository.findByReferenceIdsWithLock(seatInventoryIds);
+        
+        // Only seats that were actually taken go back into the available count
+        int releasedSeats = (int) seats.stream()
+                .filter(seat -> !seat.getIsAvailable())
+                .count();
+        
+        seats.forEach(seat -> {
+            seat.setIsAvailable(true);
+            seat.setBookingReferenceId(null);
+        });
+        
+        seatInventoryRepository.saveAll(seats);
         
-        return seats.size() == seatInventoryIds.size() && 
-               seats.stream().allMatch(SeatInventory::getIsAvailable);
+        availableSeatCounter.restore(journey.getId(), releasedSeats);
+        
+        log.info("Successfully released {} seats for journey {}", releasedSeats, journey.getReferenceId());
+    }
+    
+    private SeatInventoryDto overlaySeatState(SeatInventoryDto dto, JourneySeatState state) {
+        int[] indexes = state.indexesOf(List.of(dto.getReferenceId()));
+        if (indexes != null) {
+            dto.setIsAvailable(state.isAvailable(indexes[0]));
+            dto.setBookingReferenceId(state.persistedBookingReferenceId(indexes[0]));
+        }
+        return dto;
+    }
+    
+    private SeatInventoryDto toSeatInventoryDto(JourneySeatState state, int index, Double baseFare) {
+        SeatInventoryDto dto = new SeatInventoryDto();
+        dto.setReferenceId(state.referenceIdOf(index));
+        dto.setSeatNumber(state.seatNumberOf(index));
+        dto.setSeatType(state.seatTypeOf(index).name());
+        dto.setIsAvailable(state.isAvailable(index));
+        dto.setIsLadiesSeat(state.isLadiesSeat(index));
+        dto.setFareMultiplier(state.fareMultiplierOf(index));
+        dto.setCalculatedFare(baseFare * state.fareMultiplierOf(index));
+        dto.setBookingReferenceId(state.persistedBookingReferenceId(index));
+        return dto;
     }
     
     private SeatInventoryDto toSeatInventoryDto(SeatInventory seat, Double baseFare) {
@@ -0,0 +1,9 @@
+-- Journey search looks up the route by city pair, then the route's journeys departing within the day.
+-- The cities and departure time live in different tables, so the lookup is covered by one index on each side.
+-- Both are also declared on the entities, so the schema Hibernate creates has them too.
+CREATE INDEX idx_routes_source_destination ON routes(source_city, destination_city);
+CREATE INDEX idx_journeys_route_departure ON journeys(route_id, departure_time);
+
+-- Both are leading prefixes of the indexes above
+DROP INDEX IF EXISTS idx_routes_source_city;
+DROP INDEX IF EXISTS idx_journeys_route_id;
@@ -0,0 +1,6 @@
+-- Upcoming journeys are paged by (departure_time, id), compared as one row value.
+-- Also declared on the Journey entity, so the schema Hibernate creates has it too.
+CREATE INDEX idx_journeys_departure_id ON journeys(departure_time, id);
+
+-- Covered by the leading column of idx_journeys_departure_id
+DROP INDEX IF EXISTS idx_journeys_departure_time;
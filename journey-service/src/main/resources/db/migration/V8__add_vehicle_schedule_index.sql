@@ -0,0 +1,6 @@
+-- Vehicle conflict checks read a vehicle's departures in a time range.
+-- Also declared on the Journey entity, so the schema Hibernate creates has it too.
+CREATE INDEX idx_journeys_vehicle_departure ON journeys(vehicle_reference_id, departure_time);
+
+-- Covered by the leading column of idx_journeys_vehicle_departure
+DROP INDEX IF EXISTS idx_journeys_vehicle_reference_id;
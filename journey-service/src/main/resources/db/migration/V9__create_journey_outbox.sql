@@ -0,0 +1,12 @@
+-- Journey changes recorded in the same transaction as the change, drained in id order by the publisher
+CREATE TABLE IF NOT EXISTS journey_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    reference_id UUID UNIQUE NOT NULL DEFAULT gen_random_uuid(),
+    journey_id BIGINT NOT NULL,
+    journey_reference_id UUID,
+    change_type VARCHAR(20) NOT NULL,
+    lease_until TIMESTAMPTZ,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0
+);
@@ -0,0 +1,105 @@
+package com.redbus.journey.engine;
+
+import com.redbus.journey.enums.JourneyChangeType;
+import com.redbus.journey.outbox.JourneyChangeRecorder;
+import com.redbus.journey.repository.JourneyRepository;
+import com.redbus.journey.repository.SeatInventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailableSeatCounterTest {
+
+    @Mock
+    private JourneyRepository journeyRepository;
+
+    @Mock
+    private SeatInventoryRepository seatInventoryRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private JourneyChangeRecorder journeyChangeRecorder;
+
+    private AvailableSeatCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        counter = new AvailableSeatCounter(journeyRepository, seatInventoryRepository, transactionTemplate,
+                journeyChangeRecorder, "striped");
+    }
+
+    @Test
+    void reconcilePending_WritesNetChangeAsOneUpdate() {
+        when(journeyRepository.adjustAvailableSeats(1L, -3)).thenReturn(1);
+
+        counter.reserve(1L, 2);
+        counter.reserve(1L, 2);
+        counter.restore(1L, 1);
+        counter.reconcilePending();
+
+        verify(journeyRepository).adjustAvailableSeats(1L, -3);
+        verify(journeyChangeRecorder).record(1L, JourneyChangeType.SEATS_CHANGED);
+        verifyNoInteractions(seatInventoryRepository);
+    }
+
+    @Test
+    void reconcilePending_RecountsIdleJourneyOnceAndDropsIt() {
+        when(journeyRepository.adjustAvailableSeats(1L, -1)).thenReturn(1);
+        when(seatInventoryRepository.countAvailableSeats(1L)).thenReturn(39);
+
+        counter.reserve(1L, 1);
+        counter.reconcilePending();
+        counter.reconcilePending();
+        counter.reconcilePending();
+
+        verify(journeyRepository).adjustAvailableSeats(1L, -1);
+        verify(journeyRepository).updateAvailableSeats(1L, 39);
+        verify(seatInventoryRepository, times(1)).countAvailableSeats(1L);
+    }
+
+    @Test
+    void reconcilePending_RecountsWhenNetChangeIsOutOfRange() {
+        when(journeyRepository.adjustAvailableSeats(1L, 5)).thenReturn(0);
+        when(seatInventoryRepository.countAvailableSeats(1L)).thenReturn(40);
+
+        counter.restore(1L, 5);
+        counter.reconcilePending();
+
+        verify(journeyRepository).updateAvailableSeats(1L, 40);
+    }
+
+    @Test
+    void reconcilePending_KeepsChangeWhenUpdateFails() {
+        when(journeyRepository.adjustAvailableSeats(1L, -2))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(1);
+
+        counter.reserve(1L, 2);
+        counter.reconcilePending();
+        counter.reconcilePending();
+
+        verify(journeyRepository, times(2)).adjustAvailableSeats(1L, -2);
+        verify(journeyRepository, never()).adjustAvailableSeats(anyLong(), eq(0));
+        verify(journeyChangeRecorder, times(1)).record(anyLong(), any());
+        verify(journeyRepository, never()).updateAvailableSeats(anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,105 @@
+package com.redbus.journey.engine;
+
+import com.redbus.journey.entity.SeatInventory;
+import com.redbus.journey.entity.SeatType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JourneySeatStateTest {
+
+    private List<SeatInventory> seats;
+    private JourneySeatState state;
+
+    @BeforeEach
+    void setUp() {
+        seats = new ArrayList<>();
+        for (int i = 1; i <= 40; i++) {
+            SeatInventory seat = new SeatInventory();
+            seat.setReferenceId(UUID.randomUUID());
+            seat.setSeatNumber(String.format("S%02d", i));
+            seat.setSeatType(SeatType.SEATER);
+            seat.setIsAvailable(true);
+            seat.setIsLadiesSeat(false);
+            seat.setFareMultiplier(1.0);
+            seats.add(seat);
+        }
+        seats.get(38).setIsAvailable(false);
+        seats.get(38).setBookingReferenceId("LOCKED");
+        seats.get(39).setIsAvailable(false);
+        seats.get(39).setBookingReferenceId("booking-1");
+
+        state = JourneySeatState.load(1L, UUID.randomUUID(), seats);
+    }
+
+    @Test
+    void load_RestoresPersistedStates() {
+        assertThat(state.getAvailableCount()).isEqualTo(38);
+        assertThat(state.stateOf(38)).isEqualTo(JourneySeatState.HELD);
+        assertThat(state.stateOf(39)).isEqualTo(JourneySeatState.BOOKED);
+        assertThat(state.persistedBookingReferenceId(39)).isEqualTo("booking-1");
+    }
+
+    @Test
+    void tryHold_IsAllOrNothing() {
+        int[] indexes = state.indexesOf(List.of(seats.get(0).getReferenceId(), seats.get(38).getReferenceId()));
+
+        assertThat(state.tryHold(indexes)).isFalse();
+        assertThat(state.isAvailable(0)).isTrue();
+        assertThat(state.getAvailableCount()).isEqualTo(38);
+        assertThat(state.drainDirty()).isEmpty();
+    }
+
+    @Test
+    void holdBookAndRelease_TrackCountAndDirtySeats() {
+        int[] indexes = state.indexesOf(List.of(seats.get(0).getReferenceId(), seats.get(33).getReferenceId()));
+
+        assertThat(state.tryHold(indexes)).isTrue();
+        assertThat(state.tryHold(indexes)).isFalse();
+        assertThat(state.getAvailableCount()).isEqualTo(36);
+
+        assertThat(state.tryBook(indexes, "booking-2")).isTrue();
+        assertThat(state.tryBook(indexes, "booking-2")).isTrue();
+        assertThat(state.persistedBookingReferenceId(33)).isEqualTo("booking-2");
+        assertThat(state.drainDirty()).containsExactly(0, 33);
+
+        assertThat(state.release(indexes)).isEqualTo(2);
+        assertThat(state.release(indexes)).isZero();
+        assertThat(state.getAvailableCount()).isEqualTo(38);
+        assertThat(state.persistedBookingReferenceId(0)).isNull();
+    }
+
+    @Test
+    void tryBook_OnlyBooksSeatsStillHeld() {
+        int[] held = state.indexesOf(List.of(seats.get(0).getReferenceId()));
+        int[] released = state.indexesOf(List.of(seats.get(1).getReferenceId()));
+        state.tryHold(held);
+        state.drainDirty();
+
+        int[] both = state.indexesOf(List.of(seats.get(0).getReferenceId(), seats.get(1).getReferenceId()));
+        assertThat(state.tryBook(both, "booking-2")).isFalse();
+        assertThat(state.stateOf(0)).isEqualTo(JourneySeatState.HELD);
+        assertThat(state.persistedBookingReferenceId(0)).isEqualTo("LOCKED");
+        assertThat(state.isAvailable(released[0])).isTrue();
+        assertThat(state.drainDirty()).isEmpty();
+    }
+
+    @Test
+    void tryBook_RefusesSeatsBookedByAnotherBooking() {
+        int[] indexes = state.indexesOf(List.of(seats.get(39).getReferenceId()));
+
+        assertThat(state.tryBook(indexes, "booking-2")).isFalse();
+        assertThat(state.persistedBookingReferenceId(39)).isEqualTo("booking-1");
+        assertThat(state.tryBook(indexes, "booking-1")).isTrue();
+    }
+
+    @Test
+    void indexesOf_ReturnsNullForUnknownSeat() {
+        assertThat(state.indexesOf(List.of(UUID.randomUUID()))).isNull();
+    }
+}
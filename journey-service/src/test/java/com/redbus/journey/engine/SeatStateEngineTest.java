@@ -0,0 +1,145 @@
+package com.redbus.journey.engine;
+
+import com.redbus.journey.entity.Journey;
+import com.redbus.journey.entity.SeatInventory;
+import com.redbus.journey.entity.SeatType;
+import com.redbus.journey.outbox.JourneyChangeRecorder;
+import com.redbus.journey.repository.JourneyRepository;
+import com.redbus.journey.repository.SeatInventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatStateEngineTest {
+
+    @Mock
+    private SeatInventoryRepository seatInventoryRepository;
+
+    @Mock
+    private JourneyRepository journeyRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private JourneyChangeRecorder journeyChangeRecorder;
+
+    private final Journey journey = new Journey();
+    private final List<SeatInventory> seats = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        journey.setId(1L);
+        journey.setReferenceId(UUID.randomUUID());
+        for (int i = 1; i <= 4; i++) {
+            SeatInventory seat = new SeatInventory();
+            seat.setReferenceId(UUID.randomUUID());
+            seat.setSeatNumber("S0" + i);
+            seat.setSeatType(SeatType.SEATER);
+            seat.setIsAvailable(true);
+            seats.add(seat);
+        }
+        lenient().when(seatInventoryRepository.findByJourneyIdOrderBySeatNumber(1L)).thenReturn(seats);
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void withState_LoadsAJourneyOnceWhileItIsInUse() {
+        SeatStateEngine engine = engine(600_000);
+
+        engine.withState(journey, state -> state.tryHold(new int[]{0}));
+        int available = engine.withState(journey, JourneySeatState::getAvailableCount);
+
+        assertThat(available).isEqualTo(3);
+        verify(seatInventoryRepository, times(1)).findByJourneyIdOrderBySeatNumber(1L);
+    }
+
+    @Test
+    void flush_DropsIdleJourneysOnceTheirChangesAreWritten() throws InterruptedException {
+        SeatStateEngine engine = engine(1);
+        hold(engine, 0);
+        Thread.sleep(5);
+
+        engine.flush();
+
+        verify(seatInventoryRepository).updateSeatAvailability(List.of(seats.get(0).getReferenceId()), false,
+                JourneySeatState.HOLD_MARKER);
+        assertThat(engine.peek(journey.getReferenceId())).isNull();
+    }
+
+    @Test
+    void flush_KeepsJourneysWhoseChangesFailedToWrite() throws InterruptedException {
+        SeatStateEngine engine = engine(1);
+        hold(engine, 0);
+        doThrow(new IllegalStateException("database down")).when(transactionTemplate).executeWithoutResult(any());
+        Thread.sleep(5);
+
+        engine.flush();
+
+        JourneySeatState state = engine.peek(journey.getReferenceId());
+        assertThat(state).isNotNull();
+        assertThat(state.stateOf(0)).isEqualTo(JourneySeatState.HELD);
+    }
+
+    @Test
+    void evict_DropsACleanJourneyAtOnceAndADirtyOneOnTheNextFlush() {
+        SeatStateEngine engine = engine(600_000);
+        engine.withState(journey, JourneySeatState::getAvailableCount);
+
+        engine.evict(journey.getReferenceId());
+        assertThat(engine.peek(journey.getReferenceId())).isNull();
+
+        hold(engine, 1);
+        engine.evict(journey.getReferenceId());
+        assertThat(engine.peek(journey.getReferenceId())).isNotNull();
+        engine.flush();
+        assertThat(engine.peek(journey.getReferenceId())).isNull();
+    }
+
+    @Test
+    void evict_LeavesAJourneyInUseUntilItIsReleased() {
+        SeatStateEngine engine = engine(600_000);
+
+        engine.withState(journey, state -> {
+            engine.evict(journey.getReferenceId());
+            return null;
+        });
+
+        assertThat(engine.peek(journey.getReferenceId())).isNotNull();
+        engine.flush();
+        assertThat(engine.peek(journey.getReferenceId())).isNull();
+        verify(seatInventoryRepository, never()).updateSeatAvailability(any(), anyBoolean(), any());
+    }
+
+    private void hold(SeatStateEngine engine, int index) {
+        engine.withState(journey, state -> {
+            state.tryHold(new int[]{index});
+            engine.markDirty(state);
+            return null;
+        });
+    }
+
+    private SeatStateEngine engine(long idleEvictionMillis) {
+        return new SeatStateEngine(seatInventoryRepository, journeyRepository, transactionTemplate,
+                journeyChangeRecorder, true, 4, idleEvictionMillis);
+    }
+}
@@ -0,0 +1,214 @@
+package com.redbus.journey.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redbus.journey.entity.JourneyOutboxEvent;
+import com.redbus.journey.enums.JourneyChangeType;
+import com.redbus.journey.repository.JourneyOutboxRepository;
+import com.redbus.journey.repository.JourneyRepository;
+import com.redbus.journey.repository.projection.JourneyIndexView;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = {JourneyChangePublisher.class, JourneyChangePublisherTest.TransactionConfig.class}, properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.producer.key-serializer=org.apache.kafka.common.serialization.StringSerializer",
+        "spring.kafka.producer.value-serializer=org.apache.kafka.common.serialization.StringSerializer",
+        "journey.events.topic=" + JourneyChangePublisherTest.TOPIC
+})
+@ImportAutoConfiguration({KafkaAutoConfiguration.class, JacksonAutoConfiguration.class})
+@EmbeddedKafka(partitions = 1, topics = JourneyChangePublisherTest.TOPIC)
+class JourneyChangePublisherTest {
+
+    static final String TOPIC = "journey-changes-test";
+
+    @MockitoBean
+    private JourneyOutboxRepository outboxRepository;
+
+    @MockitoBean
+    private JourneyRepository journeyRepository;
+
+    @MockitoBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoSpyBean
+    @SuppressWarnings("rawtypes")
+    private KafkaTemplate kafkaTemplate;
+
+    @Autowired
+    private JourneyChangePublisher publisher;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Consumer<String, String> consumer;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("journey-change-test", "false", broker);
+        consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer())
+                .createConsumer();
+        broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+        // Only this test's events: the topic outlives each test
+        consumer.seekToEnd(consumer.assignment());
+        consumer.assignment().forEach(consumer::position);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+    }
+
+    @Test
+    void publishPending_SendsOneEventPerJourneyWithItsCurrentState() throws Exception {
+        UUID firstJourney = UUID.randomUUID();
+        UUID secondJourney = UUID.randomUUID();
+        when(outboxRepository.lockDue(any(), anyInt())).thenReturn(List.of(
+                row(1L, 10L, JourneyChangeType.SEATS_CHANGED),
+                row(2L, 20L, JourneyChangeType.SEATS_CHANGED),
+                row(3L, 10L, JourneyChangeType.UPDATED),
+                row(4L, 10L, JourneyChangeType.SEATS_CHANGED)));
+        List<JourneyIndexView> journeys = List.of(journey(10L, firstJourney, 35), journey(20L, secondJourney, 12));
+        when(journeyRepository.findIndexViewsByIds(anyCollection())).thenReturn(journeys);
+
+        int published = publisher.publishPending();
+
+        assertThat(published).isEqualTo(4);
+        Map<String, JsonNode> events = new HashMap<>();
+        for (ConsumerRecord<String, String> record : KafkaTestUtils.getRecords(consumer)) {
+            events.put(record.key(), objectMapper.readTree(record.value()));
+        }
+        assertThat(events).hasSize(2);
+
+        JsonNode first = events.get(firstJourney.toString());
+        assertThat(first.get("changeType").asText()).isEqualTo("UPDATED");
+        assertThat(first.get("sequence").asLong()).isEqualTo(4L);
+        assertThat(first.get("journey").get("availableSeats").asInt()).isEqualTo(35);
+
+        JsonNode second = events.get(secondJourney.toString());
+        assertThat(second.get("changeType").asText()).isEqualTo("SEATS_CHANGED");
+        assertThat(second.get("sequence").asLong()).isEqualTo(2L);
+        assertThat(second.get("journey").get("availableSeats").asInt()).isEqualTo(12);
+
+        verify(outboxRepository).extendLease(eq(List.of(1L, 2L, 3L, 4L)), any());
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L, 4L));
+    }
+
+    @Test
+    void publishPending_KeepsTheRowsOfJourneysWhoseSendFailed() {
+        UUID sentJourney = UUID.randomUUID();
+        UUID failedJourney = UUID.randomUUID();
+        when(outboxRepository.lockDue(any(), anyInt())).thenReturn(List.of(
+                row(1L, 10L, JourneyChangeType.SEATS_CHANGED),
+                row(2L, 20L, JourneyChangeType.SEATS_CHANGED),
+                row(3L, 10L, JourneyChangeType.SEATS_CHANGED)));
+        List<JourneyIndexView> journeys = List.of(journey(10L, sentJourney, 35), journey(20L, failedJourney, 12));
+        when(journeyRepository.findIndexViewsByIds(anyCollection())).thenReturn(journeys);
+        doReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")))
+                .when(kafkaTemplate).send(eq(TOPIC), eq(failedJourney.toString()), anyString());
+
+        int published = publisher.publishPending();
+
+        assertThat(published).isEqualTo(3);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 3L));
+    }
+
+    @Test
+    void publishPending_SendsDeletionKeyedByTheRecordedReferenceIdWhenTheJourneyIsGone() throws Exception {
+        UUID deletedJourney = UUID.randomUUID();
+        JourneyOutboxEvent deletion = row(2L, 10L, JourneyChangeType.DELETED);
+        deletion.setJourneyReferenceId(deletedJourney);
+        when(outboxRepository.lockDue(any(), anyInt())).thenReturn(List.of(
+                row(1L, 10L, JourneyChangeType.SEATS_CHANGED), deletion, row(3L, 20L, JourneyChangeType.UPDATED)));
+        when(journeyRepository.findIndexViewsByIds(anyCollection())).thenReturn(List.of());
+
+        int published = publisher.publishPending();
+
+        assertThat(published).isEqualTo(3);
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        KafkaTestUtils.getRecords(consumer).forEach(records::add);
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).key()).isEqualTo(deletedJourney.toString());
+        JsonNode event = objectMapper.readTree(records.get(0).value());
+        assertThat(event.get("changeType").asText()).isEqualTo("DELETED");
+        assertThat(event.get("sequence").asLong()).isEqualTo(2L);
+        assertThat(event.get("journey").get("referenceId").asText()).isEqualTo(deletedJourney.toString());
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void publishPending_DoesNothingWhenOutboxIsEmpty() {
+        when(outboxRepository.lockDue(any(), anyInt())).thenReturn(List.of());
+
+        assertThat(publisher.publishPending()).isZero();
+        verify(outboxRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    private JourneyOutboxEvent row(Long id, Long journeyId, JourneyChangeType changeType) {
+        JourneyOutboxEvent event = new JourneyOutboxEvent();
+        event.setJourneyId(journeyId);
+        event.setChangeType(changeType);
+        event.setId(id);
+        return event;
+    }
+
+    private JourneyIndexView journey(Long id, UUID referenceId, int availableSeats) {
+        JourneyIndexView view = mock(JourneyIndexView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getReferenceId()).thenReturn(referenceId);
+        when(view.getAvailableSeats()).thenReturn(availableSeats);
+        return view;
+    }
+
+    @TestConfiguration
+    static class TransactionConfig {
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+}
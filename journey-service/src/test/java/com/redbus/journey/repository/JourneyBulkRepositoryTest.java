@@ -0,0 +1,158 @@
+package com.redbus.journey.repository;
+
+import com.redbus.journey.entity.Journey;
+import com.redbus.journey.entity.Route;
+import com.redbus.journey.entity.SeatInventory;
+import com.redbus.journey.entity.SeatType;
+import com.redbus.journey.enums.JourneyChangeType;
+import com.redbus.journey.enums.JourneyStatus;
+import com.redbus.journey.outbox.JourneyChangeRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JourneyBulkRepositoryTest extends PostgresRepositoryTest {
+
+    private static final LocalDate START = LocalDate.of(2030, 1, 7);
+
+    @Autowired
+    private JourneyBulkRepository journeyBulkRepository;
+
+    @Autowired
+    private JourneyChangeRecorder journeyChangeRecorder;
+
+    @Autowired
+    private SeatInventoryRepository seatInventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void nextJourneyIds_ReservesIdsTheTableWillNotHandOutAgain() {
+        List<Long> ids = journeyBulkRepository.nextJourneyIds(3);
+        Journey persisted = persistJourney(persistRoute("Pune", "Mumbai"), "vehicle-1", START.atTime(8, 0));
+
+        assertThat(ids).hasSize(3).doesNotHaveDuplicates().isSorted();
+        assertThat(persisted.getId()).isGreaterThan(ids.get(2));
+    }
+
+    @Test
+    void insertJourneys_WritesJourneysSeatsAndOutboxEventsTheEntitiesRead() {
+        Route route = persistRoute("Pune", "Mumbai");
+        entityManager.flush();
+        List<Journey> journeys = journeys(route, "vehicle-1", 2);
+        List<SeatInventory> seats = seats(journeys, 3);
+
+        journeyBulkRepository.insertJourneys(journeys);
+        journeyBulkRepository.insertSeats(seats);
+        journeyChangeRecorder.recordAll(ids(journeys), JourneyChangeType.CREATED);
+        entityManager.clear();
+
+        Journey read = entityManager.find(Journey.class, journeys.get(1).getId());
+        assertThat(read.getReferenceId()).isEqualTo(journeys.get(1).getReferenceId());
+        assertThat(read.getRoute().getId()).isEqualTo(route.getId());
+        assertThat(read.getDepartureTime()).isEqualTo(START.plusDays(1).atTime(22, 30));
+        assertThat(read.getJourneyStatus()).isEqualTo(JourneyStatus.SCHEDULED);
+        assertThat(seatInventoryRepository.countAvailableSeats(read.getId())).isEqualTo(3);
+        assertThat(outboxEvents(ids(journeys))).isEqualTo(2);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void insertSeats_ConflictRollsBackTheWholeSchedule() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Route route = transactionTemplate.execute(status -> persistRoute("Pune", "Mumbai"));
+        List<Journey> journeys = journeys(route, "vehicle-1", 2);
+        List<SeatInventory> seats = seats(journeys, 2);
+        // The last seat repeats a seat number of its journey, after everything else has been written
+        seats.get(seats.size() - 1).setSeatNumber(seats.get(seats.size() - 2).getSeatNumber());
+        try {
+            assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+                journeyBulkRepository.insertJourneys(journeys);
+                journeyChangeRecorder.recordAll(ids(journeys), JourneyChangeType.CREATED);
+                journeyBulkRepository.insertSeats(seats);
+            })).isInstanceOf(DataIntegrityViolationException.class);
+
+            assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM journeys WHERE route_id = ?",
+                    Integer.class, route.getId())).isZero();
+            assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM seat_inventory WHERE journey_id IN (?, ?)",
+                    Integer.class, journeys.get(0).getId(), journeys.get(1).getId())).isZero();
+            assertThat(outboxEvents(ids(journeys))).isZero();
+        } finally {
+            jdbcTemplate.update("DELETE FROM routes WHERE id = ?", route.getId());
+        }
+    }
+
+    /**
+     * Detached journeys on consecutive days with their IDs reserved, as the recurring schedule builds them
+     */
+    private List<Journey> journeys(Route route, String vehicleReferenceId, int count) {
+        List<Long> ids = journeyBulkRepository.nextJourneyIds(count);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Journey> journeys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime departure = START.plusDays(i).atTime(22, 30);
+            Journey journey = new Journey();
+            journey.setId(ids.get(i));
+            journey.setReferenceId(UUID.randomUUID());
+            journey.setRoute(route);
+            journey.setJourneyCode("JRN" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+            journey.setVehicleReferenceId(vehicleReferenceId);
+            journey.setDepartureTime(departure);
+            journey.setArrivalTime(departure.plusMinutes(route.getEstimatedDurationMinutes()));
+            journey.setJourneyStatus(JourneyStatus.SCHEDULED);
+            journey.setTotalSeats(40);
+            journey.setAvailableSeats(40);
+            journey.setBaseFare(route.getBaseFare());
+            journey.setIsActive(true);
+            journey.setCreatedAt(now);
+            journey.setUpdatedAt(now);
+            journeys.add(journey);
+        }
+        return journeys;
+    }
+
+    private static List<SeatInventory> seats(List<Journey> journeys, int perJourney) {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<SeatInventory> seats = new ArrayList<>();
+        for (Journey journey : journeys) {
+            for (int i = 1; i <= perJourney; i++) {
+                SeatInventory seat = new SeatInventory();
+                seat.setJourney(journey);
+                seat.setSeatNumber("S" + i);
+                seat.setSeatType(SeatType.SEATER);
+                seat.setReferenceId(UUID.randomUUID());
+                seat.setCreatedAt(now);
+                seat.setUpdatedAt(now);
+                seats.add(seat);
+            }
+        }
+        return seats;
+    }
+
+    private static List<Long> ids(List<Journey> journeys) {
+        return journeys.stream().map(Journey::getId).toList();
+    }
+
+    private Integer outboxEvents(List<Long> journeyIds) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM journey_outbox WHERE journey_id = ANY (?)",
+                Integer.class, (Object) journeyIds.toArray(Long[]::new));
+    }
+}
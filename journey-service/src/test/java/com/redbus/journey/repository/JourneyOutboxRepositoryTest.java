@@ -0,0 +1,39 @@
+package com.redbus.journey.repository;
+
+import com.redbus.journey.entity.JourneyOutboxEvent;
+import com.redbus.journey.enums.JourneyChangeType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JourneyOutboxRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private JourneyOutboxRepository journeyOutboxRepository;
+
+    @Test
+    void lockDue_SkipsRowsLeasedToAPublisherUntilTheLeaseExpires() {
+        LocalDateTime now = LocalDateTime.now();
+        JourneyOutboxEvent leased = persistEvent(10L);
+        JourneyOutboxEvent expired = persistEvent(20L);
+        JourneyOutboxEvent pending = persistEvent(30L);
+        entityManager.flush();
+        journeyOutboxRepository.extendLease(List.of(leased.getId()), now.plusMinutes(1));
+        journeyOutboxRepository.extendLease(List.of(expired.getId()), now.minusMinutes(1));
+        entityManager.clear();
+
+        assertThat(journeyOutboxRepository.lockDue(now, 10)).extracting(JourneyOutboxEvent::getId)
+                .containsExactly(expired.getId(), pending.getId());
+    }
+
+    private JourneyOutboxEvent persistEvent(Long journeyId) {
+        JourneyOutboxEvent event = new JourneyOutboxEvent();
+        event.setJourneyId(journeyId);
+        event.setChangeType(JourneyChangeType.SEATS_CHANGED);
+        return entityManager.persist(event);
+    }
+}
@@ -0,0 +1,220 @@
+package com.redbus.journey.repository;
+
+import com.redbus.journey.entity.Journey;
+import com.redbus.journey.entity.JourneyOutboxEvent;
+import com.redbus.journey.entity.Route;
+import com.redbus.journey.enums.JourneyChangeType;
+import com.redbus.journey.enums.JourneyStatus;
+import com.redbus.journey.outbox.JourneyChangeRecorder;
+import com.redbus.journey.repository.projection.JourneyIndexView;
+import com.redbus.journey.repository.projection.JourneySummaryView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class JourneyRepositoryTest extends PostgresRepositoryTest {
+
+    private static final LocalDate TRAVEL_DATE = LocalDate.of(2030, 1, 7);
+
+    @Autowired
+    private JourneyRepository journeyRepository;
+
+    @Autowired
+    private JourneyOutboxRepository journeyOutboxRepository;
+
+    @Autowired
+    private JourneyChangeRecorder journeyChangeRecorder;
+
+    @Test
+    void findBySourceDestinationAndDate_ReturnsBookableJourneysDepartingThatDay() {
+        Route route = persistRoute("Pune", "Mumbai");
+        Journey evening = persistJourney(route, "vehicle-1", TRAVEL_DATE.atTime(22, 30));
+        Journey midnight = persistJourney(route, "vehicle-2", TRAVEL_DATE.atStartOfDay());
+        persistJourney(route, "vehicle-3", TRAVEL_DATE.plusDays(1).atStartOfDay());
+        persistJourney(route, "vehicle-4", TRAVEL_DATE.minusDays(1).atTime(23, 59, 59));
+        persistJourney(route, "vehicle-5", TRAVEL_DATE.atTime(9, 0)).setIsActive(false);
+        Journey soldOut = persistJourney(route, "vehicle-6", TRAVEL_DATE.atTime(10, 0));
+        persistJourney(persistRoute("Mumbai", "Pune"), "vehicle-7", TRAVEL_DATE.atTime(11, 0));
+        entityManager.flush();
+        journeyRepository.updateAvailableSeats(soldOut.getId(), 0);
+        entityManager.clear();
+
+        List<JourneySummaryView> journeys = journeyRepository.findBySourceDestinationAndDate("Pune", "Mumbai",
+                TRAVEL_DATE.atStartOfDay(), TRAVEL_DATE.plusDays(1).atStartOfDay());
+
+        assertThat(journeys).extracting(JourneySummaryView::getJourneyCode)
+                .containsExactly(midnight.getJourneyCode(), evening.getJourneyCode());
+        assertThat(journeys.get(0).getRouteReferenceId()).isEqualTo(route.getReferenceId());
+        assertThat(journeys.get(0).getEstimatedDurationMinutes()).isEqualTo(180);
+    }
+
+    @Test
+    void findUpcomingJourneys_PagesThroughJourneysSharingADepartureTime() {
+        Route route = persistRoute("Pune", "Mumbai");
+        LocalDateTime departure = TRAVEL_DATE.atTime(22, 30);
+        Journey first = persistJourney(route, "vehicle-1", departure);
+        Journey second = persistJourney(route, "vehicle-2", departure);
+        Journey third = persistJourney(route, "vehicle-3", departure);
+        persistJourney(route, "vehicle-4", departure).setIsActive(false);
+        Journey later = persistJourney(route, "vehicle-5", departure.plusMinutes(1));
+        persistJourney(route, "vehicle-6", departure.minusMinutes(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<JourneySummaryView> firstPage = journeyRepository.findUpcomingJourneys(
+                departure.minusSeconds(1), 0L, PageRequest.of(0, 2));
+        JourneySummaryView boundary = firstPage.get(firstPage.size() - 1);
+        List<JourneySummaryView> secondPage = journeyRepository.findUpcomingJourneys(
+                boundary.getDepartureTime(), boundary.getId(), PageRequest.of(0, 2));
+
+        assertThat(firstPage).extracting(JourneySummaryView::getId).containsExactly(first.getId(), second.getId());
+        assertThat(secondPage).extracting(JourneySummaryView::getId).containsExactly(third.getId(), later.getId());
+    }
+
+    @Test
+    void findSummariesByReferenceIdIn_ReadsTheRequestedJourneysWithTheirRoute() {
+        Route route = persistRoute("Pune", "Mumbai");
+        Journey requested = persistJourney(route, "vehicle-1", TRAVEL_DATE.atTime(6, 0));
+        Journey alsoRequested = persistJourney(persistRoute("Pune", "Nashik"), "vehicle-2", TRAVEL_DATE.atTime(7, 0));
+        persistJourney(route, "vehicle-3", TRAVEL_DATE.atTime(8, 0));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<JourneySummaryView> journeys = journeyRepository.findSummariesByReferenceIdIn(
+                List.of(requested.getReferenceId(), alsoRequested.getReferenceId(), UUID.randomUUID()));
+
+        assertThat(journeys)
+                .extracting(JourneySummaryView::getReferenceId, JourneySummaryView::getRouteName,
+                        JourneySummaryView::getDestinationCity, JourneySummaryView::getJourneyStatus)
+                .containsExactlyInAnyOrder(
+                        tuple(requested.getReferenceId(), "Pune to Mumbai", "Mumbai", JourneyStatus.SCHEDULED),
+                        tuple(alsoRequested.getReferenceId(), "Pune to Nashik", "Nashik", JourneyStatus.SCHEDULED));
+    }
+
+    @Test
+    void findSummariesByRouteReferenceId_ReadsTheRoutesJourneysInDepartureOrder() {
+        Route route = persistRoute("Pune", "Mumbai");
+        Journey evening = persistJourney(route, "vehicle-1", TRAVEL_DATE.atTime(22, 30));
+        Journey morning = persistJourney(route, "vehicle-2", TRAVEL_DATE.atTime(6, 0));
+        Journey inactive = persistJourney(route, "vehicle-3", TRAVEL_DATE.atTime(9, 0));
+        inactive.setIsActive(false);
+        persistJourney(persistRoute("Mumbai", "Pune"), "vehicle-4", TRAVEL_DATE.atTime(7, 0));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<JourneySummaryView> journeys = journeyRepository.findSummariesByRouteReferenceId(route.getReferenceId());
+
+        assertThat(journeys).extracting(JourneySummaryView::getId)
+                .containsExactly(morning.getId(), inactive.getId(), evening.getId());
+        assertThat(journeys).extracting(JourneySummaryView::getRouteReferenceId).containsOnly(route.getReferenceId());
+    }
+
+    @Test
+    void findVehicleScheduleSummaries_ReadsTheVehiclesDeparturesInTheRange() {
+        Route route = persistRoute("Pune", "Mumbai");
+        Journey start = persistJourney(route, "vehicle-1", TRAVEL_DATE.atStartOfDay());
+        Journey returning = persistJourney(persistRoute("Mumbai", "Pune"), "vehicle-1", TRAVEL_DATE.atTime(12, 0));
+        persistJourney(route, "vehicle-1", TRAVEL_DATE.plusDays(1).atStartOfDay());
+        persistJourney(route, "vehicle-1", TRAVEL_DATE.minusDays(1).atTime(12, 0));
+        persistJourney(route, "vehicle-2", TRAVEL_DATE.atTime(8, 0));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<JourneySummaryView> journeys = journeyRepository.findVehicleScheduleSummaries("vehicle-1",
+                TRAVEL_DATE.atStartOfDay(), TRAVEL_DATE.plusDays(1).atStartOfDay());
+
+        assertThat(journeys)
+                .extracting(JourneySummaryView::getId, JourneySummaryView::getSourceCity,
+                        JourneySummaryView::getArrivalTime)
+                .containsExactly(
+                        tuple(start.getId(), "Pune", TRAVEL_DATE.atTime(3, 0)),
+                        tuple(returning.getId(), "Mumbai", TRAVEL_DATE.atTime(15, 0)));
+    }
+
+    @Test
+    void findExistingCodes_ReturnsTheCandidatesAlreadyStored() {
+        Journey stored = persistJourney(persistRoute("Pune", "Mumbai"), "vehicle-1", TRAVEL_DATE.atTime(6, 0));
+        entityManager.flush();
+
+        assertThat(journeyRepository.findExistingCodes(List.of(stored.getJourneyCode(), "JRN0107PU0000")))
+                .containsExactly(stored.getJourneyCode());
+    }
+
+    @Test
+    void save_LeavesTheSeatCountTheCounterUpdatesWrote() {
+        Journey journey = persistJourney(persistRoute("Pune", "Mumbai"), "vehicle-1", TRAVEL_DATE.atTime(6, 0));
+        entityManager.flush();
+        int seats = journey.getAvailableSeats();
+
+        assertThat(journeyRepository.decrementAvailableSeats(journey.getId(), 2)).isEqualTo(1);
+        journey.setAmenities("[\"wifi\"]");
+        journeyRepository.saveAndFlush(journey);
+        entityManager.clear();
+
+        Journey read = entityManager.find(Journey.class, journey.getId());
+        assertThat(read.getAmenities()).isEqualTo("[\"wifi\"]");
+        assertThat(read.getAvailableSeats()).isEqualTo(seats - 2);
+    }
+
+    @Test
+    void findIndexViewsByIds_IndexesJourneysOfAnInactiveRouteAsInactive() {
+        Route inactiveRoute = persistRoute("Pune", "Mumbai");
+        inactiveRoute.setIsActive(false);
+        Journey onInactiveRoute = persistJourney(inactiveRoute, "vehicle-1", TRAVEL_DATE.atTime(6, 0));
+        Journey onActiveRoute = persistJourney(persistRoute("Pune", "Nashik"), "vehicle-2", TRAVEL_DATE.atTime(7, 0));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(journeyRepository.findIndexViewsByIds(List.of(onInactiveRoute.getId(), onActiveRoute.getId())))
+                .extracting(JourneyIndexView::getId, JourneyIndexView::getIsActive)
+                .containsExactlyInAnyOrder(tuple(onInactiveRoute.getId(), false), tuple(onActiveRoute.getId(), true));
+    }
+
+    @Test
+    void findKeysByRouteId_RecordsTheRoutesJourneysAsDeletedWithTheirReferenceIds() {
+        Route route = persistRoute("Pune", "Mumbai");
+        Journey first = persistJourney(route, "vehicle-1", TRAVEL_DATE.atTime(6, 0));
+        Journey second = persistJourney(route, "vehicle-2", TRAVEL_DATE.atTime(7, 0));
+        persistJourney(persistRoute("Pune", "Nashik"), "vehicle-3", TRAVEL_DATE.atTime(8, 0));
+        entityManager.flush();
+        entityManager.clear();
+
+        journeyChangeRecorder.recordDeleted(journeyRepository.findKeysByRouteId(route.getId()));
+
+        assertThat(journeyOutboxRepository.findAll())
+                .extracting(JourneyOutboxEvent::getJourneyId, JourneyOutboxEvent::getJourneyReferenceId,
+                        JourneyOutboxEvent::getChangeType)
+                .containsExactlyInAnyOrder(
+                        tuple(first.getId(), first.getReferenceId(), JourneyChangeType.DELETED),
+                        tuple(second.getId(), second.getReferenceId(), JourneyChangeType.DELETED));
+    }
+
+    @Test
+    void schema_HasTheIndexesJourneyQueriesReadThrough() {
+        assertThat(indexColumns("routes")).contains("(source_city, destination_city)");
+        assertThat(indexColumns("journeys")).contains("(route_id, departure_time)", "(departure_time, id)",
+                "(vehicle_reference_id, departure_time)");
+    }
+
+    /**
+     * Column lists of the table's indexes in the schema Hibernate created
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> indexColumns(String table) {
+        List<String> definitions = entityManager.getEntityManager()
+                .createNativeQuery("SELECT indexdef FROM pg_indexes WHERE tablename = :table")
+                .setParameter("table", table)
+                .getResultList();
+        return definitions.stream()
+                .map(definition -> definition.substring(definition.indexOf('(')))
+                .toList();
+    }
+}
@@ -0,0 +1,80 @@
+package com.redbus.journey.repository;
+
+import com.redbus.journey.entity.Journey;
+import com.redbus.journey.entity.Route;
+import com.redbus.journey.entity.SeatInventory;
+import com.redbus.journey.entity.SeatType;
+import com.redbus.journey.enums.JourneyStatus;
+import com.redbus.journey.outbox.JourneyChangeRecorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Runs repository queries against the same Postgres version as production, with the schema Hibernate creates;
+ * the JDBC writers that share the JPA transaction are included
+ */
+@DataJpaTest
+@Import({JourneyBulkRepository.class, JourneyChangeRecorder.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+abstract class PostgresRepositoryTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    protected TestEntityManager entityManager;
+
+    protected Route persistRoute(String sourceCity, String destinationCity) {
+        Route route = new Route();
+        route.setRouteName(sourceCity + " to " + destinationCity);
+        route.setSourceCity(sourceCity);
+        route.setDestinationCity(destinationCity);
+        route.setDistanceKm(150);
+        route.setEstimatedDurationMinutes(180);
+        route.setBaseFare(500.0);
+        route.setAgencyReferenceId(UUID.randomUUID().toString());
+        return entityManager.persist(route);
+    }
+
+    protected Journey persistJourney(Route route, String vehicleReferenceId, LocalDateTime departureTime) {
+        Journey journey = new Journey();
+        journey.setRoute(route);
+        journey.setJourneyCode("JRN" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        journey.setVehicleReferenceId(vehicleReferenceId);
+        journey.setDepartureTime(departureTime);
+        journey.setArrivalTime(departureTime.plusMinutes(route.getEstimatedDurationMinutes()));
+        journey.setJourneyStatus(JourneyStatus.SCHEDULED);
+        journey.setTotalSeats(40);
+        journey.setAvailableSeats(40);
+        journey.setBaseFare(route.getBaseFare());
+        return entityManager.persist(journey);
+    }
+
+    protected SeatInventory persistSeat(Journey journey, String seatNumber, boolean available) {
+        SeatInventory seat = new SeatInventory();
+        seat.setJourney(journey);
+        seat.setSeatNumber(seatNumber);
+        seat.setSeatType(SeatType.SEATER);
+        seat.setIsAvailable(available);
+        return entityManager.persist(seat);
+    }
+}
@@ -0,0 +1,65 @@
+package com.redbus.journey.repository;
+
+import com.redbus.journey.entity.Journey;
+import com.redbus.journey.entity.Route;
+import com.redbus.journey.entity.SeatInventory;
+import com.redbus.journey.repository.projection.SeatAvailabilityView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SeatInventoryRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private SeatInventoryRepository seatInventoryRepository;
+
+    private Journey journey;
+    private SeatInventory free;
+    private SeatInventory taken;
+    private SeatInventory otherJourneySeat;
+
+    @BeforeEach
+    void setUp() {
+        Route route = persistRoute("Pune", "Mumbai");
+        LocalDateTime departure = LocalDateTime.now().plusDays(1).withNano(0);
+        journey = persistJourney(route, "vehicle-1", departure);
+        Journey otherJourney = persistJourney(route, "vehicle-2", departure);
+        free = persistSeat(journey, "S01", true);
+        taken = persistSeat(journey, "S02", false);
+        persistSeat(journey, "S03", true);
+        otherJourneySeat = persistSeat(otherJourney, "S01", true);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findByJourneyIdAndReferenceIdIn_ReturnsOnlyRequestedSeatsOfTheJourney() {
+        List<SeatInventory> seats = seatInventoryRepository.findByJourneyIdAndReferenceIdIn(journey.getId(),
+                List.of(free.getReferenceId(), taken.getReferenceId(), otherJourneySeat.getReferenceId()));
+
+        assertThat(seats).extracting(SeatInventory::getSeatNumber).containsExactlyInAnyOrder("S01", "S02");
+    }
+
+    @Test
+    void findAvailabilityByJourneyIdAndReferenceIdIn_ReturnsFlagsOfTheJourneysSeats() {
+        List<SeatAvailabilityView> views = seatInventoryRepository.findAvailabilityByJourneyIdAndReferenceIdIn(
+                journey.getId(), List.of(free.getReferenceId(), taken.getReferenceId(),
+                        otherJourneySeat.getReferenceId(), UUID.randomUUID()));
+
+        assertThat(views)
+                .extracting(SeatAvailabilityView::getReferenceId, SeatAvailabilityView::getIsAvailable)
+                .containsExactlyInAnyOrder(tuple(free.getReferenceId(), true), tuple(taken.getReferenceId(), false));
+    }
+
+    @Test
+    void countAvailableSeats_CountsOnlyTheJourneysFreeSeats() {
+        assertThat(seatInventoryRepository.countAvailableSeats(journey.getId())).isEqualTo(2);
+    }
+}
@@ -0,0 +1,71 @@
+package com.redbus.journey.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecurringScheduleTest {
+
+    // A Monday
+    private static final LocalDate START = LocalDate.of(2030, 1, 7);
+
+    @Test
+    void expandsOnlyMatchingDaysInclusiveOfBothEnds() {
+        RecurringSchedule schedule = RecurringSchedule.expand(START, START.plusDays(14), LocalTime.of(22, 30),
+                EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), 480);
+
+        assertThat(schedule.getDepartures()).containsExactly(
+                START.atTime(22, 30),
+                START.plusDays(4).atTime(22, 30),
+                START.plusDays(7).atTime(22, 30),
+                START.plusDays(11).atTime(22, 30),
+                START.plusDays(14).atTime(22, 30));
+        assertThat(schedule.arrivalOf(START.atTime(22, 30))).isEqualTo(START.plusDays(1).atTime(6, 30));
+    }
+
+    @Test
+    void isEmptyWhenNoDayMatches() {
+        RecurringSchedule schedule = RecurringSchedule.expand(START, START.plusDays(2), LocalTime.NOON,
+                EnumSet.of(DayOfWeek.SUNDAY), 60);
+
+        assertThat(schedule.isEmpty()).isTrue();
+    }
+
+    @Test
+    void conflictWindowCoversTurnaroundAroundWholeSchedule() {
+        RecurringSchedule schedule = RecurringSchedule.expand(START, START.plusDays(6), LocalTime.of(8, 0),
+                EnumSet.allOf(DayOfWeek.class), 300);
+
+        assertThat(schedule.conflictWindowStart()).isEqualTo(START.atTime(7, 0));
+        assertThat(schedule.conflictWindowEnd()).isEqualTo(START.plusDays(6).atTime(14, 0));
+    }
+
+    @Test
+    void flagsDeparturesNearExistingJourneys() {
+        RecurringSchedule schedule = RecurringSchedule.expand(START, START.plusDays(2), LocalTime.of(8, 0),
+                EnumSet.allOf(DayOfWeek.class), 300);
+
+        List<LocalDateTime> conflicts = schedule.findConflicts(List.of(
+                START.atTime(7, 0),                // turnaround before the first departure
+                START.plusDays(1).atTime(14, 1),   // just clear of the second journey's turnaround
+                START.plusDays(2).atTime(14, 0))); // turnaround after the third arrival
+
+        assertThat(conflicts).containsExactly(START.atTime(8, 0), START.plusDays(2).atTime(8, 0));
+        assertThat(schedule.findConflicts(List.of(START.atTime(6, 59), START.plusDays(2).atTime(14, 1)))).isEmpty();
+    }
+
+    @Test
+    void flagsDeparturesThatOverlapTheNextDeparture() {
+        RecurringSchedule schedule = RecurringSchedule.expand(START, START.plusDays(2), LocalTime.of(20, 0),
+                EnumSet.allOf(DayOfWeek.class), 23 * 60);
+
+        assertThat(schedule.findConflicts(List.of())).containsExactly(START.atTime(20, 0), START.plusDays(1).atTime(20, 0));
+    }
+}
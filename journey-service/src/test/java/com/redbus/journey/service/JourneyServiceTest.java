@@ -2,9 +2,11 @@ package com.redbus.journey.service;
 
 import com.redbus.journey.dto.JourneyRequestDto;
 import com.redbus.journey.dto.JourneyResponseDto;
+import com.redbus.journey.engine.SeatStateEngine;
 import com.redbus.journey.entity.Journey;
 import com.redbus.journey.entity.Route;
 import com.redbus.journey.enums.JourneyStatus;
+import com.redbus.journey.outbox.JourneyChangeRecorder;
 // import com.redbus.journey.mapper.JourneyMapper; // Mapper not used
 import com.redbus.journey.repository.JourneyRepository;
 import com.redbus.journey.repository.RouteRepository;
@@ -13,16 +15,20 @@ import com.redbus.journey.service.impl.JourneyServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +43,12 @@ class JourneyServiceTest {
     @Mock
     private SeatInventoryRepository seatInventoryRepository;
 
+    @Mock
+    private JourneyChangeRecorder journeyChangeRecorder;
+
+    @Mock
+    private SeatStateEngine seatStateEngine;
+
     @InjectMocks
     private JourneyServiceImpl journeyService;
 
@@ -100,6 +112,28 @@ class JourneyServiceTest {
         verify(seatInventoryRepository).saveAll(any()); // Seats created via saveAll
     }
 
+    @Test
+    void createJourney_RegeneratesACodeThatIsAlreadyStored() {
+        when(routeRepository.findByReferenceId(any(UUID.class))).thenReturn(Optional.of(route));
+        when(journeyRepository.save(any(Journey.class))).thenReturn(journey);
+        List<String> storedCodes = new ArrayList<>();
+        when(journeyRepository.findExistingCodes(anyCollection())).thenAnswer(invocation -> {
+            // The first candidate is taken, later ones are free
+            if (!storedCodes.isEmpty()) {
+                return List.of();
+            }
+            storedCodes.addAll(invocation.getArgument(0));
+            return storedCodes;
+        });
+
+        journeyService.createJourney(requestDto);
+
+        ArgumentCaptor<Journey> saved = ArgumentCaptor.forClass(Journey.class);
+        verify(journeyRepository).save(saved.capture());
+        verify(journeyRepository, times(2)).findExistingCodes(anyCollection());
+        assertThat(saved.getValue().getJourneyCode()).startsWith("JRN").isNotIn(storedCodes);
+    }
+
     @Test
     void getJourneyByReferenceId_Success() {
         UUID referenceId = UUID.randomUUID();
@@ -131,5 +165,6 @@ class JourneyServiceTest {
 
         assertThat(journey.getJourneyStatus()).isEqualTo(JourneyStatus.CANCELLED);
         verify(journeyRepository).save(any(Journey.class));
+        verify(seatStateEngine).evict(referenceId);
     }
 }
@@ -0,0 +1,153 @@
+package com.redbus.journey.service;
+
+import com.redbus.journey.dto.CityStatsDto;
+import com.redbus.journey.engine.SeatStateEngine;
+import com.redbus.journey.entity.Route;
+import com.redbus.journey.enums.JourneyChangeType;
+import com.redbus.journey.outbox.JourneyChangeRecorder;
+import com.redbus.journey.repository.JourneyRepository;
+import com.redbus.journey.repository.RouteRepository;
+import com.redbus.journey.repository.StopRepository;
+import com.redbus.journey.repository.projection.CityRouteCountView;
+import com.redbus.journey.repository.projection.JourneyKeyView;
+import com.redbus.journey.repository.projection.StopCityView;
+import com.redbus.journey.service.impl.RouteServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RouteServiceTest {
+
+    @Mock
+    private RouteRepository routeRepository;
+
+    @Mock
+    private StopRepository stopRepository;
+
+    @Mock
+    private JourneyRepository journeyRepository;
+
+    @Mock
+    private JourneyChangeRecorder journeyChangeRecorder;
+
+    @Mock
+    private SeatStateEngine seatStateEngine;
+
+    @InjectMocks
+    private RouteServiceImpl routeService;
+
+    @Test
+    void getCityStats_CountsSpellingsDifferingInCaseAccentsOrSpacingAsOneCity() {
+        when(stopRepository.findActiveStopCities()).thenReturn(List.of(stopCity("Pune", "Maharashtra")));
+        when(routeRepository.countActiveRoutesBySourceCity()).thenReturn(List.of(routeCount("pune ", 2), routeCount("Goa", 1)));
+        when(routeRepository.countActiveRoutesByDestinationCity()).thenReturn(List.of(routeCount("PUNE", 3), routeCount("Gôa", 4)));
+
+        assertThat(routeService.getCityStats(null))
+                .extracting(CityStatsDto::getCity, CityStatsDto::getState, CityStatsDto::getRouteCount)
+                .containsExactlyInAnyOrder(tuple("Pune", "Maharashtra", 5L), tuple("Goa", null, 5L));
+    }
+
+    @Test
+    void getCityStats_ReturnsEachChangedCityOnceWithZeroCountWhenGone() {
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        when(stopRepository.findActiveStopCities()).thenReturn(List.of());
+        when(routeRepository.countActiveRoutesBySourceCity()).thenReturn(List.of(routeCount("Pune", 2)));
+        when(routeRepository.countActiveRoutesByDestinationCity()).thenReturn(List.of());
+        when(routeRepository.findSourceCitiesUpdatedSince(since)).thenReturn(List.of("Pune", "Nashik"));
+        when(routeRepository.findDestinationCitiesUpdatedSince(since)).thenReturn(List.of("pune"));
+        when(stopRepository.findCitiesUpdatedSince(since)).thenReturn(List.of("nashik "));
+
+        assertThat(routeService.getCityStats(since))
+                .extracting(CityStatsDto::getCity, CityStatsDto::getRouteCount)
+                .containsExactlyInAnyOrder(tuple("Pune", 2L), tuple("Nashik", 0L));
+    }
+
+    @Test
+    void deleteRoute_RecordsItsJourneysAsDeletedAndDropsTheirSeatState() {
+        Route route = new Route();
+        route.setId(7L);
+        route.setReferenceId(UUID.randomUUID());
+        UUID journeyReferenceId = UUID.randomUUID();
+        List<JourneyKeyView> journeys = List.of(journeyKey(70L, journeyReferenceId));
+        when(routeRepository.findByReferenceId(route.getReferenceId())).thenReturn(Optional.of(route));
+        when(journeyRepository.findKeysByRouteId(7L)).thenReturn(journeys);
+
+        routeService.deleteRoute(route.getReferenceId());
+
+        InOrder inOrder = inOrder(journeyChangeRecorder, routeRepository);
+        inOrder.verify(journeyChangeRecorder).recordDeleted(journeys);
+        inOrder.verify(routeRepository).delete(route);
+        verify(seatStateEngine).evict(journeyReferenceId);
+    }
+
+    @Test
+    void deactivateRoute_RepublishesItsJourneys() {
+        Route route = new Route();
+        route.setId(7L);
+        route.setReferenceId(UUID.randomUUID());
+        when(routeRepository.findByReferenceId(route.getReferenceId())).thenReturn(Optional.of(route));
+        when(journeyRepository.findIdsByRouteId(7L)).thenReturn(List.of(70L, 71L));
+
+        routeService.deactivateRoute(route.getReferenceId());
+
+        assertThat(route.getIsActive()).isFalse();
+        verify(journeyChangeRecorder).recordAll(List.of(70L, 71L), JourneyChangeType.UPDATED);
+    }
+
+    private static JourneyKeyView journeyKey(Long id, UUID referenceId) {
+        return new JourneyKeyView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public UUID getReferenceId() {
+                return referenceId;
+            }
+        };
+    }
+
+    private static StopCityView stopCity(String city, String state) {
+        return new StopCityView() {
+            @Override
+            public String getCity() {
+                return city;
+            }
+
+            @Override
+            public String getState() {
+                return state;
+            }
+        };
+    }
+
+    private static CityRouteCountView routeCount(String city, long routeCount) {
+        return new CityRouteCountView() {
+            @Override
+            public String getCity() {
+                return city;
+            }
+
+            @Override
+            public Long getRouteCount() {
+                return routeCount;
+            }
+        };
+    }
+}
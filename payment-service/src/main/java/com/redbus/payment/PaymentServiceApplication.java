@@ -2,18 +2,13 @@ package com.redbus.payment;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {"com.redbus.payment", "com.redbus.common"})
+@EnableScheduling
 public class PaymentServiceApplication {
     
     public static void main(String[] args) {
         SpringApplication.run(PaymentServiceApplication.class, args);
     }
-    
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
 }
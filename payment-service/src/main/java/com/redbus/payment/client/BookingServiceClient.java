@@ -7,13 +7,19 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Calls booking-service on behalf of the payment outbox dispatcher.
+ * Failures are thrown rather than logged so the dispatcher can retry them.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -42,51 +48,40 @@ public class BookingServiceClient {
         
         HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
         
-        try {
-            ResponseEntity<ApiResponse<Object>> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    new ParameterizedTypeReference<ApiResponse<Object>>() {}
-            );
-            
-            if (response.getBody() != null && response.getBody().isSuccess()) {
-                log.info("Successfully confirmed booking payment for: {}", bookingReferenceId);
-            } else {
-                log.error("Failed to confirm booking payment: {}", response.getBody());
-            }
-        } catch (Exception e) {
-            log.error("Error calling booking service for payment confirmation", e);
-            // In production, this should be handled with retry logic or message queue
+        ResponseEntity<ApiResponse<Object>> response = restTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                entity,
+                new ParameterizedTypeReference<ApiResponse<Object>>() {}
+        );
+        
+        if (response.getBody() == null || !response.getBody().isSuccess()) {
+            throw new RestClientException("Booking service did not confirm payment: " + response.getBody());
         }
+        log.info("Successfully confirmed booking payment for: {}", bookingReferenceId);
     }
     
     public void cancelBookingPayment(UUID bookingReferenceId, String reason) {
         log.info("Sending payment cancellation to booking service for booking: {}", bookingReferenceId);
         
-        String url = bookingServiceUrl + "/api/v1/bookings/" + bookingReferenceId + "/cancel";
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+        // The cancel endpoint takes the reason as a request parameter
+        String url = UriComponentsBuilder.fromUriString(bookingServiceUrl)
+                .path("/api/v1/bookings/{referenceId}/cancel")
+                .queryParam("reason", reason)
+                .buildAndExpand(bookingReferenceId)
+                .encode()
+                .toUriString();
         
-        Map<String, Object> request = new HashMap<>();
-        request.put("reason", reason);
-        
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
+        ResponseEntity<ApiResponse<Object>> response = restTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                HttpEntity.EMPTY,
+                new ParameterizedTypeReference<ApiResponse<Object>>() {}
+        );
         
-        try {
-            ResponseEntity<ApiResponse<Object>> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    new ParameterizedTypeReference<ApiResponse<Object>>() {}
-            );
-            
-            if (response.getBody() != null && response.getBody().isSuccess()) {
-                log.info("Successfully cancelled booking for failed payment: {}", bookingReferenceId);
-            }
-        } catch (Exception e) {
-            log.error("Error calling booking service for cancellation", e);
+        if (response.getBody() == null || !response.getBody().isSuccess()) {
+            throw new RestClientException("Booking service did not cancel booking: " + response.getBody());
         }
+        log.info("Successfully cancelled booking for failed payment: {}", bookingReferenceId);
     }
 }
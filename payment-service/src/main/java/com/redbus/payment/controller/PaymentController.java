@@ -1,6 +1,7 @@
 package com.redbus.payment.controller;
 
 import com.redbus.common.dto.ApiResponse;
+import com.redbus.common.idempotency.IdempotencyService;
 import com.redbus.payment.dto.PaymentRequestDto;
 import com.redbus.payment.dto.PaymentResponseDto;
 import com.redbus.payment.service.PaymentService;
@@ -23,20 +24,24 @@ import java.util.UUID;
 public class PaymentController {
     
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
     
     @PostMapping("/process")
     public ResponseEntity<ApiResponse<PaymentResponseDto>> processPayment(
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody PaymentRequestDto requestDto) {
         log.info("Processing payment for booking: {}", requestDto.getBookingReferenceId());
-        PaymentResponseDto payment = paymentService.processPayment(requestDto);
-        
-        String message = payment.getPaymentStatus().name().equals("SUCCESS") 
-                ? "Payment processed successfully" 
-                : "Payment failed: " + payment.getFailureReason();
-        
-        return ResponseEntity
-                .status(HttpStatus.OK)
-                .body(ApiResponse.success(payment, message));
+        return idempotencyService.execute("payments:process", idempotencyKey, requestDto, () -> {
+            PaymentResponseDto payment = paymentService.processPayment(requestDto);
+            
+            String message = payment.getPaymentStatus().name().equals("SUCCESS") 
+                    ? "Payment processed successfully" 
+                    : "Payment failed: " + payment.getFailureReason();
+            
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(ApiResponse.success(payment, message));
+        });
     }
     
     @GetMapping("/{referenceId}")
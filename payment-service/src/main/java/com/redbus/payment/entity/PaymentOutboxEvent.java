@@ -0,0 +1,62 @@
+package com.redbus.payment.entity;
+
+import com.redbus.common.entity.BaseEntity;
+import com.redbus.payment.enums.OutboxEventType;
+import com.redbus.payment.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking-service callback recorded in the same transaction as the payment it reports on,
+ * and delivered later by the outbox dispatcher.
+ */
+@Entity
+@Table(name = "payment_outbox", indexes = {
+        @Index(name = "idx_payment_outbox_due", columnList = "status, next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentOutboxEvent extends BaseEntity {
+    
+    @Column(name = "event_type", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType eventType;
+    
+    @Column(name = "booking_reference_id", nullable = false)
+    private String bookingReferenceId;
+    
+    @Column(name = "payment_reference_id", nullable = false)
+    private String paymentReferenceId;
+    
+    @Column(name = "payment_status", nullable = false, length = 20)
+    private String paymentStatus;
+    
+    @Column(name = "amount")
+    private Double amount;
+    
+    @Column(name = "reason")
+    private String reason;
+    
+    @Column(name = "status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private OutboxStatus status = OutboxStatus.PENDING;
+    
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
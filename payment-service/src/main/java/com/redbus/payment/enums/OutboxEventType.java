@@ -0,0 +1,6 @@
+package com.redbus.payment.enums;
+
+public enum OutboxEventType {
+    BOOKING_CONFIRM,
+    BOOKING_CANCEL
+}
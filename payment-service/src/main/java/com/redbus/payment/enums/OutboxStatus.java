@@ -0,0 +1,18 @@
+package com.redbus.payment.enums;
+
+public enum OutboxStatus {
+    PENDING("Pending"),
+    SENT("Sent"),
+    REJECTED("Rejected"),
+    FAILED("Failed");
+    
+    private final String displayName;
+    
+    OutboxStatus(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,182 @@
+package com.redbus.payment.outbox;
+
+import com.redbus.payment.client.BookingServiceClient;
+import com.redbus.payment.entity.PaymentOutboxEvent;
+import com.redbus.payment.enums.OutboxEventType;
+import com.redbus.payment.enums.OutboxStatus;
+import com.redbus.payment.repository.PaymentOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers booking-service callbacks recorded in the payment outbox.
+ *
+ * Each run claims a batch of due events in a short transaction, sends them concurrently over the
+ * pooled HTTP client and records the outcomes in a second transaction, so no database connection
+ * is held while booking-service is called. Transient failures are retried with exponential backoff;
+ * a 4xx from booking-service means the booking can no longer accept the callback and is not retried.
+ * Events that exhaust their attempts stay in the table as FAILED for manual replay.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentCallbackDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final PaymentOutboxRepository outboxRepository;
+    private final BookingServiceClient bookingServiceClient;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${payment.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${payment.outbox.parallelism:8}")
+    private int parallelism;
+
+    @Value("${payment.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${payment.outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${payment.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${payment.outbox.lease-ms:120000}")
+    private long leaseMs;
+
+    private ExecutorService sendExecutor;
+
+    @PostConstruct
+    void startSendExecutor() {
+        sendExecutor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    @PreDestroy
+    void stopSendExecutor() {
+        sendExecutor.shutdown();
+    }
+
+    /**
+     * Send one batch of due callbacks
+     *
+     * @return number of events claimed, so callers can keep draining while batches come back full
+     */
+    public int dispatchPending() {
+        List<PaymentOutboxEvent> events = transactionTemplate.execute(status -> claimDueEvents());
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<Throwable>> sends = events.stream()
+                .map(event -> CompletableFuture.runAsync(() -> send(event), sendExecutor)
+                        .handle((ignored, error) -> error))
+                .collect(Collectors.toList());
+
+        List<Long> sentIds = new ArrayList<>();
+        List<FailedAttempt> failures = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            Throwable error = sends.get(i).join();
+            if (error == null) {
+                sentIds.add(events.get(i).getId());
+            } else {
+                failures.add(new FailedAttempt(events.get(i), unwrap(error)));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> recordOutcomes(sentIds, failures));
+        log.debug("Dispatched {} payment callbacks: {} sent, {} failed", events.size(), sentIds.size(), failures.size());
+        return events.size();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private List<PaymentOutboxEvent> claimDueEvents() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PaymentOutboxEvent> events = outboxRepository.lockDueEvents(now, batchSize);
+        if (!events.isEmpty()) {
+            // Push the claimed events out of the due window; if this instance dies they become due again
+            outboxRepository.extendLease(events.stream().map(PaymentOutboxEvent::getId).collect(Collectors.toList()),
+                    now.plus(Duration.ofMillis(leaseMs)));
+        }
+        return events;
+    }
+
+    private void send(PaymentOutboxEvent event) {
+        UUID bookingReferenceId = UUID.fromString(event.getBookingReferenceId());
+        if (event.getEventType() == OutboxEventType.BOOKING_CONFIRM) {
+            bookingServiceClient.confirmBookingPayment(bookingReferenceId, event.getPaymentReferenceId(),
+                    event.getPaymentStatus(), event.getAmount());
+        } else {
+            bookingServiceClient.cancelBookingPayment(bookingReferenceId, event.getReason());
+        }
+    }
+
+    private void recordOutcomes(List<Long> sentIds, List<FailedAttempt> failures) {
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markSent(sentIds, LocalDateTime.now());
+        }
+        for (FailedAttempt failure : failures) {
+            PaymentOutboxEvent event = failure.event();
+            int attempts = event.getAttempts() + 1;
+            OutboxStatus status;
+            LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+            if (failure.error() instanceof HttpClientErrorException) {
+                status = OutboxStatus.REJECTED;
+                log.warn("Booking service rejected {} for booking {}: {}",
+                        event.getEventType(), event.getBookingReferenceId(), failure.error().getMessage());
+            } else if (attempts >= maxAttempts) {
+                status = OutboxStatus.FAILED;
+                log.error("Giving up on {} for booking {} after {} attempts",
+                        event.getEventType(), event.getBookingReferenceId(), attempts, failure.error());
+            } else {
+                status = OutboxStatus.PENDING;
+                nextAttemptAt = nextAttemptAt.plus(Duration.ofMillis(backoffMs(attempts)));
+                log.warn("Failed to send {} for booking {} (attempt {}), retrying at {}",
+                        event.getEventType(), event.getBookingReferenceId(), attempts, nextAttemptAt);
+            }
+            outboxRepository.markAttemptFailed(event.getId(), status, attempts, nextAttemptAt,
+                    truncate(String.valueOf(failure.error().getMessage())));
+        }
+    }
+
+    private long backoffMs(int attempts) {
+        long backoff = initialBackoffMs << Math.min(attempts - 1, 30);
+        backoff = Math.min(backoff < 0 ? maxBackoffMs : backoff, maxBackoffMs);
+        // Jitter so callbacks that failed together do not all retry in the same instant
+        return backoff - ThreadLocalRandom.current().nextLong(backoff / 5 + 1);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private record FailedAttempt(PaymentOutboxEvent event, Throwable error) {
+    }
+}
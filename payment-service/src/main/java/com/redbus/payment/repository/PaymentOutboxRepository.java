@@ -0,0 +1,42 @@
+package com.redbus.payment.repository;
+
+import com.redbus.payment.entity.PaymentOutboxEvent;
+import com.redbus.payment.enums.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutboxEvent, Long> {
+    
+    /**
+     * Lock a batch of due events, skipping rows another dispatcher is already claiming
+     */
+    @Query(value = "SELECT * FROM payment_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+           "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<PaymentOutboxEvent> lockDueEvents(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    @Modifying
+    @Query("UPDATE PaymentOutboxEvent e SET e.nextAttemptAt = :leaseUntil WHERE e.id IN :ids")
+    void extendLease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    @Modifying
+    @Query("UPDATE PaymentOutboxEvent e SET e.status = 'SENT', e.sentAt = :sentAt, " +
+           "e.attempts = e.attempts + 1, e.lastError = NULL WHERE e.id IN :ids")
+    void markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+    
+    @Modifying
+    @Query("UPDATE PaymentOutboxEvent e SET e.status = :status, e.attempts = :attempts, " +
+           "e.nextAttemptAt = :nextAttemptAt, e.lastError = :lastError WHERE e.id = :id")
+    void markAttemptFailed(@Param("id") Long id,
+                           @Param("status") OutboxStatus status,
+                           @Param("attempts") int attempts,
+                           @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                           @Param("lastError") String lastError);
+}
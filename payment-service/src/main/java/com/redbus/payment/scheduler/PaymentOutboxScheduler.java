@@ -0,0 +1,29 @@
+package com.redbus.payment.scheduler;
+
+import com.redbus.payment.outbox.PaymentCallbackDispatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentOutboxScheduler {
+    
+    private final PaymentCallbackDispatcher paymentCallbackDispatcher;
+    
+    /**
+     * Drain due booking callbacks, continuing while batches come back full
+     */
+    @Scheduled(fixedDelayString = "${payment.outbox.poll-interval-ms:200}")
+    public void dispatchPaymentCallbacks() {
+        try {
+            while (paymentCallbackDispatcher.dispatchPending() == paymentCallbackDispatcher.getBatchSize()) {
+                log.debug("Outbox batch was full, dispatching next batch");
+            }
+        } catch (Exception e) {
+            log.error("Error dispatching payment callbacks", e);
+        }
+    }
+}
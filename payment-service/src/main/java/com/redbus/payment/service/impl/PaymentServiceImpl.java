@@ -2,11 +2,13 @@ package com.redbus.payment.service.impl;
 
 import com.redbus.common.exception.BusinessException;
 import com.redbus.common.exception.ResourceNotFoundException;
-import com.redbus.payment.client.BookingServiceClient;
 import com.redbus.payment.dto.PaymentRequestDto;
 import com.redbus.payment.dto.PaymentResponseDto;
 import com.redbus.payment.entity.Payment;
+import com.redbus.payment.entity.PaymentOutboxEvent;
+import com.redbus.payment.enums.OutboxEventType;
 import com.redbus.payment.enums.PaymentStatus;
+import com.redbus.payment.repository.PaymentOutboxRepository;
 import com.redbus.payment.repository.PaymentRepository;
 import com.redbus.payment.service.PaymentService;
 import lombok.RequiredArgsConstructor;
@@ -27,7 +29,7 @@ import java.util.stream.Collectors;
 public class PaymentServiceImpl implements PaymentService {
     
     private final PaymentRepository paymentRepository;
-    private final BookingServiceClient bookingServiceClient;
+    private final PaymentOutboxRepository paymentOutboxRepository;
     
     private static final String PAYMENT_CODE_PREFIX = "PAY";
     private static final double TOLERANCE = 0.01; // Allow 1 paisa tolerance for floating point comparison
@@ -78,8 +80,8 @@ public class PaymentServiceImpl implements PaymentService {
         
         payment = paymentRepository.save(payment);
         
-        // Call booking service to update booking status
-        callBookingServiceCallback(payment);
+        // Record the booking callback in this transaction; the outbox dispatcher delivers it after commit
+        enqueueBookingCallback(payment);
         
         return toPaymentResponseDto(payment);
     }
@@ -172,32 +174,29 @@ public class PaymentServiceImpl implements PaymentService {
         return "TXN" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 4).toUpperCase();
     }
     
-    private void callBookingServiceCallback(Payment payment) {
-        log.info("Calling booking service callback for payment: {} with status: {}", 
-                payment.getPaymentCode(), payment.getPaymentStatus());
-        
-        try {
-            UUID bookingReferenceId = UUID.fromString(payment.getBookingReferenceId());
-            
-            if (payment.getPaymentStatus() == PaymentStatus.SUCCESS) {
-                // Confirm the booking
-                bookingServiceClient.confirmBookingPayment(
-                        bookingReferenceId,
-                        payment.getReferenceId().toString(),
-                        payment.getPaymentStatus().name(),
-                        payment.getAmountRequired()
-                );
-            } else if (payment.getPaymentStatus() == PaymentStatus.FAILED) {
-                // Cancel the booking due to payment failure
-                bookingServiceClient.cancelBookingPayment(
-                        bookingReferenceId,
-                        "Payment failed: " + payment.getFailureReason()
-                );
-            }
-        } catch (Exception e) {
-            log.error("Error calling booking service callback", e);
-            // In production, implement retry logic or use message queue
+    private void enqueueBookingCallback(Payment payment) {
+        OutboxEventType eventType;
+        if (payment.getPaymentStatus() == PaymentStatus.SUCCESS) {
+            eventType = OutboxEventType.BOOKING_CONFIRM;
+        } else if (payment.getPaymentStatus() == PaymentStatus.FAILED) {
+            eventType = OutboxEventType.BOOKING_CANCEL;
+        } else {
+            return;
+        }
+        
+        PaymentOutboxEvent event = new PaymentOutboxEvent();
+        event.setEventType(eventType);
+        event.setBookingReferenceId(payment.getBookingReferenceId());
+        event.setPaymentReferenceId(payment.getReferenceId().toString());
+        event.setPaymentStatus(payment.getPaymentStatus().name());
+        event.setAmount(payment.getAmountRequired());
+        if (eventType == OutboxEventType.BOOKING_CANCEL) {
+            event.setReason("Payment failed: " + payment.getFailureReason());
         }
+        event.setNextAttemptAt(LocalDateTime.now());
+        paymentOutboxRepository.save(event);
+        
+        log.info("Queued {} callback for payment: {}", eventType, payment.getPaymentCode());
     }
     
     private PaymentResponseDto toPaymentResponseDto(Payment payment) {
@@ -0,0 +1,155 @@
+package com.redbus.payment.outbox;
+
+import com.redbus.payment.client.BookingServiceClient;
+import com.redbus.payment.entity.PaymentOutboxEvent;
+import com.redbus.payment.enums.OutboxEventType;
+import com.redbus.payment.enums.OutboxStatus;
+import com.redbus.payment.repository.PaymentOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentCallbackDispatcherTest {
+
+    @Mock
+    private PaymentOutboxRepository outboxRepository;
+
+    @Mock
+    private BookingServiceClient bookingServiceClient;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PaymentCallbackDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        dispatcher = new PaymentCallbackDispatcher(outboxRepository, bookingServiceClient, transactionTemplate);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "parallelism", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMs", 60000L);
+        ReflectionTestUtils.setField(dispatcher, "leaseMs", 120000L);
+        dispatcher.startSendExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stopSendExecutor();
+    }
+
+    @Test
+    void dispatchPending_LeasesBatchAndMarksDeliveredEventsSent() {
+        PaymentOutboxEvent confirm = event(1L, OutboxEventType.BOOKING_CONFIRM, 0);
+        PaymentOutboxEvent cancel = event(2L, OutboxEventType.BOOKING_CANCEL, 0);
+        when(outboxRepository.lockDueEvents(any(), eq(10))).thenReturn(List.of(confirm, cancel));
+
+        assertThat(dispatcher.dispatchPending()).isEqualTo(2);
+
+        verify(outboxRepository).extendLease(eq(List.of(1L, 2L)), any());
+        verify(bookingServiceClient).confirmBookingPayment(UUID.fromString(confirm.getBookingReferenceId()),
+                confirm.getPaymentReferenceId(), "SUCCESS", 500.0);
+        verify(bookingServiceClient).cancelBookingPayment(UUID.fromString(cancel.getBookingReferenceId()),
+                cancel.getReason());
+        verify(outboxRepository).markSent(argThat(ids -> ids.containsAll(List.of(1L, 2L)) && ids.size() == 2), any());
+        verify(outboxRepository, never()).markAttemptFailed(anyLong(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void dispatchPending_ReturnsZeroWithoutSecondTransactionWhenNothingIsDue() {
+        when(outboxRepository.lockDueEvents(any(), anyInt())).thenReturn(List.of());
+
+        assertThat(dispatcher.dispatchPending()).isZero();
+
+        verify(outboxRepository, never()).extendLease(any(), any());
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+    }
+
+    @Test
+    void dispatchPending_RetriesTransientFailureWithBackoff() {
+        PaymentOutboxEvent event = event(1L, OutboxEventType.BOOKING_CONFIRM, 0);
+        when(outboxRepository.lockDueEvents(any(), anyInt())).thenReturn(List.of(event));
+        doThrow(new ResourceAccessException("connection refused"))
+                .when(bookingServiceClient).confirmBookingPayment(any(), any(), any(), any());
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatchPending();
+
+        ArgumentCaptor<LocalDateTime> nextAttemptAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).markAttemptFailed(eq(1L), eq(OutboxStatus.PENDING), eq(1),
+                nextAttemptAt.capture(), eq("connection refused"));
+        // 1s initial backoff less up to 20% jitter
+        assertThat(nextAttemptAt.getValue()).isAfter(before.plusNanos(700_000_000));
+        verify(outboxRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void dispatchPending_RejectsEventOnClientError() {
+        PaymentOutboxEvent event = event(1L, OutboxEventType.BOOKING_CANCEL, 0);
+        when(outboxRepository.lockDueEvents(any(), anyInt())).thenReturn(List.of(event));
+        doThrow(new HttpClientErrorException(HttpStatus.CONFLICT))
+                .when(bookingServiceClient).cancelBookingPayment(any(), any());
+
+        dispatcher.dispatchPending();
+
+        verify(outboxRepository).markAttemptFailed(eq(1L), eq(OutboxStatus.REJECTED), eq(1), any(), anyString());
+    }
+
+    @Test
+    void dispatchPending_GivesUpAfterMaxAttempts() {
+        PaymentOutboxEvent event = event(1L, OutboxEventType.BOOKING_CONFIRM, 2);
+        when(outboxRepository.lockDueEvents(any(), anyInt())).thenReturn(List.of(event));
+        doThrow(new ResourceAccessException("timeout"))
+                .when(bookingServiceClient).confirmBookingPayment(any(), any(), any(), any());
+
+        dispatcher.dispatchPending();
+
+        verify(outboxRepository).markAttemptFailed(eq(1L), eq(OutboxStatus.FAILED), eq(3), any(), eq("timeout"));
+    }
+
+    private static PaymentOutboxEvent event(Long id, OutboxEventType type, int attempts) {
+        PaymentOutboxEvent event = new PaymentOutboxEvent();
+        event.setId(id);
+        event.setEventType(type);
+        event.setBookingReferenceId(UUID.randomUUID().toString());
+        event.setPaymentReferenceId(UUID.randomUUID().toString());
+        event.setPaymentStatus(type == OutboxEventType.BOOKING_CONFIRM ? "SUCCESS" : "FAILED");
+        event.setAmount(500.0);
+        event.setReason(type == OutboxEventType.BOOKING_CANCEL ? "Payment failed" : null);
+        event.setAttempts(attempts);
+        event.setNextAttemptAt(LocalDateTime.now());
+        return event;
+    }
+}
@@ -0,0 +1,90 @@
+package com.redbus.payment.service;
+
+import com.redbus.payment.dto.PaymentRequestDto;
+import com.redbus.payment.entity.Payment;
+import com.redbus.payment.entity.PaymentOutboxEvent;
+import com.redbus.payment.enums.OutboxEventType;
+import com.redbus.payment.enums.OutboxStatus;
+import com.redbus.payment.repository.PaymentOutboxRepository;
+import com.redbus.payment.repository.PaymentRepository;
+import com.redbus.payment.service.impl.PaymentServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentOutboxRepository paymentOutboxRepository;
+
+    @InjectMocks
+    private PaymentServiceImpl paymentService;
+
+    private final UUID bookingReferenceId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        when(paymentRepository.findSuccessfulPaymentForBooking(anyString())).thenReturn(Optional.empty());
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> {
+            Payment payment = invocation.getArgument(0);
+            if (payment.getReferenceId() == null) {
+                payment.setReferenceId(UUID.randomUUID());
+            }
+            return payment;
+        });
+    }
+
+    @Test
+    void processPayment_QueuesConfirmCallbackForSuccessfulPayment() {
+        paymentService.processPayment(request(500.0, 500.0));
+
+        PaymentOutboxEvent event = savedOutboxEvent();
+        assertThat(event.getEventType()).isEqualTo(OutboxEventType.BOOKING_CONFIRM);
+        assertThat(event.getBookingReferenceId()).isEqualTo(bookingReferenceId.toString());
+        assertThat(event.getPaymentStatus()).isEqualTo("SUCCESS");
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(event.getNextAttemptAt()).isNotNull();
+    }
+
+    @Test
+    void processPayment_QueuesCancelCallbackWithReasonForFailedPayment() {
+        paymentService.processPayment(request(500.0, 450.0));
+
+        PaymentOutboxEvent event = savedOutboxEvent();
+        assertThat(event.getEventType()).isEqualTo(OutboxEventType.BOOKING_CANCEL);
+        assertThat(event.getPaymentStatus()).isEqualTo("FAILED");
+        assertThat(event.getReason()).startsWith("Payment failed: Amount mismatch");
+    }
+
+    private PaymentOutboxEvent savedOutboxEvent() {
+        ArgumentCaptor<PaymentOutboxEvent> captor = ArgumentCaptor.forClass(PaymentOutboxEvent.class);
+        verify(paymentOutboxRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private PaymentRequestDto request(double required, double entered) {
+        PaymentRequestDto request = new PaymentRequestDto();
+        request.setBookingReferenceId(bookingReferenceId);
+        request.setUserReferenceId("user-1");
+        request.setAmountRequired(required);
+        request.setAmountEntered(entered);
+        return request;
+    }
+}
@@ -0,0 +1,130 @@
+package com.redbus.search.autocomplete;
+
+import com.redbus.search.client.JourneyServiceClient;
+import com.redbus.search.dto.CityStatsDto;
+import com.redbus.search.dto.CitySuggestionDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * City suggestions for the search box, served from an in-memory {@link CityTrie}.
+ *
+ * The city list comes from journey-service's route and stop data. After one full load, only cities
+ * whose routes or stops changed since the last sync are fetched and merged, and a new trie is built
+ * from the merged list and swapped in; lookups never wait for a rebuild. An occasional full load
+ * picks up deleted routes, which the incremental sync cannot see.
+ */
+@Component
+@Slf4j
+public class CitySuggestionIndex {
+
+    // Overlap between syncs so a route saved while the previous sync ran is not missed
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+
+    private final JourneyServiceClient journeyServiceClient;
+    private final int maxSuggestions;
+    private final long refreshIntervalMillis;
+    private final long fullRefreshIntervalMillis;
+    private final Map<String, CitySuggestionDto> cities = new HashMap<>();
+    private final ScheduledExecutorService refresher;
+    private volatile CityTrie trie;
+    private LocalDateTime lastSyncedAt;
+
+    public CitySuggestionIndex(JourneyServiceClient journeyServiceClient,
+                               @Value("${search.cities.max-suggestions:10}") int maxSuggestions,
+                               @Value("${search.cities.refresh-interval-ms:60000}") long refreshIntervalMillis,
+                               @Value("${search.cities.full-refresh-interval-ms:3600000}") long fullRefreshIntervalMillis) {
+        this.journeyServiceClient = journeyServiceClient;
+        this.maxSuggestions = maxSuggestions;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.fullRefreshIntervalMillis = fullRefreshIntervalMillis;
+        this.trie = CityTrie.build(List.of(), maxSuggestions);
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "city-suggestions-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresher.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+        refresher.scheduleWithFixedDelay(this::fullRefresh, fullRefreshIntervalMillis, fullRefreshIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Best cities whose name, or a word in it, starts with the prefix
+     */
+    public List<CitySuggestionDto> suggest(String prefix, int limit) {
+        return trie.suggest(prefix, Math.min(limit, maxSuggestions));
+    }
+
+    void refresh() {
+        if (lastSyncedAt == null) {
+            fullRefresh();
+            return;
+        }
+        try {
+            LocalDateTime syncStartedAt = LocalDateTime.now();
+            List<CityStatsDto> changed = journeyServiceClient.getCityStats(lastSyncedAt.minusSeconds(SYNC_OVERLAP_SECONDS));
+            if (!changed.isEmpty()) {
+                changed.forEach(this::merge);
+                trie = CityTrie.build(cities.values(), maxSuggestions);
+                log.debug("Merged {} changed cities into suggestions", changed.size());
+            }
+            lastSyncedAt = syncStartedAt;
+        } catch (RuntimeException e) {
+            log.warn("Failed to sync city suggestions, will retry", e);
+        }
+    }
+
+    void fullRefresh() {
+        try {
+            LocalDateTime syncStartedAt = LocalDateTime.now();
+            List<CityStatsDto> all = journeyServiceClient.getCityStats(null);
+            cities.clear();
+            all.forEach(this::merge);
+            trie = CityTrie.build(cities.values(), maxSuggestions);
+            lastSyncedAt = syncStartedAt;
+            log.info("Loaded {} cities for suggestions", cities.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to load city suggestions, will retry", e);
+        }
+    }
+
+    private void merge(CityStatsDto stats) {
+        String key = CityTrie.normalize(stats.getCity());
+        if (key.isEmpty()) {
+            return;
+        }
+        long routeCount = stats.getRouteCount() != null ? stats.getRouteCount() : 0;
+        if (routeCount == 0 && stats.getState() == null) {
+            // No routes and no stops left
+            cities.remove(key);
+            return;
+        }
+        cities.put(key, CitySuggestionDto.builder()
+                .city(stats.getCity().trim())
+                .state(stats.getState())
+                .routeCount(routeCount)
+                .build());
+    }
+}
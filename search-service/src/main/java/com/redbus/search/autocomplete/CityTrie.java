@@ -0,0 +1,135 @@
+package com.redbus.search.autocomplete;
+
+import com.redbus.search.dto.CitySuggestionDto;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable prefix tree over city names.
+ *
+ * Every node stores the best {@code maxSuggestions} cities below it, ranked by route count, so a
+ * lookup walks one node per typed character and returns that node's list without visiting the
+ * subtree. Children are kept in sorted arrays and found by binary search. Names are matched
+ * case- and accent-insensitively, and each word of a name is indexed, so "del" finds "New Delhi".
+ */
+final class CityTrie {
+
+    static final Comparator<CitySuggestionDto> RANKING = Comparator
+            .comparingLong((CitySuggestionDto city) -> city.getRouteCount() != null ? city.getRouteCount() : 0L)
+            .reversed()
+            .thenComparing(CitySuggestionDto::getCity);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final CitySuggestionDto[] NONE = new CitySuggestionDto[0];
+
+    private final Node root;
+
+    private CityTrie(Node root) {
+        this.root = root;
+    }
+
+    static CityTrie build(Collection<CitySuggestionDto> cities, int maxSuggestions) {
+        BuilderNode root = new BuilderNode();
+        for (CitySuggestionDto city : cities) {
+            String name = normalize(city.getCity());
+            // Index the full name and every later word, so inner words match too
+            for (int start = 0; start < name.length(); start++) {
+                if (start == 0 || name.charAt(start - 1) == ' ') {
+                    root.insert(name, start, city);
+                }
+            }
+        }
+        return new CityTrie(root.freeze(maxSuggestions));
+    }
+
+    /**
+     * Best cities whose name, or one of its words, starts with the prefix
+     */
+    List<CitySuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        return List.copyOf(Arrays.asList(node.top).subList(0, Math.min(limit, node.top.length)));
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return folded.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static final class Node {
+
+        private final char[] keys;
+        private final Node[] children;
+        private final CitySuggestionDto[] top;
+
+        Node(char[] keys, Node[] children, CitySuggestionDto[] top) {
+            this.keys = keys;
+            this.children = children;
+            this.top = top;
+        }
+
+        Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    private static final class BuilderNode {
+
+        private final Map<Character, BuilderNode> children = new TreeMap<>();
+        private final List<CitySuggestionDto> cities = new ArrayList<>();
+
+        void insert(String name, int from, CitySuggestionDto city) {
+            BuilderNode node = this;
+            for (int i = from; i < name.length(); i++) {
+                node = node.children.computeIfAbsent(name.charAt(i), key -> new BuilderNode());
+            }
+            if (!node.cities.contains(city)) {
+                node.cities.add(city);
+            }
+        }
+
+        /**
+         * Build the immutable subtree; a node's best cities are merged from its own and its children's
+         */
+        Node freeze(int maxSuggestions) {
+            char[] keys = new char[children.size()];
+            Node[] frozen = new Node[children.size()];
+            List<CitySuggestionDto> candidates = new ArrayList<>(cities);
+            int index = 0;
+            for (Map.Entry<Character, BuilderNode> entry : children.entrySet()) {
+                keys[index] = entry.getKey();
+                frozen[index] = entry.getValue().freeze(maxSuggestions);
+                candidates.addAll(Arrays.asList(frozen[index].top));
+                index++;
+            }
+            CitySuggestionDto[] top = candidates.isEmpty() ? NONE : candidates.stream()
+                    .distinct()
+                    .sorted(RANKING)
+                    .limit(maxSuggestions)
+                    .toArray(CitySuggestionDto[]::new);
+            return new Node(keys, frozen, top);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.redbus.search.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.SearchRequestDto;
+import com.redbus.search.dto.SearchResponseDto;
+import com.redbus.search.repository.JourneyQueryBuilder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, short-lived cache of search results keyed by the normalized search request.
+ *
+ * Concurrent misses for the same request share one in-flight query: the first caller runs it and
+ * the others wait on its result. A failed query is not cached. Journey changes evict every cached
+ * page for the affected route and date through {@link #invalidateRoutes(Collection)}, once right
+ * away and once more after the index has refreshed: a search run between the write and the refresh,
+ * or one already in flight, still sees the old documents and would otherwise cache them again.
+ */
+@Component
+@Slf4j
+public class SearchResultCache {
+
+    private final AsyncCache<SearchKey, SearchResponseDto> cache;
+    private final long invalidationDelayMillis;
+    private final ScheduledExecutorService invalidator;
+
+    public SearchResultCache(@Value("${search.result-cache.max-size:10000}") long maxSize,
+                             @Value("${search.result-cache.ttl-seconds:10}") long ttlSeconds,
+                             @Value("${search.result-cache.invalidation-delay-ms:1500}") long invalidationDelayMillis) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .buildAsync();
+        this.invalidationDelayMillis = invalidationDelayMillis;
+        this.invalidator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-cache-invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        invalidator.shutdownNow();
+    }
+
+    /**
+     * Get the result for a search, running the query only if no equivalent search is cached or in flight
+     */
+    public SearchResponseDto get(SearchRequestDto request, Supplier<SearchResponseDto> query) {
+        SearchKey key = SearchKey.of(request);
+        CompletableFuture<SearchResponseDto> pending = new CompletableFuture<>();
+        CompletableFuture<SearchResponseDto> existing = cache.asMap().putIfAbsent(key, pending);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            pending.complete(query.get());
+        } catch (RuntimeException e) {
+            // Waiting callers see the same failure; the failed entry is dropped by the cache
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        return pending.join();
+    }
+
+    /**
+     * Evict every cached search for the given route keys ({@link JourneyDocument#routeKey}), now and after the next refresh
+     */
+    public void invalidateRoutes(Collection<String> routeKeys) {
+        if (routeKeys.isEmpty()) {
+            return;
+        }
+        Set<String> evicted = Set.copyOf(routeKeys);
+        evict(evicted);
+        invalidator.schedule(() -> evict(evicted), invalidationDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void evict(Set<String> routeKeys) {
+        cache.asMap().keySet().removeIf(key -> routeKeys.contains(key.routeKey()));
+        log.debug("Evicted cached searches for {} routes", routeKeys.size());
+    }
+
+    private static SearchResponseDto join(CompletableFuture<SearchResponseDto> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Requests that produce the same query map to the same key: city names are folded to the
+     * index's route key, sort names to the field they sort by and case-insensitive filters are lower-cased
+     */
+    private record SearchKey(String routeKey, int seatsRequired, Double maxFare, String vehicleType,
+                             String agencyName, boolean acOnly, boolean sleeperOnly, String sortBy,
+                             String sortOrder, Integer page, Integer size, String cursor) {
+
+        static SearchKey of(SearchRequestDto request) {
+            return new SearchKey(
+                    JourneyDocument.routeKey(request.getSourceCity(), request.getDestinationCity(), request.getTravelDate()),
+                    request.getSeatsRequired() != null ? request.getSeatsRequired() : 1,
+                    request.getMaxFare(),
+                    fold(request.getVehicleType()),
+                    fold(request.getAgencyName()),
+                    Boolean.TRUE.equals(request.getAcOnly()),
+                    Boolean.TRUE.equals(request.getSleeperOnly()),
+                    JourneyQueryBuilder.sortField(request.getSortBy()),
+                    "DESC".equalsIgnoreCase(request.getSortOrder()) ? "DESC" : "ASC",
+                    request.getPage(),
+                    request.getSize(),
+                    request.getCursor());
+        }
+
+        private static String fold(String value) {
+            return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.redbus.search.client;
+
+import com.redbus.common.dto.ApiResponse;
+import com.redbus.search.dto.VehicleDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AgencyServiceClient {
+    
+    private final RestTemplate restTemplate;
+    
+    @Value("${agency.service.url:http://localhost:8082}")
+    private String agencyServiceUrl;
+    
+    public List<VehicleDto> getVehiclesByAgency(String agencyReferenceId) {
+        log.debug("Fetching vehicles for agency: {}", agencyReferenceId);
+        
+        String url = agencyServiceUrl + "/api/v1/agencies/" + agencyReferenceId + "/vehicles";
+        
+        ResponseEntity<ApiResponse<List<VehicleDto>>> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<List<VehicleDto>>>() {}
+        );
+        
+        if (response.getBody() != null && response.getBody().isSuccess()) {
+            return response.getBody().getData();
+        }
+        
+        throw new RuntimeException("Failed to fetch vehicles for agency " + agencyReferenceId);
+    }
+}
@@ -0,0 +1,86 @@
+package com.redbus.search.client;
+
+import com.redbus.common.dto.ApiResponse;
+import com.redbus.search.dto.CityStatsDto;
+import com.redbus.search.dto.JourneyIndexPageDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JourneyServiceClient {
+    
+    private final RestTemplate restTemplate;
+    
+    @Value("${journey.service.url:http://localhost:8083}")
+    private String journeyServiceUrl;
+    
+    /**
+     * Fetch one keyset page of journeys with their route data
+     *
+     * @param after cursor returned with the previous page, or null for the first page
+     */
+    public JourneyIndexPageDto exportJourneys(Long after, int limit) {
+        log.debug("Exporting {} journeys after {}", limit, after);
+        
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString(journeyServiceUrl)
+                .path("/api/v1/journeys/export")
+                .queryParam("limit", limit);
+        if (after != null) {
+            uri.queryParam("after", after);
+        }
+        
+        ResponseEntity<ApiResponse<JourneyIndexPageDto>> response = restTemplate.exchange(
+                uri.toUriString(),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<JourneyIndexPageDto>>() {}
+        );
+        
+        if (response.getBody() != null && response.getBody().isSuccess()) {
+            return response.getBody().getData();
+        }
+        
+        throw new RuntimeException("Failed to export journeys");
+    }
+    
+    /**
+     * Fetch cities with their active route counts
+     *
+     * @param updatedSince only cities whose routes or stops changed since then, or null for all
+     */
+    public List<CityStatsDto> getCityStats(LocalDateTime updatedSince) {
+        log.debug("Fetching city stats updated since {}", updatedSince);
+        
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString(journeyServiceUrl)
+                .path("/api/v1/routes/cities");
+        if (updatedSince != null) {
+            uri.queryParam("updatedSince", updatedSince.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+        
+        ResponseEntity<ApiResponse<List<CityStatsDto>>> response = restTemplate.exchange(
+                uri.toUriString(),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<List<CityStatsDto>>>() {}
+        );
+        
+        if (response.getBody() != null && response.getBody().isSuccess()) {
+            return response.getBody().getData();
+        }
+        
+        throw new RuntimeException("Failed to fetch city stats");
+    }
+}
@@ -1,16 +1,23 @@
 package com.redbus.search.controller;
 
 import com.redbus.common.dto.ApiResponse;
+import com.redbus.common.exception.BusinessException;
 import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.CitySuggestionDto;
+import com.redbus.search.dto.PopularRouteDto;
 import com.redbus.search.dto.SearchRequestDto;
 import com.redbus.search.dto.SearchResponseDto;
 import com.redbus.search.service.SearchService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -20,6 +27,10 @@ import java.util.List;
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:4200"})
 public class SearchController {
     
+    private static final int MAX_POPULAR_ROUTES_PAGE_SIZE = 50;
+    private static final Duration POPULAR_ROUTES_MAX_AGE = Duration.ofSeconds(30);
+    private static final int MAX_CITY_SUGGESTIONS = 10;
+    
     private final SearchService searchService;
     
     @PostMapping("/journeys")
@@ -35,11 +46,37 @@ public class SearchController {
                 String.format("Found %d journeys", response.getTotalResults())));
     }
     
+    @GetMapping(value = "/journeys/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportJourneys() {
+        log.info("Exporting all active journeys");
+        // Streamed page by page from a point in time, so the export never sits in memory whole
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(searchService::exportJourneys);
+    }
+    
     @GetMapping("/popular-routes")
-    public ResponseEntity<ApiResponse<List<JourneyDocument>>> getPopularRoutes() {
-        log.info("Fetching popular routes");
-        List<JourneyDocument> routes = searchService.getPopularRoutes();
-        return ResponseEntity.ok(ApiResponse.success(routes));
+    public ResponseEntity<ApiResponse<List<PopularRouteDto>>> getPopularRoutes(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        if (page < 0 || size < 1 || size > MAX_POPULAR_ROUTES_PAGE_SIZE) {
+            throw new BusinessException("Page must be non-negative and size between 1 and " + MAX_POPULAR_ROUTES_PAGE_SIZE);
+        }
+        List<PopularRouteDto> routes = searchService.getPopularRoutes(page, size);
+        // The ranking only changes on the leaderboard's refresh, so clients and proxies may reuse it meanwhile
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(POPULAR_ROUTES_MAX_AGE).cachePublic())
+                .body(ApiResponse.success(routes));
+    }
+    
+    @GetMapping("/cities/suggest")
+    public ResponseEntity<ApiResponse<List<CitySuggestionDto>>> suggestCities(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        if (limit < 1 || limit > MAX_CITY_SUGGESTIONS) {
+            throw new BusinessException("Limit must be between 1 and " + MAX_CITY_SUGGESTIONS);
+        }
+        return ResponseEntity.ok(ApiResponse.success(searchService.suggestCities(q, limit)));
     }
     
     @PostMapping("/index")
@@ -53,10 +90,11 @@ public class SearchController {
     @PutMapping("/journeys/{journeyId}/availability")
     public ResponseEntity<ApiResponse<Void>> updateAvailability(
             @PathVariable String journeyId,
-            @RequestParam Integer availableSeats) {
+            @RequestParam Integer availableSeats,
+            @RequestParam long sequence) {
         log.info("Updating availability for journey {}: {} seats", journeyId, availableSeats);
-        searchService.updateJourneyAvailability(journeyId, availableSeats);
-        return ResponseEntity.ok(ApiResponse.success(null, "Availability updated"));
+        searchService.updateJourneyAvailability(journeyId, availableSeats, sequence);
+        return ResponseEntity.ok(ApiResponse.success(null, "Availability update accepted"));
     }
     
     @PostMapping("/reindex")
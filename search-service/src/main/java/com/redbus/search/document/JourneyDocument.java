@@ -7,10 +7,22 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
-@Document(indexName = "journeys")
+/**
+ * Search view of a journey.
+ *
+ * Free-text fields keep an analyzed main field for partial matching plus a normalized keyword
+ * subfield for exact filters, sorting and aggregations. {@code routeKey} and {@code sleeper} are
+ * derived at index time so the hot search path filters on single terms. The index is reached
+ * through the {@code journeys} alias, which {@link com.redbus.search.index.JourneyIndexManager}
+ * points at the current versioned index.
+ */
+@Document(indexName = "journeys", createIndex = false)
+@Setting(settingPath = "/elasticsearch/journey-settings.json")
 @Data
 @Builder
 @NoArgsConstructor
@@ -20,19 +32,29 @@ public class JourneyDocument {
     @Id
     private String id;
     
-    @Field(type = FieldType.Text)
+    public static final String KEYWORD_NORMALIZER = "lowercase_normalizer";
+    
+    @Field(type = FieldType.Keyword)
     private String journeyCode;
     
-    @Field(type = FieldType.Text, analyzer = "standard")
+    @MultiField(mainField = @Field(type = FieldType.Text, analyzer = "standard"),
+            otherFields = @InnerField(suffix = "keyword", type = FieldType.Keyword, normalizer = KEYWORD_NORMALIZER))
     private String sourceCity;
     
-    @Field(type = FieldType.Text, analyzer = "standard")
+    @MultiField(mainField = @Field(type = FieldType.Text, analyzer = "standard"),
+            otherFields = @InnerField(suffix = "keyword", type = FieldType.Keyword, normalizer = KEYWORD_NORMALIZER))
     private String destinationCity;
     
+    /**
+     * {@code source|destination|travel date}, lowercased; see {@link #routeKey(String, String, LocalDate)}
+     */
+    @Field(type = FieldType.Keyword, normalizer = KEYWORD_NORMALIZER)
+    private String routeKey;
+    
     @Field(type = FieldType.Date, format = DateFormat.date_hour_minute_second)
     private LocalDateTime departureTime;
     
-    @Field(type = FieldType.Date, format = DateFormat.date_hour_minute_second)
+    @Field(type = FieldType.Date, format = DateFormat.date_hour_minute_second, docValues = false)
     private LocalDateTime arrivalTime;
     
     @Field(type = FieldType.Double)
@@ -41,25 +63,33 @@ public class JourneyDocument {
     @Field(type = FieldType.Integer)
     private Integer availableSeats;
     
-    @Field(type = FieldType.Integer)
+    @Field(type = FieldType.Integer, docValues = false)
     private Integer totalSeats;
     
-    @Field(type = FieldType.Text)
+    @MultiField(mainField = @Field(type = FieldType.Text), otherFields = {
+            @InnerField(suffix = "keyword", type = FieldType.Keyword, normalizer = KEYWORD_NORMALIZER),
+            // As written, for facet labels; filters match the case-insensitive keyword
+            @InnerField(suffix = "raw", type = FieldType.Keyword)})
     private String agencyName;
     
-    @Field(type = FieldType.Text)
+    @MultiField(mainField = @Field(type = FieldType.Text), otherFields = {
+            @InnerField(suffix = "keyword", type = FieldType.Keyword, normalizer = KEYWORD_NORMALIZER),
+            @InnerField(suffix = "raw", type = FieldType.Keyword)})
     private String vehicleType;
     
+    @Field(type = FieldType.Boolean)
+    private Boolean sleeper;
+    
     @Field(type = FieldType.Text)
     private String routeName;
     
     @Field(type = FieldType.Integer)
     private Integer durationMinutes;
     
-    @Field(type = FieldType.Integer)
+    @Field(type = FieldType.Integer, docValues = false)
     private Integer distanceKm;
     
-    @Field(type = FieldType.Keyword)
+    @Field(type = FieldType.Keyword, normalizer = KEYWORD_NORMALIZER)
     private List<String> amenities;
     
     @Field(type = FieldType.Boolean)
@@ -68,9 +98,34 @@ public class JourneyDocument {
     @Field(type = FieldType.Keyword)
     private String status;
     
-    @Field(type = FieldType.Date)
+    @Field(type = FieldType.Date, docValues = false)
     private LocalDateTime createdAt;
     
     @Field(type = FieldType.Date)
     private LocalDateTime updatedAt;
+    
+    /**
+     * Outbox sequence of the last journey-service change applied; changes with a lower or equal sequence are ignored
+     */
+    @Field(type = FieldType.Long, index = false, docValues = false)
+    private Long changeSequence;
+    
+    /**
+     * Recompute the fields derived from the journey's own data; call before every write
+     */
+    public void applyDerivedFields() {
+        routeKey = departureTime != null ? routeKey(sourceCity, destinationCity, departureTime.toLocalDate()) : null;
+        sleeper = vehicleType != null && vehicleType.toLowerCase(Locale.ROOT).contains("sleeper");
+    }
+    
+    /**
+     * Route key for a city pair on a travel date, as stored on the document and used by searches
+     */
+    public static String routeKey(String sourceCity, String destinationCity, LocalDate travelDate) {
+        if (sourceCity == null || destinationCity == null || travelDate == null) {
+            return null;
+        }
+        return sourceCity.trim().toLowerCase(Locale.ROOT) + "|"
+                + destinationCity.trim().toLowerCase(Locale.ROOT) + "|" + travelDate;
+    }
 }
@@ -0,0 +1,14 @@
+package com.redbus.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CityStatsDto {
+    private String city;
+    private String state;
+    private Long routeCount;
+}
@@ -0,0 +1,17 @@
+package com.redbus.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetBucketDto {
+    private String key;
+    private Double from;
+    private Double to;
+    private Long count;
+}
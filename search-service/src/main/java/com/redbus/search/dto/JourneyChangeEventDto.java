@@ -0,0 +1,17 @@
+package com.redbus.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneyChangeEventDto {
+    private String changeType;
+    private Long sequence;
+    private LocalDateTime occurredAt;
+    private JourneyIndexDto journey;
+}
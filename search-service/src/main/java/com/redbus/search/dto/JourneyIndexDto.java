@@ -0,0 +1,33 @@
+package com.redbus.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneyIndexDto {
+    private UUID referenceId;
+    private String journeyCode;
+    private String routeName;
+    private String sourceCity;
+    private String destinationCity;
+    private Integer distanceKm;
+    private Integer estimatedDurationMinutes;
+    private String agencyReferenceId;
+    private String vehicleReferenceId;
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
+    private String journeyStatus;
+    private Integer totalSeats;
+    private Integer availableSeats;
+    private Double baseFare;
+    private Boolean isActive;
+    private String amenities;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
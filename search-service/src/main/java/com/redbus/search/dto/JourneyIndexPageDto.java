@@ -0,0 +1,15 @@
+package com.redbus.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneyIndexPageDto {
+    private List<JourneyIndexDto> journeys;
+    private Long nextCursor;
+}
@@ -0,0 +1,17 @@
+package com.redbus.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PopularRouteDto {
+    private String sourceCity;
+    private String destinationCity;
+    private Double score;
+    private Long recentBookings;
+}
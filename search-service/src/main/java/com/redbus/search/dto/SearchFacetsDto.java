@@ -0,0 +1,21 @@
+package com.redbus.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchFacetsDto {
+    private List<FacetBucketDto> fareRanges;
+    private List<FacetBucketDto> vehicleTypes;
+    private List<FacetBucketDto> agencies;
+    private List<FacetBucketDto> departureSlots;
+    private Long acCount;
+    private Long sleeperCount;
+}
@@ -46,4 +46,7 @@ public class SearchRequestDto {
     @Min(1)
     @Max(50)
     private Integer size = 20;
+    
+    // Opaque nextCursor of the previous page; takes the place of page when set
+    private String cursor;
 }
@@ -18,4 +18,6 @@ public class SearchResponseDto {
     private Integer currentPage;
     private Integer pageSize;
     private SearchFiltersDto appliedFilters;
+    private SearchFacetsDto facets;
+    private String nextCursor;
 }
@@ -0,0 +1,18 @@
+package com.redbus.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleDto {
+    private UUID referenceId;
+    private String vehicleType;
+    private Boolean hasAC;
+    private UUID agencyReferenceId;
+    private String agencyName;
+}
@@ -0,0 +1,53 @@
+package com.redbus.search.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redbus.search.dto.BookingConfirmedEventDto;
+import com.redbus.search.popular.PopularRoutesLeaderboard;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Feeds confirmed bookings from booking-service into the popular-routes leaderboard.
+ *
+ * Every instance assigns itself all partitions and reads them from the earliest retained event, so
+ * the leaderboard is rebuilt from the topic's retention window on startup and needs no storage of its
+ * own. Assigning rather than subscribing lets instances share one fixed group without splitting the
+ * partitions between them, and leaves no per-instance consumer group behind on the broker.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingConfirmationListener {
+
+    private final PopularRoutesLeaderboard popularRoutesLeaderboard;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "${search.popular-routes.topic:booking-confirmations}",
+            partitions = "${search.popular-routes.assigned-partitions:0-2}",
+            partitionOffsets = @PartitionOffset(partition = "*", initialOffset = "0", seekPosition = "BEGINNING")),
+            groupId = "${search.popular-routes.group-id:search-popular-routes}",
+            batch = "true")
+    public void onBookingsConfirmed(List<String> payloads) {
+        for (String payload : payloads) {
+            BookingConfirmedEventDto event;
+            try {
+                event = objectMapper.readValue(payload, BookingConfirmedEventDto.class);
+            } catch (JsonProcessingException e) {
+                log.warn("Dropping malformed booking event: {}", payload, e);
+                continue;
+            }
+            if (event.getConfirmedAt() == null || event.getSeats() == null) {
+                continue;
+            }
+            popularRoutesLeaderboard.record(event.getSourceCity(), event.getDestinationCity(),
+                    event.getConfirmedAt().toLocalDate(), event.getSeats());
+        }
+    }
+}
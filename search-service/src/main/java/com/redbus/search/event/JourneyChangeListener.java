@@ -0,0 +1,153 @@
+package com.redbus.search.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redbus.search.cache.SearchResultCache;
+import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.JourneyChangeEventDto;
+import com.redbus.search.dto.JourneyIndexDto;
+import com.redbus.search.dto.VehicleDto;
+import com.redbus.search.fallback.InMemoryJourneyIndex;
+import com.redbus.search.index.JourneyAvailabilityUpdater;
+import com.redbus.search.index.JourneyDocumentMapper;
+import com.redbus.search.index.JourneyIndexManager;
+import com.redbus.search.index.JourneyUpdateQueries;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Keeps the journey index in step with journey-service's change feed.
+ *
+ * Events arrive in batches. All events for one journey in a batch collapse into the newest one,
+ * since every event carries the journey's full current state. Seat-count changes only set the seat
+ * count, a deletion deletes the document, and any other change upserts the whole document. Every
+ * update is a script that applies only if the event's outbox sequence is above the one stored on the
+ * document, so an event redelivered or replayed after a newer one has been applied, in this batch or
+ * an earlier one, is a no-op. The batch then goes to Elasticsearch as a single bulk request against
+ * the alias, and cached searches for the routes it touched are evicted, including the route a
+ * structurally changed journey was indexed under. The in-memory fallback index, when enabled, is
+ * given the same changes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JourneyChangeListener {
+
+    private static final String SEATS_CHANGED = "SEATS_CHANGED";
+    private static final String DELETED = "DELETED";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final JourneyDocumentMapper journeyDocumentMapper;
+    private final SearchResultCache searchResultCache;
+    private final ObjectMapper objectMapper;
+    private final JourneyIndexManager journeyIndexManager;
+    private final Optional<InMemoryJourneyIndex> inMemoryJourneyIndex;
+
+    @KafkaListener(topics = "${search.events.topic:journey-changes}", batch = "true")
+    public void onJourneyChanges(List<String> payloads) {
+        Map<String, JourneyChangeEventDto> latest = new LinkedHashMap<>();
+        Set<String> structurallyChanged = new HashSet<>();
+        for (String payload : payloads) {
+            JourneyChangeEventDto event = parse(payload);
+            if (event == null || event.getJourney() == null || event.getJourney().getReferenceId() == null) {
+                continue;
+            }
+            String journeyId = event.getJourney().getReferenceId().toString();
+            if (!SEATS_CHANGED.equals(event.getChangeType())) {
+                structurallyChanged.add(journeyId);
+            }
+            latest.merge(journeyId, event, (current, candidate) ->
+                    sequenceOf(candidate) > sequenceOf(current) ? candidate : current);
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+
+        // A structural change may move the journey to another route or date, whose cached pages must go too
+        Set<String> routeKeys = new HashSet<>(journeyIndexManager.currentRouteKeys(structurallyChanged).values());
+        latest.values().stream()
+                .map(event -> routeKeyOf(event.getJourney()))
+                .filter(Objects::nonNull)
+                .forEach(routeKeys::add);
+
+        Map<String, Map<String, VehicleDto>> vehiclesByAgency = new HashMap<>();
+        List<UpdateQuery> updates = new ArrayList<>(latest.size());
+        latest.forEach((journeyId, event) -> {
+            if (DELETED.equals(event.getChangeType())) {
+                updates.add(deletion(journeyId, event));
+            } else if (structurallyChanged.contains(journeyId)) {
+                updates.add(fullUpdate(journeyId, event, vehiclesByAgency));
+            } else {
+                updates.add(seatUpdate(journeyId, event));
+            }
+        });
+
+        journeyIndexManager.mirrorWrite(index -> elasticsearchOperations.bulkUpdate(updates, index));
+        try {
+            elasticsearchOperations.bulkUpdate(updates, IndexCoordinates.of(JourneyIndexManager.ALIAS));
+        } catch (BulkFailureException e) {
+            // A seat change or deletion for a journey not in the index has nothing to do; anything else is redelivered
+            if (!JourneyAvailabilityUpdater.failuresToRetry(e).isEmpty()) {
+                throw e;
+            }
+            log.debug("Skipped seat updates for {} journeys missing from the index", e.getFailedDocuments().size());
+        }
+        searchResultCache.invalidateRoutes(routeKeys);
+        log.debug("Applied {} journey changes from {} events", updates.size(), payloads.size());
+    }
+
+    private UpdateQuery fullUpdate(String journeyId, JourneyChangeEventDto event,
+                                   Map<String, Map<String, VehicleDto>> vehiclesByAgency) {
+        JourneyDocument document = journeyDocumentMapper.toDocument(event.getJourney(), vehiclesByAgency);
+        document.setChangeSequence(sequenceOf(event));
+        inMemoryJourneyIndex.ifPresent(index -> index.put(document));
+        Document source = elasticsearchOperations.getElasticsearchConverter().mapObject(document);
+        return JourneyUpdateQueries.upsert(journeyId, source, sequenceOf(event));
+    }
+
+    private UpdateQuery seatUpdate(String journeyId, JourneyChangeEventDto event) {
+        int availableSeats = event.getJourney().getAvailableSeats();
+        inMemoryJourneyIndex.ifPresent(index -> index.updateSeats(journeyId, availableSeats, sequenceOf(event)));
+        return JourneyUpdateQueries.seats(journeyId, availableSeats, sequenceOf(event));
+    }
+
+    private UpdateQuery deletion(String journeyId, JourneyChangeEventDto event) {
+        inMemoryJourneyIndex.ifPresent(index -> index.remove(journeyId));
+        return JourneyUpdateQueries.delete(journeyId, sequenceOf(event));
+    }
+
+    private JourneyChangeEventDto parse(String payload) {
+        try {
+            return objectMapper.readValue(payload, JourneyChangeEventDto.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping malformed journey change event: {}", payload, e);
+            return null;
+        }
+    }
+
+    private static String routeKeyOf(JourneyIndexDto journey) {
+        return journey.getDepartureTime() == null ? null : JourneyDocument.routeKey(
+                journey.getSourceCity(), journey.getDestinationCity(), journey.getDepartureTime().toLocalDate());
+    }
+
+    private static long sequenceOf(JourneyChangeEventDto event) {
+        return event.getSequence() != null ? event.getSequence() : Long.MIN_VALUE;
+    }
+}
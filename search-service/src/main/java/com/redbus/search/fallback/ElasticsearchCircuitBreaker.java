@@ -0,0 +1,81 @@
+package com.redbus.search.fallback;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stops sending searches to Elasticsearch after it fails or is slow several times in a row.
+ *
+ * While open, searches go straight to the fallback instead of each waiting out a timeout. Once the
+ * open period is over a single search is let through as a probe: if it succeeds the circuit closes,
+ * otherwise it stays open for another period. Every permitted search must report its outcome through
+ * {@link #recordSuccess} or {@link #recordFailure}; no other probe is let through until the current
+ * one has.
+ */
+@Component
+@Slf4j
+public class ElasticsearchCircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final long slowCallMillis;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile long openUntil;
+
+    public ElasticsearchCircuitBreaker(@Value("${search.fallback.failure-threshold:5}") int failureThreshold,
+                                       @Value("${search.fallback.open-ms:30000}") long openMillis,
+                                       @Value("${search.fallback.slow-call-ms:2000}") long slowCallMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.slowCallMillis = slowCallMillis;
+    }
+
+    /**
+     * Whether the next search may go to Elasticsearch, and if so whether it is the probe
+     */
+    public Permit acquire() {
+        long until = openUntil;
+        if (until == 0) {
+            return Permit.CLOSED;
+        }
+        return System.currentTimeMillis() >= until && probing.compareAndSet(false, true) ? Permit.PROBE : Permit.DENIED;
+    }
+
+    public void recordSuccess(long elapsedMillis) {
+        if (elapsedMillis >= slowCallMillis) {
+            recordFailure();
+            return;
+        }
+        consecutiveFailures.set(0);
+        if (openUntil != 0) {
+            openUntil = 0;
+            log.info("Elasticsearch is answering again, search circuit closed");
+        }
+        probing.set(false);
+    }
+
+    public void recordFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+        if (failures >= failureThreshold) {
+            if (openUntil == 0) {
+                log.warn("Search circuit opened after {} failed or slow Elasticsearch calls", failures);
+            }
+            openUntil = System.currentTimeMillis() + openMillis;
+        }
+        probing.set(false);
+    }
+
+    public enum Permit {
+        CLOSED,
+        /**
+         * The one search let through while open; it must reach Elasticsearch, not a cache, for its outcome to mean anything
+         */
+        PROBE,
+        DENIED
+    }
+}
@@ -0,0 +1,176 @@
+package com.redbus.search.fallback;
+
+import com.redbus.search.client.JourneyServiceClient;
+import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.JourneyIndexDto;
+import com.redbus.search.dto.JourneyIndexPageDto;
+import com.redbus.search.dto.SearchRequestDto;
+import com.redbus.search.dto.VehicleDto;
+import com.redbus.search.index.JourneyDocumentMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process copy of the journey index, searched when Elasticsearch is unavailable.
+ *
+ * It is loaded from journey-service at startup, so it does not depend on Elasticsearch being up,
+ * and then fed by the same index, availability and change-feed writes as Elasticsearch. Writes go
+ * to a map of documents; a background thread compiles the map into a {@link JourneyColumns}
+ * snapshot when it has changed, and searches always read the latest snapshot without locking.
+ * Seat counts are also patched into the current snapshot, so they show before the next rebuild.
+ * Journeys that departed before today are dropped on each rebuild.
+ */
+@Component
+@ConditionalOnProperty(name = "search.fallback.enabled", havingValue = "true")
+@Slf4j
+public class InMemoryJourneyIndex {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final JourneyServiceClient journeyServiceClient;
+    private final JourneyDocumentMapper journeyDocumentMapper;
+    private final long refreshIntervalMillis;
+    private final Map<String, JourneyDocument> documents = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final ScheduledExecutorService refresher;
+    private volatile JourneyColumns columns = JourneyColumns.build(List.of());
+    private volatile boolean loaded;
+
+    public InMemoryJourneyIndex(JourneyServiceClient journeyServiceClient,
+                                JourneyDocumentMapper journeyDocumentMapper,
+                                @Value("${search.fallback.refresh-interval-ms:1000}") long refreshIntervalMillis) {
+        this.journeyServiceClient = journeyServiceClient;
+        this.journeyDocumentMapper = journeyDocumentMapper;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journey-fallback-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresher.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    public InMemorySearchPage search(SearchRequestDto request, Sort sort, List<Object> searchAfter) {
+        return columns.search(request, sort, searchAfter);
+    }
+
+    /**
+     * Add or replace a journey with the same versioning as Elasticsearch; derived fields must already be applied
+     */
+    public void put(JourneyDocument document) {
+        if (document.getId() == null || document.getRouteKey() == null || document.getDepartureTime() == null) {
+            return;
+        }
+        documents.merge(document.getId(), document, InMemoryJourneyIndex::newer);
+        dirty.set(true);
+    }
+
+    public void remove(String journeyId) {
+        if (documents.remove(journeyId) != null) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Apply a seat count unless a newer one is already held, with the same versioning as Elasticsearch
+     */
+    public void updateSeats(String journeyId, int availableSeats, long sequence) {
+        JourneyDocument updated = documents.computeIfPresent(journeyId, (id, current) -> {
+            if (current.getChangeSequence() != null && current.getChangeSequence() >= sequence) {
+                return current;
+            }
+            // Copy rather than mutate: the current snapshot still renders results from the old document
+            JourneyDocument copy = new JourneyDocument();
+            BeanUtils.copyProperties(current, copy);
+            copy.setAvailableSeats(availableSeats);
+            copy.setChangeSequence(sequence);
+            return copy;
+        });
+        if (updated != null && updated.getChangeSequence() != null && updated.getChangeSequence() == sequence) {
+            columns.updateSeats(journeyId, availableSeats);
+            // A rebuild already under way may have copied the document before this update
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Same outcome as {@link com.redbus.search.index.JourneyUpdateQueries#upsert} on the held document
+     */
+    private static JourneyDocument newer(JourneyDocument current, JourneyDocument candidate) {
+        if (current.getChangeSequence() == null) {
+            return candidate;
+        }
+        if (candidate.getChangeSequence() == null) {
+            candidate.setAvailableSeats(current.getAvailableSeats());
+            candidate.setChangeSequence(current.getChangeSequence());
+            return candidate;
+        }
+        return current.getChangeSequence() >= candidate.getChangeSequence() ? current : candidate;
+    }
+
+    void refresh() {
+        if (!loaded) {
+            load();
+            return;
+        }
+        if (dirty.getAndSet(false)) {
+            rebuild();
+        }
+    }
+
+    private void load() {
+        try {
+            Map<String, Map<String, VehicleDto>> vehiclesByAgency = new HashMap<>();
+            Long cursor = null;
+            do {
+                JourneyIndexPageDto page = journeyServiceClient.exportJourneys(cursor, LOAD_PAGE_SIZE);
+                for (JourneyIndexDto journey : page.getJourneys()) {
+                    JourneyDocument document = journeyDocumentMapper.toDocument(journey, vehiclesByAgency);
+                    // Writes that arrived while loading are newer than the export
+                    if (!documents.containsKey(document.getId())) {
+                        put(document);
+                    }
+                }
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+            loaded = true;
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Failed to load the fallback journey index, will retry", e);
+        }
+    }
+
+    private void rebuild() {
+        LocalDate today = LocalDate.now();
+        documents.values().removeIf(document -> document.getDepartureTime() == null
+                || document.getDepartureTime().toLocalDate().isBefore(today));
+        columns = JourneyColumns.build(documents.values());
+        log.debug("Rebuilt fallback journey index with {} journeys", columns.size());
+    }
+}
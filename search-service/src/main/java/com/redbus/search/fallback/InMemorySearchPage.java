@@ -0,0 +1,13 @@
+package com.redbus.search.fallback;
+
+import com.redbus.search.document.JourneyDocument;
+
+import java.util.List;
+
+/**
+ * One page of an in-memory search
+ *
+ * @param lastSortValues sort values of the last journey on the page, in the shape Elasticsearch returns them
+ */
+public record InMemorySearchPage(List<JourneyDocument> journeys, long totalHits, List<Object> lastSortValues) {
+}
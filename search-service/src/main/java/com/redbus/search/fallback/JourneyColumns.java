@@ -0,0 +1,262 @@
+package com.redbus.search.fallback;
+
+import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.SearchRequestDto;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Sort;
+
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable column store of journeys, one primitive array per searchable field.
+ *
+ * Rows are sorted by route key, departure time and journey code, so a route and date is one
+ * contiguous row range and the default sort needs no sorting at all. Flags and vehicle types are
+ * bitmaps over the rows; a search intersects them with the route's range and only then reads the
+ * numeric columns of the rows left. Seat counts are the one column patched in place between builds;
+ * it is an atomic array so searches see patches made by other threads, and each search reads a row's
+ * count once so a patch landing mid-search cannot reorder its results.
+ */
+final class JourneyColumns {
+
+    private static final BitSet EMPTY = new BitSet();
+
+    private final JourneyDocument[] documents;
+    private final String[] journeyCodes;
+    private final long[] departureMillis;
+    private final double[] baseFares;
+    private final int[] durationMinutes;
+    private final AtomicIntegerArray availableSeats;
+    private final BitSet active;
+    private final BitSet ac;
+    private final BitSet sleeper;
+    private final Map<String, BitSet> byVehicleType;
+    private final Map<String, int[]> routeRanges;
+    private final Map<String, Integer> rowsById;
+
+    private JourneyColumns(JourneyDocument[] documents) {
+        int rows = documents.length;
+        this.documents = documents;
+        this.journeyCodes = new String[rows];
+        this.departureMillis = new long[rows];
+        this.baseFares = new double[rows];
+        this.durationMinutes = new int[rows];
+        this.availableSeats = new AtomicIntegerArray(rows);
+        this.active = new BitSet(rows);
+        this.ac = new BitSet(rows);
+        this.sleeper = new BitSet(rows);
+        this.byVehicleType = new HashMap<>();
+        this.routeRanges = new HashMap<>();
+        this.rowsById = new HashMap<>(rows * 2);
+
+        for (int row = 0; row < rows; row++) {
+            JourneyDocument document = documents[row];
+            journeyCodes[row] = document.getJourneyCode() != null ? document.getJourneyCode() : "";
+            // Same value Elasticsearch returns as the sort value of a date, so cursors work on both
+            departureMillis[row] = document.getDepartureTime().toInstant(ZoneOffset.UTC).toEpochMilli();
+            baseFares[row] = document.getBaseFare() != null ? document.getBaseFare() : Double.NaN;
+            durationMinutes[row] = document.getDurationMinutes() != null ? document.getDurationMinutes() : Integer.MAX_VALUE;
+            availableSeats.set(row, document.getAvailableSeats() != null ? document.getAvailableSeats() : 0);
+            active.set(row, Boolean.TRUE.equals(document.getIsActive()));
+            sleeper.set(row, Boolean.TRUE.equals(document.getSleeper()));
+            ac.set(row, document.getAmenities() != null
+                    && document.getAmenities().stream().anyMatch("AC"::equalsIgnoreCase));
+            String vehicleType = fold(document.getVehicleType());
+            if (vehicleType != null) {
+                byVehicleType.computeIfAbsent(vehicleType, type -> new BitSet(rows)).set(row);
+            }
+            int[] range = routeRanges.computeIfAbsent(document.getRouteKey(), key -> new int[2]);
+            if (range[1] == 0) {
+                range[0] = row;
+            }
+            range[1] = row + 1;
+            rowsById.put(document.getId(), row);
+        }
+    }
+
+    /**
+     * Build from documents that have a route key and departure time
+     */
+    static JourneyColumns build(Collection<JourneyDocument> documents) {
+        JourneyDocument[] sorted = documents.stream()
+                .sorted(Comparator.comparing(JourneyDocument::getRouteKey)
+                        .thenComparing(JourneyDocument::getDepartureTime)
+                        .thenComparing(document -> document.getJourneyCode() != null ? document.getJourneyCode() : ""))
+                .toArray(JourneyDocument[]::new);
+        return new JourneyColumns(sorted);
+    }
+
+    int size() {
+        return documents.length;
+    }
+
+    void updateSeats(String journeyId, int seats) {
+        Integer row = rowsById.get(journeyId);
+        if (row != null) {
+            availableSeats.set(row, seats);
+        }
+    }
+
+    /**
+     * Same matches and order as the Elasticsearch query for the request
+     *
+     * @param searchAfter sort values of the last journey of the previous page, or null to page by number
+     */
+    InMemorySearchPage search(SearchRequestDto request, Sort sort, List<Object> searchAfter) {
+        int[] range = routeRanges.get(JourneyDocument.routeKey(
+                request.getSourceCity(), request.getDestinationCity(), request.getTravelDate()));
+        if (range == null) {
+            return new InMemorySearchPage(List.of(), 0, null);
+        }
+
+        BitSet candidates = new BitSet();
+        candidates.set(range[0], range[1]);
+        candidates.and(active);
+        if (Boolean.TRUE.equals(request.getAcOnly())) {
+            candidates.and(ac);
+        }
+        if (Boolean.TRUE.equals(request.getSleeperOnly())) {
+            candidates.and(sleeper);
+        }
+        String vehicleType = fold(request.getVehicleType());
+        if (vehicleType != null) {
+            candidates.and(byVehicleType.getOrDefault(vehicleType, EMPTY));
+        }
+
+        int seatsRequired = request.getSeatsRequired() != null ? request.getSeatsRequired() : 1;
+        Set<String> agencyTerms = terms(request.getAgencyName());
+        Sort.Order primary = sort.iterator().next();
+        String field = primary.getProperty();
+        boolean descending = primary.isDescending();
+
+        int[] matchedRows = new int[candidates.cardinality()];
+        int[] matchedSeats = new int[matchedRows.length];
+        int count = 0;
+        for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+            int seats = availableSeats.get(row);
+            if (seats >= seatsRequired
+                    && (request.getMaxFare() == null || baseFares[row] <= request.getMaxFare())
+                    && (agencyTerms.isEmpty() || terms(documents[row].getAgencyName()).containsAll(agencyTerms))) {
+                matchedRows[count] = row;
+                matchedSeats[count++] = seats;
+            }
+        }
+        Match[] matches = new Match[count];
+        for (int i = 0; i < count; i++) {
+            matches[i] = new Match(matchedRows[i], matchedSeats[i], sortValue(field, matchedRows[i], matchedSeats[i]));
+        }
+
+        if (!"departureTime".equals(field) || descending) {
+            // Rows are already in departure order; any other sort is over the route's matches only
+            Comparator<Match> order = Comparator.comparingDouble(match -> match.sortValue().doubleValue());
+            if (descending) {
+                order = order.reversed();
+            }
+            Arrays.sort(matches, order.thenComparing(match -> journeyCodes[match.row()]));
+        }
+
+        int from = searchAfter != null
+                ? firstAfter(matches, descending, searchAfter)
+                : Math.min(request.getPage() * request.getSize(), matches.length);
+        int to = Math.min(from + request.getSize(), matches.length);
+        List<JourneyDocument> page = Arrays.stream(matches, from, to)
+                .map(this::snapshotOf)
+                .collect(Collectors.toList());
+        List<Object> lastSortValues = to > from
+                ? List.of(matches[to - 1].sortValue(), journeyCodes[matches[to - 1].row()])
+                : null;
+        return new InMemorySearchPage(page, matches.length, lastSortValues);
+    }
+
+    /**
+     * Position of the first match after the sort values; any value past the journey code, such as the
+     * {@code _shard_doc} tiebreaker of a point-in-time page, is ignored since journey codes already break ties
+     */
+    private int firstAfter(Match[] matches, boolean descending, List<Object> searchAfter) {
+        double afterValue = ((Number) searchAfter.get(0)).doubleValue();
+        String afterCode = searchAfter.size() > 1 && searchAfter.get(1) != null ? searchAfter.get(1).toString() : "";
+        int low = 0;
+        int high = matches.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Double.compare(matches[mid].sortValue().doubleValue(), afterValue);
+            if (descending) {
+                cmp = -cmp;
+            }
+            if (cmp == 0) {
+                cmp = journeyCodes[matches[mid].row()].compareTo(afterCode);
+            }
+            if (cmp <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private Number sortValue(String field, int row, int seats) {
+        switch (field) {
+            case "baseFare":
+                return baseFares[row];
+            case "durationMinutes":
+                return (long) durationMinutes[row];
+            case "availableSeats":
+                return (long) seats;
+            default:
+                return departureMillis[row];
+        }
+    }
+
+    /**
+     * The row's document with the seat count the search read
+     */
+    private JourneyDocument snapshotOf(Match match) {
+        JourneyDocument document = documents[match.row()];
+        if (document.getAvailableSeats() == null || document.getAvailableSeats() != match.seats()) {
+            JourneyDocument copy = JourneyDocument.builder().build();
+            BeanUtils.copyProperties(document, copy);
+            copy.setAvailableSeats(match.seats());
+            return copy;
+        }
+        return document;
+    }
+
+    /**
+     * Lower-cased alphanumeric words, as the standard analyzer splits a text field
+     */
+    private static Set<String> terms(String text) {
+        if (text == null || text.isBlank()) {
+            return Set.of();
+        }
+        Set<String> terms = new HashSet<>();
+        for (String term : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static String fold(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A matching row with the seat count and sort value read for it
+     */
+    private record Match(int row, int seats, Number sortValue) {
+    }
+}
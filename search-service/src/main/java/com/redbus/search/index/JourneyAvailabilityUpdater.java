@@ -0,0 +1,138 @@
+package com.redbus.search.index;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies seat-count changes to the journey index as versioned partial updates.
+ *
+ * Each update is a {@link JourneyUpdateQueries#seats} script, versioned by journey-service's outbox
+ * sequence like the change feed, so a late or replayed update becomes a no-op whichever path the
+ * newer change came through. Updates submitted within one flush interval are merged per journey,
+ * keeping the newest, and sent as one bulk request.
+ */
+@Component
+@Slf4j
+public class JourneyAvailabilityUpdater {
+
+    private static final int NOT_FOUND = 404;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final JourneyIndexManager journeyIndexManager;
+    private final long flushIntervalMillis;
+    private final int maxBatchSize;
+    private final Map<String, AvailabilityUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+
+    public JourneyAvailabilityUpdater(ElasticsearchOperations elasticsearchOperations,
+                                      JourneyIndexManager journeyIndexManager,
+                                      @Value("${search.availability.flush-interval-ms:50}") long flushIntervalMillis,
+                                      @Value("${search.availability.max-batch-size:1000}") int maxBatchSize) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.journeyIndexManager = journeyIndexManager;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journey-availability-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        flush();
+    }
+
+    /**
+     * Queue a seat-count change; it reaches the index within one flush interval
+     *
+     * @param sequence journey-service outbox sequence of the change that set the seat count
+     */
+    public void submit(String journeyId, int availableSeats, long sequence) {
+        pending.merge(journeyId, new AvailabilityUpdate(availableSeats, sequence),
+                (current, candidate) -> candidate.sequence() > current.sequence() ? candidate : current);
+        if (pending.size() >= maxBatchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    /**
+     * Drop bulk failures for journeys not in the index; there is nothing to update for them
+     *
+     * @return IDs of the journeys whose update failed for any other reason
+     */
+    public static List<String> failuresToRetry(BulkFailureException e) {
+        List<String> failed = new ArrayList<>();
+        e.getFailedDocuments().forEach((journeyId, failure) -> {
+            if (failure.status() == null || failure.status() != NOT_FOUND) {
+                failed.add(journeyId);
+            }
+        });
+        return failed;
+    }
+
+    synchronized void flush() {
+        flushRequested.set(false);
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, AvailabilityUpdate> batch = new HashMap<>();
+        for (String journeyId : pending.keySet()) {
+            AvailabilityUpdate update = pending.remove(journeyId);
+            if (update != null) {
+                batch.put(journeyId, update);
+            }
+        }
+
+        List<UpdateQuery> queries = new ArrayList<>(batch.size());
+        batch.forEach((journeyId, update) ->
+                queries.add(JourneyUpdateQueries.seats(journeyId, update.availableSeats(), update.sequence())));
+        journeyIndexManager.mirrorWrite(index -> elasticsearchOperations.bulkUpdate(queries, index));
+        try {
+            elasticsearchOperations.bulkUpdate(queries, IndexCoordinates.of(JourneyIndexManager.ALIAS));
+            log.debug("Applied {} availability updates", queries.size());
+        } catch (BulkFailureException e) {
+            List<String> failed = failuresToRetry(e);
+            log.warn("{} of {} availability updates failed, retrying on the next flush", failed.size(), queries.size());
+            failed.forEach(journeyId -> requeue(journeyId, batch.get(journeyId)));
+        } catch (RuntimeException e) {
+            log.error("Failed to apply {} availability updates, retrying on the next flush", queries.size(), e);
+            batch.forEach(this::requeue);
+        }
+    }
+
+    private void requeue(String journeyId, AvailabilityUpdate update) {
+        if (update != null) {
+            // A newer update submitted meanwhile wins over the one being retried
+            pending.merge(journeyId, update,
+                    (current, retried) -> retried.sequence() > current.sequence() ? retried : current);
+        }
+    }
+
+    private record AvailabilityUpdate(int availableSeats, long sequence) {
+    }
+}
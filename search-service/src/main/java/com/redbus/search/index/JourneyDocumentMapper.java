@@ -0,0 +1,102 @@
+package com.redbus.search.index;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redbus.search.client.AgencyServiceClient;
+import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.JourneyIndexDto;
+import com.redbus.search.dto.VehicleDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds search documents from journey-service's index view, enriched with vehicle details from agency-service.
+ *
+ * Vehicle lookups go through a map owned by the caller, so a reindex run or a batch of change events
+ * fetches each agency's vehicles once however many of its journeys it touches.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JourneyDocumentMapper {
+
+    private final AgencyServiceClient agencyServiceClient;
+    private final ObjectMapper objectMapper;
+
+    public JourneyDocument toDocument(JourneyIndexDto journey, Map<String, Map<String, VehicleDto>> vehiclesByAgency) {
+        VehicleDto vehicle = vehiclesByAgency
+                .computeIfAbsent(journey.getAgencyReferenceId(), this::loadVehicles)
+                .get(journey.getVehicleReferenceId());
+
+        List<String> amenities = parseAmenities(journey.getAmenities());
+        if (vehicle != null && Boolean.TRUE.equals(vehicle.getHasAC()) && !amenities.contains("AC")) {
+            amenities.add("AC");
+        }
+
+        JourneyDocument document = JourneyDocument.builder()
+                .id(journey.getReferenceId().toString())
+                .journeyCode(journey.getJourneyCode())
+                .sourceCity(journey.getSourceCity())
+                .destinationCity(journey.getDestinationCity())
+                .departureTime(journey.getDepartureTime())
+                .arrivalTime(journey.getArrivalTime())
+                .baseFare(journey.getBaseFare())
+                .availableSeats(journey.getAvailableSeats())
+                .totalSeats(journey.getTotalSeats())
+                .agencyName(vehicle != null ? vehicle.getAgencyName() : null)
+                .vehicleType(vehicle != null ? vehicle.getVehicleType() : null)
+                .routeName(journey.getRouteName())
+                .durationMinutes(journey.getEstimatedDurationMinutes())
+                .distanceKm(journey.getDistanceKm())
+                .amenities(amenities)
+                .isActive(journey.getIsActive())
+                .status(journey.getJourneyStatus())
+                .createdAt(journey.getCreatedAt())
+                .updatedAt(journey.getUpdatedAt())
+                .build();
+        document.applyDerivedFields();
+        return document;
+    }
+
+    /**
+     * Vehicles of one agency keyed by reference ID
+     */
+    private Map<String, VehicleDto> loadVehicles(String agencyReferenceId) {
+        if (agencyReferenceId == null) {
+            return Map.of();
+        }
+        try {
+            return agencyServiceClient.getVehiclesByAgency(agencyReferenceId).stream()
+                    .collect(Collectors.toMap(vehicle -> vehicle.getReferenceId().toString(), Function.identity()));
+        } catch (RuntimeException e) {
+            log.warn("Could not load vehicles for agency {}, indexing its journeys without them", agencyReferenceId, e);
+            return Map.of();
+        }
+    }
+
+    /**
+     * Amenities are stored by journey-service as a JSON array, older rows as a comma-separated list
+     */
+    private List<String> parseAmenities(String amenities) {
+        if (amenities == null || amenities.isBlank()) {
+            return new ArrayList<>();
+        }
+        try {
+            return new ArrayList<>(objectMapper.readValue(amenities, new TypeReference<List<String>>() {}));
+        } catch (JsonProcessingException e) {
+            return Arrays.stream(amenities.split(","))
+                    .map(String::trim)
+                    .filter(amenity -> !amenity.isEmpty())
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+}
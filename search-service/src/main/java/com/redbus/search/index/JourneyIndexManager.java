@@ -0,0 +1,332 @@
+package com.redbus.search.index;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.redbus.search.document.JourneyDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexInformation;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.MultiGetItem;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.reindex.ReindexRequest;
+import org.springframework.data.elasticsearch.core.reindex.ReindexResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Owns the versioned indices behind the {@code journeys} alias.
+ *
+ * Searches and writes only ever use the alias. A mapping change bumps {@link #MAPPING_VERSION}; on
+ * startup a new index is created from the {@link JourneyDocument} mapping, the old documents are
+ * copied across server-side with their derived fields filled in, and the alias is moved in a single
+ * atomic call that also drops the old index, so readers never see a missing or half-built index.
+ *
+ * While an index is being built, every write to the alias is mirrored into it as well, from before
+ * the copy starts until the alias has moved. The copy only creates documents the mirror has not
+ * written yet, so nothing written while the copy runs, or between the catch-up and the swap, is lost.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JourneyIndexManager {
+
+    public static final String ALIAS = "journeys";
+
+    /**
+     * Bump whenever the {@link JourneyDocument} mapping or index settings change
+     */
+    static final int MAPPING_VERSION = 6;
+
+    private static final DateTimeFormatter INDEX_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    // Must produce the same values as JourneyDocument.applyDerivedFields
+    private static final String DERIVED_FIELDS_SCRIPT =
+            "def s = ctx._source;"
+            + "if (s.sourceCity != null && s.destinationCity != null && s.departureTime != null) {"
+            + "  s.routeKey = s.sourceCity.trim().toLowerCase() + '|' + s.destinationCity.trim().toLowerCase()"
+            + "      + '|' + s.departureTime.substring(0, 10);"
+            + "}"
+            + "s.sleeper = s.vehicleType != null && s.vehicleType.toLowerCase().contains('sleeper');"
+            // Seat counts are versioned by changeSequence alone since mapping version 5
+            + "s.remove('availabilityVersion');";
+
+    private static final String DEFAULT_REFRESH_INTERVAL = "1s";
+    private static final int NOT_FOUND = 404;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+
+    // Mirrored writes hold the read lock, so no write reaches an index after mirroring into it stopped
+    private final ReadWriteLock mirrorLock = new ReentrantReadWriteLock();
+    private final Set<String> deletedWhileMirroring = ConcurrentHashMap.newKeySet();
+    private volatile String mirrorIndex;
+    private volatile RuntimeException mirrorFailure;
+
+    @Value("${search.index.replicas:1}")
+    private int replicas;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureCurrentIndex() {
+        try {
+            List<String> current = currentIndices();
+            if (current.stream().anyMatch(JourneyIndexManager::hasCurrentMapping)) {
+                log.info("Journey index {} is on mapping version {}", current, MAPPING_VERSION);
+                return;
+            }
+            migrate(current);
+        } catch (RuntimeException e) {
+            log.error("Failed to prepare journey index, searches may fail until it is created", e);
+        }
+    }
+
+    /**
+     * Create an empty index with the current mapping; it is not searchable until {@link #swapAlias}
+     */
+    public String createIndex() {
+        String indexName = ALIAS + "_v" + MAPPING_VERSION + "_" + LocalDateTime.now().format(INDEX_SUFFIX);
+        IndexOperations templateOps = elasticsearchOperations.indexOps(JourneyDocument.class);
+        elasticsearchOperations.indexOps(IndexCoordinates.of(indexName))
+                .create(templateOps.createSettings(), templateOps.createMapping());
+        log.info("Created journey index {}", indexName);
+        return indexName;
+    }
+
+    /**
+     * Concrete indices the alias resolves to; a legacy index named like the alias is returned as is
+     */
+    public List<String> currentIndices() {
+        IndexOperations aliasOps = elasticsearchOperations.indexOps(IndexCoordinates.of(ALIAS));
+        if (!aliasOps.exists()) {
+            return List.of();
+        }
+        return aliasOps.getInformation().stream()
+                .map(IndexInformation::getName)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Route keys the alias currently holds for the given journeys; journeys not in the index are left out
+     */
+    public Map<String, String> currentRouteKeys(Collection<String> journeyIds) {
+        if (journeyIds.isEmpty()) {
+            return Map.of();
+        }
+        NativeQuery query = NativeQuery.builder()
+                .withIds(journeyIds)
+                .withSourceFilter(new FetchSourceFilter(new String[] {"routeKey"}, null))
+                .build();
+        Map<String, String> routeKeys = new HashMap<>();
+        for (MultiGetItem<JourneyDocument> item
+                : elasticsearchOperations.multiGet(query, JourneyDocument.class, IndexCoordinates.of(ALIAS))) {
+            if (item.hasItem() && item.getItem().getRouteKey() != null) {
+                routeKeys.put(item.getItem().getId(), item.getItem().getRouteKey());
+            }
+        }
+        return routeKeys;
+    }
+
+    /**
+     * Point the alias at the new index and delete the indices it replaces, in one atomic request
+     */
+    public void swapAlias(String newIndex, List<String> oldIndices) {
+        AliasActions actions = new AliasActions(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(newIndex)
+                .withAliases(ALIAS)
+                .build()));
+        oldIndices.stream()
+                .filter(oldIndex -> !oldIndex.equals(newIndex))
+                .forEach(oldIndex -> actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder()
+                        .withIndices(oldIndex)
+                        .build())));
+        elasticsearchOperations.indexOps(IndexCoordinates.of(newIndex)).alias(actions);
+        log.info("Alias {} now points to {}, removed {}", ALIAS, newIndex, oldIndices);
+    }
+
+    /**
+     * Turn off refreshes and replicas on an index that is not yet behind the alias, for bulk loading
+     */
+    public void beginBulkLoad(String indexName) {
+        putSettings(indexName, "-1", 0);
+    }
+
+    /**
+     * Restore the serving settings after a bulk load and make the loaded documents searchable
+     */
+    public void endBulkLoad(String indexName) {
+        putSettings(indexName, DEFAULT_REFRESH_INTERVAL, replicas);
+        elasticsearchOperations.indexOps(IndexCoordinates.of(indexName)).refresh();
+    }
+
+    /**
+     * Copy documents changed since the given time, for partial updates mirrored before their document was loaded
+     */
+    public long copyUpdatedSince(List<String> sourceIndices, String targetIndex, LocalDateTime updatedSince) {
+        return sourceIndices.isEmpty() ? 0 : copy(sourceIndices, targetIndex, updatedSince);
+    }
+
+    /**
+     * Start mirroring writes to the alias into an index that is being built
+     */
+    public void startMirroring(String indexName) {
+        mirrorLock.writeLock().lock();
+        try {
+            deletedWhileMirroring.clear();
+            mirrorFailure = null;
+            mirrorIndex = indexName;
+        } finally {
+            mirrorLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Last step before the swap: re-apply deletes the copy may have undone, and fail if any mirrored write was lost
+     */
+    public void completeMirroring(String indexName) {
+        RuntimeException failure = mirrorFailure;
+        if (failure != null) {
+            throw new IllegalStateException("Writes to " + indexName + " were lost during the rebuild", failure);
+        }
+        deletedWhileMirroring.forEach(journeyId ->
+                elasticsearchOperations.delete(journeyId, IndexCoordinates.of(indexName)));
+    }
+
+    /**
+     * Stop mirroring; returns once no mirrored write is in flight, so the index can be deleted safely
+     */
+    public void stopMirroring() {
+        mirrorLock.writeLock().lock();
+        try {
+            mirrorIndex = null;
+            deletedWhileMirroring.clear();
+        } finally {
+            mirrorLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a write to the index being built, if any; call before making the same write against the alias.
+     * A partial update of a document not copied yet is skipped and left to the catch-up copy.
+     */
+    public void mirrorWrite(Consumer<IndexCoordinates> write) {
+        mirrorLock.readLock().lock();
+        try {
+            String indexName = mirrorIndex;
+            if (indexName == null) {
+                return;
+            }
+            try {
+                write.accept(IndexCoordinates.of(indexName));
+            } catch (BulkFailureException e) {
+                if (e.getFailedDocuments().values().stream()
+                        .anyMatch(failure -> failure.status() == null || failure.status() != NOT_FOUND)) {
+                    recordMirrorFailure(indexName, e);
+                }
+            } catch (RuntimeException e) {
+                recordMirrorFailure(indexName, e);
+            }
+        } finally {
+            mirrorLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mirror a delete, remembering it so it can be re-applied should the copy bring the document back
+     */
+    public void mirrorDelete(String journeyId) {
+        mirrorWrite(index -> {
+            deletedWhileMirroring.add(journeyId);
+            elasticsearchOperations.delete(journeyId, index);
+        });
+    }
+
+    public void deleteIndex(String indexName) {
+        elasticsearchOperations.indexOps(IndexCoordinates.of(indexName)).delete();
+    }
+
+    private void migrate(List<String> oldIndices) {
+        String newIndex = createIndex();
+        startMirroring(newIndex);
+        try {
+            if (!oldIndices.isEmpty()) {
+                LocalDateTime copyStartedAt = LocalDateTime.now();
+                long copied = copy(oldIndices, newIndex, null);
+                // Partial updates mirrored before their document was copied missed it; pick those up
+                long caughtUp = copy(oldIndices, newIndex, copyStartedAt);
+                log.info("Copied {} journeys into {} ({} updated during the copy)", copied, newIndex, caughtUp);
+            }
+            completeMirroring(newIndex);
+            swapAlias(newIndex, oldIndices);
+        } catch (RuntimeException e) {
+            stopMirroring();
+            deleteIndex(newIndex);
+            throw e;
+        }
+        stopMirroring();
+    }
+
+    private long copy(List<String> sourceIndices, String targetIndex, LocalDateTime updatedSince) {
+        ReindexRequest.ReindexRequestBuilder request = ReindexRequest.builder(
+                        IndexCoordinates.of(sourceIndices.toArray(String[]::new)), IndexCoordinates.of(targetIndex))
+                .withScript(DERIVED_FIELDS_SCRIPT, "painless")
+                .withConflicts(ReindexRequest.Conflicts.PROCEED)
+                .withRefresh(true);
+        if (updatedSince == null) {
+            // Leave documents the mirror already wrote alone; they are newer than the copy
+            request.withDestOpType(IndexQuery.OpType.CREATE);
+        } else {
+            String since = updatedSince.format(DATE_TIME_FORMAT);
+            request.withSourceQuery(NativeQuery.builder()
+                    .withQuery(q -> q.range(r -> r.date(d -> d.field("updatedAt").gte(since))))
+                    .build());
+        }
+        ReindexResponse response = elasticsearchOperations.reindex(request.build());
+        return response.getTotal();
+    }
+
+    private void recordMirrorFailure(String indexName, RuntimeException e) {
+        log.error("Failed to mirror a write into {}, the rebuild will be abandoned", indexName, e);
+        mirrorFailure = e;
+    }
+
+    private void putSettings(String indexName, String refreshInterval, int numberOfReplicas) {
+        try {
+            elasticsearchClient.indices().putSettings(request -> request
+                    .index(indexName)
+                    .settings(settings -> settings
+                            .refreshInterval(time -> time.time(refreshInterval))
+                            .numberOfReplicas(String.valueOf(numberOfReplicas))));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to update settings of index " + indexName, e);
+        }
+    }
+
+    private static boolean hasCurrentMapping(String indexName) {
+        return indexName.startsWith(ALIAS + "_v" + MAPPING_VERSION + "_");
+    }
+}
@@ -0,0 +1,191 @@
+package com.redbus.search.index;
+
+import com.redbus.common.exception.BusinessException;
+import com.redbus.search.client.JourneyServiceClient;
+import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.JourneyIndexDto;
+import com.redbus.search.dto.JourneyIndexPageDto;
+import com.redbus.search.dto.VehicleDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rebuilds the journey index from journey-service without taking search offline.
+ *
+ * Journeys are read in keyset pages and each page goes out as one bulk request into a fresh index.
+ * At most {@code bulk-parallelism} bulk requests are in flight; the reader blocks until one finishes
+ * before fetching more, so memory stays bounded by a few pages however many journeys there are.
+ * The new index is loaded with refreshes and replicas off, then swapped in behind the alias. Live
+ * writes are mirrored into the new index throughout, and the load only creates documents, so a
+ * change mirrored after its page was read is not overwritten by the older copy.
+ */
+@Component
+@Slf4j
+public class JourneyReindexer {
+
+    private static final int CONFLICT = 409;
+
+    private final JourneyServiceClient journeyServiceClient;
+    private final JourneyDocumentMapper journeyDocumentMapper;
+    private final JourneyIndexManager journeyIndexManager;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final int pageSize;
+    private final int bulkParallelism;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService runner;
+
+    public JourneyReindexer(JourneyServiceClient journeyServiceClient,
+                            JourneyDocumentMapper journeyDocumentMapper,
+                            JourneyIndexManager journeyIndexManager,
+                            ElasticsearchOperations elasticsearchOperations,
+                            @Value("${search.reindex.page-size:1000}") int pageSize,
+                            @Value("${search.reindex.bulk-parallelism:4}") int bulkParallelism) {
+        this.journeyServiceClient = journeyServiceClient;
+        this.journeyDocumentMapper = journeyDocumentMapper;
+        this.journeyIndexManager = journeyIndexManager;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.pageSize = pageSize;
+        this.bulkParallelism = bulkParallelism;
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journey-reindex");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Start a full rebuild in the background; only one can run at a time
+     */
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("A journey reindex is already running", "REINDEX_IN_PROGRESS", HttpStatus.CONFLICT);
+        }
+        runner.execute(() -> {
+            try {
+                reindexAll();
+            } catch (RuntimeException e) {
+                log.error("Journey reindex failed, the current index stays in place", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    void reindexAll() {
+        long startedAtNanos = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<String> oldIndices = journeyIndexManager.currentIndices();
+        String newIndex = journeyIndexManager.createIndex();
+        journeyIndexManager.startMirroring(newIndex);
+
+        long indexed;
+        long caughtUp;
+        try {
+            journeyIndexManager.beginBulkLoad(newIndex);
+            indexed = load(IndexCoordinates.of(newIndex));
+            journeyIndexManager.endBulkLoad(newIndex);
+            caughtUp = journeyIndexManager.copyUpdatedSince(oldIndices, newIndex, startedAt);
+            journeyIndexManager.completeMirroring(newIndex);
+            journeyIndexManager.swapAlias(newIndex, oldIndices);
+        } catch (RuntimeException e) {
+            journeyIndexManager.stopMirroring();
+            journeyIndexManager.deleteIndex(newIndex);
+            throw e;
+        }
+        journeyIndexManager.stopMirroring();
+        log.info("Reindexed {} journeys into {} in {} s ({} live updates carried over)", indexed, newIndex,
+                (System.nanoTime() - startedAtNanos) / 1_000_000_000, caughtUp);
+    }
+
+    private long load(IndexCoordinates target) {
+        ExecutorService bulkExecutor = Executors.newFixedThreadPool(bulkParallelism);
+        Semaphore inFlight = new Semaphore(bulkParallelism);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Map<String, Map<String, VehicleDto>> vehiclesByAgency = new HashMap<>();
+        long indexed = 0;
+        Long cursor = null;
+
+        try {
+            do {
+                JourneyIndexPageDto page = journeyServiceClient.exportJourneys(cursor, pageSize);
+                List<IndexQuery> batch = new ArrayList<>(page.getJourneys().size());
+                for (JourneyIndexDto journey : page.getJourneys()) {
+                    JourneyDocument document = journeyDocumentMapper.toDocument(journey, vehiclesByAgency);
+                    batch.add(new IndexQueryBuilder().withId(document.getId()).withObject(document)
+                            .withOpType(IndexQuery.OpType.CREATE).build());
+                }
+
+                // Backpressure: wait for a free slot before reading the next page
+                inFlight.acquire();
+                throwIfFailed(failure);
+                if (batch.isEmpty()) {
+                    inFlight.release();
+                } else {
+                    bulkExecutor.execute(() -> {
+                        try {
+                            bulkCreate(batch, target);
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+                indexed += batch.size();
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            inFlight.acquire(bulkParallelism);
+            throwIfFailed(failure);
+            return indexed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Journey reindex was interrupted", e);
+        } finally {
+            bulkExecutor.shutdownNow();
+        }
+    }
+
+    private void bulkCreate(List<IndexQuery> batch, IndexCoordinates target) {
+        try {
+            elasticsearchOperations.bulkIndex(batch, target);
+        } catch (BulkFailureException e) {
+            // A conflict means the journey was mirrored from a live write, which is newer than this page
+            if (e.getFailedDocuments().values().stream()
+                    .anyMatch(failure -> failure.status() == null || failure.status() != CONFLICT)) {
+                throw e;
+            }
+        }
+    }
+
+    private static void throwIfFailed(AtomicReference<RuntimeException> failure) {
+        RuntimeException e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.redbus.search.index;
+
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.query.ScriptType;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Versioned writes to journey documents.
+ *
+ * The version is journey-service's outbox sequence, carried by change feed events and stored on the
+ * document as {@code changeSequence}. A write applies only if its sequence is above the stored one,
+ * so late, replayed or redelivered writes are no-ops whichever path they come through. A document
+ * written without a sequence keeps the stored seat count and sequence, since it cannot tell whether
+ * they are newer than its own.
+ */
+public final class JourneyUpdateQueries {
+
+    private static final int RETRY_ON_CONFLICT = 3;
+
+    private static final String SEQUENCED_SCRIPT =
+            "if (ctx._source.changeSequence != null && ctx._source.changeSequence >= params.sequence) {"
+            + "  ctx.op = 'none';"
+            + "} else {"
+            + "  ctx._source.putAll(params.changes);"
+            + "}";
+
+    private static final String DELETE_SCRIPT =
+            "if (ctx._source.changeSequence != null && ctx._source.changeSequence >= params.sequence) {"
+            + "  ctx.op = 'none';"
+            + "} else {"
+            + "  ctx.op = 'delete';"
+            + "}";
+
+    private static final String UNSEQUENCED_SCRIPT =
+            "def seats = ctx._source.availableSeats;"
+            + "def sequence = ctx._source.changeSequence;"
+            + "ctx._source.putAll(params.changes);"
+            + "if (sequence != null) {"
+            + "  ctx._source.availableSeats = seats;"
+            + "  ctx._source.changeSequence = sequence;"
+            + "}";
+
+    private JourneyUpdateQueries() {
+    }
+
+    /**
+     * Set the seat count in place; the document is neither read nor rewritten, and a missing one is not created
+     */
+    public static UpdateQuery seats(String journeyId, int availableSeats, long sequence) {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("availableSeats", availableSeats);
+        changes.put("changeSequence", sequence);
+        changes.put("updatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        return script(journeyId, SEQUENCED_SCRIPT, changes, sequence).build();
+    }
+
+    /**
+     * Delete the document unless it holds a newer change; a missing one is left missing
+     */
+    public static UpdateQuery delete(String journeyId, long sequence) {
+        return script(journeyId, DELETE_SCRIPT, Map.of(), sequence).build();
+    }
+
+    /**
+     * Replace the document's fields, creating it if missing
+     *
+     * @param sequence outbox sequence of the change, or null for a write that does not come from the change feed
+     */
+    public static UpdateQuery upsert(String journeyId, Document document, Long sequence) {
+        if (sequence != null) {
+            document.put("changeSequence", sequence);
+        }
+        return script(journeyId, sequence != null ? SEQUENCED_SCRIPT : UNSEQUENCED_SCRIPT, document, sequence)
+                .withUpsert(document)
+                .build();
+    }
+
+    private static UpdateQuery.Builder script(String journeyId, String script, Map<String, Object> changes, Long sequence) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("sequence", sequence);
+        params.put("changes", changes);
+        return UpdateQuery.builder(journeyId)
+                .withScriptType(ScriptType.INLINE)
+                .withScript(script)
+                .withLang("painless")
+                .withParams(params)
+                .withRetryOnConflict(RETRY_ON_CONFLICT);
+    }
+}
@@ -0,0 +1,40 @@
+package com.redbus.search.pagination;
+
+import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.SearchRequestDto;
+import com.redbus.search.repository.JourneyQueryBuilder;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Where the next page of a search starts: the sort values of the last hit returned, the point in
+ * time the pages are read from, and the number of the page the cursor leads to. The route and sort
+ * it was issued for are kept too, since its sort values mean nothing to any other search.
+ *
+ * @param pointInTimeId null until the client asks for a second page
+ * @param routeKey      {@link JourneyDocument#routeKey} of the search
+ * @param sort          field and direction the search sorts by, see {@link #sortOf}
+ */
+public record SearchCursor(String pointInTimeId, List<Object> searchAfter, int page, String routeKey, String sort) {
+
+    public static SearchCursor next(SearchRequestDto request, String pointInTimeId, List<Object> searchAfter, int page) {
+        return new SearchCursor(pointInTimeId, searchAfter, page, routeKeyOf(request), sortOf(request));
+    }
+
+    /**
+     * Whether the cursor was issued for this route and sort; other criteria may change between pages
+     */
+    public boolean belongsTo(SearchRequestDto request) {
+        return Objects.equals(routeKey, routeKeyOf(request)) && Objects.equals(sort, sortOf(request));
+    }
+
+    private static String routeKeyOf(SearchRequestDto request) {
+        return JourneyDocument.routeKey(request.getSourceCity(), request.getDestinationCity(), request.getTravelDate());
+    }
+
+    private static String sortOf(SearchRequestDto request) {
+        return JourneyQueryBuilder.sortField(request.getSortBy()) + ":"
+                + ("DESC".equalsIgnoreCase(request.getSortOrder()) ? "DESC" : "ASC");
+    }
+}
@@ -0,0 +1,49 @@
+package com.redbus.search.pagination;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redbus.common.exception.BusinessException;
+import com.redbus.search.dto.SearchRequestDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Turns a {@link SearchCursor} into the opaque string handed to clients and back
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchCursorCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public String encode(SearchCursor cursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode search cursor", e);
+        }
+    }
+
+    /**
+     * Read a cursor handed back with a search, rejecting one issued for another route or sort
+     */
+    public SearchCursor decode(String value, SearchRequestDto request) {
+        SearchCursor cursor;
+        try {
+            cursor = objectMapper.readValue(Base64.getUrlDecoder().decode(value), SearchCursor.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BusinessException("Invalid search cursor", "INVALID_CURSOR");
+        }
+        if (cursor.searchAfter() == null || cursor.searchAfter().isEmpty() || cursor.page() < 1) {
+            throw new BusinessException("Invalid search cursor", "INVALID_CURSOR");
+        }
+        if (!cursor.belongsTo(request)) {
+            throw new BusinessException("Search cursor belongs to a different route or sort, start again from the first page",
+                    "INVALID_CURSOR");
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,174 @@
+package com.redbus.search.popular;
+
+import com.redbus.search.dto.PopularRouteDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranks city pairs by recent confirmed bookings.
+ *
+ * Each route keeps one booking counter per day over a fixed window. Its score sums the counters,
+ * each halved for every {@code half-life-days} that have passed since that day, so a route climbs
+ * quickly on fresh demand and fades once bookings stop. Bookings update the counters as they arrive;
+ * a background refresh recomputes the scores and keeps the top {@code top-k} routes as an immutable
+ * ranking, so reading a page never touches the counters.
+ */
+@Component
+@Slf4j
+public class PopularRoutesLeaderboard {
+
+    private static final Comparator<PopularRouteDto> BY_SCORE = Comparator.comparingDouble(PopularRouteDto::getScore);
+
+    private final int windowDays;
+    private final double halfLifeDays;
+    private final int topK;
+    private final long refreshIntervalMillis;
+    private final Map<String, RouteCounter> routes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher;
+    private volatile List<PopularRouteDto> ranking = List.of();
+
+    public PopularRoutesLeaderboard(@Value("${search.popular-routes.window-days:14}") int windowDays,
+                                    @Value("${search.popular-routes.half-life-days:3}") double halfLifeDays,
+                                    @Value("${search.popular-routes.top-k:100}") int topK,
+                                    @Value("${search.popular-routes.refresh-interval-ms:30000}") long refreshIntervalMillis) {
+        this.windowDays = windowDays;
+        this.halfLifeDays = halfLifeDays;
+        this.topK = topK;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "popular-routes-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        refresher.scheduleWithFixedDelay(this::refresh, refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Count seats booked on a route; bookings older than the window are ignored
+     */
+    public void record(String sourceCity, String destinationCity, LocalDate bookedOn, int seats) {
+        if (sourceCity == null || destinationCity == null || bookedOn == null || seats <= 0) {
+            return;
+        }
+        long day = bookedOn.toEpochDay();
+        if (day <= LocalDate.now().toEpochDay() - windowDays) {
+            return;
+        }
+        String routeKey = fold(sourceCity) + "|" + fold(destinationCity);
+        routes.computeIfAbsent(routeKey, key -> new RouteCounter(sourceCity.trim(), destinationCity.trim(), windowDays))
+                .add(day, seats);
+    }
+
+    /**
+     * One page of the current ranking, best first
+     */
+    public List<PopularRouteDto> page(int page, int size) {
+        List<PopularRouteDto> current = ranking;
+        int from = page * size;
+        if (from >= current.size()) {
+            return List.of();
+        }
+        return current.subList(from, Math.min(from + size, current.size()));
+    }
+
+    public long getRefreshIntervalMillis() {
+        return refreshIntervalMillis;
+    }
+
+    void refresh() {
+        long today = LocalDate.now().toEpochDay();
+        PriorityQueue<PopularRouteDto> top = new PriorityQueue<>(topK + 1, BY_SCORE);
+        routes.forEach((routeKey, counter) -> {
+            PopularRouteDto route = counter.snapshot(today, halfLifeDays);
+            if (route.getRecentBookings() == 0) {
+                // Nothing left in the window; a new booking recreates the counter
+                routes.remove(routeKey, counter);
+                return;
+            }
+            top.offer(route);
+            if (top.size() > topK) {
+                top.poll();
+            }
+        });
+
+        List<PopularRouteDto> sorted = new ArrayList<>(top);
+        sorted.sort(BY_SCORE.reversed());
+        ranking = List.copyOf(sorted);
+        log.debug("Refreshed popular routes: {} ranked of {} tracked", sorted.size(), routes.size());
+    }
+
+    private static String fold(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Per-day booking counts of one route in a ring of {@code windowDays} slots
+     */
+    private static final class RouteCounter {
+
+        private final String sourceCity;
+        private final String destinationCity;
+        private final long[] days;
+        private final long[] counts;
+
+        RouteCounter(String sourceCity, String destinationCity, int windowDays) {
+            this.sourceCity = sourceCity;
+            this.destinationCity = destinationCity;
+            this.days = new long[windowDays];
+            this.counts = new long[windowDays];
+        }
+
+        synchronized void add(long day, int seats) {
+            int slot = (int) Math.floorMod(day, (long) days.length);
+            if (days[slot] != day) {
+                // The slot still holds a day that has left the window
+                days[slot] = day;
+                counts[slot] = 0;
+            }
+            counts[slot] += seats;
+        }
+
+        synchronized PopularRouteDto snapshot(long today, double halfLifeDays) {
+            double score = 0;
+            long bookings = 0;
+            for (int slot = 0; slot < days.length; slot++) {
+                long age = today - days[slot];
+                if (counts[slot] == 0 || age < 0 || age >= days.length) {
+                    continue;
+                }
+                score += counts[slot] * Math.pow(0.5, age / halfLifeDays);
+                bookings += counts[slot];
+            }
+            return PopularRouteDto.builder()
+                    .sourceCity(sourceCity)
+                    .destinationCity(destinationCity)
+                    .score(score)
+                    .recentBookings(bookings)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.redbus.search.repository;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.redbus.search.dto.FacetBucketDto;
+import com.redbus.search.dto.SearchFacetsDto;
+import com.redbus.search.dto.SearchRequestDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.core.AggregationsContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the sidebar facets as aggregations of the search query and reads them back.
+ *
+ * The optional filters run as a post filter, so the hits are filtered while the aggregations see
+ * every journey on the route. Each facet then applies all the selected filters except its own;
+ * with one vehicle type selected, the vehicle type facet still counts the other types, which is
+ * what a user switching selection needs to see. Term facets aggregate the un-normalized {@code raw}
+ * subfields, so their labels read as the agencies wrote them rather than lowercased.
+ */
+@Component
+public class JourneyFacetBuilder {
+
+    private static final String FARES = "fares";
+    private static final String VEHICLE_TYPES = "vehicleTypes";
+    private static final String AGENCIES = "agencies";
+    private static final String DEPARTURE_SLOTS = "departureSlots";
+    private static final String AC = "ac";
+    private static final String SLEEPER = "sleeper";
+    private static final String VALUES = "values";
+
+    private static final int MAX_TERMS = 20;
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    // Slot name and start hour; each slot runs to the next one's start
+    private static final Map<String, Integer> DEPARTURE_SLOT_HOURS = slots();
+
+    @Value("${search.facets.fare-interval:500}")
+    private double fareInterval;
+
+    public Map<String, Aggregation> build(SearchRequestDto request, Map<String, Query> facetFilters) {
+        Map<String, Aggregation> aggregations = new LinkedHashMap<>();
+        aggregations.put(FARES, excluding(facetFilters, JourneyQueryBuilder.FARE_FILTER, Aggregation.of(a -> a
+                .histogram(h -> h.field("baseFare").interval(fareInterval).minDocCount(1)))));
+        aggregations.put(VEHICLE_TYPES, excluding(facetFilters, JourneyQueryBuilder.VEHICLE_TYPE_FILTER, Aggregation.of(a -> a
+                .terms(t -> t.field("vehicleType.raw").size(MAX_TERMS)))));
+        aggregations.put(AGENCIES, excluding(facetFilters, JourneyQueryBuilder.AGENCY_FILTER, Aggregation.of(a -> a
+                .terms(t -> t.field("agencyName.raw").size(MAX_TERMS)))));
+        aggregations.put(DEPARTURE_SLOTS, excluding(facetFilters, null, departureSlots(request.getTravelDate())));
+        aggregations.put(AC, excluding(facetFilters, JourneyQueryBuilder.AC_FILTER, Aggregation.of(a -> a
+                .filter(f -> f.term(t -> t.field("amenities").value("AC"))))));
+        aggregations.put(SLEEPER, excluding(facetFilters, JourneyQueryBuilder.SLEEPER_FILTER, Aggregation.of(a -> a
+                .filter(f -> f.term(t -> t.field("sleeper").value(true))))));
+        return aggregations;
+    }
+
+    public SearchFacetsDto parse(AggregationsContainer<?> container) {
+        if (!(container instanceof ElasticsearchAggregations aggregations)) {
+            return null;
+        }
+        return SearchFacetsDto.builder()
+                .fareRanges(values(aggregations, FARES).histogram().buckets().array().stream()
+                        .map(bucket -> FacetBucketDto.builder()
+                                .key(String.valueOf((long) bucket.key()))
+                                .from(bucket.key())
+                                .to(bucket.key() + fareInterval)
+                                .count(bucket.docCount())
+                                .build())
+                        .collect(Collectors.toList()))
+                .vehicleTypes(terms(values(aggregations, VEHICLE_TYPES)))
+                .agencies(terms(values(aggregations, AGENCIES)))
+                .departureSlots(values(aggregations, DEPARTURE_SLOTS).dateRange().buckets().array().stream()
+                        .map(bucket -> FacetBucketDto.builder()
+                                .key(bucket.key())
+                                .from(bucket.from())
+                                .to(bucket.to())
+                                .count(bucket.docCount())
+                                .build())
+                        .collect(Collectors.toList()))
+                .acCount(values(aggregations, AC).filter().docCount())
+                .sleeperCount(values(aggregations, SLEEPER).filter().docCount())
+                .build();
+    }
+
+    /**
+     * Run the facet over every selected filter but its own
+     */
+    private static Aggregation excluding(Map<String, Query> facetFilters, String ownFilter, Aggregation facet) {
+        List<Query> others = facetFilters.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals(ownFilter))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+        Query scope = others.isEmpty()
+                ? Query.of(q -> q.matchAll(m -> m))
+                : Query.of(q -> q.bool(b -> b.filter(others)));
+        return Aggregation.of(a -> a.filter(scope).aggregations(VALUES, facet));
+    }
+
+    private static Aggregation departureSlots(LocalDate travelDate) {
+        // The route key pins the travel date, so time-of-day slots are plain ranges on that day
+        return Aggregation.of(a -> a.dateRange(d -> {
+            d.field("departureTime").format("date_hour_minute_second");
+            List<String> names = List.copyOf(DEPARTURE_SLOT_HOURS.keySet());
+            for (int i = 0; i < names.size(); i++) {
+                String from = travelDate.atTime(LocalTime.of(DEPARTURE_SLOT_HOURS.get(names.get(i)), 0)).format(DATE_TIME_FORMAT);
+                String to = i + 1 < names.size()
+                        ? travelDate.atTime(LocalTime.of(DEPARTURE_SLOT_HOURS.get(names.get(i + 1)), 0)).format(DATE_TIME_FORMAT)
+                        : travelDate.plusDays(1).atStartOfDay().format(DATE_TIME_FORMAT);
+                String key = names.get(i);
+                d.ranges(r -> r.key(key).from(f -> f.expr(from)).to(f -> f.expr(to)));
+            }
+            return d;
+        }));
+    }
+
+    private static Aggregate values(ElasticsearchAggregations aggregations, String name) {
+        return aggregations.get(name).aggregation().getAggregate().filter().aggregations().get(VALUES);
+    }
+
+    private static List<FacetBucketDto> terms(Aggregate aggregate) {
+        return aggregate.sterms().buckets().array().stream()
+                .map(bucket -> FacetBucketDto.builder()
+                        .key(bucket.key().stringValue())
+                        .count(bucket.docCount())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, Integer> slots() {
+        Map<String, Integer> slots = new LinkedHashMap<>();
+        slots.put("early_morning", 0);
+        slots.put("morning", 6);
+        slots.put("afternoon", 12);
+        slots.put("evening", 18);
+        return slots;
+    }
+}
@@ -0,0 +1,120 @@
+package com.redbus.search.repository;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.SearchRequestDto;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compiles a {@link SearchRequestDto} into a single Elasticsearch bool query.
+ *
+ * Every criterion is a non-scoring filter clause, so the hits, the total count and the page
+ * boundaries all come from the same query and no filtering is left for the application.
+ * Exact criteria are term lookups on normalized keyword fields; the city pair and travel date
+ * collapse into one term on the precomputed route key.
+ */
+@Component
+public class JourneyQueryBuilder {
+
+    /**
+     * Unique keyword field that makes the order of equal sort values stable across pages
+     */
+    private static final String TIE_BREAKER = "journeyCode";
+
+    public static final String FARE_FILTER = "fare";
+    public static final String VEHICLE_TYPE_FILTER = "vehicleType";
+    public static final String AGENCY_FILTER = "agency";
+    public static final String AC_FILTER = "ac";
+    public static final String SLEEPER_FILTER = "sleeper";
+
+    public Query buildQuery(SearchRequestDto request) {
+        BoolQuery.Builder bool = new BoolQuery.Builder().filter(buildBaseQuery(request));
+        buildFacetFilters(request).values().forEach(bool::filter);
+        return Query.of(q -> q.bool(bool.build()));
+    }
+
+    /**
+     * The criteria every result must meet whatever the sidebar selection: route, date, seats and active
+     */
+    public Query buildBaseQuery(SearchRequestDto request) {
+        BoolQuery.Builder bool = new BoolQuery.Builder();
+
+        String routeKey = JourneyDocument.routeKey(
+                request.getSourceCity(), request.getDestinationCity(), request.getTravelDate());
+        bool.filter(f -> f.term(t -> t.field("routeKey").value(routeKey)));
+
+        int seatsRequired = request.getSeatsRequired() != null ? request.getSeatsRequired() : 1;
+        bool.filter(f -> f.range(r -> r.number(n -> n.field("availableSeats").gte((double) seatsRequired))));
+        bool.filter(f -> f.term(t -> t.field("isActive").value(true)));
+
+        return Query.of(q -> q.bool(bool.build()));
+    }
+
+    /**
+     * The optional filters the sidebar facets toggle, keyed by facet; only the ones the request sets
+     */
+    public Map<String, Query> buildFacetFilters(SearchRequestDto request) {
+        Map<String, Query> filters = new LinkedHashMap<>();
+        if (request.getMaxFare() != null) {
+            filters.put(FARE_FILTER, Query.of(f -> f.range(r -> r.number(n -> n.field("baseFare").lte(request.getMaxFare())))));
+        }
+        if (hasText(request.getVehicleType())) {
+            filters.put(VEHICLE_TYPE_FILTER, Query.of(f -> f.term(t -> t.field("vehicleType.keyword")
+                    .value(request.getVehicleType().trim()))));
+        }
+        if (hasText(request.getAgencyName())) {
+            filters.put(AGENCY_FILTER, matchAllTerms("agencyName", request.getAgencyName()));
+        }
+        if (Boolean.TRUE.equals(request.getAcOnly())) {
+            filters.put(AC_FILTER, Query.of(f -> f.term(t -> t.field("amenities").value("AC"))));
+        }
+        if (Boolean.TRUE.equals(request.getSleeperOnly())) {
+            filters.put(SLEEPER_FILTER, Query.of(f -> f.term(t -> t.field("sleeper").value(true))));
+        }
+        return filters;
+    }
+
+    /**
+     * Sort for the request, mapping the API sort names onto document fields
+     */
+    public Sort buildSort(SearchRequestDto request) {
+        Sort.Direction direction = "DESC".equalsIgnoreCase(request.getSortOrder())
+                ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return Sort.by(direction, sortField(request.getSortBy())).and(Sort.by(Sort.Direction.ASC, TIE_BREAKER));
+    }
+
+    /**
+     * Document field a sort name maps to; unknown or missing names sort by departure time
+     */
+    public static String sortField(String sortBy) {
+        if (sortBy == null) {
+            return "departureTime";
+        }
+        switch (sortBy) {
+            case "fare":
+            case "baseFare":
+                return "baseFare";
+            case "duration":
+            case "durationMinutes":
+                return "durationMinutes";
+            case "availableSeats":
+                return "availableSeats";
+            default:
+                return "departureTime";
+        }
+    }
+
+    private Query matchAllTerms(String field, String value) {
+        return Query.of(q -> q.match(m -> m.field(field).query(value).operator(Operator.And)));
+    }
+
+    private boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
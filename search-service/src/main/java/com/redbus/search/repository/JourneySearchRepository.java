@@ -8,10 +8,10 @@ import org.springframework.data.elasticsearch.repository.ElasticsearchRepository
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Repository
-public interface JourneySearchRepository extends ElasticsearchRepository<JourneyDocument, String> {
+public interface JourneySearchRepository extends ElasticsearchRepository<JourneyDocument, String>,
+        JourneySearchRepositoryCustom {
     
     Page<JourneyDocument> findBySourceCityAndDestinationCityAndDepartureTimeBetween(
             String sourceCity, 
@@ -25,8 +25,6 @@ public interface JourneySearchRepository extends ElasticsearchRepository<Journey
             String destinationCity, 
             Pageable pageable);
     
-    List<JourneyDocument> findByAvailableSeatsGreaterThanAndIsActiveTrue(Integer seats);
-    
     @Query("{\"bool\": {\"must\": [" +
            "{\"match\": {\"sourceCity\": \"?0\"}}," +
            "{\"match\": {\"destinationCity\": \"?1\"}}," +
@@ -0,0 +1,33 @@
+package com.redbus.search.repository;
+
+import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.SearchRequestDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.SearchHits;
+
+import java.time.Duration;
+import java.util.List;
+
+public interface JourneySearchRepositoryCustom {
+    
+    /**
+     * Run a search with every request filter applied in Elasticsearch, one round trip per page
+     */
+    SearchHits<JourneyDocument> search(SearchRequestDto searchRequest, Pageable pageable);
+    
+    /**
+     * Fetch the page of a search that follows the given sort values, read from a point in time; no facets
+     */
+    SearchHits<JourneyDocument> searchAfter(SearchRequestDto searchRequest, Sort sort, int size,
+                                            String pointInTimeId, List<Object> searchAfter, Duration keepAlive);
+    
+    /**
+     * Fetch the next batch of active journeys in index order, for walking the whole inventory
+     */
+    SearchHits<JourneyDocument> scanActive(int size, String pointInTimeId, List<Object> searchAfter, Duration keepAlive);
+    
+    String openPointInTime(Duration keepAlive);
+    
+    void closePointInTime(String pointInTimeId);
+}
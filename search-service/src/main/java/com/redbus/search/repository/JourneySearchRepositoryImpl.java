@@ -0,0 +1,82 @@
+package com.redbus.search.repository;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.SearchRequestDto;
+import lombok.RequiredArgsConstructor;
+import com.redbus.search.index.JourneyIndexManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query.PointInTime;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class JourneySearchRepositoryImpl implements JourneySearchRepositoryCustom {
+    
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final JourneyQueryBuilder journeyQueryBuilder;
+    private final JourneyFacetBuilder journeyFacetBuilder;
+    
+    @Override
+    public SearchHits<JourneyDocument> search(SearchRequestDto searchRequest, Pageable pageable) {
+        Map<String, Query> facetFilters = journeyQueryBuilder.buildFacetFilters(searchRequest);
+        NativeQueryBuilder query = NativeQuery.builder()
+                .withQuery(journeyQueryBuilder.buildBaseQuery(searchRequest))
+                .withPageable(pageable)
+                .withTrackTotalHits(true);
+        // Facet filters go in the post filter so the facet aggregations can leave their own filter out
+        if (!facetFilters.isEmpty()) {
+            List<Query> filters = List.copyOf(facetFilters.values());
+            query.withFilter(Query.of(q -> q.bool(b -> b.filter(filters))));
+        }
+        journeyFacetBuilder.build(searchRequest, facetFilters).forEach(query::withAggregation);
+        return elasticsearchOperations.search(query.build(), JourneyDocument.class);
+    }
+    
+    @Override
+    public SearchHits<JourneyDocument> searchAfter(SearchRequestDto searchRequest, Sort sort, int size,
+                                                   String pointInTimeId, List<Object> searchAfter, Duration keepAlive) {
+        // search_after always reads from the top, so the page costs the same however deep it is
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(journeyQueryBuilder.buildQuery(searchRequest))
+                .withPageable(PageRequest.of(0, size, sort))
+                .withSearchAfter(searchAfter)
+                .withPointInTime(new PointInTime(pointInTimeId, keepAlive))
+                .withTrackTotalHits(true)
+                .build();
+        return elasticsearchOperations.search(query, JourneyDocument.class);
+    }
+    
+    @Override
+    public SearchHits<JourneyDocument> scanActive(int size, String pointInTimeId, List<Object> searchAfter, Duration keepAlive) {
+        // _shard_doc is the cheapest order there is: no values to load, and unique within a point in time
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b.filter(f -> f.term(t -> t.field("isActive").value(true)))))
+                .withSort(s -> s.field(f -> f.field("_shard_doc")))
+                .withMaxResults(size)
+                .withSearchAfter(searchAfter)
+                .withPointInTime(new PointInTime(pointInTimeId, keepAlive))
+                .withTrackTotalHits(false)
+                .build();
+        return elasticsearchOperations.search(query, JourneyDocument.class);
+    }
+    
+    @Override
+    public String openPointInTime(Duration keepAlive) {
+        return elasticsearchOperations.openPointInTime(IndexCoordinates.of(JourneyIndexManager.ALIAS), keepAlive);
+    }
+    
+    @Override
+    public void closePointInTime(String pointInTimeId) {
+        elasticsearchOperations.closePointInTime(pointInTimeId);
+    }
+}
@@ -1,10 +1,14 @@
 package com.redbus.search.service;
 
 import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.CitySuggestionDto;
+import com.redbus.search.dto.PopularRouteDto;
 import com.redbus.search.dto.SearchRequestDto;
 import com.redbus.search.dto.SearchResponseDto;
 import org.springframework.data.domain.Page;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface SearchService {
@@ -15,19 +19,31 @@ public interface SearchService {
     SearchResponseDto searchJourneys(SearchRequestDto searchRequest);
     
     /**
-     * Get popular routes
+     * Write every active journey to the stream as newline-delimited JSON, one journey per line
      */
-    List<JourneyDocument> getPopularRoutes();
+    void exportJourneys(OutputStream out) throws IOException;
     
     /**
-     * Index a journey document
+     * Get one page of the most booked routes, best first
+     */
+    List<PopularRouteDto> getPopularRoutes(int page, int size);
+    
+    /**
+     * Suggest cities for a partially typed name, most connected first
+     */
+    List<CitySuggestionDto> suggestCities(String prefix, int limit);
+    
+    /**
+     * Index a journey document; without a change sequence the seat count already indexed is kept
      */
     void indexJourney(JourneyDocument journey);
     
     /**
-     * Update journey availability
+     * Update journey availability; applied asynchronously and ignored if a change with a newer sequence already landed
+     *
+     * @param sequence journey-service outbox sequence of the change that set the seat count
      */
-    void updateJourneyAvailability(String journeyId, Integer availableSeats);
+    void updateJourneyAvailability(String journeyId, Integer availableSeats, long sequence);
     
     /**
      * Delete journey from index
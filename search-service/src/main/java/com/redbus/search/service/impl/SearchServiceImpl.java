@@ -1,20 +1,49 @@
 package com.redbus.search.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redbus.common.exception.BusinessException;
+import com.redbus.search.autocomplete.CitySuggestionIndex;
+import com.redbus.search.cache.SearchResultCache;
 import com.redbus.search.document.JourneyDocument;
 import com.redbus.search.dto.*;
+import com.redbus.search.fallback.ElasticsearchCircuitBreaker;
+import com.redbus.search.fallback.InMemoryJourneyIndex;
+import com.redbus.search.fallback.InMemorySearchPage;
+import com.redbus.search.index.JourneyAvailabilityUpdater;
+import com.redbus.search.index.JourneyIndexManager;
+import com.redbus.search.index.JourneyReindexer;
+import com.redbus.search.index.JourneyUpdateQueries;
+import com.redbus.search.pagination.SearchCursor;
+import com.redbus.search.pagination.SearchCursorCodec;
+import com.redbus.search.popular.PopularRoutesLeaderboard;
+import com.redbus.search.repository.JourneyFacetBuilder;
+import com.redbus.search.repository.JourneyQueryBuilder;
 import com.redbus.search.repository.JourneySearchRepository;
 import com.redbus.search.service.SearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,7 +51,31 @@ import java.util.stream.Collectors;
 @Slf4j
 public class SearchServiceImpl implements SearchService {
     
+    /**
+     * Elasticsearch's default index.max_result_window; from/size paging cannot go past it
+     */
+    private static final int MAX_RESULT_WINDOW = 10_000;
+    
     private final JourneySearchRepository journeySearchRepository;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final JourneyQueryBuilder journeyQueryBuilder;
+    private final JourneyFacetBuilder journeyFacetBuilder;
+    private final JourneyReindexer journeyReindexer;
+    private final JourneyIndexManager journeyIndexManager;
+    private final JourneyAvailabilityUpdater journeyAvailabilityUpdater;
+    private final SearchResultCache searchResultCache;
+    private final PopularRoutesLeaderboard popularRoutesLeaderboard;
+    private final CitySuggestionIndex citySuggestionIndex;
+    private final SearchCursorCodec searchCursorCodec;
+    private final ObjectMapper objectMapper;
+    private final ElasticsearchCircuitBreaker elasticsearchCircuitBreaker;
+    private final Optional<InMemoryJourneyIndex> inMemoryJourneyIndex;
+    
+    @Value("${search.pagination.keep-alive-seconds:60}")
+    private long cursorKeepAliveSeconds;
+    
+    @Value("${search.export.batch-size:1000}")
+    private int exportBatchSize;
     
     @Override
     public SearchResponseDto searchJourneys(SearchRequestDto searchRequest) {
@@ -31,123 +84,230 @@ public class SearchServiceImpl implements SearchService {
                 searchRequest.getDestinationCity(), 
                 searchRequest.getTravelDate());
         
-        // Create date range for the travel date
-        LocalDateTime startOfDay = searchRequest.getTravelDate().atStartOfDay();
-        LocalDateTime endOfDay = searchRequest.getTravelDate().atTime(LocalTime.MAX);
+        if (!hasCursor(searchRequest)
+                && (long) (searchRequest.getPage() + 1) * searchRequest.getSize() > MAX_RESULT_WINDOW) {
+            throw new BusinessException("Pages past the first " + MAX_RESULT_WINDOW
+                    + " results can only be reached with the nextCursor of the previous page", "PAGE_TOO_DEEP");
+        }
+        ElasticsearchCircuitBreaker.Permit permit = elasticsearchCircuitBreaker.acquire();
+        if (permit == ElasticsearchCircuitBreaker.Permit.DENIED) {
+            return searchFallback(searchRequest, null);
+        }
+        try {
+            return permit == ElasticsearchCircuitBreaker.Permit.PROBE
+                    ? executeGuarded(searchRequest)
+                    : searchResultCache.get(searchRequest, () -> executeGuarded(searchRequest));
+        } catch (DataAccessException e) {
+            if (!isUnavailable(e)) {
+                throw e;
+            }
+            return searchFallback(searchRequest, e);
+        }
+    }
+    
+    /**
+     * Run the search on Elasticsearch and report how it went to the circuit breaker; any outcome but
+     * Elasticsearch being unavailable counts as it answering, bad requests and expired cursors included
+     */
+    private SearchResponseDto executeGuarded(SearchRequestDto searchRequest) {
+        long startedAt = System.nanoTime();
+        boolean unavailable = false;
+        try {
+            return hasCursor(searchRequest)
+                    ? executeCursorSearch(searchRequest)
+                    : executeSearch(searchRequest);
+        } catch (DataAccessException e) {
+            unavailable = isUnavailable(e);
+            throw e;
+        } finally {
+            if (unavailable) {
+                elasticsearchCircuitBreaker.recordFailure();
+            } else {
+                elasticsearchCircuitBreaker.recordSuccess((System.nanoTime() - startedAt) / 1_000_000);
+            }
+        }
+    }
+    
+    /**
+     * Serve the search from the in-memory index; results match Elasticsearch's but carry no facets,
+     * and are not cached since they may be a little behind
+     */
+    private SearchResponseDto searchFallback(SearchRequestDto searchRequest, DataAccessException cause) {
+        InMemoryJourneyIndex index = inMemoryJourneyIndex.orElseThrow(() -> new BusinessException(
+                "Search is temporarily unavailable, please retry shortly", "SEARCH_UNAVAILABLE",
+                HttpStatus.SERVICE_UNAVAILABLE, cause));
+        SearchCursor cursor = hasCursor(searchRequest)
+                ? searchCursorCodec.decode(searchRequest.getCursor(), searchRequest) : null;
+        log.debug("Serving search from the in-memory index", cause);
         
-        // Create pageable with sorting
-        Sort sort = Sort.by(
-                searchRequest.getSortOrder().equals("DESC") ? 
-                Sort.Direction.DESC : Sort.Direction.ASC,
-                searchRequest.getSortBy()
-        );
-        Pageable pageable = PageRequest.of(searchRequest.getPage(), searchRequest.getSize(), sort);
+        InMemorySearchPage result = index.search(searchRequest, journeyQueryBuilder.buildSort(searchRequest),
+                cursor != null ? cursor.searchAfter() : null);
+        int page = cursor != null ? cursor.page() : searchRequest.getPage();
+        return toResponse(searchRequest, result.journeys(), result.totalHits(), result.lastSortValues(), page, null)
+                .build();
+    }
+    
+    private SearchResponseDto executeSearch(SearchRequestDto searchRequest) {
+        // Hits, totals and facets all come back from the one query
+        Pageable pageable = PageRequest.of(searchRequest.getPage(), searchRequest.getSize(),
+                journeyQueryBuilder.buildSort(searchRequest));
+        SearchHits<JourneyDocument> hits = journeySearchRepository.search(searchRequest, pageable);
         
-        // Search journeys
-        Page<JourneyDocument> journeyPage = journeySearchRepository
-                .findBySourceCityAndDestinationCityAndDepartureTimeBetween(
-                        searchRequest.getSourceCity(),
-                        searchRequest.getDestinationCity(),
-                        startOfDay,
-                        endOfDay,
-                        pageable
-                );
+        return toResponse(searchRequest, hits, searchRequest.getPage(), null)
+                .facets(journeyFacetBuilder.parse(hits.getAggregations()))
+                .build();
+    }
+    
+    /**
+     * Follow a cursor with search_after; the first page runs without a point in time, so one is only
+     * opened once a client actually pages on, and kept alive by each page that uses it.
+     *
+     * Every point-in-time search sorts by an implicit {@code _shard_doc} tiebreaker as well, which
+     * the first page's sort values lack. The sort already breaks ties on journey code, so the largest
+     * possible {@code _shard_doc} places the first point-in-time page right after the last journey
+     * of the first page; later pages carry the tiebreaker's value in their own sort values.
+     */
+    private SearchResponseDto executeCursorSearch(SearchRequestDto searchRequest) {
+        SearchCursor cursor = searchCursorCodec.decode(searchRequest.getCursor(), searchRequest);
+        Duration keepAlive = Duration.ofSeconds(cursorKeepAliveSeconds);
+        String pointInTimeId = cursor.pointInTimeId();
+        List<Object> searchAfter = cursor.searchAfter();
+        if (pointInTimeId == null) {
+            pointInTimeId = journeySearchRepository.openPointInTime(keepAlive);
+            searchAfter = new ArrayList<>(searchAfter);
+            searchAfter.add(Long.MAX_VALUE);
+        }
         
-        // Apply additional filters if needed
-        List<JourneySearchResultDto> filteredJourneys = journeyPage.getContent().stream()
-                .filter(journey -> filterJourney(journey, searchRequest))
+        SearchHits<JourneyDocument> hits;
+        try {
+            hits = journeySearchRepository.searchAfter(searchRequest, journeyQueryBuilder.buildSort(searchRequest),
+                    searchRequest.getSize(), pointInTimeId, searchAfter, keepAlive);
+        } catch (UncategorizedElasticsearchException e) {
+            if (Integer.valueOf(HttpStatus.NOT_FOUND.value()).equals(e.getStatusCode())) {
+                throw new BusinessException("Search cursor has expired, start again from the first page",
+                        "CURSOR_EXPIRED", HttpStatus.GONE, e);
+            }
+            throw e;
+        }
+        
+        // Elasticsearch may hand back a new ID for the same point in time
+        String nextPointInTimeId = hits.getPointInTimeId() != null ? hits.getPointInTimeId() : pointInTimeId;
+        return toResponse(searchRequest, hits, cursor.page(), nextPointInTimeId).build();
+    }
+    
+    private SearchResponseDto.SearchResponseDtoBuilder toResponse(SearchRequestDto searchRequest,
+                                                                   SearchHits<JourneyDocument> hits,
+                                                                   int page, String pointInTimeId) {
+        List<SearchHit<JourneyDocument>> searchHits = hits.getSearchHits();
+        List<Object> lastSortValues = searchHits.isEmpty() ? null : searchHits.get(searchHits.size() - 1).getSortValues();
+        return toResponse(searchRequest,
+                searchHits.stream().map(SearchHit::getContent).collect(Collectors.toList()),
+                hits.getTotalHits(), lastSortValues, page, pointInTimeId);
+    }
+    
+    private SearchResponseDto.SearchResponseDtoBuilder toResponse(SearchRequestDto searchRequest,
+                                                                   List<JourneyDocument> documents,
+                                                                   long totalResults, List<Object> lastSortValues,
+                                                                   int page, String pointInTimeId) {
+        List<JourneySearchResultDto> journeys = documents.stream()
                 .map(this::toSearchResultDto)
                 .collect(Collectors.toList());
         
+        int size = searchRequest.getSize();
+        
+        String nextCursor = null;
+        if (lastSortValues != null && (long) (page + 1) * size < totalResults) {
+            nextCursor = searchCursorCodec.encode(SearchCursor.next(searchRequest, pointInTimeId, lastSortValues, page + 1));
+        }
+        
         // Build response
         return SearchResponseDto.builder()
-                .journeys(filteredJourneys)
-                .totalResults((int) journeyPage.getTotalElements())
-                .totalPages(journeyPage.getTotalPages())
-                .currentPage(searchRequest.getPage())
-                .pageSize(searchRequest.getSize())
+                .journeys(journeys)
+                .totalResults((int) totalResults)
+                .totalPages((int) ((totalResults + size - 1) / size))
+                .currentPage(page)
+                .pageSize(size)
                 .appliedFilters(buildAppliedFilters(searchRequest))
-                .build();
+                .nextCursor(nextCursor);
     }
     
     @Override
-    public List<JourneyDocument> getPopularRoutes() {
-        log.info("Fetching popular routes");
-        
-        // For now, return journeys with most available seats
-        return journeySearchRepository.findByAvailableSeatsGreaterThanAndIsActiveTrue(20);
+    public void exportJourneys(OutputStream out) throws IOException {
+        Duration keepAlive = Duration.ofSeconds(cursorKeepAliveSeconds);
+        String pointInTimeId = journeySearchRepository.openPointInTime(keepAlive);
+        long exported = 0;
+        try {
+            List<Object> searchAfter = null;
+            SearchHits<JourneyDocument> batch;
+            do {
+                batch = journeySearchRepository.scanActive(exportBatchSize, pointInTimeId, searchAfter, keepAlive);
+                for (SearchHit<JourneyDocument> hit : batch.getSearchHits()) {
+                    out.write(objectMapper.writeValueAsBytes(toSearchResultDto(hit.getContent())));
+                    out.write('\n');
+                    searchAfter = hit.getSortValues();
+                }
+                out.flush();
+                exported += batch.getSearchHits().size();
+                if (batch.getPointInTimeId() != null) {
+                    pointInTimeId = batch.getPointInTimeId();
+                }
+            } while (batch.getSearchHits().size() == exportBatchSize);
+        } finally {
+            journeySearchRepository.closePointInTime(pointInTimeId);
+        }
+        log.info("Exported {} journeys", exported);
+    }
+    
+    @Override
+    public List<PopularRouteDto> getPopularRoutes(int page, int size) {
+        return popularRoutesLeaderboard.page(page, size);
+    }
+    
+    @Override
+    public List<CitySuggestionDto> suggestCities(String prefix, int limit) {
+        return citySuggestionIndex.suggest(prefix, limit);
     }
     
     @Override
     public void indexJourney(JourneyDocument journey) {
         log.info("Indexing journey: {}", journey.getJourneyCode());
-        journeySearchRepository.save(journey);
+        if (journey.getId() == null) {
+            throw new BusinessException("Journey id is required");
+        }
+        journey.applyDerivedFields();
+        inMemoryJourneyIndex.ifPresent(index -> index.put(journey));
+        UpdateQuery upsert = JourneyUpdateQueries.upsert(journey.getId(),
+                elasticsearchOperations.getElasticsearchConverter().mapObject(journey), journey.getChangeSequence());
+        Set<String> routeKeys = new HashSet<>(journeyIndexManager.currentRouteKeys(List.of(journey.getId())).values());
+        journeyIndexManager.mirrorWrite(index -> elasticsearchOperations.update(upsert, index));
+        elasticsearchOperations.update(upsert, IndexCoordinates.of(JourneyIndexManager.ALIAS));
+        if (journey.getRouteKey() != null) {
+            routeKeys.add(journey.getRouteKey());
+        }
+        searchResultCache.invalidateRoutes(routeKeys);
     }
     
     @Override
-    public void updateJourneyAvailability(String journeyId, Integer availableSeats) {
-        log.info("Updating availability for journey {}: {} seats", journeyId, availableSeats);
-        
-        journeySearchRepository.findById(journeyId).ifPresent(journey -> {
-            journey.setAvailableSeats(availableSeats);
-            journey.setUpdatedAt(LocalDateTime.now());
-            journeySearchRepository.save(journey);
-        });
+    public void updateJourneyAvailability(String journeyId, Integer availableSeats, long sequence) {
+        log.debug("Queueing availability update for journey {}: {} seats", journeyId, availableSeats);
+        inMemoryJourneyIndex.ifPresent(index -> index.updateSeats(journeyId, availableSeats, sequence));
+        journeyAvailabilityUpdater.submit(journeyId, availableSeats, sequence);
     }
     
     @Override
     public void deleteJourney(String journeyId) {
         log.info("Deleting journey from index: {}", journeyId);
+        Collection<String> routeKeys = journeyIndexManager.currentRouteKeys(List.of(journeyId)).values();
+        inMemoryJourneyIndex.ifPresent(index -> index.remove(journeyId));
+        journeyIndexManager.mirrorDelete(journeyId);
         journeySearchRepository.deleteById(journeyId);
+        searchResultCache.invalidateRoutes(routeKeys);
     }
     
     @Override
     public void reindexAllJourneys() {
         log.info("Reindexing all journeys");
-        // This would typically fetch from Journey Service and reindex
-        // For now, just log
-        log.info("Reindexing would be implemented with Journey Service integration");
-    }
-    
-    private boolean filterJourney(JourneyDocument journey, SearchRequestDto request) {
-        // Check available seats
-        if (journey.getAvailableSeats() < request.getSeatsRequired()) {
-            return false;
-        }
-        
-        // Check max fare
-        if (request.getMaxFare() != null && journey.getBaseFare() > request.getMaxFare()) {
-            return false;
-        }
-        
-        // Check vehicle type
-        if (request.getVehicleType() != null && 
-            !journey.getVehicleType().equalsIgnoreCase(request.getVehicleType())) {
-            return false;
-        }
-        
-        // Check agency
-        if (request.getAgencyName() != null && 
-            !journey.getAgencyName().toLowerCase().contains(request.getAgencyName().toLowerCase())) {
-            return false;
-        }
-        
-        // Check AC
-        if (request.getAcOnly() != null && request.getAcOnly()) {
-            if (journey.getAmenities() == null || !journey.getAmenities().contains("AC")) {
-                return false;
-            }
-        }
-        
-        // Check sleeper
-        if (request.getSleeperOnly() != null && request.getSleeperOnly()) {
-            if (journey.getVehicleType() == null || 
-                !journey.getVehicleType().toLowerCase().contains("sleeper")) {
-                return false;
-            }
-        }
-        
-        return journey.getIsActive();
+        journeyReindexer.start();
     }
     
     private JourneySearchResultDto toSearchResultDto(JourneyDocument journey) {
@@ -172,6 +332,19 @@ public class SearchServiceImpl implements SearchService {
                 .build();
     }
     
+    /**
+     * Whether a failure means Elasticsearch is down or overloaded, rather than that the query was bad
+     */
+    private static boolean isUnavailable(DataAccessException e) {
+        return !(e instanceof UncategorizedElasticsearchException uncategorized)
+                || uncategorized.getStatusCode() == null
+                || uncategorized.getStatusCode() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+    }
+    
+    private static boolean hasCursor(SearchRequestDto request) {
+        return request.getCursor() != null && !request.getCursor().isBlank();
+    }
+    
     private SearchFiltersDto buildAppliedFilters(SearchRequestDto request) {
         return SearchFiltersDto.builder()
                 .sourceCity(request.getSourceCity())
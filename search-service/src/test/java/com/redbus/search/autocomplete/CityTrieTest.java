@@ -0,0 +1,67 @@
+package com.redbus.search.autocomplete;
+
+import com.redbus.search.dto.CitySuggestionDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CityTrieTest {
+
+    private final CityTrie trie = CityTrie.build(List.of(
+            city("Pune", 40),
+            city("Panaji", 12),
+            city("Patna", 25),
+            city("New Delhi", 90),
+            city("Delhi Cantonment", 3),
+            city("Bengaluru", 70)), 3);
+
+    @Test
+    void suggest_RanksMatchesByRouteCount() {
+        assertThat(trie.suggest("p", 10))
+                .extracting(CitySuggestionDto::getCity)
+                .containsExactly("Pune", "Patna", "Panaji");
+    }
+
+    @Test
+    void suggest_MatchesInnerWordsIgnoringCaseAccentsAndSpaces() {
+        assertThat(trie.suggest("  DÉL ", 10))
+                .extracting(CitySuggestionDto::getCity)
+                .containsExactly("New Delhi", "Delhi Cantonment");
+        assertThat(trie.suggest("new   del", 10))
+                .extracting(CitySuggestionDto::getCity)
+                .containsExactly("New Delhi");
+    }
+
+    @Test
+    void suggest_StopsAtTheLimitAndAtMaxSuggestions() {
+        assertThat(trie.suggest("pa", 1)).extracting(CitySuggestionDto::getCity).containsExactly("Patna");
+        // Only the best three are kept per node
+        assertThat(CityTrie.build(List.of(city("Aa", 1), city("Ab", 2), city("Ac", 3), city("Ad", 4)), 3)
+                .suggest("a", 10))
+                .extracting(CitySuggestionDto::getCity)
+                .containsExactly("Ad", "Ac", "Ab");
+    }
+
+    @Test
+    void suggest_IsEmptyForUnknownOrBlankPrefix() {
+        assertThat(trie.suggest("xyz", 10)).isEmpty();
+        assertThat(trie.suggest("  ", 10)).isEmpty();
+        assertThat(trie.suggest(null, 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_ReturnsAListThatCannotChangeTheTrie() {
+        List<CitySuggestionDto> suggestions = trie.suggest("p", 10);
+
+        assertThatThrownBy(() -> suggestions.set(0, city("Mumbai", 1)))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(trie.suggest("p", 10).get(0).getCity()).isEqualTo("Pune");
+    }
+
+    private static CitySuggestionDto city(String name, long routeCount) {
+        return CitySuggestionDto.builder().city(name).routeCount(routeCount).build();
+    }
+}
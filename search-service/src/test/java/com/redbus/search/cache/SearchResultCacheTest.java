@@ -0,0 +1,100 @@
+package com.redbus.search.cache;
+
+import com.redbus.search.dto.SearchRequestDto;
+import com.redbus.search.dto.SearchResponseDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchResultCacheTest {
+
+    private static final LocalDate TRAVEL_DATE = LocalDate.of(2030, 1, 7);
+    private static final String ROUTE_KEY = "pune|mumbai|2030-01-07";
+
+    private final SearchResultCache cache = new SearchResultCache(100, 60, 100);
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        cache.stop();
+    }
+
+    @Test
+    void get_TreatsEquivalentRequestsAsOneSearch() {
+        SearchRequestDto request = request(" Pune ", "MUMBAI");
+        request.setSortBy(null);
+        SearchRequestDto equivalent = request("pune", "mumbai");
+        equivalent.setSortBy("departureTime");
+        equivalent.setSortOrder("asc");
+
+        cache.get(request, this::query);
+        cache.get(equivalent, this::query);
+
+        assertThat(queries).hasValue(1);
+    }
+
+    @Test
+    void get_KeepsDifferentSortsApart() {
+        SearchRequestDto byFare = request("Pune", "Mumbai");
+        byFare.setSortBy("fare");
+
+        cache.get(request("Pune", "Mumbai"), this::query);
+        cache.get(byFare, this::query);
+
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    void get_DoesNotCacheFailedSearches() {
+        assertThatThrownBy(() -> cache.get(request("Pune", "Mumbai"), () -> {
+            throw new IllegalStateException("cluster unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        cache.get(request("Pune", "Mumbai"), this::query);
+
+        assertThat(queries).hasValue(1);
+    }
+
+    @Test
+    void invalidateRoutes_EvictsOnlyTheGivenRoutes() {
+        cache.get(request("Pune", "Mumbai"), this::query);
+        cache.get(request("Pune", "Goa"), this::query);
+
+        cache.invalidateRoutes(List.of(ROUTE_KEY));
+        cache.get(request("Pune", "Mumbai"), this::query);
+        cache.get(request("Pune", "Goa"), this::query);
+
+        assertThat(queries).hasValue(3);
+    }
+
+    @Test
+    void invalidateRoutes_EvictsAgainOncePagesCachedBeforeTheRefreshAreStale() throws InterruptedException {
+        cache.invalidateRoutes(List.of(ROUTE_KEY));
+        // Cached between the write and the index refresh, so it may still show the old documents
+        cache.get(request("Pune", "Mumbai"), this::query);
+
+        Thread.sleep(300);
+        cache.get(request("Pune", "Mumbai"), this::query);
+
+        assertThat(queries).hasValue(2);
+    }
+
+    private SearchResponseDto query() {
+        queries.incrementAndGet();
+        return new SearchResponseDto();
+    }
+
+    private static SearchRequestDto request(String sourceCity, String destinationCity) {
+        SearchRequestDto request = new SearchRequestDto();
+        request.setSourceCity(sourceCity);
+        request.setDestinationCity(destinationCity);
+        request.setTravelDate(TRAVEL_DATE);
+        return request;
+    }
+}
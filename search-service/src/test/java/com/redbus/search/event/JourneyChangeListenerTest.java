@@ -0,0 +1,168 @@
+package com.redbus.search.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.redbus.search.cache.SearchResultCache;
+import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.JourneyChangeEventDto;
+import com.redbus.search.dto.JourneyIndexDto;
+import com.redbus.search.index.JourneyDocumentMapper;
+import com.redbus.search.index.JourneyIndexManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JourneyChangeListenerTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2030, 1, 7, 22, 30);
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private JourneyDocumentMapper journeyDocumentMapper;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private JourneyIndexManager journeyIndexManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private JourneyChangeListener listener;
+
+    private final UUID journeyId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        listener = new JourneyChangeListener(elasticsearchOperations, journeyDocumentMapper, searchResultCache,
+                objectMapper, journeyIndexManager, Optional.empty());
+    }
+
+    @Test
+    void onJourneyChanges_SendsNewestSeatCountGuardedByItsSequence() throws Exception {
+        listener.onJourneyChanges(List.of(event("SEATS_CHANGED", 7L, 30), event("SEATS_CHANGED", 9L, 28),
+                event("SEATS_CHANGED", 8L, 29)));
+
+        UpdateQuery update = singleUpdate();
+        assertThat(update.getId()).isEqualTo(journeyId.toString());
+        assertThat(update.getScript()).contains("changeSequence >= params.sequence");
+        assertThat(update.getUpsert()).isNull();
+        assertThat(update.getParams()).containsEntry("sequence", 9L);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> changes = (Map<String, Object>) update.getParams().get("changes");
+        assertThat(changes).containsEntry("availableSeats", 28).containsEntry("changeSequence", 9L);
+        verify(searchResultCache).invalidateRoutes(Set.of("pune|mumbai|2030-01-07"));
+    }
+
+    @Test
+    void onJourneyChanges_UpsertsWholeDocumentForStructuralChange() throws Exception {
+        when(elasticsearchOperations.getElasticsearchConverter())
+                .thenReturn(new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext()));
+        when(journeyDocumentMapper.toDocument(any(), any())).thenAnswer(invocation -> {
+            JourneyIndexDto journey = invocation.getArgument(0);
+            JourneyDocument document = JourneyDocument.builder().id(journey.getReferenceId().toString())
+                    .sourceCity(journey.getSourceCity()).destinationCity(journey.getDestinationCity())
+                    .departureTime(journey.getDepartureTime()).availableSeats(journey.getAvailableSeats()).build();
+            document.applyDerivedFields();
+            return document;
+        });
+
+        listener.onJourneyChanges(List.of(event("SEATS_CHANGED", 4L, 30), event("RESCHEDULED", 5L, 30)));
+
+        UpdateQuery update = singleUpdate();
+        assertThat(update.getParams()).containsEntry("sequence", 5L);
+        assertThat(update.getUpsert()).isNotNull();
+        assertThat(update.getUpsert().get("changeSequence")).isEqualTo(5L);
+        assertThat(update.getUpsert().get("routeKey")).isEqualTo("pune|mumbai|2030-01-07");
+    }
+
+    @Test
+    void onJourneyChanges_EvictsRouteTheJourneyMovedAwayFrom() throws Exception {
+        when(elasticsearchOperations.getElasticsearchConverter())
+                .thenReturn(new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext()));
+        when(journeyDocumentMapper.toDocument(any(), any())).thenReturn(JourneyDocument.builder()
+                .id(journeyId.toString()).routeKey("pune|mumbai|2030-01-07").build());
+        when(journeyIndexManager.currentRouteKeys(Set.of(journeyId.toString())))
+                .thenReturn(Map.of(journeyId.toString(), "pune|mumbai|2030-01-06"));
+
+        listener.onJourneyChanges(List.of(event("RESCHEDULED", 5L, 30)));
+
+        verify(searchResultCache).invalidateRoutes(Set.of("pune|mumbai|2030-01-06", "pune|mumbai|2030-01-07"));
+    }
+
+    @Test
+    void onJourneyChanges_DeletesJourneyUnlessItHoldsANewerChange() throws Exception {
+        when(journeyIndexManager.currentRouteKeys(Set.of(journeyId.toString())))
+                .thenReturn(Map.of(journeyId.toString(), "pune|mumbai|2030-01-07"));
+        JourneyIndexDto deleted = new JourneyIndexDto();
+        deleted.setReferenceId(journeyId);
+
+        listener.onJourneyChanges(List.of(event("SEATS_CHANGED", 4L, 30), objectMapper.writeValueAsString(
+                new JourneyChangeEventDto("DELETED", 5L, LocalDateTime.now(), deleted))));
+
+        UpdateQuery update = singleUpdate();
+        assertThat(update.getId()).isEqualTo(journeyId.toString());
+        assertThat(update.getScript()).contains("ctx.op = 'delete'");
+        assertThat(update.getUpsert()).isNull();
+        assertThat(update.getParams()).containsEntry("sequence", 5L);
+        verify(searchResultCache).invalidateRoutes(Set.of("pune|mumbai|2030-01-07"));
+    }
+
+    @Test
+    void onJourneyChanges_MirrorsTheBatchIntoAnIndexBeingBuilt() throws Exception {
+        listener.onJourneyChanges(List.of(event("SEATS_CHANGED", 1L, 30)));
+
+        verify(journeyIndexManager).mirrorWrite(any());
+    }
+
+    @Test
+    void onJourneyChanges_IgnoresMalformedEvents() {
+        listener.onJourneyChanges(List.of("{not json", "{}"));
+
+        verifyNoInteractions(elasticsearchOperations, searchResultCache);
+    }
+
+    @SuppressWarnings("unchecked")
+    private UpdateQuery singleUpdate() {
+        ArgumentCaptor<List<UpdateQuery>> updates = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchOperations).bulkUpdate(updates.capture(), eq(IndexCoordinates.of(JourneyIndexManager.ALIAS)));
+        assertThat(updates.getValue()).hasSize(1);
+        return updates.getValue().get(0);
+    }
+
+    private String event(String changeType, long sequence, int availableSeats) throws JsonProcessingException {
+        JourneyIndexDto journey = new JourneyIndexDto();
+        journey.setReferenceId(journeyId);
+        journey.setSourceCity("Pune");
+        journey.setDestinationCity("Mumbai");
+        journey.setDepartureTime(DEPARTURE);
+        journey.setAvailableSeats(availableSeats);
+        return objectMapper.writeValueAsString(
+                new JourneyChangeEventDto(changeType, sequence, LocalDateTime.now(), journey));
+    }
+
+}
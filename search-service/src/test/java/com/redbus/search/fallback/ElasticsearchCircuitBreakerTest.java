@@ -0,0 +1,79 @@
+package com.redbus.search.fallback;
+
+import com.redbus.search.fallback.ElasticsearchCircuitBreaker.Permit;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ElasticsearchCircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 100;
+
+    private final ElasticsearchCircuitBreaker breaker = new ElasticsearchCircuitBreaker(3, OPEN_MILLIS, 1000);
+
+    @Test
+    void acquire_StaysClosedBelowTheFailureThreshold() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess(5);
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        assertThat(breaker.acquire()).isEqualTo(Permit.CLOSED);
+    }
+
+    @Test
+    void acquire_DeniesWhileOpen() {
+        open();
+
+        assertThat(breaker.acquire()).isEqualTo(Permit.DENIED);
+    }
+
+    @Test
+    void acquire_LetsOneProbeThroughOnceTheOpenPeriodIsOver() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_MILLIS + 50);
+
+        assertThat(breaker.acquire()).isEqualTo(Permit.PROBE);
+        assertThat(breaker.acquire()).isEqualTo(Permit.DENIED);
+    }
+
+    @Test
+    void recordSuccess_OfTheProbeClosesTheCircuit() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_MILLIS + 50);
+        breaker.acquire();
+
+        breaker.recordSuccess(5);
+
+        assertThat(breaker.acquire()).isEqualTo(Permit.CLOSED);
+    }
+
+    @Test
+    void recordFailure_OfTheProbeKeepsItOpenForAnotherPeriod() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_MILLIS + 50);
+        breaker.acquire();
+
+        breaker.recordFailure();
+
+        assertThat(breaker.acquire()).isEqualTo(Permit.DENIED);
+        Thread.sleep(OPEN_MILLIS + 50);
+        assertThat(breaker.acquire()).isEqualTo(Permit.PROBE);
+    }
+
+    @Test
+    void recordSuccess_CountsASlowCallAsAFailure() {
+        breaker.recordSuccess(1000);
+        breaker.recordSuccess(1500);
+        breaker.recordSuccess(2000);
+
+        assertThat(breaker.acquire()).isEqualTo(Permit.DENIED);
+    }
+
+    private void open() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordFailure();
+    }
+}
@@ -0,0 +1,174 @@
+package com.redbus.search.fallback;
+
+import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.SearchRequestDto;
+import com.redbus.search.repository.JourneyQueryBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JourneyColumnsTest {
+
+    private static final LocalDate TRAVEL_DATE = LocalDate.of(2030, 1, 7);
+
+    private final JourneyQueryBuilder queryBuilder = new JourneyQueryBuilder();
+
+    private final JourneyColumns columns = JourneyColumns.build(List.of(
+            journey("PM-05", 22, 900.0, 480, 12, "Orange Travels", "AC Sleeper", true),
+            journey("PM-01", 6, 500.0, 300, 30, "Neeta Tours", "Seater", true),
+            journey("PM-03", 9, 500.0, 360, 2, "Orange Travels", "AC Seater", true),
+            journey("PM-02", 9, 650.0, 300, 20, "Prasanna Purple", "Seater", false),
+            journey("PM-04", 14, 1200.0, 420, 18, "Neeta Tours", "ac sleeper", true),
+            journey("PM-06", 23, 700.0, 480, 40, "Orange Travels", "Seater", false),
+            inactive(journey("PM-07", 10, 400.0, 300, 40, "Neeta Tours", "Seater", true)),
+            otherDay(journey("PM-08", 10, 400.0, 300, 40, "Neeta Tours", "Seater", true))));
+
+    @Test
+    void search_DefaultSortIsDepartureThenJourneyCodeOverActiveJourneysOfTheDay() {
+        assertThat(codes(search(request(null, null)))).containsExactly("PM-01", "PM-02", "PM-03", "PM-04", "PM-05", "PM-06");
+    }
+
+    @Test
+    void search_AppliesEveryFilterLikeTheQuery() {
+        SearchRequestDto request = request(null, null);
+        request.setSeatsRequired(3);
+        request.setMaxFare(1000.0);
+        assertThat(codes(search(request))).containsExactly("PM-01", "PM-02", "PM-05", "PM-06");
+
+        request = request(null, null);
+        request.setVehicleType(" AC SLEEPER ");
+        assertThat(codes(search(request))).containsExactly("PM-04", "PM-05");
+
+        request = request(null, null);
+        request.setAgencyName("orange");
+        request.setAcOnly(true);
+        assertThat(codes(search(request))).containsExactly("PM-03", "PM-05");
+
+        request = request(null, null);
+        request.setSleeperOnly(true);
+        assertThat(codes(search(request))).containsExactly("PM-04", "PM-05");
+    }
+
+    @Test
+    void search_SortsByEveryFieldWithJourneyCodeBreakingTies() {
+        assertThat(codes(search(request("fare", "ASC")))).containsExactly("PM-01", "PM-03", "PM-02", "PM-06", "PM-05", "PM-04");
+        assertThat(codes(search(request("fare", "DESC")))).containsExactly("PM-04", "PM-05", "PM-06", "PM-02", "PM-01", "PM-03");
+        assertThat(codes(search(request("duration", "ASC")))).containsExactly("PM-01", "PM-02", "PM-03", "PM-04", "PM-05", "PM-06");
+        assertThat(codes(search(request("departureTime", "DESC")))).containsExactly("PM-06", "PM-05", "PM-04", "PM-02", "PM-03", "PM-01");
+    }
+
+    @Test
+    void search_ReturnsSortValuesInTheShapeElasticsearchDoes() {
+        SearchRequestDto request = request(null, null);
+        request.setSize(1);
+
+        InMemorySearchPage page = search(request);
+
+        assertThat(page.totalHits()).isEqualTo(6);
+        assertThat(page.lastSortValues()).containsExactly(
+                TRAVEL_DATE.atTime(6, 0).toInstant(ZoneOffset.UTC).toEpochMilli(), "PM-01");
+        assertThat(search(request("fare", "ASC")).lastSortValues()).containsExactly(1200.0, "PM-04");
+    }
+
+    @Test
+    void search_PagingBySortValuesMatchesPagingByNumber() {
+        for (String sortBy : List.of("departureTime", "fare", "duration", "availableSeats")) {
+            for (String sortOrder : List.of("ASC", "DESC")) {
+                SearchRequestDto request = request(sortBy, sortOrder);
+                request.setSize(2);
+                List<String> byNumber = new ArrayList<>();
+                List<String> bySortValues = new ArrayList<>();
+                List<Object> searchAfter = null;
+                for (int page = 0; page < 3; page++) {
+                    request.setPage(page);
+                    byNumber.addAll(codes(search(request)));
+                    InMemorySearchPage next = columns.search(request, queryBuilder.buildSort(request), searchAfter);
+                    bySortValues.addAll(codes(next));
+                    searchAfter = next.lastSortValues();
+                }
+                assertThat(bySortValues).as(sortBy + " " + sortOrder).isEqualTo(byNumber).hasSize(6);
+            }
+        }
+    }
+
+    @Test
+    void search_IgnoresThePointInTimeTiebreakerOfAnElasticsearchCursor() {
+        SearchRequestDto request = request("fare", "ASC");
+        request.setSize(2);
+        // Two journeys share the fare of 500; the cursor sits between them
+        List<Object> searchAfter = List.of(500.0, "PM-01", 4_294_967_301L);
+
+        assertThat(codes(columns.search(request, queryBuilder.buildSort(request), searchAfter)))
+                .containsExactly("PM-03", "PM-02");
+    }
+
+    @Test
+    void updateSeats_ShowsInTheNextSearchWithoutRebuilding() {
+        SearchRequestDto request = request("availableSeats", "DESC");
+        request.setSeatsRequired(5);
+
+        columns.updateSeats("PM-03", 50);
+        InMemorySearchPage page = search(request);
+
+        assertThat(codes(page).get(0)).isEqualTo("PM-03");
+        assertThat(page.journeys().get(0).getAvailableSeats()).isEqualTo(50);
+        assertThat(page.lastSortValues()).containsExactly(12L, "PM-05");
+    }
+
+    private InMemorySearchPage search(SearchRequestDto request) {
+        return columns.search(request, queryBuilder.buildSort(request), null);
+    }
+
+    private static List<String> codes(InMemorySearchPage page) {
+        return page.journeys().stream().map(JourneyDocument::getJourneyCode).toList();
+    }
+
+    private static SearchRequestDto request(String sortBy, String sortOrder) {
+        SearchRequestDto request = new SearchRequestDto();
+        request.setSourceCity("Pune");
+        request.setDestinationCity("Mumbai");
+        request.setTravelDate(TRAVEL_DATE);
+        request.setSortBy(sortBy);
+        request.setSortOrder(sortOrder);
+        return request;
+    }
+
+    private static JourneyDocument journey(String code, int hour, double fare, int duration, int seats,
+                                           String agency, String vehicleType, boolean ac) {
+        LocalDateTime departure = TRAVEL_DATE.atTime(hour, 0);
+        JourneyDocument document = JourneyDocument.builder()
+                .id(code)
+                .journeyCode(code)
+                .sourceCity("Pune")
+                .destinationCity("Mumbai")
+                .departureTime(departure)
+                .arrivalTime(departure.plusMinutes(duration))
+                .durationMinutes(duration)
+                .baseFare(fare)
+                .availableSeats(seats)
+                .agencyName(agency)
+                .vehicleType(vehicleType)
+                .amenities(ac ? List.of("AC", "WiFi") : List.of("WiFi"))
+                .isActive(true)
+                .build();
+        document.applyDerivedFields();
+        return document;
+    }
+
+    private static JourneyDocument inactive(JourneyDocument document) {
+        document.setIsActive(false);
+        return document;
+    }
+
+    private static JourneyDocument otherDay(JourneyDocument document) {
+        document.setDepartureTime(document.getDepartureTime().plusDays(1));
+        document.applyDerivedFields();
+        return document;
+    }
+}
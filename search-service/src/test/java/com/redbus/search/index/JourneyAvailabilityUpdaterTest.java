@@ -0,0 +1,131 @@
+package com.redbus.search.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.BulkFailureException.FailureDetails;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.ScriptType;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JourneyAvailabilityUpdaterTest {
+
+    private static final IndexCoordinates ALIAS = IndexCoordinates.of(JourneyIndexManager.ALIAS);
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private JourneyIndexManager journeyIndexManager;
+
+    private JourneyAvailabilityUpdater updater;
+
+    @BeforeEach
+    void setUp() {
+        updater = new JourneyAvailabilityUpdater(elasticsearchOperations, journeyIndexManager, 50, 1000);
+    }
+
+    @Test
+    void flush_SendsNewestSeatCountPerJourneyInOneBulk() {
+        updater.submit("a", 30, 7);
+        updater.submit("a", 28, 9);
+        updater.submit("a", 29, 8);
+        updater.submit("b", 10, 3);
+
+        updater.flush();
+
+        Map<String, UpdateQuery> sent = sentBatches().get(0);
+        assertThat(sent).containsOnlyKeys("a", "b");
+        UpdateQuery update = sent.get("a");
+        assertThat(update.getScriptType()).isEqualTo(ScriptType.INLINE);
+        assertThat(update.getScript()).contains("changeSequence >= params.sequence");
+        assertThat(update.getParams()).containsEntry("sequence", 9L);
+        assertThat(changes(update)).containsEntry("availableSeats", 28).containsEntry("changeSequence", 9L);
+        verify(journeyIndexManager).mirrorWrite(any());
+    }
+
+    @Test
+    void flush_RequeuesFailedUpdatesButNotMissingJourneys() {
+        doThrow(new BulkFailureException("partial failure", Map.of(
+                "a", new FailureDetails(429, "rejected"),
+                "b", new FailureDetails(404, "document missing"))))
+                .doNothing()
+                .when(elasticsearchOperations).bulkUpdate(any(), eq(ALIAS));
+        updater.submit("a", 30, 1);
+        updater.submit("b", 20, 1);
+
+        updater.flush();
+        updater.flush();
+
+        List<Map<String, UpdateQuery>> batches = sentBatches();
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(1)).containsOnlyKeys("a");
+    }
+
+    @Test
+    void flush_NewerSubmissionWinsOverRetriedUpdate() {
+        doAnswer(invocation -> {
+            updater.submit("a", 25, 10);
+            throw new IllegalStateException("cluster unavailable");
+        }).doNothing().when(elasticsearchOperations).bulkUpdate(any(), eq(ALIAS));
+        updater.submit("a", 30, 4);
+
+        updater.flush();
+        updater.flush();
+
+        UpdateQuery retried = sentBatches().get(1).get("a");
+        assertThat(retried.getParams()).containsEntry("sequence", 10L);
+        assertThat(changes(retried)).containsEntry("availableSeats", 25);
+    }
+
+    @Test
+    void flush_DoesNothingWhenNothingIsPending() {
+        updater.flush();
+
+        verifyNoInteractions(elasticsearchOperations, journeyIndexManager);
+    }
+
+    @Test
+    void failuresToRetry_SkipsOnlyMissingDocuments() {
+        Map<String, FailureDetails> failures = new HashMap<>();
+        failures.put("missing", new FailureDetails(404, "document missing"));
+        failures.put("conflict", new FailureDetails(409, "version conflict"));
+        failures.put("unknown", new FailureDetails(null, "no status"));
+
+        assertThat(JourneyAvailabilityUpdater.failuresToRetry(new BulkFailureException("failed", failures)))
+                .containsExactlyInAnyOrder("conflict", "unknown");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, UpdateQuery>> sentBatches() {
+        ArgumentCaptor<List<UpdateQuery>> batches = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchOperations, atLeastOnce()).bulkUpdate(batches.capture(), eq(ALIAS));
+        return batches.getAllValues().stream()
+                .map(batch -> {
+                    Map<String, UpdateQuery> byId = new HashMap<>();
+                    batch.forEach(update -> byId.put(update.getId(), update));
+                    return byId;
+                })
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> changes(UpdateQuery update) {
+        return (Map<String, Object>) update.getParams().get("changes");
+    }
+}
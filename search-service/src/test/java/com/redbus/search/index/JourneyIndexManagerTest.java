@@ -0,0 +1,99 @@
+package com.redbus.search.index;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JourneyIndexManagerTest {
+
+    private static final String NEW_INDEX = "journeys_v3_20300107000000";
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    private JourneyIndexManager manager;
+
+    private final List<String> mirrored = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        manager = new JourneyIndexManager(elasticsearchOperations, elasticsearchClient);
+    }
+
+    @Test
+    void mirrorWrite_DoesNothingOutsideARebuild() {
+        manager.mirrorWrite(index -> mirrored.add(index.getIndexName()));
+        manager.mirrorDelete("j1");
+
+        assertThat(mirrored).isEmpty();
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    void mirrorWrite_WritesIntoIndexBeingBuiltUntilMirroringStops() {
+        manager.startMirroring(NEW_INDEX);
+        manager.mirrorWrite(index -> mirrored.add(index.getIndexName()));
+        manager.stopMirroring();
+        manager.mirrorWrite(index -> mirrored.add(index.getIndexName()));
+
+        assertThat(mirrored).containsExactly(NEW_INDEX);
+    }
+
+    @Test
+    void completeMirroring_IgnoresUpdatesOfDocumentsNotCopiedYet() {
+        manager.startMirroring(NEW_INDEX);
+        manager.mirrorWrite(index -> {
+            throw bulkFailure(404);
+        });
+
+        manager.completeMirroring(NEW_INDEX);
+    }
+
+    @Test
+    void completeMirroring_FailsWhenAMirroredWriteWasLost() {
+        manager.startMirroring(NEW_INDEX);
+        manager.mirrorWrite(index -> {
+            throw bulkFailure(429);
+        });
+
+        assertThatThrownBy(() -> manager.completeMirroring(NEW_INDEX)).isInstanceOf(IllegalStateException.class);
+
+        // A new rebuild starts clean
+        manager.startMirroring(NEW_INDEX);
+        manager.completeMirroring(NEW_INDEX);
+    }
+
+    @Test
+    void completeMirroring_ReappliesDeletesTheCopyMayHaveUndone() {
+        manager.startMirroring(NEW_INDEX);
+        manager.mirrorDelete("j1");
+        verify(elasticsearchOperations).delete("j1", IndexCoordinates.of(NEW_INDEX));
+
+        manager.completeMirroring(NEW_INDEX);
+
+        verify(elasticsearchOperations, times(2)).delete("j1", IndexCoordinates.of(NEW_INDEX));
+    }
+
+    private static BulkFailureException bulkFailure(int status) {
+        return new BulkFailureException("bulk failed",
+                Map.of("j1", new BulkFailureException.FailureDetails(status, "failed")));
+    }
+}
@@ -0,0 +1,120 @@
+package com.redbus.search.index;
+
+import com.redbus.search.client.JourneyServiceClient;
+import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.JourneyIndexDto;
+import com.redbus.search.dto.JourneyIndexPageDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JourneyReindexerTest {
+
+    private static final String NEW_INDEX = "journeys_v3_20300107000000";
+    private static final List<String> OLD_INDICES = List.of("journeys_v3_20300101000000");
+
+    @Mock
+    private JourneyServiceClient journeyServiceClient;
+
+    @Mock
+    private JourneyDocumentMapper journeyDocumentMapper;
+
+    @Mock
+    private JourneyIndexManager journeyIndexManager;
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private JourneyReindexer reindexer;
+
+    @BeforeEach
+    void setUp() {
+        reindexer = new JourneyReindexer(journeyServiceClient, journeyDocumentMapper, journeyIndexManager,
+                elasticsearchOperations, 2, 2);
+        when(journeyIndexManager.currentIndices()).thenReturn(OLD_INDICES);
+        when(journeyIndexManager.createIndex()).thenReturn(NEW_INDEX);
+        when(journeyDocumentMapper.toDocument(any(), any())).thenAnswer(invocation -> {
+            JourneyIndexDto journey = invocation.getArgument(0);
+            return JourneyDocument.builder().id(journey.getReferenceId().toString()).build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        reindexer.stop();
+    }
+
+    @Test
+    void reindexAll_MirrorsLiveWritesFromBeforeTheLoadUntilAfterTheSwap() {
+        when(journeyServiceClient.exportJourneys(null, 2)).thenReturn(page(2L, journey(), journey()));
+        when(journeyServiceClient.exportJourneys(2L, 2)).thenReturn(page(null, journey()));
+
+        reindexer.reindexAll();
+
+        InOrder order = inOrder(journeyIndexManager, journeyServiceClient);
+        order.verify(journeyIndexManager).startMirroring(NEW_INDEX);
+        order.verify(journeyServiceClient).exportJourneys(null, 2);
+        order.verify(journeyIndexManager).copyUpdatedSince(eq(OLD_INDICES), eq(NEW_INDEX), any());
+        order.verify(journeyIndexManager).completeMirroring(NEW_INDEX);
+        order.verify(journeyIndexManager).swapAlias(NEW_INDEX, OLD_INDICES);
+        order.verify(journeyIndexManager).stopMirroring();
+        verify(elasticsearchOperations, times(2)).bulkIndex(argThat((List<IndexQuery> batch) ->
+                batch.stream().allMatch(query -> query.getOpType() == IndexQuery.OpType.CREATE)),
+                eq(IndexCoordinates.of(NEW_INDEX)));
+    }
+
+    @Test
+    void reindexAll_KeepsDocumentsAlreadyWrittenByTheMirror() {
+        when(journeyServiceClient.exportJourneys(null, 2)).thenReturn(page(null, journey()));
+        when(elasticsearchOperations.bulkIndex(anyList(), any(IndexCoordinates.class))).thenThrow(
+                new BulkFailureException("conflict", Map.of("j1", new BulkFailureException.FailureDetails(409, "exists"))));
+
+        reindexer.reindexAll();
+
+        verify(journeyIndexManager).swapAlias(NEW_INDEX, OLD_INDICES);
+    }
+
+    @Test
+    void reindexAll_DropsNewIndexWhenMirroredWritesWereLost() {
+        when(journeyServiceClient.exportJourneys(null, 2)).thenReturn(page(null, journey()));
+        doThrow(new IllegalStateException("lost writes")).when(journeyIndexManager).completeMirroring(NEW_INDEX);
+
+        assertThatThrownBy(() -> reindexer.reindexAll()).hasMessage("lost writes");
+
+        InOrder order = inOrder(journeyIndexManager);
+        order.verify(journeyIndexManager).stopMirroring();
+        order.verify(journeyIndexManager).deleteIndex(NEW_INDEX);
+        verify(journeyIndexManager, never()).swapAlias(any(), any());
+    }
+
+    private static JourneyIndexPageDto page(Long nextCursor, JourneyIndexDto... journeys) {
+        JourneyIndexPageDto page = new JourneyIndexPageDto();
+        page.setJourneys(List.of(journeys));
+        page.setNextCursor(nextCursor);
+        return page;
+    }
+
+    private static JourneyIndexDto journey() {
+        JourneyIndexDto journey = new JourneyIndexDto();
+        journey.setReferenceId(UUID.randomUUID());
+        return journey;
+    }
+}
@@ -0,0 +1,81 @@
+package com.redbus.search.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redbus.common.exception.BusinessException;
+import com.redbus.search.dto.SearchRequestDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchCursorCodecTest {
+
+    private final SearchCursorCodec codec = new SearchCursorCodec(new ObjectMapper());
+
+    @Test
+    void decode_ReadsBackWhatWasEncoded() {
+        SearchCursor cursor = SearchCursor.next(request("Pune", "departureTime"), "pit-1",
+                List.of(1893974400000L, "PM-101", 4_294_967_338L), 3);
+
+        SearchCursor decoded = codec.decode(codec.encode(cursor), request("Pune", "departureTime"));
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.routeKey()).isEqualTo("pune|mumbai|2030-01-07");
+        assertThat(decoded.sort()).isEqualTo("departureTime:ASC");
+    }
+
+    @Test
+    void decode_AcceptsTheSameSearchSpelledDifferently() {
+        String cursor = codec.encode(SearchCursor.next(request("Pune", null), null, List.of(1L, "PM-101"), 1));
+
+        assertThat(codec.decode(cursor, request(" pune ", "departureTime")).page()).isEqualTo(1);
+    }
+
+    @Test
+    void decode_RejectsCursorOfAnotherRoute() {
+        String cursor = codec.encode(SearchCursor.next(request("Pune", "fare"), null, List.of(500.0, "PM-101"), 1));
+
+        assertInvalid(() -> codec.decode(cursor, request("Nashik", "fare")));
+    }
+
+    @Test
+    void decode_RejectsCursorOfAnotherSort() {
+        String cursor = codec.encode(SearchCursor.next(request("Pune", "fare"), null, List.of(500.0, "PM-101"), 1));
+        SearchRequestDto descending = request("Pune", "fare");
+        descending.setSortOrder("DESC");
+
+        assertInvalid(() -> codec.decode(cursor, request("Pune", "duration")));
+        assertInvalid(() -> codec.decode(cursor, descending));
+    }
+
+    @Test
+    void decode_RejectsMalformedCursors() {
+        SearchRequestDto request = request("Pune", "departureTime");
+        String withoutSortValues = codec.encode(SearchCursor.next(request, null, List.of(), 1));
+        String firstPage = codec.encode(SearchCursor.next(request, null, List.of(1L, "PM-101"), 0));
+
+        assertInvalid(() -> codec.decode("not a cursor!", request));
+        assertInvalid(() -> codec.decode(Base64.getUrlEncoder().encodeToString("{\"page\":".getBytes()), request));
+        assertInvalid(() -> codec.decode(withoutSortValues, request));
+        assertInvalid(() -> codec.decode(firstPage, request));
+    }
+
+    private static void assertInvalid(Runnable decode) {
+        assertThatThrownBy(decode::run)
+                .isInstanceOf(BusinessException.class)
+                .extracting("code").isEqualTo("INVALID_CURSOR");
+    }
+
+    private static SearchRequestDto request(String sourceCity, String sortBy) {
+        SearchRequestDto request = new SearchRequestDto();
+        request.setSourceCity(sourceCity);
+        request.setDestinationCity("Mumbai");
+        request.setTravelDate(LocalDate.of(2030, 1, 7));
+        request.setSortBy(sortBy);
+        return request;
+    }
+}
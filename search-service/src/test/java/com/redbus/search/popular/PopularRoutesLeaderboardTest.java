@@ -0,0 +1,84 @@
+package com.redbus.search.popular;
+
+import com.redbus.search.dto.PopularRouteDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class PopularRoutesLeaderboardTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final PopularRoutesLeaderboard leaderboard = new PopularRoutesLeaderboard(14, 3, 2, 30000);
+
+    @Test
+    void refresh_RanksRoutesByDecayedBookings() {
+        leaderboard.record("Pune", "Mumbai", TODAY.minusDays(6), 10);
+        leaderboard.record("Pune", "Goa", TODAY, 4);
+
+        leaderboard.refresh();
+
+        // Ten seats two half-lives ago weigh 2.5, less than four seats today
+        assertThat(leaderboard.page(0, 10))
+                .extracting(PopularRouteDto::getDestinationCity, PopularRouteDto::getRecentBookings)
+                .containsExactly(tuple("Goa", 4L), tuple("Mumbai", 10L));
+        assertThat(leaderboard.page(0, 10).get(1).getScore()).isEqualTo(2.5);
+    }
+
+    @Test
+    void record_CountsCityNamesDifferingOnlyInCaseAsOneRoute() {
+        leaderboard.record("Pune", "Mumbai", TODAY, 2);
+        leaderboard.record(" pune ", "MUMBAI", TODAY.minusDays(1), 3);
+
+        leaderboard.refresh();
+
+        assertThat(leaderboard.page(0, 10))
+                .extracting(PopularRouteDto::getSourceCity, PopularRouteDto::getRecentBookings)
+                .containsExactly(tuple("Pune", 5L));
+    }
+
+    @Test
+    void record_IgnoresBookingsOutsideTheWindowAndEmptyBookings() {
+        leaderboard.record("Pune", "Mumbai", TODAY.minusDays(14), 5);
+        leaderboard.record("Pune", "Goa", TODAY, 0);
+        leaderboard.record(null, "Goa", TODAY, 1);
+
+        leaderboard.refresh();
+
+        assertThat(leaderboard.page(0, 10)).isEmpty();
+    }
+
+    @Test
+    void refresh_KeepsOnlyTheTopRoutes() {
+        leaderboard.record("Pune", "Mumbai", TODAY, 3);
+        leaderboard.record("Pune", "Goa", TODAY, 1);
+        leaderboard.record("Pune", "Nashik", TODAY, 2);
+
+        leaderboard.refresh();
+
+        assertThat(leaderboard.page(0, 10))
+                .extracting(PopularRouteDto::getDestinationCity)
+                .containsExactly("Mumbai", "Nashik");
+    }
+
+    @Test
+    void page_SlicesTheRankingAndIsEmptyPastTheEnd() {
+        leaderboard.record("Pune", "Mumbai", TODAY, 3);
+        leaderboard.record("Pune", "Goa", TODAY, 1);
+
+        leaderboard.refresh();
+
+        assertThat(leaderboard.page(1, 1)).extracting(PopularRouteDto::getDestinationCity).containsExactly("Goa");
+        assertThat(leaderboard.page(2, 1)).isEmpty();
+    }
+
+    @Test
+    void page_IsEmptyUntilFirstRefresh() {
+        leaderboard.record("Pune", "Mumbai", TODAY, 3);
+
+        assertThat(leaderboard.page(0, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,115 @@
+package com.redbus.search.repository;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.HistogramBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.RangeBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import com.redbus.search.dto.FacetBucketDto;
+import com.redbus.search.dto.SearchFacetsDto;
+import com.redbus.search.dto.SearchRequestDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class JourneyFacetBuilderTest {
+
+    private final JourneyQueryBuilder queryBuilder = new JourneyQueryBuilder();
+    private final JourneyFacetBuilder facetBuilder = new JourneyFacetBuilder();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(facetBuilder, "fareInterval", 500.0);
+    }
+
+    @Test
+    void build_TermFacetsAggregateTheUnnormalizedSubfields() {
+        Map<String, Aggregation> aggregations = facetBuilder.build(request(), Map.of());
+
+        assertThat(facet(aggregations, "vehicleTypes").terms().field()).isEqualTo("vehicleType.raw");
+        assertThat(facet(aggregations, "agencies").terms().field()).isEqualTo("agencyName.raw");
+        assertThat(aggregations.get("vehicleTypes").filter().isMatchAll()).isTrue();
+    }
+
+    @Test
+    void build_EachFacetAppliesEveryOtherSelectedFilter() {
+        SearchRequestDto request = request();
+        request.setVehicleType("AC Sleeper");
+        request.setAgencyName("Orange Travels");
+        request.setAcOnly(true);
+
+        Map<String, Aggregation> aggregations = facetBuilder.build(request, queryBuilder.buildFacetFilters(request));
+
+        assertThat(aggregations.get("vehicleTypes").filter().bool().filter()).hasSize(2)
+                .noneMatch(filter -> filter.isTerm() && filter.term().field().startsWith("vehicleType"));
+        assertThat(aggregations.get("agencies").filter().bool().filter()).hasSize(2);
+        assertThat(aggregations.get("departureSlots").filter().bool().filter()).hasSize(3);
+    }
+
+    @Test
+    void build_DepartureSlotsCoverTheTravelDay() {
+        var ranges = facet(facetBuilder.build(request(), Map.of()), "departureSlots").dateRange().ranges();
+
+        assertThat(ranges).extracting(range -> range.key()).containsExactly("early_morning", "morning", "afternoon", "evening");
+        assertThat(ranges.get(0).from().expr()).isEqualTo("2030-01-07T00:00:00");
+        assertThat(ranges.get(3).to().expr()).isEqualTo("2030-01-08T00:00:00");
+    }
+
+    @Test
+    void parse_ReadsEveryFacetKeepingLabelsAsIndexed() {
+        ElasticsearchAggregations aggregations = new ElasticsearchAggregations(Map.of(
+                "fares", scoped(Aggregate.of(a -> a.histogram(h -> h.buckets(b -> b.array(List.of(
+                        HistogramBucket.of(bucket -> bucket.key(500.0).docCount(4)))))))),
+                "vehicleTypes", scoped(terms("AC Sleeper", 3)),
+                "agencies", scoped(terms("Orange Travels", 2)),
+                "departureSlots", scoped(Aggregate.of(a -> a.dateRange(d -> d.buckets(b -> b.array(List.of(
+                        RangeBucket.of(bucket -> bucket.key("evening").from(1.0).to(2.0).docCount(5)))))))),
+                "ac", scoped(Aggregate.of(a -> a.filter(f -> f.docCount(6)))),
+                "sleeper", scoped(Aggregate.of(a -> a.filter(f -> f.docCount(1))))));
+
+        SearchFacetsDto facets = facetBuilder.parse(aggregations);
+
+        assertThat(facets.getFareRanges()).extracting(FacetBucketDto::getKey, FacetBucketDto::getFrom, FacetBucketDto::getTo,
+                FacetBucketDto::getCount).containsExactly(tuple("500", 500.0, 1000.0, 4L));
+        assertThat(facets.getVehicleTypes()).extracting(FacetBucketDto::getKey).containsExactly("AC Sleeper");
+        assertThat(facets.getAgencies()).extracting(FacetBucketDto::getKey, FacetBucketDto::getCount)
+                .containsExactly(tuple("Orange Travels", 2L));
+        assertThat(facets.getDepartureSlots()).extracting(FacetBucketDto::getKey).containsExactly("evening");
+        assertThat(facets.getAcCount()).isEqualTo(6);
+        assertThat(facets.getSleeperCount()).isEqualTo(1);
+    }
+
+    @Test
+    void parse_IsNullWithoutAggregations() {
+        assertThat(facetBuilder.parse(null)).isNull();
+    }
+
+    private static Aggregation facet(Map<String, Aggregation> aggregations, String name) {
+        return aggregations.get(name).aggregations().get("values");
+    }
+
+    private static Aggregate scoped(Aggregate values) {
+        return Aggregate.of(a -> a.filter(f -> f.docCount(10).aggregations("values", values)));
+    }
+
+    private static Aggregate terms(String key, long count) {
+        return Aggregate.of(a -> a.sterms(t -> t.sumOtherDocCount(0L).buckets(b -> b.array(List.of(
+                StringTermsBucket.of(bucket -> bucket.key(key).docCount(count)))))));
+    }
+
+    private static SearchRequestDto request() {
+        SearchRequestDto request = new SearchRequestDto();
+        request.setSourceCity("Pune");
+        request.setDestinationCity("Mumbai");
+        request.setTravelDate(LocalDate.of(2030, 1, 7));
+        return request;
+    }
+}
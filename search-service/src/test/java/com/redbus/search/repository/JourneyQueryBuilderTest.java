@@ -0,0 +1,91 @@
+package com.redbus.search.repository;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.redbus.search.dto.SearchRequestDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JourneyQueryBuilderTest {
+
+    private final JourneyQueryBuilder builder = new JourneyQueryBuilder();
+
+    @Test
+    void buildBaseQuery_FiltersOnRouteKeySeatsAndActive() {
+        SearchRequestDto request = request();
+        request.setSeatsRequired(3);
+
+        List<Query> filters = builder.buildBaseQuery(request).bool().filter();
+
+        assertThat(filters).hasSize(3);
+        assertThat(filters.get(0).term().field()).isEqualTo("routeKey");
+        assertThat(filters.get(0).term().value().stringValue()).isEqualTo("pune|mumbai|2030-01-07");
+        assertThat(filters.get(1).range().number().field()).isEqualTo("availableSeats");
+        assertThat(filters.get(1).range().number().gte()).isEqualTo(3.0);
+        assertThat(filters.get(2).term().field()).isEqualTo("isActive");
+        assertThat(filters.get(2).term().value().booleanValue()).isTrue();
+    }
+
+    @Test
+    void buildFacetFilters_OnlyIncludesCriteriaTheRequestSets() {
+        SearchRequestDto request = request();
+        assertThat(builder.buildFacetFilters(request)).isEmpty();
+
+        request.setMaxFare(800.0);
+        request.setVehicleType("  AC Sleeper ");
+        request.setAgencyName("Orange Travels");
+        request.setAcOnly(true);
+        request.setSleeperOnly(false);
+
+        Map<String, Query> filters = builder.buildFacetFilters(request);
+
+        assertThat(filters).containsOnlyKeys(JourneyQueryBuilder.FARE_FILTER, JourneyQueryBuilder.VEHICLE_TYPE_FILTER,
+                JourneyQueryBuilder.AGENCY_FILTER, JourneyQueryBuilder.AC_FILTER);
+        assertThat(filters.get(JourneyQueryBuilder.FARE_FILTER).range().number().lte()).isEqualTo(800.0);
+        assertThat(filters.get(JourneyQueryBuilder.VEHICLE_TYPE_FILTER).term().value().stringValue())
+                .isEqualTo("AC Sleeper");
+        assertThat(filters.get(JourneyQueryBuilder.AGENCY_FILTER).match().query().stringValue())
+                .isEqualTo("Orange Travels");
+    }
+
+    @Test
+    void buildQuery_CombinesBaseQueryAndEveryFacetFilter() {
+        SearchRequestDto request = request();
+        request.setSleeperOnly(true);
+        request.setMaxFare(500.0);
+
+        List<Query> filters = builder.buildQuery(request).bool().filter();
+
+        assertThat(filters).hasSize(3);
+        assertThat(filters.get(0).isBool()).isTrue();
+        assertThat(filters.get(2).term().field()).isEqualTo("sleeper");
+    }
+
+    @Test
+    void buildSort_MapsApiNamesAndBreaksTiesOnJourneyCode() {
+        SearchRequestDto request = request();
+        request.setSortBy("fare");
+        request.setSortOrder("desc");
+
+        assertThat(builder.buildSort(request)).containsExactly(
+                Sort.Order.desc("baseFare"), Sort.Order.asc("journeyCode"));
+
+        request.setSortBy("unknown");
+        request.setSortOrder(null);
+        assertThat(builder.buildSort(request)).containsExactly(
+                Sort.Order.asc("departureTime"), Sort.Order.asc("journeyCode"));
+    }
+
+    private static SearchRequestDto request() {
+        SearchRequestDto request = new SearchRequestDto();
+        request.setSourceCity(" Pune");
+        request.setDestinationCity("MUMBAI ");
+        request.setTravelDate(LocalDate.of(2030, 1, 7));
+        return request;
+    }
+}
@@ -0,0 +1,210 @@
+package com.redbus.search.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redbus.common.exception.BusinessException;
+import com.redbus.search.autocomplete.CitySuggestionIndex;
+import com.redbus.search.cache.SearchResultCache;
+import com.redbus.search.document.JourneyDocument;
+import com.redbus.search.dto.SearchRequestDto;
+import com.redbus.search.dto.SearchResponseDto;
+import com.redbus.search.fallback.ElasticsearchCircuitBreaker;
+import com.redbus.search.index.JourneyAvailabilityUpdater;
+import com.redbus.search.index.JourneyIndexManager;
+import com.redbus.search.index.JourneyReindexer;
+import com.redbus.search.pagination.SearchCursor;
+import com.redbus.search.pagination.SearchCursorCodec;
+import com.redbus.search.popular.PopularRoutesLeaderboard;
+import com.redbus.search.repository.JourneyFacetBuilder;
+import com.redbus.search.repository.JourneyQueryBuilder;
+import com.redbus.search.repository.JourneySearchRepository;
+import com.redbus.search.service.impl.SearchServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    private static final long DEPARTURE_MILLIS = 1_893_974_400_000L;
+    private static final long OPEN_MILLIS = 100;
+
+    @Mock
+    private JourneySearchRepository journeySearchRepository;
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private JourneyFacetBuilder journeyFacetBuilder;
+
+    @Mock
+    private JourneyReindexer journeyReindexer;
+
+    @Mock
+    private JourneyIndexManager journeyIndexManager;
+
+    @Mock
+    private JourneyAvailabilityUpdater journeyAvailabilityUpdater;
+
+    @Mock
+    private PopularRoutesLeaderboard popularRoutesLeaderboard;
+
+    @Mock
+    private CitySuggestionIndex citySuggestionIndex;
+
+    private final SearchResultCache searchResultCache = new SearchResultCache(100, 60, 1000);
+    private final SearchCursorCodec searchCursorCodec = new SearchCursorCodec(new ObjectMapper());
+    private final ElasticsearchCircuitBreaker circuitBreaker = new ElasticsearchCircuitBreaker(2, OPEN_MILLIS, 2000);
+
+    private SearchServiceImpl searchService;
+
+    @BeforeEach
+    void setUp() {
+        searchService = new SearchServiceImpl(journeySearchRepository, elasticsearchOperations, new JourneyQueryBuilder(),
+                journeyFacetBuilder, journeyReindexer, journeyIndexManager, journeyAvailabilityUpdater, searchResultCache,
+                popularRoutesLeaderboard, citySuggestionIndex, searchCursorCodec, new ObjectMapper(),
+                circuitBreaker, Optional.empty());
+        ReflectionTestUtils.setField(searchService, "cursorKeepAliveSeconds", 60L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchResultCache.stop();
+    }
+
+    @Test
+    void searchJourneys_FirstCursorPageOpensPointInTimeAfterTheLastJourneyShown() {
+        SearchRequestDto request = request(cursor(null, List.of(DEPARTURE_MILLIS, "PM-101"), 1));
+        when(journeySearchRepository.openPointInTime(Duration.ofSeconds(60))).thenReturn("pit-1");
+        SearchHits<JourneyDocument> hits = hits("pit-2", List.of(DEPARTURE_MILLIS + 60_000, "PM-120", 4_294_967_301L));
+        when(journeySearchRepository.searchAfter(eq(request), any(), eq(2), eq("pit-1"), any(), any())).thenReturn(hits);
+
+        SearchResponseDto response = searchService.searchJourneys(request);
+
+        // The first page ran without a point in time, so its sort values get the largest _shard_doc
+        verify(journeySearchRepository).searchAfter(eq(request), any(), eq(2), eq("pit-1"),
+                eq(List.of(DEPARTURE_MILLIS, "PM-101", Long.MAX_VALUE)), any());
+        SearchCursor next = searchCursorCodec.decode(response.getNextCursor(), request);
+        assertThat(next.pointInTimeId()).isEqualTo("pit-2");
+        assertThat(next.searchAfter()).containsExactly(DEPARTURE_MILLIS + 60_000, "PM-120", 4_294_967_301L);
+        assertThat(next.page()).isEqualTo(2);
+        assertThat(response.getCurrentPage()).isEqualTo(1);
+    }
+
+    @Test
+    void searchJourneys_LaterCursorPageReusesThePointInTime() {
+        List<Object> searchAfter = List.of(DEPARTURE_MILLIS, "PM-120", 4_294_967_301L);
+        SearchRequestDto request = request(cursor("pit-2", searchAfter, 2));
+        SearchHits<JourneyDocument> hits = hits(null, List.of(DEPARTURE_MILLIS + 120_000, "PM-140", 4_294_967_302L));
+        when(journeySearchRepository.searchAfter(eq(request), any(), eq(2), eq("pit-2"), eq(searchAfter), any()))
+                .thenReturn(hits);
+
+        SearchResponseDto response = searchService.searchJourneys(request);
+
+        verify(journeySearchRepository, never()).openPointInTime(any());
+        assertThat(searchCursorCodec.decode(response.getNextCursor(), request).pointInTimeId()).isEqualTo("pit-2");
+    }
+
+    @Test
+    void searchJourneys_RejectsCursorIssuedForAnotherSort() {
+        SearchRequestDto request = request(cursor("pit-2", List.of(DEPARTURE_MILLIS, "PM-120", 1L), 2));
+        request.setSortBy("fare");
+
+        assertThatThrownBy(() -> searchService.searchJourneys(request))
+                .isInstanceOf(BusinessException.class)
+                .extracting("code").isEqualTo("INVALID_CURSOR");
+        verifyNoInteractions(journeySearchRepository);
+    }
+
+    @Test
+    void searchJourneys_ReportsAnExpiredPointInTime() {
+        SearchRequestDto request = request(cursor("pit-2", List.of(DEPARTURE_MILLIS, "PM-120", 1L), 2));
+        when(journeySearchRepository.searchAfter(any(), any(), anyInt(), any(), any(), any()))
+                .thenThrow(new UncategorizedElasticsearchException("no such context", 404, null, null));
+
+        assertThatThrownBy(() -> searchService.searchJourneys(request))
+                .isInstanceOf(BusinessException.class)
+                .extracting("code", "status").containsExactly("CURSOR_EXPIRED", HttpStatus.GONE);
+    }
+
+    @Test
+    void searchJourneys_ProbeSkipsTheCacheAndClosesTheCircuit() throws InterruptedException {
+        SearchRequestDto request = request(null);
+        SearchHits<JourneyDocument> hits = hits(null, List.of(DEPARTURE_MILLIS, "PM-101"));
+        when(journeySearchRepository.search(eq(request), any())).thenReturn(hits);
+        searchService.searchJourneys(request);
+        openCircuit();
+
+        searchService.searchJourneys(request);
+
+        // A cached page would leave the probe unanswered and the circuit stuck half-open
+        verify(journeySearchRepository, times(2)).search(eq(request), any());
+        assertThat(circuitBreaker.acquire()).isEqualTo(ElasticsearchCircuitBreaker.Permit.CLOSED);
+    }
+
+    @Test
+    void searchJourneys_ProbeThatEndsInAnExpiredCursorStillClosesTheCircuit() throws InterruptedException {
+        SearchRequestDto request = request(cursor("pit-2", List.of(DEPARTURE_MILLIS, "PM-120", 1L), 2));
+        when(journeySearchRepository.searchAfter(any(), any(), anyInt(), any(), any(), any()))
+                .thenThrow(new UncategorizedElasticsearchException("no such context", 404, null, null));
+        openCircuit();
+
+        assertThatThrownBy(() -> searchService.searchJourneys(request))
+                .isInstanceOf(BusinessException.class)
+                .extracting("code").isEqualTo("CURSOR_EXPIRED");
+        assertThat(circuitBreaker.acquire()).isEqualTo(ElasticsearchCircuitBreaker.Permit.CLOSED);
+    }
+
+    private void openCircuit() throws InterruptedException {
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        Thread.sleep(OPEN_MILLIS + 50);
+    }
+
+    private String cursor(String pointInTimeId, List<Object> searchAfter, int page) {
+        return searchCursorCodec.encode(SearchCursor.next(request(null), pointInTimeId, searchAfter, page));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SearchHits<JourneyDocument> hits(String pointInTimeId, List<Object> lastSortValues) {
+        SearchHit<JourneyDocument> hit = mock(SearchHit.class);
+        when(hit.getContent()).thenReturn(JourneyDocument.builder().journeyCode("PM-1").build());
+        when(hit.getSortValues()).thenReturn(lastSortValues);
+        SearchHits<JourneyDocument> hits = mock(SearchHits.class);
+        when(hits.getSearchHits()).thenReturn(List.of(hit, hit));
+        when(hits.getTotalHits()).thenReturn(10L);
+        lenient().when(hits.getPointInTimeId()).thenReturn(pointInTimeId);
+        return hits;
+    }
+
+    private static SearchRequestDto request(String cursor) {
+        SearchRequestDto request = new SearchRequestDto();
+        request.setSourceCity("Pune");
+        request.setDestinationCity("Mumbai");
+        request.setTravelDate(LocalDate.of(2030, 1, 7));
+        request.setSize(2);
+        request.setCursor(cursor);
+        return request;
+    }
+}